@@ -1,7 +1,6 @@
 package com.hm.achievement.advancement;
 
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -60,7 +59,7 @@ public class AdvancementManager implements Reloadable {
 	private final CommentedYamlConfiguration guiConfig;
 	private final AdvancedAchievements advancedAchievements;
 	private final Logger logger;
-	private final Map<String, List<Long>> sortedThresholds;
+	private final Map<String, long[]> sortedThresholds;
 	private final Set<Category> disabledCategories;
 	private final MaterialHelper materialHelper;
 	private final int serverVersion;
@@ -75,7 +74,7 @@ public class AdvancementManager implements Reloadable {
 	@Inject
 	public AdvancementManager(@Named("main") CommentedYamlConfiguration mainConfig,
 			@Named("gui") CommentedYamlConfiguration guiConfig, AdvancedAchievements advancedAchievements, Logger logger,
-			Map<String, List<Long>> sortedThresholds, Set<Category> disabledCategories, MaterialHelper materialHelper,
+			Map<String, long[]> sortedThresholds, Set<Category> disabledCategories, MaterialHelper materialHelper,
 			int serverVersion) {
 		this.mainConfig = mainConfig;
 		this.guiConfig = guiConfig;
@@ -201,13 +200,13 @@ public class AdvancementManager implements Reloadable {
 			return;
 		}
 
-		List<Long> orderedThresholds = subcategory.isEmpty() ? sortedThresholds.get(category.toString())
+		long[] orderedThresholds = subcategory.isEmpty() ? sortedThresholds.get(category.toString())
 				: sortedThresholds.get(category + subcategory);
 		String parentKey = ADVANCED_ACHIEVEMENTS_PARENT;
 		// Advancements are registered as a branch with increasing threshold values.
-		for (int i = 0; i < orderedThresholds.size(); ++i) {
-			boolean last = (i == orderedThresholds.size() - 1);
-			parentKey = registerAdvancement(category, category + subcategory + "." + orderedThresholds.get(i), parentKey,
+		for (int i = 0; i < orderedThresholds.length; ++i) {
+			boolean last = (i == orderedThresholds.length - 1);
+			parentKey = registerAdvancement(category, category + subcategory + "." + orderedThresholds[i], parentKey,
 					last);
 		}
 	}
@@ -91,7 +91,7 @@ public class AdvancedAchievementsBukkitAPI implements AdvancedAchievementsAPI {
 		validateNotEmpty(achievementName, "Achievement Name");
 		// Underlying structures do not support concurrent operations and are only used by the main server thread. Not
 		// thread-safe to modify or read them asynchronously. Do not use cached data if player is offline.
-		if (Bukkit.isPrimaryThread() && isPlayerOnline(player)) {
+		if (Bukkit.isPrimaryThread() && isPlayerOnline(player) && cacheManager.hasLoadedReceivedAchievements(player)) {
 			return cacheManager.hasPlayerAchievement(player, achievementName);
 		} else {
 			return databaseManager.hasPlayerAchievement(player, achievementName);
@@ -108,8 +108,8 @@ public class AdvancedAchievementsBukkitAPI implements AdvancedAchievementsAPI {
 	@Override
 	public int getPlayerTotalAchievements(UUID player) {
 		validateNotNull(player, "Player");
-		// Only use cached data if player is online.
-		if (isPlayerOnline(player)) {
+		// Only use cached data if player is online and the data is loaded.
+		if (isPlayerOnline(player) && cacheManager.hasLoadedReceivedAchievements(player)) {
 			return cacheManager.getPlayerTotalAchievements(player);
 		} else {
 			return databaseManager.getPlayerAchievementsAmount(player);
@@ -142,12 +142,14 @@ public class AdvancedAchievementsBukkitAPI implements AdvancedAchievementsAPI {
 		validateNotNull(player, "Player");
 		validateNotNull(category, "Category");
 		// Underlying structures do not support concurrent write operations and are only modified by the main server
-		// thread. Do not use cache if player is offline.
+		// thread. Do not use cache if player is offline or if the statistic is not loaded yet.
 		if (Bukkit.isPrimaryThread() && isPlayerOnline(player)) {
-			return cacheManager.getAndIncrementStatisticAmount(category, player, 0);
-		} else {
-			return databaseManager.getNormalAchievementAmount(player, category);
+			Long amount = cacheManager.getCachedStatisticAmount(category, player);
+			if (amount != null) {
+				return amount;
+			}
 		}
+		return databaseManager.getNormalAchievementAmount(player, category);
 	}
 
 	@Override
@@ -156,12 +158,14 @@ public class AdvancedAchievementsBukkitAPI implements AdvancedAchievementsAPI {
 		validateNotNull(category, "Category");
 		validateNotEmpty(subcategory, "Sub-category");
 		// Underlying structures do not support concurrent write operations and are only modified by the main server
-		// thread. Do not use cache if player is offline.
+		// thread. Do not use cache if player is offline or if the statistic is not loaded yet.
 		if (Bukkit.isPrimaryThread() && isPlayerOnline(player)) {
-			return cacheManager.getAndIncrementStatisticAmount(category, subcategory, player, 0);
-		} else {
-			return databaseManager.getMultipleAchievementAmount(player, category, subcategory);
+			Long amount = cacheManager.getCachedStatisticAmount(category, subcategory, player);
+			if (amount != null) {
+				return amount;
+			}
 		}
+		return databaseManager.getMultipleAchievementAmount(player, category, subcategory);
 	}
 
 	@Override
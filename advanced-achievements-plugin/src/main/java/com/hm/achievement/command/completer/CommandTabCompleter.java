@@ -19,7 +19,11 @@ import org.bukkit.command.TabCompleter;
 import com.hm.achievement.category.CommandAchievements;
 import com.hm.achievement.command.executable.AbstractCommand;
 import com.hm.achievement.command.executable.CommandSpec;
+import com.hm.achievement.command.executable.ExportCommand;
 import com.hm.achievement.command.executable.GenerateCommand;
+import com.hm.achievement.command.executable.ImportCommand;
+import com.hm.achievement.command.executable.MetricsCommand;
+import com.hm.achievement.command.executable.RebuildTotalsCommand;
 import com.hm.achievement.command.executable.Upgrade13Command;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
 
@@ -51,7 +55,8 @@ public class CommandTabCompleter implements TabCompleter {
 		this.enabledCategoriesWithSubcategories = enabledCategoriesWithSubcategories;
 		this.serverVersion = serverVersion;
 		this.commandSpecs = commands.stream()
-				.filter(c -> !(c instanceof Upgrade13Command
+				.filter(c -> !(c instanceof Upgrade13Command || c instanceof RebuildTotalsCommand
+						|| c instanceof ExportCommand || c instanceof ImportCommand || c instanceof MetricsCommand
 						|| serverVersion < 12 && c instanceof GenerateCommand))
 				.map(c -> c.getClass().getAnnotation(CommandSpec.class))
 				.collect(Collectors.toSet());
@@ -5,6 +5,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.lang.LangHelper;
 import com.hm.achievement.lang.command.CmdLang;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
@@ -18,6 +19,7 @@ import com.hm.mcshared.file.CommentedYamlConfiguration;
 public abstract class AbstractParsableCommand extends AbstractCommand {
 
 	private String langPlayerOffline;
+	private String langAchievementsLoading;
 
 	AbstractParsableCommand(CommentedYamlConfiguration mainConfig, CommentedYamlConfiguration langConfig,
 			StringBuilder pluginHeader) {
@@ -29,6 +31,7 @@ public abstract class AbstractParsableCommand extends AbstractCommand {
 		super.extractConfigurationParameters();
 
 		langPlayerOffline = LangHelper.get(CmdLang.PLAYER_OFFLINE, langConfig);
+		langAchievementsLoading = LangHelper.get(CmdLang.ACHIEVEMENTS_LOADING, langConfig);
 	}
 
 	/**
@@ -55,6 +58,23 @@ public abstract class AbstractParsableCommand extends AbstractCommand {
 		onExecuteForPlayer(sender, args, player);
 	}
 
+	/**
+	 * Checks whether the achievements received by a player are loaded, and informs the sender otherwise. They are
+	 * unknown whilst loading, for instance if the player has just joined.
+	 *
+	 * @param sender
+	 * @param player
+	 * @param cacheManager
+	 * @return true if the received achievements are loaded, false otherwise
+	 */
+	boolean checkReceivedAchievementsLoaded(CommandSender sender, Player player, CacheManager cacheManager) {
+		if (cacheManager.hasLoadedReceivedAchievements(player.getUniqueId())) {
+			return true;
+		}
+		sender.sendMessage(pluginHeader + StringUtils.replaceOnce(langAchievementsLoading, "PLAYER", player.getName()));
+		return false;
+	}
+
 	/**
 	 * Extracts the name of the achievement from the command line arguments.
 	 *
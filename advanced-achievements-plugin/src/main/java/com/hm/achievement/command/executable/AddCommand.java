@@ -67,15 +67,16 @@ public class AddCommand extends AbstractParsableCommand {
 		if (enabledCategoriesWithSubcategories.contains(args[2])) {
 			if (args[2].contains(".")) {
 				MultipleAchievements category = MultipleAchievements.getByName(StringUtils.substringBefore(args[2], "."));
-				long amount = cacheManager.getAndIncrementStatisticAmount(category, StringUtils.substringAfter(args[2], "."),
-						player.getUniqueId(), valueToAdd);
-				statisticIncreaseHandler.checkThresholdsAndAchievements(player, args[2], amount);
+				cacheManager.incrementStatisticAmount(category, StringUtils.substringAfter(args[2], "."),
+						player.getUniqueId(), valueToAdd, statistic -> statisticIncreaseHandler
+								.checkThresholdsAndAchievements(player, args[2], statistic.getValue(), statistic));
 				sender.sendMessage(StringUtils.replaceEach(langStatisticIncreased,
 						new String[] { "ACH", "AMOUNT", "PLAYER" }, new String[] { args[2], args[1], args[3] }));
 			} else if (!NormalAchievements.CONNECTIONS.toString().equals(args[2])) {
 				NormalAchievements category = NormalAchievements.getByName(args[2]);
-				long amount = cacheManager.getAndIncrementStatisticAmount(category, player.getUniqueId(), valueToAdd);
-				statisticIncreaseHandler.checkThresholdsAndAchievements(player, category.toString(), amount);
+				cacheManager.incrementStatisticAmount(category, player.getUniqueId(), valueToAdd,
+						statistic -> statisticIncreaseHandler.checkThresholdsAndAchievements(player,
+								category.toString(), statistic.getValue(), statistic));
 				sender.sendMessage(StringUtils.replaceEach(langStatisticIncreased,
 						new String[] { "ACH", "AMOUNT", "PLAYER" }, new String[] { args[2], args[1], args[3] }));
 			}
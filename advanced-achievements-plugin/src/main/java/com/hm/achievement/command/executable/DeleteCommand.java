@@ -48,6 +48,9 @@ public class DeleteCommand extends AbstractParsableCommand {
 
 	@Override
 	void onExecuteForPlayer(CommandSender sender, String[] args, Player player) {
+		if (!checkReceivedAchievementsLoaded(sender, player, cacheManager)) {
+			return;
+		}
 		String achievementName = parseAchievementName(args);
 
 		// Check if achievement exists in database and display message accordingly; if received, delete it.
@@ -0,0 +1,51 @@
+package com.hm.achievement.command.executable;
+
+import java.io.File;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.bukkit.command.CommandSender;
+
+import com.hm.achievement.AdvancedAchievements;
+import com.hm.achievement.db.DatabaseTransfer;
+import com.hm.mcshared.file.CommentedYamlConfiguration;
+
+/**
+ * Class in charge of handling the /aach export command, which writes the contents of the database to files in the
+ * export folder of the plugin, so that they can be imported in another database.
+ *
+ * @author Pyves
+ */
+@Singleton
+@CommandSpec(name = "export", permission = "*", minArgs = 1, maxArgs = 1)
+public class ExportCommand extends AbstractCommand {
+
+	private final AdvancedAchievements advancedAchievements;
+	private final DatabaseTransfer databaseTransfer;
+
+	@Inject
+	public ExportCommand(@Named("main") CommentedYamlConfiguration mainConfig,
+			@Named("lang") CommentedYamlConfiguration langConfig, StringBuilder pluginHeader,
+			AdvancedAchievements advancedAchievements, DatabaseTransfer databaseTransfer) {
+		super(mainConfig, langConfig, pluginHeader);
+		this.advancedAchievements = advancedAchievements;
+		this.databaseTransfer = databaseTransfer;
+	}
+
+	@Override
+	void onExecute(CommandSender sender, String[] args) {
+		File directory = new File(advancedAchievements.getDataFolder(), "export");
+		sender.sendMessage(pluginHeader + "Exporting the database to " + directory + ", please wait...");
+		advancedAchievements.getServer().getScheduler().runTaskAsynchronously(advancedAchievements, () -> {
+			long rows = databaseTransfer.exportTables(directory, message -> sender.sendMessage(pluginHeader + message));
+			if (rows < 0) {
+				sender.sendMessage(pluginHeader + "The database could not be exported, see the server logs.");
+			} else {
+				sender.sendMessage(pluginHeader + "Database export completed, " + rows + " rows were exported.");
+			}
+		});
+	}
+
+}
@@ -1,5 +1,7 @@
 package com.hm.achievement.command.executable;
 
+import java.util.Map;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -10,6 +12,7 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
 import com.hm.achievement.category.CommandAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.lang.LangHelper;
 import com.hm.achievement.lang.command.CmdLang;
@@ -29,6 +32,7 @@ public class GiveCommand extends AbstractParsableCommand {
 
 	private final CacheManager cacheManager;
 	private final RewardParser rewardParser;
+	private final Map<String, AchievementDefinition> achievementDefinitions;
 
 	private boolean configMultiCommand;
 	private String langAchievementAlreadyReceived;
@@ -38,10 +42,11 @@ public class GiveCommand extends AbstractParsableCommand {
 	@Inject
 	public GiveCommand(@Named("main") CommentedYamlConfiguration mainConfig,
 			@Named("lang") CommentedYamlConfiguration langConfig, StringBuilder pluginHeader, CacheManager cacheManager,
-			RewardParser rewardParser) {
+			RewardParser rewardParser, Map<String, AchievementDefinition> achievementDefinitions) {
 		super(mainConfig, langConfig, pluginHeader);
 		this.cacheManager = cacheManager;
 		this.rewardParser = rewardParser;
+		this.achievementDefinitions = achievementDefinitions;
 	}
 
 	@Override
@@ -57,28 +62,29 @@ public class GiveCommand extends AbstractParsableCommand {
 
 	@Override
 	void onExecuteForPlayer(CommandSender sender, String[] args, Player player) {
-		String achievementPath = CommandAchievements.COMMANDS + "." + args[1];
+		AchievementDefinition achievement = achievementDefinitions.get(CommandAchievements.COMMANDS + "." + args[1]);
 
-		if (mainConfig.contains(achievementPath)) {
+		if (achievement != null) {
+			if (!checkReceivedAchievementsLoaded(sender, player, cacheManager)) {
+				return;
+			}
 			// Check whether player has already received achievement and cannot receive it again.
-			String achievementName = mainConfig.getString(achievementPath + ".Name");
-			if (!configMultiCommand && cacheManager.hasPlayerAchievement(player.getUniqueId(), achievementName)) {
+			if (!configMultiCommand && cacheManager.hasPlayerAchievement(player.getUniqueId(), achievement.getName())) {
 				sender.sendMessage(StringUtils.replaceOnce(langAchievementAlreadyReceived, "PLAYER", args[2]));
 				return;
 			}
 
-			String rewardPath = achievementPath + ".Reward";
 			// Fire achievement event.
 			PlayerAdvancedAchievementEventBuilder playerAdvancedAchievementEventBuilder = new PlayerAdvancedAchievementEventBuilder()
-					.player(player).name(achievementName).displayName(mainConfig.getString(achievementPath + ".DisplayName"))
-					.message(mainConfig.getString(achievementPath + ".Message"))
-					.commandRewards(rewardParser.getCommandRewards(rewardPath, player))
-					.commandMessage(rewardParser.getCustomCommandMessages(rewardPath))
-					.itemReward(rewardParser.getItemReward(rewardPath))
-					.moneyReward(rewardParser.getRewardAmount(rewardPath, "Money"))
-					.experienceReward(rewardParser.getRewardAmount(rewardPath, "Experience"))
-					.maxHealthReward(rewardParser.getRewardAmount(rewardPath, "IncreaseMaxHealth"))
-					.maxOxygenReward(rewardParser.getRewardAmount(rewardPath, "IncreaseMaxOxygen"));
+					.player(player).name(achievement.getName()).displayName(achievement.getDisplayName())
+					.message(achievement.getMessage())
+					.commandRewards(rewardParser.formatCommandRewards(achievement.getCommandRewards(), player))
+					.commandMessage(achievement.getCommandMessages())
+					.itemReward(achievement.getItemReward())
+					.moneyReward(achievement.getMoneyReward())
+					.experienceReward(achievement.getExperienceReward())
+					.maxHealthReward(achievement.getMaxHealthReward())
+					.maxOxygenReward(achievement.getMaxOxygenReward());
 
 			Bukkit.getPluginManager().callEvent(playerAdvancedAchievementEventBuilder.build());
 
@@ -0,0 +1,74 @@
+package com.hm.achievement.command.executable;
+
+import java.io.File;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+
+import com.hm.achievement.AdvancedAchievements;
+import com.hm.achievement.db.AbstractDatabaseManager;
+import com.hm.achievement.db.AsyncCachedRequestsSender;
+import com.hm.achievement.db.CacheManager;
+import com.hm.achievement.db.DatabaseTransfer;
+import com.hm.mcshared.file.CommentedYamlConfiguration;
+
+/**
+ * Class in charge of handling the /aach import command, which replaces the contents of the database by the files
+ * previously written to the export folder of the plugin, for instance by a server using another database type.
+ *
+ * @author Pyves
+ */
+@Singleton
+@CommandSpec(name = "import", permission = "*", minArgs = 1, maxArgs = 1)
+public class ImportCommand extends AbstractCommand {
+
+	private final AdvancedAchievements advancedAchievements;
+	private final DatabaseTransfer databaseTransfer;
+	private final AsyncCachedRequestsSender asyncCachedRequestsSender;
+	private final AbstractDatabaseManager databaseManager;
+	private final CacheManager cacheManager;
+
+	@Inject
+	public ImportCommand(@Named("main") CommentedYamlConfiguration mainConfig,
+			@Named("lang") CommentedYamlConfiguration langConfig, StringBuilder pluginHeader,
+			AdvancedAchievements advancedAchievements, DatabaseTransfer databaseTransfer,
+			AsyncCachedRequestsSender asyncCachedRequestsSender, AbstractDatabaseManager databaseManager,
+			CacheManager cacheManager) {
+		super(mainConfig, langConfig, pluginHeader);
+		this.advancedAchievements = advancedAchievements;
+		this.databaseTransfer = databaseTransfer;
+		this.asyncCachedRequestsSender = asyncCachedRequestsSender;
+		this.databaseManager = databaseManager;
+		this.cacheManager = cacheManager;
+	}
+
+	@Override
+	void onExecute(CommandSender sender, String[] args) {
+		// Statistics of connected players are cached and would overwrite the imported ones.
+		if (!Bukkit.getOnlinePlayers().isEmpty()) {
+			sender.sendMessage(pluginHeader + "The database can only be imported whilst no players are connected.");
+			return;
+		}
+		// Pending changes are written first and the caches emptied, as they would otherwise be written over the imported
+		// data or outlive it.
+		asyncCachedRequestsSender.sendBatchedRequests();
+		databaseManager.runDeferredWrites();
+		cacheManager.clearCaches();
+		File directory = new File(advancedAchievements.getDataFolder(), "export");
+		sender.sendMessage(pluginHeader + "Importing the database from " + directory + ", please wait...");
+		advancedAchievements.getServer().getScheduler().runTaskAsynchronously(advancedAchievements, () -> {
+			long rows = databaseTransfer.importTables(directory, message -> sender.sendMessage(pluginHeader + message));
+			if (rows < 0) {
+				sender.sendMessage(pluginHeader + "The database could not be imported, see the server logs.");
+			} else {
+				sender.sendMessage(pluginHeader + "Database import completed, " + rows
+						+ " rows were imported. Please restart the server.");
+			}
+		});
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.hm.achievement.command.executable;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map.Entry;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.bukkit.command.CommandSender;
+
+import com.hm.achievement.db.AbstractDatabaseManager;
+import com.hm.achievement.db.OperationStatistics;
+import com.hm.achievement.db.WriteExecutor;
+import com.hm.mcshared.file.CommentedYamlConfiguration;
+
+/**
+ * Class in charge of handling the /aach metrics command, which displays the latencies, retries and failures of the
+ * database operations, slowest operations first.
+ *
+ * @author Pyves
+ */
+@Singleton
+@CommandSpec(name = "metrics", permission = "*", minArgs = 1, maxArgs = 1)
+public class MetricsCommand extends AbstractCommand {
+
+	private final AbstractDatabaseManager databaseManager;
+
+	@Inject
+	public MetricsCommand(@Named("main") CommentedYamlConfiguration mainConfig,
+			@Named("lang") CommentedYamlConfiguration langConfig, StringBuilder pluginHeader,
+			AbstractDatabaseManager databaseManager) {
+		super(mainConfig, langConfig, pluginHeader);
+		this.databaseManager = databaseManager;
+	}
+
+	@Override
+	void onExecute(CommandSender sender, String[] args) {
+		WriteExecutor writeExecutor = databaseManager.getWriteExecutor();
+		sender.sendMessage(pluginHeader + "Database " + databaseManager.getCircuitBreaker().getState()
+				+ ", write queue: " + (writeExecutor == null ? 0 : writeExecutor.getQueueDepth())
+				+ ", deferred writes: " + (writeExecutor == null ? 0 : writeExecutor.getDeferredQueueDepth())
+				+ ", discarded writes: " + (writeExecutor == null ? 0 : writeExecutor.getDiscardedTaskCount())
+				+ ", buffered writes: " + databaseManager.getRetryScheduler().getBufferedWriteCount()
+				+ ", pending retries: " + databaseManager.getRetryScheduler().getPendingRetryCount() + ".");
+		sender.sendMessage(pluginHeader + "Operations (latencies in milliseconds):");
+		databaseManager.getOperationMetrics().getStatistics().entrySet().stream()
+				.sorted(Comparator.comparingDouble(
+						(Entry<String, OperationStatistics> e) -> e.getValue().getTotalMillis()).reversed())
+				.forEach(e -> sender.sendMessage(e.getKey() + ": " + formatStatistics(e.getValue())));
+	}
+
+	private String formatStatistics(OperationStatistics statistics) {
+		return String.format(Locale.ROOT,
+				"%d calls (%d on main thread), mean %.2f, p95 %.2f, p99 %.2f, max %.2f, %d retries, %d failures",
+				statistics.getCalls(), statistics.getPrimaryThreadCalls(), statistics.getMeanMillis(),
+				statistics.getP95Millis(), statistics.getP99Millis(), statistics.getMaxMillis(), statistics.getRetries(),
+				statistics.getFailures());
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.hm.achievement.command.executable;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.bukkit.command.CommandSender;
+
+import com.hm.achievement.AdvancedAchievements;
+import com.hm.achievement.db.AbstractDatabaseManager;
+import com.hm.mcshared.file.CommentedYamlConfiguration;
+
+/**
+ * Class in charge of handling the /aach rebuildtotals command, which counts again the achievements received by each
+ * player when the player totals tables are enabled.
+ *
+ * @author Pyves
+ */
+@Singleton
+@CommandSpec(name = "rebuildtotals", permission = "*", minArgs = 1, maxArgs = 1)
+public class RebuildTotalsCommand extends AbstractCommand {
+
+	private final AdvancedAchievements advancedAchievements;
+	private final AbstractDatabaseManager databaseManager;
+
+	@Inject
+	public RebuildTotalsCommand(@Named("main") CommentedYamlConfiguration mainConfig,
+			@Named("lang") CommentedYamlConfiguration langConfig, StringBuilder pluginHeader,
+			AdvancedAchievements advancedAchievements, AbstractDatabaseManager databaseManager) {
+		super(mainConfig, langConfig, pluginHeader);
+		this.advancedAchievements = advancedAchievements;
+		this.databaseManager = databaseManager;
+	}
+
+	@Override
+	void onExecute(CommandSender sender, String[] args) {
+		if (!databaseManager.hasPlayerTotals()) {
+			sender.sendMessage(pluginHeader + "Player totals are disabled, set PlayerTotals to true in config.yml.");
+			return;
+		}
+		advancedAchievements.getServer().getScheduler().runTaskAsynchronously(advancedAchievements,
+				() -> databaseManager.rebuildPlayerTotals(players -> {
+					if (players < 0) {
+						sender.sendMessage(pluginHeader + "Player totals could not be rebuilt, see the server logs.");
+					} else {
+						sender.sendMessage(pluginHeader + "Player totals rebuilt for " + players + " players.");
+					}
+				}));
+	}
+
+}
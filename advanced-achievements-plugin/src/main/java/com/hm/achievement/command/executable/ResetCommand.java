@@ -14,7 +14,6 @@ import com.hm.achievement.category.MultipleAchievements;
 import com.hm.achievement.category.NormalAchievements;
 import com.hm.achievement.db.AbstractDatabaseManager;
 import com.hm.achievement.db.CacheManager;
-import com.hm.achievement.db.CachedStatistic;
 import com.hm.achievement.lang.LangHelper;
 import com.hm.achievement.lang.command.CmdLang;
 import com.hm.achievement.utils.StringHelper;
@@ -57,20 +56,11 @@ public class ResetCommand extends AbstractParsableCommand {
 
 	@Override
 	void onExecuteForPlayer(CommandSender sender, String[] args, Player player) {
-		String uuid = player.getUniqueId().toString();
-
 		if (enabledCategoriesWithSubcategories.contains(args[1])) {
 			if (args[1].contains(".")) {
 				MultipleAchievements category = MultipleAchievements.getByName(StringUtils.substringBefore(args[1], "."));
 				String subcategory = StringUtils.substringAfter(args[1], ".");
-				CachedStatistic statistic = cacheManager.getHashMap(category)
-						.get(cacheManager.getMultipleCategoryCacheKey(player.getUniqueId(), subcategory));
-				if (statistic == null) {
-					cacheManager.getHashMap(category).put(cacheManager.getMultipleCategoryCacheKey(player.getUniqueId(),
-							subcategory), new CachedStatistic(0L, false));
-				} else {
-					statistic.setValue(0L);
-				}
+				cacheManager.resetStatistic(category, subcategory, player.getUniqueId());
 				sender.sendMessage(pluginHeader + args[1] +
 						StringUtils.replaceOnce(langResetSuccessful, "PLAYER", player.getName()));
 			} else {
@@ -79,12 +69,7 @@ public class ResetCommand extends AbstractParsableCommand {
 					// Not handled by a database cache.
 					databaseManager.clearConnection(player.getUniqueId());
 				} else {
-					CachedStatistic statistic = cacheManager.getHashMap(category).get(uuid);
-					if (statistic == null) {
-						cacheManager.getHashMap(category).put(uuid, new CachedStatistic(0L, false));
-					} else {
-						statistic.setValue(0L);
-					}
+					cacheManager.resetStatistic(category, player.getUniqueId());
 				}
 				sender.sendMessage(pluginHeader + args[1] +
 						StringUtils.replaceOnce(langResetSuccessful, "PLAYER", player.getName()));
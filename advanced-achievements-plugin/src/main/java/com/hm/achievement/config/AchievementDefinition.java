@@ -0,0 +1,93 @@
+package com.hm.achievement.config;
+
+import java.util.List;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Immutable representation of an achievement and its rewards, compiled from the configuration when it is loaded so
+ * that awarding the achievement does not require reading or parsing config.yml again.
+ *
+ * @author Pyves
+ *
+ */
+public final class AchievementDefinition {
+
+	private final String name;
+	private final String displayName;
+	private final String message;
+	// Commands may contain player placeholders, which are replaced when the achievement is awarded.
+	private final String[] commandRewards;
+	private final List<String> commandMessages;
+	// Prototype of the item reward, never handed out directly as players' inventories may modify it.
+	private final ItemStack itemReward;
+	private final int moneyReward;
+	private final int experienceReward;
+	private final int maxHealthReward;
+	private final int maxOxygenReward;
+
+	AchievementDefinition(String name, String displayName, String message, String[] commandRewards,
+			List<String> commandMessages, ItemStack itemReward, int moneyReward, int experienceReward,
+			int maxHealthReward, int maxOxygenReward) {
+		this.name = name;
+		this.displayName = displayName;
+		this.message = message;
+		this.commandRewards = commandRewards;
+		this.commandMessages = commandMessages;
+		this.itemReward = itemReward;
+		this.moneyReward = moneyReward;
+		this.experienceReward = experienceReward;
+		this.maxHealthReward = maxHealthReward;
+		this.maxOxygenReward = maxOxygenReward;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getDisplayName() {
+		return displayName;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Returns the commands to be executed as rewards, before player placeholders are replaced.
+	 *
+	 * @return a copy of the command rewards
+	 */
+	public String[] getCommandRewards() {
+		return commandRewards.clone();
+	}
+
+	public List<String> getCommandMessages() {
+		return commandMessages;
+	}
+
+	/**
+	 * Returns the item reward of the achievement.
+	 *
+	 * @return a new copy of the item reward, or null if there is none
+	 */
+	public ItemStack getItemReward() {
+		return itemReward == null ? null : itemReward.clone();
+	}
+
+	public int getMoneyReward() {
+		return moneyReward;
+	}
+
+	public int getExperienceReward() {
+		return experienceReward;
+	}
+
+	public int getMaxHealthReward() {
+		return maxHealthReward;
+	}
+
+	public int getMaxOxygenReward() {
+		return maxOxygenReward;
+	}
+}
@@ -3,6 +3,7 @@ package com.hm.achievement.config;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -24,7 +25,10 @@ import com.hm.achievement.category.Category;
 import com.hm.achievement.category.CommandAchievements;
 import com.hm.achievement.category.MultipleAchievements;
 import com.hm.achievement.category.NormalAchievements;
+import com.hm.achievement.db.AchievementIndex;
+import com.hm.achievement.db.SubcategoryRegistry;
 import com.hm.achievement.exception.PluginLoadError;
+import com.hm.achievement.utils.RewardParser;
 import com.hm.achievement.utils.StringHelper;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
 
@@ -43,9 +47,13 @@ public class ConfigurationParser {
 	private final FileUpdater fileUpdater;
 	private final Map<String, String> namesToDisplayNames;
 	private final Map<String, String> displayNamesToNames;
-	private final Map<String, List<Long>> sortedThresholds;
+	private final Map<String, long[]> sortedThresholds;
+	private final Map<String, AchievementDefinition> achievementDefinitions;
 	private final Set<Category> disabledCategories;
 	private final Set<String> enabledCategoriesWithSubcategories;
+	private final SubcategoryRegistry subcategoryRegistry;
+	private final AchievementIndex achievementIndex;
+	private final RewardParser rewardParser;
 	private final StringBuilder pluginHeader;
 	private final Logger logger;
 	private final int serverVersion;
@@ -54,9 +62,11 @@ public class ConfigurationParser {
 	public ConfigurationParser(@Named("main") CommentedYamlConfiguration mainConfig,
 			@Named("lang") CommentedYamlConfiguration langConfig, @Named("gui") CommentedYamlConfiguration guiConfig,
 			FileUpdater fileUpdater, @Named("ntd") Map<String, String> namesToDisplayNames,
-			@Named("dtn") Map<String, String> displayNamesToNames, Map<String, List<Long>> sortedThresholds,
-			Set<Category> disabledCategories, Set<String> enabledCategoriesWithSubcategories, StringBuilder pluginHeader,
-			Logger logger, int serverVersion) {
+			@Named("dtn") Map<String, String> displayNamesToNames, Map<String, long[]> sortedThresholds,
+			Map<String, AchievementDefinition> achievementDefinitions, Set<Category> disabledCategories,
+			Set<String> enabledCategoriesWithSubcategories, SubcategoryRegistry subcategoryRegistry,
+			AchievementIndex achievementIndex, RewardParser rewardParser, StringBuilder pluginHeader, Logger logger,
+			int serverVersion) {
 		this.mainConfig = mainConfig;
 		this.langConfig = langConfig;
 		this.guiConfig = guiConfig;
@@ -64,8 +74,12 @@ public class ConfigurationParser {
 		this.namesToDisplayNames = namesToDisplayNames;
 		this.displayNamesToNames = displayNamesToNames;
 		this.sortedThresholds = sortedThresholds;
+		this.achievementDefinitions = achievementDefinitions;
 		this.disabledCategories = disabledCategories;
 		this.enabledCategoriesWithSubcategories = enabledCategoriesWithSubcategories;
+		this.subcategoryRegistry = subcategoryRegistry;
+		this.achievementIndex = achievementIndex;
+		this.rewardParser = rewardParser;
 		this.pluginHeader = pluginHeader;
 		this.logger = logger;
 		this.serverVersion = serverVersion;
@@ -225,7 +239,7 @@ public class ConfigurationParser {
 
 	/**
 	 * Extracts all enabled categories from the configuration and adds subcategories if relevant. Ignores the Commands
-	 * category.
+	 * category. Subcategories are also interned, so that cached statistics are looked up without handling strings.
 	 */
 	private void parseEnabledCategoriesWithSubcategories() {
 		enabledCategoriesWithSubcategories.clear();
@@ -233,6 +247,7 @@ public class ConfigurationParser {
 			if (!disabledCategories.contains(category)) {
 				for (String subcategory : mainConfig.getShallowKeys(category.toString())) {
 					enabledCategoriesWithSubcategories.add(category + "." + StringUtils.deleteWhitespace(subcategory));
+					subcategoryRegistry.register(subcategory);
 				}
 			}
 		}
@@ -246,7 +261,9 @@ public class ConfigurationParser {
 	/**
 	 * Goes through all the achievements for non-disabled categories.
 	 * 
-	 * Populates relevant data structures and performs basic validation.
+	 * Populates relevant data structures and performs basic validation. Each achievement is compiled into an
+	 * AchievementDefinition and is assigned an index, used to represent the achievements received by players as
+	 * bitsets.
 	 *
 	 * @throws PluginLoadError If an achievement fails to parse due to misconfiguration.
 	 */
@@ -254,6 +271,7 @@ public class ConfigurationParser {
 		namesToDisplayNames.clear();
 		displayNamesToNames.clear();
 		sortedThresholds.clear();
+		achievementDefinitions.clear();
 
 		// Enumerate Commands achievements.
 		if (!disabledCategories.contains(CommandAchievements.COMMANDS)) {
@@ -291,6 +309,7 @@ public class ConfigurationParser {
 				}
 			}
 		}
+		achievementIndex.setConfiguredAchievements(namesToDisplayNames.keySet());
 	}
 
 	/**
@@ -301,17 +320,19 @@ public class ConfigurationParser {
 	 */
 	private void parseAchievements(String path) throws PluginLoadError {
 		Set<String> keys = mainConfig.getShallowKeys(path);
-		List<Long> thresholds = new ArrayList<>();
+		long[] thresholds = new long[keys.size()];
+		int i = 0;
 		for (String threshold : keys) {
 			parseAchievement(path + "." + threshold);
-			thresholds.add(Long.valueOf(threshold));
+			thresholds[i++] = Long.parseLong(threshold);
 		}
-		thresholds.sort(null);
+		Arrays.sort(thresholds);
 		sortedThresholds.put(path, thresholds);
 	}
 
 	/**
-	 * Performs validation for a single achievement and populates an entry in the namesToDisplayNames map.
+	 * Performs validation for a single achievement, populates an entry in the namesToDisplayNames map and compiles its
+	 * definition.
 	 *
 	 * @param path
 	 * @throws PluginLoadError If the achievement fails to parse due to misconfiguration.
@@ -331,6 +352,31 @@ public class ConfigurationParser {
 			String formattedDisplayName = StringHelper
 					.removeFormattingCodes(mainConfig.getString(path + ".DisplayName", achName)).toLowerCase();
 			displayNamesToNames.put(formattedDisplayName, achName);
+			achievementDefinitions.put(path, compileAchievementDefinition(path, achName));
+		}
+	}
+
+	/**
+	 * Parses the messages and rewards of an achievement.
+	 *
+	 * @param path
+	 * @param achName
+	 * @return the definition of the achievement
+	 * @throws PluginLoadError If a reward fails to parse due to misconfiguration.
+	 */
+	private AchievementDefinition compileAchievementDefinition(String path, String achName) throws PluginLoadError {
+		String rewardPath = path + ".Reward";
+		try {
+			return new AchievementDefinition(achName, mainConfig.getString(path + ".DisplayName"),
+					mainConfig.getString(path + ".Message"), rewardParser.getCommandRewards(rewardPath),
+					Collections.unmodifiableList(new ArrayList<>(rewardParser.getCustomCommandMessages(rewardPath))),
+					rewardParser.getItemReward(rewardPath), rewardParser.getRewardAmount(rewardPath, "Money"),
+					rewardParser.getRewardAmount(rewardPath, "Experience"),
+					rewardParser.getRewardAmount(rewardPath, "IncreaseMaxHealth"),
+					rewardParser.getRewardAmount(rewardPath, "IncreaseMaxOxygen"));
+		} catch (NumberFormatException e) {
+			throw new PluginLoadError(
+					"Achievement with path (" + path + ") has an invalid Item reward amount in config.yml.", e);
 		}
 	}
 
@@ -202,6 +202,65 @@ public class FileUpdater {
 		updateSetting(config, "SoundRanking", statsRankingDefault,
 				"For /aach top, week, month when ranked in the top list. Possible values: github.com/PyvesB/AdvancedAchievements/wiki/Sound-names");
 
+		// Added in 5.13.0:
+		updateSetting(config, "ConnectionPoolSize", 4,
+				"Maximum number of simultaneous connections to the database. With SQLite and H2, one of them is dedicated",
+				"to writes. Do a full server restart, and not just /aach reload.");
+		updateSetting(config, "ConnectionValidationInterval", 30,
+				"Idle database connections are checked if they were not used for this duration (seconds).");
+		updateSetting(config, "ConnectionTimeout", 5000,
+				"Maximum time to wait for a database connection when all of them are in use (milliseconds).");
+		updateSetting(config, "StatisticsWriteChunkSize", 500,
+				"Maximum number of statistics written to the database by a single statement.");
+		updateSetting(config, "ConsolidatedStatistics", false,
+				"Store all statistics in a single table instead of one table per category. Existing statistics are migrated",
+				"when the plugin starts; the per-category tables are left untouched but no longer updated.",
+				"Do a full server reload or restart to make this effective.");
+		updateSetting(config, "BinaryUUIDStorage", false,
+				"Store player UUIDs in binary form (BINARY(16) on MySQL and H2, uuid on PostgreSQL, BLOB on SQLite) rather than as",
+				"36 character strings, which makes tables and their indexes smaller. Existing tables are migrated when the plugin",
+				"starts; this cannot be reverted. Do a full server reload or restart to make this effective.");
+		updateSetting(config, "AchievementDictionary", false,
+				"Store received achievements with integer identifiers instead of their names, and each description only once. Existing",
+				"achievements are migrated when the plugin starts; the previous table is left untouched but no longer updated. Do a",
+				"full server reload or restart to make this effective.");
+		updateSetting(config, "WriteAheadJournal", false,
+				"Record statistic changes and received achievements in a journal file until they are written to the database, so that",
+				"they are not lost if the server stops unexpectedly. They are then written to the database on the next start-up. Adds",
+				"some overhead to every statistic change. Do a full server reload or restart to make this effective.");
+		updateSetting(config, "DeltaStatisticWrites", false,
+				"Write statistic increments rather than absolute values, so that several servers sharing the same MySQL or PostgreSQL",
+				"database do not overwrite each other's progress. Resets are still written as absolute values.");
+		updateSetting(config, "DatabaseWriteThreads", 4,
+				"Number of threads writing to the database and maximum number of queued write operations. If the database cannot keep",
+				"up, further write operations are deferred and performed together with the next batch of statistics.");
+		updateSetting(config, "DatabaseWriteQueueSize", 1000);
+		updateSetting(config, "AchievementFlushThreshold", 10,
+				"Received achievements are written to the database together with the next batch of statistics. They are written",
+				"straight away once this many achievements are waiting. Set to 1 to write each achievement as soon as it is received,",
+				"or to 0 to only write them with the statistics.");
+		updateSetting(config, "SQLitePerformanceProfile", false,
+				"Enable write-ahead logging and relaxed disk synchronisation for SQLite, with all writes performed by a single thread.",
+				"The page cache size is expressed in kibibytes and the memory mapped size in megabytes (0 disables memory mapping).",
+				"Do a full server restart for this to take effect.");
+		updateSetting(config, "SQLiteCacheSize", 8192);
+		updateSetting(config, "SQLiteMmapSize", 64);
+		updateSetting(config, "CircuitBreakerThreshold", 5,
+				"Number of consecutive failed database operations after which the database is considered unreachable. Reads then fail",
+				"straight away and writes are buffered; the database is probed again after the delay (seconds), which doubles every",
+				"time the database is still unreachable.");
+		updateSetting(config, "CircuitBreakerDelay", 10);
+		updateSetting(config, "ReplicaDatabaseAddress", "",
+				"Optional replica of your MySQL/PostgreSQL database, used for rankings and full achievement lists (/aach top, book,",
+				"inspect and API). Leave the address empty to send everything to the main database. The user and password default to",
+				"the main ones if left empty. Do a full server restart for this to take effect.");
+		updateSetting(config, "ReplicaDatabaseUser", "");
+		updateSetting(config, "ReplicaDatabasePassword", "");
+		updateSetting(config, "PlayerTotals", false,
+				"Maintain the number of achievements received by each player, overall and per day, in dedicated tables used for",
+				"rankings (/aach top, week and month) and achievement counts. The tables are built from the received achievements when",
+				"first enabled, and can be rebuilt with /aach rebuildtotals. Do a full server reload or restart to make this effective.");
+
 		if (updatePerformed) {
 			// Changes in the configuration: save and do a fresh load.
 			try {
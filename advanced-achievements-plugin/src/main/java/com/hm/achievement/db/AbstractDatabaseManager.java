@@ -1,31 +1,51 @@
 package com.hm.achievement.db;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
-import java.sql.Types;
 import java.text.DateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.hm.achievement.category.Category;
 import com.hm.achievement.category.MultipleAchievements;
 import com.hm.achievement.category.NormalAchievements;
 import com.hm.achievement.db.data.AwardedDBAchievement;
@@ -40,21 +60,53 @@ import com.hm.mcshared.file.CommentedYamlConfiguration;
  */
 public abstract class AbstractDatabaseManager implements Reloadable {
 
+	static final String STATISTICS_TABLE = "statistics";
+	static final String PLAYER_ACHIEVEMENTS_TABLE = "player_achievements";
+	static final String PLAYER_TOTALS_TABLE = "player_totals";
+	static final String PLAYER_DAILY_TOTALS_TABLE = "player_daily_totals";
+
+	private static final int PLAYER_TOTALS_CHUNK_SIZE = 1000;
+
 	// Used to do perform the database write operations asynchronously.
-	ExecutorService pool;
-	// Connection to the database; remains opened and shared.
-	final AtomicReference<Connection> sqlConnection = new AtomicReference<>();
+	volatile ExecutorService pool;
+	// Used to fail fast and buffer writes whilst the database is unreachable, and to retry failed writes.
+	final CircuitBreaker circuitBreaker;
+	final RetryScheduler retryScheduler;
+	// Used to record the latencies and outcomes of the database operations.
+	final OperationMetrics operationMetrics;
+	// Pools of connections to the database; identical unless the database only supports a single writer.
+	volatile ConnectionPool connectionPool;
+	volatile ConnectionPool writeConnectionPool;
+	// Only set if heavy read operations are sent to a replica of the database.
+	volatile ConnectionPool replicaConnectionPool;
 	final CommentedYamlConfiguration mainConfig;
 	final Logger logger;
 	final String driverPath;
 
 	volatile String prefix;
+	// Only set if statistics are stored in a single consolidated table.
+	volatile StatisticsDictionary statisticsDictionary;
+	volatile boolean binaryUUIDs;
+	// Only set if received achievements reference achievement identifiers rather than names.
+	volatile AchievementDictionary achievementDictionary;
+	// Set if the number of achievements of each player is maintained alongside the received achievements.
+	volatile boolean playerTotals;
+	// Only set if changes not yet written to the database are journaled.
+	volatile WriteAheadJournal writeAheadJournal;
 
 	private final Map<String, String> namesToDisplayNames;
 	private final DatabaseUpdater databaseUpdater;
+	// Received achievements not written to the database yet, keyed by player UUID and achievement name.
+	private final Map<AchievementKey, PendingAchievement> unwrittenAchievements = new ConcurrentHashMap<>();
+	private final AtomicBoolean achievementFlushScheduled = new AtomicBoolean();
+	// Held whilst received achievements are written or deleted, so that a deletion is never overtaken by a write.
+	private final Object achievementWriteLock = new Object();
 
 	private DateFormat dateFormat;
 	private boolean configBookChronologicalOrder;
+	private int configStatisticsWriteChunkSize;
+	private volatile boolean configDeltaStatisticWrites;
+	private volatile int configAchievementFlushThreshold;
 
 	public AbstractDatabaseManager(CommentedYamlConfiguration mainConfig, Logger logger,
 			Map<String, String> namesToDisplayNames, DatabaseUpdater databaseUpdater, String driverPath) {
@@ -63,14 +115,26 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 		this.namesToDisplayNames = namesToDisplayNames;
 		this.databaseUpdater = databaseUpdater;
 		this.driverPath = driverPath;
-		// We expect to execute many short writes to the database. The pool can grow dynamically under high load and
-		// allows to reuse threads.
-		pool = Executors.newCachedThreadPool();
+		// We expect to execute many short writes to the database. The pool is bounded so that a stalled database does
+		// not lead to an ever growing number of threads; its size is adjusted once the configuration is read.
+		pool = new WriteExecutor(logger, 4, 1000);
+		circuitBreaker = new CircuitBreaker(logger, 5, TimeUnit.SECONDS.toMillis(10));
+		operationMetrics = new OperationMetrics(logger);
+		retryScheduler = new RetryScheduler(logger, circuitBreaker, operationMetrics);
 	}
 
 	@Override
 	public void extractConfigurationParameters() {
 		configBookChronologicalOrder = mainConfig.getBoolean("BookChronologicalOrder", true);
+		extractWriteParameters();
+		configAchievementFlushThreshold = Math.max(0, mainConfig.getInt("AchievementFlushThreshold", 10));
+		circuitBreaker.configure(Math.max(1, mainConfig.getInt("CircuitBreakerThreshold", 5)),
+				TimeUnit.SECONDS.toMillis(Math.max(1, mainConfig.getInt("CircuitBreakerDelay", 10))));
+		if (pool instanceof WriteExecutor) {
+			configureWriteExecutor((WriteExecutor) pool,
+					getWriteThreads(Math.max(1, mainConfig.getInt("DatabaseWriteThreads", 4))),
+					Math.max(1, mainConfig.getInt("DatabaseWriteQueueSize", 1000)));
+		}
 		String localeString = mainConfig.getString("DateLocale", "en");
 		boolean dateDisplayTime = mainConfig.getBoolean("DateDisplayTime", false);
 		Locale locale = new Locale(localeString);
@@ -79,6 +143,32 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 		} else {
 			dateFormat = DateFormat.getDateInstance(DateFormat.MEDIUM, locale);
 		}
+		registerAchievementNames();
+	}
+
+	/**
+	 * Extracts the parameters determining how statistics are written, which are also needed whilst initialising the
+	 * database, before the other parameters are extracted.
+	 */
+	private void extractWriteParameters() {
+		configStatisticsWriteChunkSize = Math.max(1, mainConfig.getInt("StatisticsWriteChunkSize", 500));
+		configDeltaStatisticWrites = mainConfig.getBoolean("DeltaStatisticWrites", false);
+	}
+
+	/**
+	 * Assigns identifiers to the achievements parsed from the configuration, so that they are known before players
+	 * receive them.
+	 */
+	private void registerAchievementNames() {
+		AchievementDictionary dictionary = achievementDictionary;
+		if (dictionary != null) {
+			List<String> names = new ArrayList<>(namesToDisplayNames.keySet());
+			((SQLWriteOperation) () -> {
+				try (Connection conn = getSQLWriteConnection()) {
+					dictionary.registerNames(conn, names);
+				}
+			}).executeOperation(retryScheduler, pool, "registering achievement identifiers");
+		}
 	}
 
 	/**
@@ -90,6 +180,9 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 		logger.info("Initialising database...");
 
 		prefix = mainConfig.getString("TablePrefix", "");
+		binaryUUIDs = mainConfig.getBoolean("BinaryUUIDStorage", false);
+		// Migrations and the replay of the journal write statistics before the plugin is fully loaded.
+		extractWriteParameters();
 
 		try {
 			performPreliminaryTasks();
@@ -99,11 +192,21 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 			logger.log(Level.SEVERE, "Error while encoding the database URL:", e);
 		}
 
-		// Try to establish connection with database; stays opened until explicitly closed by the plugin.
-		Connection conn = getSQLConnection();
+		int poolSize = mainConfig.getInt("ConnectionPoolSize", 4);
+		if (poolSize < 1) {
+			logger.warning("ConnectionPoolSize must be at least 1, using a single connection.");
+			poolSize = 1;
+		}
+		long validationIntervalMillis = TimeUnit.SECONDS.toMillis(mainConfig.getInt("ConnectionValidationInterval", 30));
+		long timeoutMillis = mainConfig.getInt("ConnectionTimeout", 5000);
+		createConnectionPools(poolSize, validationIntervalMillis, timeoutMillis);
 
-		if (conn == null) {
-			throw new PluginLoadError("Failed to establish database connection. Please verify your settings in config.yml.");
+		// Try to establish connection with database; pooled connections stay opened until the plugin is disabled.
+		try (Connection conn = getSQLConnection()) {
+			logger.info("Using a pool of up to " + connectionPool.getMaxSize() + " database connections.");
+		} catch (SQLException e) {
+			throw new PluginLoadError("Failed to establish database connection. Please verify your settings in config.yml.",
+					e);
 		}
 
 		databaseUpdater.renameExistingTables(this);
@@ -112,6 +215,112 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 		databaseUpdater.updateOldDBToDates(this);
 		databaseUpdater.updateOldDBToTimestamps(this);
 		Arrays.stream(MultipleAchievements.values()).forEach(m -> databaseUpdater.updateOldDBColumnSize(this, m));
+		if (binaryUUIDs) {
+			databaseUpdater.migrateToBinaryUUIDs(this);
+		}
+
+		if (mainConfig.getBoolean("ConsolidatedStatistics", false)) {
+			statisticsDictionary = new StatisticsDictionary(prefix);
+			databaseUpdater.initialiseConsolidatedTables(this);
+			databaseUpdater.migrateToConsolidatedStatistics(this);
+		} else {
+			statisticsDictionary = null;
+		}
+
+		if (mainConfig.getBoolean("AchievementDictionary", false)) {
+			achievementDictionary = new AchievementDictionary(prefix);
+			databaseUpdater.initialiseAchievementDictionaryTables(this);
+			databaseUpdater.migrateToAchievementDictionary(this);
+		} else {
+			achievementDictionary = null;
+		}
+
+		databaseUpdater.updateIndexes(this);
+
+		if (mainConfig.getBoolean("PlayerTotals", false)) {
+			databaseUpdater.initialisePlayerTotalsTables(this);
+			databaseUpdater.buildPlayerTotals(this);
+			playerTotals = true;
+		} else {
+			playerTotals = false;
+			databaseUpdater.invalidatePlayerTotals(this);
+		}
+
+		replayWriteAheadJournal();
+	}
+
+	/**
+	 * Writes the changes recorded in the journal during the previous run to the database, then starts a new journal. If
+	 * journaling is disabled, a journal left by a previous run is still replayed, then deleted.
+	 *
+	 * @throws PluginLoadError
+	 */
+	private void replayWriteAheadJournal() throws PluginLoadError {
+		WriteAheadJournal journal = writeAheadJournal;
+		if (journal == null) {
+			return;
+		}
+		boolean enabled = mainConfig.getBoolean("WriteAheadJournal", false);
+		if (enabled || journal.exists()) {
+			try {
+				journal.open();
+			} catch (IOException e) {
+				throw new PluginLoadError("Error while opening the journal file.", e);
+			}
+			replayJournalRecords(journal);
+		}
+		if (!enabled) {
+			// Statistics and achievements no longer synchronise on the journal once it is unset.
+			writeAheadJournal = null;
+			journal.delete();
+		}
+	}
+
+	/**
+	 * Writes the records of an opened journal to the database, then discards them.
+	 *
+	 * @param journal
+	 * @throws PluginLoadError
+	 */
+	private void replayJournalRecords(WriteAheadJournal journal) throws PluginLoadError {
+		Map<Category, Map<StatisticKey, long[]>> statistics = new HashMap<>();
+		Map<String, Object[]> achievements = new LinkedHashMap<>();
+		journal.read(statistics, achievements);
+		if (statistics.isEmpty() && achievements.isEmpty()) {
+			return;
+		}
+
+		logger.info("Replaying changes that were not written to the database before the server stopped...");
+		Map<MultipleAchievements, List<Object[]>> multipleRows = new EnumMap<>(MultipleAchievements.class);
+		Map<NormalAchievements, List<Object[]>> normalRows = new EnumMap<>(NormalAchievements.class);
+		Map<MultipleAchievements, List<Object[]>> multipleDeltas = new EnumMap<>(MultipleAchievements.class);
+		Map<NormalAchievements, List<Object[]>> normalDeltas = new EnumMap<>(NormalAchievements.class);
+		statistics.forEach((category, values) -> values.forEach((key, value) -> {
+			// Values are made of the statistic, its increment since the previous write and the overwrite flag.
+			boolean asDelta = configDeltaStatisticWrites && value[2] == 0L;
+			long writtenValue = asDelta ? value[1] : value[0];
+			if (category instanceof MultipleAchievements) {
+				(asDelta ? multipleDeltas : multipleRows)
+						.computeIfAbsent((MultipleAchievements) category, c -> new ArrayList<>())
+						.add(new Object[] { key.getPlayer(), key.getSubcategory(), writtenValue });
+			} else {
+				(asDelta ? normalDeltas : normalRows).computeIfAbsent((NormalAchievements) category,
+						c -> new ArrayList<>()).add(new Object[] { key.getPlayer(), writtenValue });
+			}
+		}));
+		try (Connection conn = getSQLWriteConnection()) {
+			List<PendingAchievement> pendingAchievements = new ArrayList<>(achievements.size());
+			for (Object[] achievement : achievements.values()) {
+				pendingAchievements.add(new PendingAchievement((UUID) achievement[0], (String) achievement[1],
+						(String) achievement[2], (long) achievement[3], 0L, false));
+			}
+			writeStatistics(conn, pendingAchievements, multipleRows, normalRows, multipleDeltas, normalDeltas);
+		} catch (SQLException e) {
+			throw new PluginLoadError("Error while replaying the journal file.", e);
+		}
+		journal.clear();
+		logger.info("Replayed " + statistics.values().stream().mapToInt(Map::size).sum() + " statistics and "
+				+ achievements.size() + " achievements.");
 	}
 
 	/**
@@ -124,7 +333,21 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 	abstract void performPreliminaryTasks() throws ClassNotFoundException, PluginLoadError, UnsupportedEncodingException;
 
 	/**
-	 * Shuts the thread pool down and closes connection to database.
+	 * Creates the pools used to borrow connections to the database. Remote databases handle concurrent writers, reads
+	 * and writes therefore share the same connections.
+	 *
+	 * @param poolSize
+	 * @param validationIntervalMillis
+	 * @param timeoutMillis
+	 */
+	void createConnectionPools(int poolSize, long validationIntervalMillis, long timeoutMillis) {
+		connectionPool = new ConnectionPool(this::createSQLConnection, logger, poolSize, validationIntervalMillis,
+				timeoutMillis);
+		writeConnectionPool = connectionPool;
+	}
+
+	/**
+	 * Shuts the thread pool down and closes connections to database.
 	 */
 	public void shutdown() {
 		pool.shutdown();
@@ -137,36 +360,110 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 			logger.log(Level.SEVERE, "Error while waiting for database write operations to complete:", e);
 			Thread.currentThread().interrupt();
 		} finally {
+			runDeferredWrites();
+			writeUnwrittenAchievements();
+			// Pending retries and buffered writes are attempted a last time.
+			retryScheduler.shutdown();
+			operationMetrics.unregisterMBeans();
+			if (connectionPool != null) {
+				connectionPool.shutdown();
+			}
+			if (writeConnectionPool != null && writeConnectionPool != connectionPool) {
+				writeConnectionPool.shutdown();
+			}
+			if (replicaConnectionPool != null) {
+				replicaConnectionPool.shutdown();
+			}
+			if (writeAheadJournal != null) {
+				writeAheadJournal.close();
+			}
+		}
+	}
+
+	/**
+	 * Borrows a pooled SQL connection to MySQL, PostgreSQL, H2 or SQLite database, to be used for read operations. The
+	 * connection must be closed to hand it back to the pool.
+	 *
+	 * @return a pooled SQL connection
+	 * @throws SQLException
+	 */
+	Connection getSQLConnection() throws SQLException {
+		return connectionPool.getConnection();
+	}
+
+	/**
+	 * Borrows a pooled SQL connection to be used for write operations. The connection must be closed to hand it back to
+	 * the pool.
+	 *
+	 * @return a pooled SQL connection
+	 * @throws SQLException
+	 */
+	Connection getSQLWriteConnection() throws SQLException {
+		return writeConnectionPool.getConnection();
+	}
+
+	/**
+	 * Borrows a pooled SQL connection to be used for read operations that can tolerate slightly outdated data, such as
+	 * rankings or full achievement lists. The connection originates from the replica database if one is configured and
+	 * reachable, otherwise from the main database. The connection must be closed to hand it back to the pool.
+	 *
+	 * @return a pooled SQL connection
+	 * @throws SQLException
+	 */
+	Connection getSQLReplicaConnection() throws SQLException {
+		ConnectionPool replicaPool = replicaConnectionPool;
+		if (replicaPool != null) {
 			try {
-				Connection connection = sqlConnection.get();
-				if (connection != null) {
-					connection.close();
-				}
+				return replicaPool.getConnection();
 			} catch (SQLException e) {
-				logger.log(Level.SEVERE, "Error while closing connection to the database:", e);
+				logger.warning("Error while connecting to the replica database, falling back to the main database: "
+						+ e.getMessage());
 			}
 		}
+		return getSQLConnection();
 	}
 
 	/**
-	 * Retrieves SQL connection to MySQL, PostgreSQL, H2 or SQLite database.
+	 * Marks a borrowed connection as broken, so that it gets closed rather than reused once handed back.
 	 *
-	 * @return the cached SQL connection or a new one
+	 * @param connection
 	 */
-	Connection getSQLConnection() {
-		Connection oldConnection = sqlConnection.get();
-		try {
-			// Check if Connection was not previously closed.
-			if (oldConnection == null || oldConnection.isClosed()) {
-				Connection newConnection = createSQLConnection();
-				if (!sqlConnection.compareAndSet(oldConnection, newConnection)) {
-					newConnection.close();
-				}
-			}
-		} catch (SQLException e) {
-			logger.log(Level.SEVERE, "Error while attempting to retrieve a connection to the database:", e);
+	void discardSQLConnection(Connection connection) {
+		// The flag is held by the borrowed connection itself, regardless of the pool it originates from.
+		connectionPool.discard(connection);
+	}
+
+	public ConnectionPool getConnectionPool() {
+		return connectionPool;
+	}
+
+	/**
+	 * Updates the number of write threads, and replaces the write executor if the capacity of its queue changed. Tasks
+	 * already queued are still performed by the previous executor, deferred ones are handed over to the new one.
+	 *
+	 * @param writeExecutor
+	 * @param threads
+	 * @param queueCapacity
+	 */
+	private void configureWriteExecutor(WriteExecutor writeExecutor, int threads, int queueCapacity) {
+		if (writeExecutor.getQueueCapacity() == queueCapacity) {
+			writeExecutor.configure(threads);
+			return;
 		}
-		return sqlConnection.get();
+		WriteExecutor newWriteExecutor = new WriteExecutor(logger, threads, queueCapacity);
+		pool = newWriteExecutor;
+		writeExecutor.shutdown();
+		writeExecutor.handOverDeferredTasks(newWriteExecutor);
+	}
+
+	/**
+	 * Returns the number of threads performing write operations.
+	 *
+	 * @param configuredThreads
+	 * @return the number of threads
+	 */
+	int getWriteThreads(int configuredThreads) {
+		return configuredThreads;
 	}
 
 	/**
@@ -184,12 +481,14 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 	 * @return array list with Name parameters
 	 */
 	public List<String> getPlayerAchievementNamesList(UUID uuid) {
-		String sql = "SELECT achievement FROM " + prefix + "achievements WHERE playername = ?";
+		String sql = achievementDictionary == null
+				? "SELECT achievement FROM " + prefix + "achievements WHERE playername = ?"
+				: "SELECT n.name FROM " + prefix + PLAYER_ACHIEVEMENTS_TABLE + " pa JOIN " + prefix
+						+ AchievementDictionary.TABLE + " n ON pa.achievement_id = n.id WHERE pa.playername = ?";
 		return ((SQLReadOperation<List<String>>) () -> {
 			List<String> achievementNamesList = new ArrayList<>();
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
-				ps.setObject(1, uuid, Types.CHAR);
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
 				ps.setFetchSize(1000);
 				ResultSet rs = ps.executeQuery();
 				while (rs.next()) {
@@ -198,8 +497,13 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 					achievementNamesList.add(StringUtils.replace(rs.getString(1), "''", "'"));
 				}
 			}
+			for (PendingAchievement achievement : unwrittenAchievements.values()) {
+				if (achievement.getPlayer().equals(uuid) && !achievementNamesList.contains(achievement.getName())) {
+					achievementNamesList.add(achievement.getName());
+				}
+			}
 			return achievementNamesList;
-		}).executeOperation("retrieving the names of received achievements");
+		}).executeOperation(circuitBreaker, operationMetrics, "retrieving the names of received achievements");
 	}
 
 	/**
@@ -210,15 +514,36 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 	 * @return date represented as a string
 	 */
 	public String getPlayerAchievementDate(UUID uuid, String achName) {
+		PendingAchievement unwrittenAchievement = uuid == null ? null
+				: unwrittenAchievements.get(new AchievementKey(uuid, achName));
+		if (unwrittenAchievement != null) {
+			return dateFormat.format(new Date(unwrittenAchievement.getReceptionTime()));
+		}
+		AchievementDictionary dictionary = achievementDictionary;
+		if (dictionary != null) {
+			Integer id = dictionary.getId(achName);
+			String sql = "SELECT date FROM " + prefix + PLAYER_ACHIEVEMENTS_TABLE
+					+ " WHERE playername = ? AND achievement_id = ?";
+			return id == null ? null : ((SQLReadOperation<String>) () -> {
+				try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+					ps.setObject(1, toDatabaseUUID(uuid));
+					ps.setInt(2, id);
+					ResultSet rs = ps.executeQuery();
+					if (rs.next()) {
+						return dateFormat.format(new Date(rs.getTimestamp(1).getTime()));
+					}
+				}
+				return null;
+			}).executeOperation(circuitBreaker, operationMetrics, "retrieving an achievement's reception date");
+		}
 		// Check for names with single quotes but also two single quotes, due to a bug in versions 3.0 to 3.0.2
 		// where names containing single quotes were inserted with two single quotes in the database.
 		String sql = achName.contains("'")
 				? "SELECT date FROM " + prefix + "achievements WHERE playername = ? AND (achievement = ? OR achievement = ?)"
 				: "SELECT date FROM " + prefix + "achievements WHERE playername = ? AND achievement = ?";
 		return ((SQLReadOperation<String>) () -> {
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
-				ps.setObject(1, uuid, Types.CHAR);
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
 				ps.setString(2, achName);
 				if (achName.contains("'")) {
 					ps.setString(3, StringUtils.replace(achName, "'", "''"));
@@ -229,81 +554,129 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 				}
 			}
 			return null;
-		}).executeOperation("retrieving an achievement's reception date");
+		}).executeOperation(circuitBreaker, operationMetrics, "retrieving an achievement's reception date");
 	}
 
 	/**
 	 * Gets the total number of achievements received by every player; this method is provided as a convenience for
-	 * other plugins.
+	 * other plugins. Achievements waiting for the next batch are counted in memory.
 	 *
 	 * @return map containing number of achievements for every players
 	 */
 	public Map<UUID, Integer> getPlayersAchievementsAmount() {
-		String sql = "SELECT playername, COUNT(*) FROM " + prefix + "achievements GROUP BY playername";
+		String sql = playerTotals ? "SELECT playername, total FROM " + prefix + PLAYER_TOTALS_TABLE
+				: "SELECT playername, COUNT(*) FROM " + getAchievementsTable() + " GROUP BY playername";
 		return ((SQLReadOperation<Map<UUID, Integer>>) () -> {
 			Map<UUID, Integer> achievementAmounts = new HashMap<>();
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			try (Connection conn = getSQLReplicaConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 				ps.setFetchSize(1000);
 				try (ResultSet rs = ps.executeQuery()) {
 					while (rs.next()) {
-						String uuid = rs.getString(1);
-						if (StringUtils.isNotEmpty(uuid)) {
-							achievementAmounts.put(UUID.fromString(uuid), rs.getInt(2));
+						UUID uuid = getUUID(rs, 1);
+						if (uuid != null) {
+							achievementAmounts.put(uuid, rs.getInt(2));
 						}
 					}
 				}
 			}
+			getUncountedAchievements(a -> true).forEach((uuid, amount) -> achievementAmounts.merge(uuid, amount,
+					Integer::sum));
 			return achievementAmounts;
-		}).executeOperation("counting all players' achievements");
+		}).executeOperation(circuitBreaker, operationMetrics, "counting all players' achievements");
 	}
 
 	/**
-	 * Gets the total number of achievements received by a player, using an UUID.
+	 * Gets the total number of achievements received by a player, using an UUID. Achievements waiting for the next
+	 * batch are counted in memory.
 	 *
 	 * @param uuid
 	 * @return number of achievements
 	 */
 	public int getPlayerAchievementsAmount(UUID uuid) {
-		String sql = "SELECT COUNT(*) FROM " + prefix + "achievements WHERE playername = ?";
+		String sql = playerTotals ? "SELECT total FROM " + prefix + PLAYER_TOTALS_TABLE + " WHERE playername = ?"
+				: "SELECT COUNT(*) FROM " + getAchievementsTable() + " WHERE playername = ?";
 		return ((SQLReadOperation<Integer>) () -> {
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
-				ps.setObject(1, uuid, Types.CHAR);
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
 				ResultSet rs = ps.executeQuery();
-				rs.next();
-				return rs.getInt(1);
+				// Players without any achievements have no row in the totals table.
+				int amount = rs.next() ? rs.getInt(1) : 0;
+				return amount + getUncountedAchievements(a -> a.getPlayer().equals(uuid)).getOrDefault(uuid, 0);
 			}
-		}).executeOperation("counting a player's achievements");
+		}).executeOperation(circuitBreaker, operationMetrics, "counting a player's achievements");
 	}
 
 	/**
-	 * Constructs a mapping of players with the most achievements over a given period.
+	 * Constructs a mapping of players with the most achievements over a given period. Achievements waiting for the
+	 * next batch are counted in memory.
 	 *
 	 * @param start
 	 * @return LinkedHashMap with keys corresponding to player UUIDs and values corresponding to their achievement count
 	 */
 	public Map<String, Integer> getTopList(long start) {
-		// Either consider all the achievements or only those received after the start date.
-		String sql = start == 0L
-				? "SELECT playername, COUNT(*) FROM " + prefix + "achievements GROUP BY playername ORDER BY COUNT(*) DESC"
-				: "SELECT playername, COUNT(*) FROM " + prefix
-						+ "achievements WHERE date > ? GROUP BY playername ORDER BY COUNT(*) DESC";
+		// Either consider all the achievements or only those received after the start date. Daily totals are used as
+		// is, the achievements received during the whole day of the start date are therefore included.
+		boolean totals = playerTotals;
+		String sql;
+		if (totals) {
+			sql = start == 0L ? "SELECT playername, total FROM " + prefix + PLAYER_TOTALS_TABLE + " ORDER BY total DESC"
+					: "SELECT playername, SUM(total) FROM " + prefix + PLAYER_DAILY_TOTALS_TABLE
+							+ " WHERE day >= ? GROUP BY playername ORDER BY SUM(total) DESC";
+		} else {
+			sql = start == 0L
+					? "SELECT playername, COUNT(*) FROM " + getAchievementsTable()
+							+ " GROUP BY playername ORDER BY COUNT(*) DESC"
+					: "SELECT playername, COUNT(*) FROM " + getAchievementsTable()
+							+ " WHERE date > ? GROUP BY playername ORDER BY COUNT(*) DESC";
+		}
 		return ((SQLReadOperation<Map<String, Integer>>) () -> {
 			Map<String, Integer> topList = new LinkedHashMap<>();
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			try (Connection conn = getSQLReplicaConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 				if (start > 0L) {
-					ps.setTimestamp(1, new Timestamp(start));
+					if (totals) {
+						ps.setInt(1, toEpochDay(start));
+					} else {
+						ps.setTimestamp(1, new Timestamp(start));
+					}
 				}
 				ps.setFetchSize(1000);
 				ResultSet rs = ps.executeQuery();
 				while (rs.next()) {
-					topList.put(rs.getString(1), rs.getInt(2));
+					UUID uuid = getUUID(rs, 1);
+					if (uuid != null) {
+						topList.put(uuid.toString(), rs.getInt(2));
+					}
 				}
 			}
-			return topList;
-		}).executeOperation("computing the list of top players");
+			Map<UUID, Integer> uncountedAchievements = getUncountedAchievements(a -> start == 0L || (totals
+					? toEpochDay(a.getReceptionTime()) >= toEpochDay(start)
+					: a.getReceptionTime() > start));
+			if (uncountedAchievements.isEmpty()) {
+				return topList;
+			}
+			uncountedAchievements.forEach((uuid, amount) -> topList.merge(uuid.toString(), amount, Integer::sum));
+			Map<String, Integer> sortedTopList = new LinkedHashMap<>();
+			topList.entrySet().stream().sorted(Entry.<String, Integer> comparingByValue().reversed())
+					.forEachOrdered(e -> sortedTopList.put(e.getKey(), e.getValue()));
+			return sortedTopList;
+		}).executeOperation(circuitBreaker, operationMetrics, "computing the list of top players");
+	}
+
+	/**
+	 * Counts, per player, the received achievements waiting to be written that are not part of the counts read from
+	 * the database. Must be called after reading these counts, as achievements may be written in the meantime.
+	 *
+	 * @param filter
+	 * @return the numbers of achievements to add to the database counts, per player
+	 */
+	private Map<UUID, Integer> getUncountedAchievements(Predicate<PendingAchievement> filter) {
+		Map<UUID, Integer> amounts = new HashMap<>();
+		for (PendingAchievement achievement : unwrittenAchievements.values()) {
+			if (achievement.isUncounted() && filter.test(achievement)) {
+				amounts.merge(achievement.getPlayer(), 1, Integer::sum);
+			}
+		}
+		return amounts;
 	}
 
 	/**
@@ -314,248 +687,1384 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 	 * @param achMessage
 	 */
 	public void registerAchievement(UUID uuid, String achName, String achMessage) {
-		registerAchievement(uuid, achName, achMessage, System.currentTimeMillis());
+		registerAchievement(uuid, achName, achMessage, false);
 	}
 
 	/**
-	 * Registers a new achievement for a player.
+	 * Registers an achievement for a player with the reception time set to now.
 	 *
 	 * @param uuid
 	 * @param achName
 	 * @param achMessage
-	 * @param epochMs Moment the achievement was registered at.
+	 * @param receivedAgain whether the player had already received the achievement
 	 */
-	void registerAchievement(UUID uuid, String achName, String achMessage, long epochMs) {
-		String sql = "REPLACE INTO " + prefix + "achievements VALUES (?,?,?,?)";
-		((SQLWriteOperation) () -> {
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
-				ps.setObject(1, uuid, Types.CHAR);
-				ps.setString(2, achName);
-				ps.setString(3, achMessage == null ? "" : achMessage);
-				ps.setTimestamp(4, new Timestamp(epochMs));
-				ps.execute();
-			}
-		}).executeOperation(pool, logger, "registering an achievement");
+	public void registerAchievement(UUID uuid, String achName, String achMessage, boolean receivedAgain) {
+		registerAchievement(uuid, achName, achMessage, System.currentTimeMillis(), receivedAgain);
 	}
 
 	/**
-	 * Checks whether player has received a specific achievement.
+	 * Registers a new achievement for a player.
 	 *
 	 * @param uuid
 	 * @param achName
-	 * @return true if achievement found in database, false otherwise
+	 * @param achMessage
+	 * @param epochMs Moment the achievement was registered at.
 	 */
-	public boolean hasPlayerAchievement(UUID uuid, String achName) {
-		// Check for names with single quotes but also two single quotes, due to a bug in versions 3.0 to 3.0.2
-		// where names containing single quotes were inserted with two single quotes in the database.
-		String sql = achName.contains("'")
-				? "SELECT achievement FROM " + prefix
-						+ "achievements WHERE playername = ? AND (achievement = ? OR achievement = ?)"
-				: "SELECT achievement FROM " + prefix + "achievements WHERE playername = ? AND achievement = ?";
-		return ((SQLReadOperation<Boolean>) () -> {
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
-				ps.setObject(1, uuid, Types.CHAR);
-				ps.setString(2, achName);
-				if (achName.contains("'")) {
-					ps.setString(3, StringUtils.replace(achName, "'", "''"));
-				}
-				return ps.executeQuery().next();
-			}
-		}).executeOperation("checking for an achievement");
+	void registerAchievement(UUID uuid, String achName, String achMessage, long epochMs) {
+		registerAchievement(uuid, achName, achMessage, epochMs, false);
 	}
 
 	/**
-	 * Gets a player's NormalAchievement statistic.
+	 * Registers an achievement for a player. The achievement is written to the database with the next batch of
+	 * statistics, or straight away if enough achievements are waiting to be written.
 	 *
 	 * @param uuid
-	 * @param category
-	 * @return statistic
+	 * @param achName
+	 * @param achMessage
+	 * @param epochMs Moment the achievement was registered at.
+	 * @param receivedAgain whether the player had already received the achievement
 	 */
-	public long getNormalAchievementAmount(UUID uuid, NormalAchievements category) {
-		String dbName = category.toDBName();
-		String sql = "SELECT " + dbName + " FROM " + prefix + dbName + " WHERE playername = ?";
-		return ((SQLReadOperation<Long>) () -> {
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
-				ps.setObject(1, uuid, Types.CHAR);
-				ResultSet rs = ps.executeQuery();
-				if (rs.next()) {
-					return rs.getLong(dbName);
-				}
+	void registerAchievement(UUID uuid, String achName, String achMessage, long epochMs, boolean receivedAgain) {
+		if (uuid == null) {
+			return;
+		}
+		// Journal the achievement until written, as it would otherwise be lost if the server stopped in the meantime.
+		WriteAheadJournal journal = writeAheadJournal;
+		long journalSequence = journal == null ? 0L : journal.appendAchievement(uuid, achName, achMessage, epochMs);
+		PendingAchievement[] replaced = new PendingAchievement[1];
+		unwrittenAchievements.compute(new AchievementKey(uuid, achName), (key, previous) -> {
+			replaced[0] = previous;
+			// An achievement replacing one that is not being written is counted as the replaced one was.
+			boolean counted = previous == null || previous.isWriting() ? !receivedAgain : !previous.isReceivedAgain();
+			return new PendingAchievement(uuid, achName, achMessage, epochMs, journalSequence, !counted);
+		});
+		if (replaced[0] != null && journal != null) {
+			journal.completeAchievement(replaced[0].getJournalSequence());
+		}
+		int threshold = configAchievementFlushThreshold;
+		if (threshold > 0 && unwrittenAchievements.size() >= threshold && achievementFlushScheduled.compareAndSet(false,
+				true)) {
+			try {
+				pool.execute(() -> {
+					achievementFlushScheduled.set(false);
+					writeUnwrittenAchievements();
+				});
+			} catch (WriteExecutor.SaturationException e) {
+				// Written with the next batch of statistics instead.
+				achievementFlushScheduled.set(false);
 			}
-			return 0L;
-		}).executeOperation("retrieving " + category + " statistics");
+		}
 	}
 
 	/**
-	 * Gets a player's MultipleAchievement statistic.
-	 *
-	 * @param uuid
-	 * @param category
-	 * @param subcategory
-	 * @return statistic
+	 * Writes the received achievements that are waiting for the next batch of statistics in their own transaction.
 	 */
-	public long getMultipleAchievementAmount(UUID uuid, MultipleAchievements category, String subcategory) {
-		String dbName = category.toDBName();
-		String sql = "SELECT " + dbName + " FROM " + prefix + dbName + " WHERE playername = ? AND "
-				+ category.toSubcategoryDBName() + " = ?";
-		return ((SQLReadOperation<Long>) () -> {
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
-				ps.setObject(1, uuid, Types.CHAR);
-				ps.setString(2, subcategory);
-				ResultSet rs = ps.executeQuery();
-				if (rs.next()) {
-					return rs.getLong(dbName);
-				}
-			}
-			return 0L;
-		}).executeOperation("retrieving " + category + "." + subcategory + " statistics");
+	void writeUnwrittenAchievements() {
+		List<PendingAchievement> achievements = getUnwrittenAchievements();
+		if (!achievements.isEmpty()) {
+			writeAchievementsAndStatistics(Runnable::run, achievements, Collections.emptyMap(), Collections.emptyMap(),
+					Collections.emptyMap(), Collections.emptyMap(), "registering achievements", null);
+		}
 	}
 
 	/**
-	 * Returns a player's number of connections on separate days (used by GUI).
+	 * Writes received achievements and statistics in a single transaction, retries being scheduled by the
+	 * RetryScheduler. Achievements that were deleted or received again since they were collected are left out, and
+	 * written ones are no longer considered unwritten.
 	 *
-	 * @param uuid
-	 * @return connections statistic
+	 * @param executor
+	 * @param achievements
+	 * @param multipleRows
+	 * @param normalRows
+	 * @param multipleIncrements
+	 * @param normalIncrements
+	 * @param operationMessage
+	 * @param callback called with the outcome of the operation once it succeeded or was given up on, may be null
 	 */
-	public int getConnectionsAmount(UUID uuid) {
-		String dbName = NormalAchievements.CONNECTIONS.toDBName();
-		String sql = "SELECT " + dbName + " FROM " + prefix + dbName + " WHERE playername = ?";
-		return ((SQLReadOperation<Integer>) () -> {
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
-				ps.setObject(1, uuid, Types.CHAR);
-				ResultSet rs = ps.executeQuery();
-				if (rs.next()) {
-					return rs.getInt(dbName);
+	void writeAchievementsAndStatistics(Executor executor, List<PendingAchievement> achievements,
+			Map<MultipleAchievements, List<Object[]>> multipleRows, Map<NormalAchievements, List<Object[]>> normalRows,
+			Map<MultipleAchievements, List<Object[]>> multipleIncrements,
+			Map<NormalAchievements, List<Object[]>> normalIncrements, String operationMessage,
+			Consumer<Boolean> callback) {
+		retryScheduler.execute(executor, () -> {
+			// Achievements must not be deleted whilst being written.
+			synchronized (achievementWriteLock) {
+				List<PendingAchievement> pendingAchievements = new ArrayList<>(achievements.size());
+				for (PendingAchievement achievement : achievements) {
+					// Marked before checking that it was not replaced, as it may be part of the database from now on.
+					achievement.setWriting(true);
+					if (unwrittenAchievements.get(achievement.getKey()) == achievement) {
+						pendingAchievements.add(achievement);
+					} else {
+						achievement.setWriting(false);
+					}
+				}
+				try (Connection conn = getSQLWriteConnection()) {
+					try {
+						// Send everything in a single transaction, unfinished ones are rolled back by the connection
+						// pool.
+						writeStatistics(conn, pendingAchievements, multipleRows, normalRows, multipleIncrements,
+								normalIncrements);
+					} catch (BatchUpdateException e) { // Attempt to solve issue #309.
+						discardSQLConnection(conn);
+						throw e;
+					}
+				} catch (SQLException | RuntimeException e) {
+					pendingAchievements.forEach(a -> a.setWriting(false));
+					throw e;
 				}
+				completeAchievementWrites(pendingAchievements, true);
 			}
-			return 0;
-		}).executeOperation("retrieving connection statistics");
+		}, operationMessage, written -> {
+			if (!written) {
+				synchronized (achievementWriteLock) {
+					completeAchievementWrites(achievements, false);
+				}
+			}
+			if (callback != null) {
+				callback.accept(written);
+			}
+		});
 	}
 
 	/**
-	 * Gets a player's last connection date.
-	 *
-	 * @param uuid
-	 * @return String with date
+	 * Discards the received achievements not yet written as well as the journaled changes, for instance before the
+	 * contents of the database are replaced. Waits for any write of received achievements in progress to complete.
 	 */
-	public String getPlayerConnectionDate(UUID uuid) {
-		String dbName = NormalAchievements.CONNECTIONS.toDBName();
-		String sql = "SELECT date FROM " + prefix + dbName + " WHERE playername = ?";
-		return ((SQLReadOperation<String>) () -> {
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
-				ps.setObject(1, uuid, Types.CHAR);
-				ResultSet rs = ps.executeQuery();
-				if (rs.next()) {
-					return rs.getString("date");
-				}
+	void discardPendingWrites() {
+		synchronized (achievementWriteLock) {
+			unwrittenAchievements.clear();
+			WriteAheadJournal journal = writeAheadJournal;
+			if (journal != null) {
+				journal.clear();
 			}
-			return null;
-		}).executeOperation("retrieving a player's last connection date");
+		}
 	}
 
 	/**
-	 * Updates a player's number of connections and last connection date and returns number of connections (used by
-	 * Connections listener).
+	 * Returns the lock to hold whilst writing the achievements returned by {@link #getUnwrittenAchievements()}.
 	 *
-	 * @param uuid
-	 * @param date
-	 * @return connections statistic
+	 * @return the lock object
 	 */
-	public int updateAndGetConnection(UUID uuid, String date) {
-		String dbName = NormalAchievements.CONNECTIONS.toDBName();
-		String sqlRead = "SELECT " + dbName + " FROM " + prefix + dbName + " WHERE playername = ?";
-		return ((SQLReadOperation<Integer>) () -> {
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sqlRead)) {
-				ps.setObject(1, uuid, Types.CHAR);
-				ResultSet rs = ps.executeQuery();
-				int connections = rs.next() ? rs.getInt(dbName) + 1 : 1;
-				String sqlWrite = "REPLACE INTO " + prefix + dbName + " VALUES (?,?,?)";
-				((SQLWriteOperation) () -> {
-					Connection writeConn = getSQLConnection();
-					try (PreparedStatement writePrep = writeConn.prepareStatement(sqlWrite)) {
-						writePrep.setObject(1, uuid, Types.CHAR);
-						writePrep.setInt(2, connections);
-						writePrep.setString(3, date);
-						writePrep.execute();
-					}
-				}).executeOperation(pool, logger, "updating connection date and count");
-				return connections;
-			}
-		}).executeOperation("handling connection event");
+	Object getAchievementWriteLock() {
+		return achievementWriteLock;
 	}
 
 	/**
-	 * Deletes an achievement from a player.
+	 * Returns the received achievements that have not been written to the database yet.
 	 *
-	 * @param uuid
-	 * @param achName
+	 * @return the unwritten achievements
 	 */
-	public void deletePlayerAchievement(UUID uuid, String achName) {
-		// Check for names with single quotes but also two single quotes, due to a bug in versions 3.0 to 3.0.2
-		// where names containing single quotes were inserted with two single quotes in the database.
-		String sql = achName.contains("'")
-				? "DELETE FROM " + prefix + "achievements WHERE playername = ? AND (achievement = ? OR achievement = ?)"
-				: "DELETE FROM " + prefix + "achievements WHERE playername = ? AND achievement = ?";
-		((SQLWriteOperation) () -> {
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
-				ps.setObject(1, uuid, Types.CHAR);
-				ps.setString(2, achName);
-				if (achName.contains("'")) {
-					ps.setString(3, StringUtils.replace(achName, "'", "''"));
-				}
-				ps.execute();
-			}
-		}).executeOperation(pool, logger, "deleting an achievement");
+	List<PendingAchievement> getUnwrittenAchievements() {
+		return new ArrayList<>(unwrittenAchievements.values());
 	}
 
 	/**
-	 * Clears Connection statistics for a given player.
+	 * Indicates that an attempt to write received achievements completed. Achievements that could not be written are
+	 * kept for the next batch if the database is unreachable, or attempted again one by one otherwise, so that a single
+	 * erroneous achievement does not prevent further writes.
 	 *
-	 * @param uuid
+	 * @param achievements
+	 * @param written
 	 */
-	public void clearConnection(UUID uuid) {
-		String sql = "DELETE FROM " + prefix + "connections WHERE playername = '" + uuid + "'";
-		((SQLWriteOperation) () -> {
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
-				ps.execute();
+	void completeAchievementWrites(List<PendingAchievement> achievements, boolean written) {
+		WriteAheadJournal journal = writeAheadJournal;
+		for (PendingAchievement achievement : achievements) {
+			AchievementKey key = achievement.getKey();
+			if (written) {
+				if (unwrittenAchievements.remove(key, achievement) && journal != null) {
+					journal.completeAchievement(achievement.getJournalSequence());
+				}
+			} else if (circuitBreaker.getState() != CircuitBreaker.State.CLOSED || isWriteExecutorSaturated()) {
+				// Written with the next batch once the database is reachable again or the write executor caught up.
+				continue;
+			} else if (achievements.size() > 1) {
+				writeUnwrittenAchievement(achievement);
+			} else {
+				// Same behaviour as other write operations: give up, the journal still holds the achievement.
+				unwrittenAchievements.remove(key, achievement);
 			}
-		}).executeOperation(pool, logger, "clearing connection statistics");
+		}
 	}
 
-	String getPrefix() {
-		return prefix;
+	private void writeUnwrittenAchievement(PendingAchievement achievement) {
+		writeAchievementsAndStatistics(pool, Collections.singletonList(achievement), Collections.emptyMap(),
+				Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), "registering an achievement",
+				null);
 	}
 
 	/**
-	 * Returns a list of AwardedDBAchievements get by a player.
+	 * Writes received achievements to the database, as part of the current transaction, and updates the totals of the
+	 * players if enabled.
 	 *
-	 * @param uuid UUID of a player.
-	 * @return ArrayList containing all information about achievements awarded to a player.
+	 * @param conn
+	 * @param achievements
+	 * @param achievementIds identifiers of the achievements, or null if achievements are stored by name
+	 * @throws SQLException
+	 */
+	private void insertAchievements(Connection conn, List<PendingAchievement> achievements, int[] achievementIds)
+			throws SQLException {
+		String sql = achievementIds == null ? getAchievementUpsertQuery(prefix + "achievements")
+				: getPlayerAchievementUpsertQuery(prefix + PLAYER_ACHIEVEMENTS_TABLE);
+		// Read before the rows are replaced, as an achievement received anew moves from one day to another.
+		Map<UUID, Map<Integer, Integer>> dailyDeltas = playerTotals
+				? getPlayerTotalsDeltas(conn, achievements, achievementIds)
+				: null;
+		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			for (int i = 0; i < achievements.size(); ++i) {
+				PendingAchievement achievement = achievements.get(i);
+				ps.setObject(1, toDatabaseUUID(achievement.getPlayer()));
+				if (achievementIds == null) {
+					ps.setString(2, achievement.getName());
+					ps.setString(3, achievement.getMessage() == null ? "" : achievement.getMessage());
+					ps.setTimestamp(4, new Timestamp(achievement.getReceptionTime()));
+				} else {
+					ps.setInt(2, achievementIds[i]);
+					ps.setTimestamp(3, new Timestamp(achievement.getReceptionTime()));
+				}
+				ps.addBatch();
+			}
+			ps.executeBatch();
+		}
+		if (dailyDeltas != null) {
+			addToPlayerTotals(conn, dailyDeltas);
+		}
+	}
+
+	/**
+	 * Computes the changes of the players' daily totals caused by writing received achievements: each of them counts
+	 * towards the day it was received, and no longer towards the day it was previously received, if any.
+	 *
+	 * @param conn
+	 * @param achievements
+	 * @param achievementIds identifiers of the achievements, or null if achievements are stored by name
+	 * @return the changes of the daily totals, per player and day
+	 * @throws SQLException
+	 */
+	private Map<UUID, Map<Integer, Integer>> getPlayerTotalsDeltas(Connection conn,
+			List<PendingAchievement> achievements, int[] achievementIds) throws SQLException {
+		Map<UUID, Map<Integer, Integer>> dailyDeltas = new HashMap<>();
+		for (PendingAchievement achievement : achievements) {
+			dailyDeltas.computeIfAbsent(achievement.getPlayer(), p -> new HashMap<>())
+					.merge(toEpochDay(achievement.getReceptionTime()), 1, Integer::sum);
+		}
+		// Previous reception dates are read with one query per chunk of achievements.
+		String achievementColumn = achievementIds == null ? "achievement" : "achievement_id";
+		String condition = "(playername = ? AND " + achievementColumn + " = ?)";
+		int chunkSize = getStatisticsUpsertChunkSize(2);
+		for (int chunkStart = 0; chunkStart < achievements.size(); chunkStart += chunkSize) {
+			int chunkEnd = Math.min(achievements.size(), chunkStart + chunkSize);
+			String sql = "SELECT playername, date FROM " + getAchievementsTable() + " WHERE "
+					+ StringUtils.repeat(condition, " OR ", chunkEnd - chunkStart);
+			try (PreparedStatement ps = conn.prepareStatement(sql)) {
+				int parameter = 1;
+				for (int i = chunkStart; i < chunkEnd; ++i) {
+					PendingAchievement achievement = achievements.get(i);
+					ps.setObject(parameter++, toDatabaseUUID(achievement.getPlayer()));
+					if (achievementIds == null) {
+						ps.setString(parameter++, achievement.getName());
+					} else {
+						ps.setInt(parameter++, achievementIds[i]);
+					}
+				}
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) {
+						UUID player = getUUID(rs, 1);
+						if (player != null) {
+							dailyDeltas.computeIfAbsent(player, p -> new HashMap<>())
+									.merge(toEpochDay(rs.getTimestamp(2).getTime()), -1, Integer::sum);
+						}
+					}
+				}
+			}
+		}
+		return dailyDeltas;
+	}
+
+	/**
+	 * Applies changes to the player totals tables, as part of the current transaction. Daily totals that drop to zero
+	 * are removed.
+	 *
+	 * @param conn
+	 * @param dailyDeltas changes of the daily totals, per player and day
+	 * @throws SQLException
+	 */
+	private void addToPlayerTotals(Connection conn, Map<UUID, Map<Integer, Integer>> dailyDeltas) throws SQLException {
+		List<Object[]> totalRows = new ArrayList<>();
+		List<Object[]> dailyTotalRows = new ArrayList<>();
+		List<UUID> decreasedPlayers = new ArrayList<>();
+		for (Entry<UUID, Map<Integer, Integer>> playerDailyDeltas : dailyDeltas.entrySet()) {
+			UUID player = playerDailyDeltas.getKey();
+			int totalDelta = 0;
+			boolean decreased = false;
+			for (Entry<Integer, Integer> dailyDelta : playerDailyDeltas.getValue().entrySet()) {
+				if (dailyDelta.getValue() != 0) {
+					dailyTotalRows.add(new Object[] { player, dailyDelta.getKey(), dailyDelta.getValue() });
+					totalDelta += dailyDelta.getValue();
+					decreased |= dailyDelta.getValue() < 0;
+				}
+			}
+			if (totalDelta != 0) {
+				totalRows.add(new Object[] { player, totalDelta });
+			}
+			if (decreased) {
+				decreasedPlayers.add(player);
+			}
+		}
+		insertPositiveRows(conn, prefix + PLAYER_TOTALS_TABLE,
+				addToExistingRows(conn, prefix + PLAYER_TOTALS_TABLE, new String[] { "playername", "total" }, totalRows));
+		insertPositiveRows(conn, prefix + PLAYER_DAILY_TOTALS_TABLE, addToExistingRows(conn,
+				prefix + PLAYER_DAILY_TOTALS_TABLE, new String[] { "playername", "day", "total" }, dailyTotalRows));
+		if (!decreasedPlayers.isEmpty()) {
+			try (PreparedStatement ps = conn.prepareStatement(
+					"DELETE FROM " + prefix + PLAYER_DAILY_TOTALS_TABLE + " WHERE playername = ? AND total <= 0")) {
+				for (UUID player : decreasedPlayers) {
+					ps.setObject(1, toDatabaseUUID(player));
+					ps.addBatch();
+				}
+				ps.executeBatch();
+			}
+		}
+	}
+
+	private void insertPositiveRows(Connection conn, String table, List<Object[]> rows) throws SQLException {
+		if (rows.isEmpty()) {
+			return;
+		}
+		int columnCount = rows.get(0).length;
+		try (PreparedStatement ps = conn.prepareStatement(
+				"INSERT INTO " + table + " VALUES " + getRowPlaceholders(columnCount, 1))) {
+			for (Object[] row : rows) {
+				// Missing rows with negative changes were already inconsistent, they are fixed by a rebuild.
+				if ((int) row[columnCount - 1] > 0) {
+					// Bound as scalar values, the upsert binding of some databases differs.
+					for (int column = 0; column < columnCount; ++column) {
+						Object value = row[column];
+						ps.setObject(column + 1, value instanceof UUID ? toDatabaseUUID((UUID) value) : value);
+					}
+					ps.addBatch();
+				}
+			}
+			ps.executeBatch();
+		}
+	}
+
+	/**
+	 * Recounts the achievements received by players and replaces their rows in the player totals tables, as part of
+	 * the current transaction.
+	 *
+	 * @param conn
+	 * @param players
+	 * @throws SQLException
+	 */
+	private void updatePlayerTotals(Connection conn, Collection<UUID> players) throws SQLException {
+		Map<UUID, Map<Integer, Integer>> dailyTotals = new HashMap<>();
+		String sql = "SELECT date FROM " + getAchievementsTable() + " WHERE playername = ?";
+		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			for (UUID player : players) {
+				Map<Integer, Integer> playerDailyTotals = new HashMap<>();
+				ps.setObject(1, toDatabaseUUID(player));
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) {
+						playerDailyTotals.merge(toEpochDay(rs.getTimestamp(1).getTime()), 1, Integer::sum);
+					}
+				}
+				dailyTotals.put(player, playerDailyTotals);
+			}
+		}
+		replacePlayerTotals(conn, dailyTotals);
+	}
+
+	/**
+	 * Rebuilds the player totals tables from the received achievements, in a single transaction.
+	 *
+	 * @param conn
+	 * @return the number of players with at least one achievement
+	 * @throws SQLException
+	 */
+	int rebuildPlayerTotals(Connection conn) throws SQLException {
+		conn.setAutoCommit(false);
+		try (Statement st = conn.createStatement()) {
+			st.execute("DELETE FROM " + prefix + PLAYER_TOTALS_TABLE);
+			st.execute("DELETE FROM " + prefix + PLAYER_DAILY_TOTALS_TABLE);
+		}
+		int players = 0;
+		Map<UUID, Map<Integer, Integer>> dailyTotals = new HashMap<>();
+		// Rows are ordered by player, the totals of a chunk of players are written once all their rows were read.
+		String sql = "SELECT playername, date FROM " + getAchievementsTable() + " ORDER BY playername";
+		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			ps.setFetchSize(1000);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					UUID player = getUUID(rs, 1);
+					if (player == null) {
+						continue;
+					}
+					Map<Integer, Integer> playerDailyTotals = dailyTotals.get(player);
+					if (playerDailyTotals == null) {
+						if (dailyTotals.size() >= PLAYER_TOTALS_CHUNK_SIZE) {
+							players += dailyTotals.size();
+							replacePlayerTotals(conn, dailyTotals);
+							dailyTotals.clear();
+						}
+						playerDailyTotals = new HashMap<>();
+						dailyTotals.put(player, playerDailyTotals);
+					}
+					playerDailyTotals.merge(toEpochDay(rs.getTimestamp(2).getTime()), 1, Integer::sum);
+				}
+			}
+		}
+		players += dailyTotals.size();
+		replacePlayerTotals(conn, dailyTotals);
+		conn.commit();
+		return players;
+	}
+
+	/**
+	 * Rebuilds the player totals tables from the received achievements. The first attempt is made on the calling thread,
+	 * retries being scheduled by the RetryScheduler.
+	 *
+	 * @param callback called with the number of players with at least one achievement, or -1 if the tables could not
+	 *            be rebuilt
+	 */
+	public void rebuildPlayerTotals(IntConsumer callback) {
+		AtomicInteger players = new AtomicInteger(-1);
+		retryScheduler.execute(Runnable::run, () -> {
+			// Achievements must not be written or deleted whilst the totals are being rebuilt.
+			synchronized (achievementWriteLock) {
+				try (Connection conn = getSQLWriteConnection()) {
+					players.set(rebuildPlayerTotals(conn));
+				}
+			}
+		}, "rebuilding player totals", written -> callback.accept(written ? players.get() : -1));
+	}
+
+	public boolean hasPlayerTotals() {
+		return playerTotals;
+	}
+
+	private void replacePlayerTotals(Connection conn, Map<UUID, Map<Integer, Integer>> dailyTotals)
+			throws SQLException {
+		try (PreparedStatement deleteTotals = conn
+				.prepareStatement("DELETE FROM " + prefix + PLAYER_TOTALS_TABLE + " WHERE playername = ?");
+				PreparedStatement deleteDailyTotals = conn
+						.prepareStatement("DELETE FROM " + prefix + PLAYER_DAILY_TOTALS_TABLE + " WHERE playername = ?");
+				PreparedStatement insertTotals = conn
+						.prepareStatement("INSERT INTO " + prefix + PLAYER_TOTALS_TABLE + " VALUES (?,?)");
+				PreparedStatement insertDailyTotals = conn
+						.prepareStatement("INSERT INTO " + prefix + PLAYER_DAILY_TOTALS_TABLE + " VALUES (?,?,?)")) {
+			for (Entry<UUID, Map<Integer, Integer>> playerDailyTotals : dailyTotals.entrySet()) {
+				Object player = toDatabaseUUID(playerDailyTotals.getKey());
+				deleteTotals.setObject(1, player);
+				deleteTotals.addBatch();
+				deleteDailyTotals.setObject(1, player);
+				deleteDailyTotals.addBatch();
+				int total = 0;
+				for (Entry<Integer, Integer> dailyTotal : playerDailyTotals.getValue().entrySet()) {
+					insertDailyTotals.setObject(1, player);
+					insertDailyTotals.setInt(2, dailyTotal.getKey());
+					insertDailyTotals.setInt(3, dailyTotal.getValue());
+					insertDailyTotals.addBatch();
+					total += dailyTotal.getValue();
+				}
+				if (total > 0) {
+					insertTotals.setObject(1, player);
+					insertTotals.setInt(2, total);
+					insertTotals.addBatch();
+				}
+			}
+			deleteTotals.executeBatch();
+			deleteDailyTotals.executeBatch();
+			insertTotals.executeBatch();
+			insertDailyTotals.executeBatch();
+		}
+	}
+
+	/**
+	 * Converts a time to the day used by the player daily totals table, in the time zone of the server.
+	 *
+	 * @param epochMillis
+	 * @return the number of days since the epoch
+	 */
+	static int toEpochDay(long epochMillis) {
+		return (int) Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+	}
+
+	/**
+	 * Resolves the identifiers of received achievements and stores their descriptions. Must not be called within a
+	 * transaction, see StatisticsDictionary.
+	 *
+	 * @param conn
+	 * @param achievements
+	 * @return the identifiers, or null if achievements are stored by name
+	 * @throws SQLException
+	 */
+	private int[] getAchievementIds(Connection conn, List<PendingAchievement> achievements) throws SQLException {
+		AchievementDictionary dictionary = achievementDictionary;
+		if (dictionary == null) {
+			return null;
+		}
+		int[] achievementIds = new int[achievements.size()];
+		for (int i = 0; i < achievements.size(); ++i) {
+			String achName = achievements.get(i).getName();
+			String achMessage = achievements.get(i).getMessage();
+			achievementIds[i] = dictionary.getOrCreateId(conn, achName);
+			dictionary.updateDescription(conn, achName, achMessage == null ? "" : achMessage);
+		}
+		return achievementIds;
+	}
+
+	/**
+	 * Checks whether player has received a specific achievement.
+	 *
+	 * @param uuid
+	 * @param achName
+	 * @return true if achievement found in database, false otherwise
+	 */
+	public boolean hasPlayerAchievement(UUID uuid, String achName) {
+		if (uuid != null && unwrittenAchievements.containsKey(new AchievementKey(uuid, achName))) {
+			return true;
+		}
+		AchievementDictionary dictionary = achievementDictionary;
+		if (dictionary != null) {
+			Integer id = dictionary.getId(achName);
+			String sql = "SELECT achievement_id FROM " + prefix + PLAYER_ACHIEVEMENTS_TABLE
+					+ " WHERE playername = ? AND achievement_id = ?";
+			return id != null && ((SQLReadOperation<Boolean>) () -> {
+				try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+					ps.setObject(1, toDatabaseUUID(uuid));
+					ps.setInt(2, id);
+					return ps.executeQuery().next();
+				}
+			}).executeOperation(circuitBreaker, operationMetrics, "checking for an achievement");
+		}
+		// Check for names with single quotes but also two single quotes, due to a bug in versions 3.0 to 3.0.2
+		// where names containing single quotes were inserted with two single quotes in the database.
+		String sql = achName.contains("'")
+				? "SELECT achievement FROM " + prefix
+						+ "achievements WHERE playername = ? AND (achievement = ? OR achievement = ?)"
+				: "SELECT achievement FROM " + prefix + "achievements WHERE playername = ? AND achievement = ?";
+		return ((SQLReadOperation<Boolean>) () -> {
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
+				ps.setString(2, achName);
+				if (achName.contains("'")) {
+					ps.setString(3, StringUtils.replace(achName, "'", "''"));
+				}
+				return ps.executeQuery().next();
+			}
+		}).executeOperation(circuitBreaker, operationMetrics, "checking for an achievement");
+	}
+
+	/**
+	 * Gets a player's NormalAchievement statistic.
+	 *
+	 * @param uuid
+	 * @param category
+	 * @return statistic
+	 */
+	public long getNormalAchievementAmount(UUID uuid, NormalAchievements category) {
+		StatisticsDictionary dictionary = statisticsDictionary;
+		String dbName = category.toDBName();
+		String sql = dictionary == null ? "SELECT " + dbName + " FROM " + prefix + dbName + " WHERE playername = ?"
+				: "SELECT amount FROM " + prefix + STATISTICS_TABLE + " WHERE playername = ? AND category_id = "
+						+ dictionary.getCategoryId(category) + " AND subcategory_id = "
+						+ StatisticsDictionary.NO_SUBCATEGORY;
+		return ((SQLReadOperation<Long>) () -> {
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
+				ResultSet rs = ps.executeQuery();
+				if (rs.next()) {
+					return rs.getLong(1);
+				}
+			}
+			return 0L;
+		}).executeOperation(circuitBreaker, operationMetrics, "retrieving " + category + " statistics");
+	}
+
+	/**
+	 * Gets a player's MultipleAchievement statistic.
+	 *
+	 * @param uuid
+	 * @param category
+	 * @param subcategory
+	 * @return statistic
+	 */
+	public long getMultipleAchievementAmount(UUID uuid, MultipleAchievements category, String subcategory) {
+		StatisticsDictionary dictionary = statisticsDictionary;
+		String dbName = category.toDBName();
+		String sql = dictionary == null
+				? "SELECT " + dbName + " FROM " + prefix + dbName + " WHERE playername = ? AND "
+						+ category.toSubcategoryDBName() + " = ?"
+				: "SELECT st.amount FROM " + prefix + STATISTICS_TABLE + " st JOIN " + prefix
+						+ StatisticsDictionary.SUBCATEGORIES_TABLE + " s ON st.subcategory_id = s.id"
+						+ " WHERE st.playername = ? AND st.category_id = " + dictionary.getCategoryId(category)
+						+ " AND s.name = ?";
+		return ((SQLReadOperation<Long>) () -> {
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
+				ps.setString(2, subcategory);
+				ResultSet rs = ps.executeQuery();
+				if (rs.next()) {
+					return rs.getLong(1);
+				}
+			}
+			return 0L;
+		}).executeOperation(circuitBreaker, operationMetrics, "retrieving " + category + " statistics");
+	}
+
+	/**
+	 * Gets all of a player's NormalAchievement statistics with a single query. Connections are not included.
+	 *
+	 * @param uuid
+	 * @return map containing the statistics found in the database
+	 */
+	public Map<NormalAchievements, Long> getNormalAchievementAmounts(UUID uuid) {
+		StatisticsDictionary dictionary = statisticsDictionary;
+		if (dictionary != null) {
+			return getConsolidatedNormalAchievementAmounts(uuid, dictionary);
+		}
+		List<NormalAchievements> categories = Arrays.stream(NormalAchievements.values())
+				.filter(category -> category != NormalAchievements.CONNECTIONS).collect(Collectors.toList());
+		String sql = categories.stream()
+				.map(category -> "SELECT " + category.ordinal() + "," + category.toDBName() + " FROM " + prefix
+						+ category.toDBName() + " WHERE playername = ?")
+				.collect(Collectors.joining(" UNION ALL "));
+		return ((SQLReadOperation<Map<NormalAchievements, Long>>) () -> {
+			Map<NormalAchievements, Long> amounts = new EnumMap<>(NormalAchievements.class);
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+				for (int i = 1; i <= categories.size(); ++i) {
+					ps.setObject(i, toDatabaseUUID(uuid));
+				}
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) {
+						amounts.put(NormalAchievements.values()[rs.getInt(1)], rs.getLong(2));
+					}
+				}
+			}
+			return amounts;
+		}).executeOperation(circuitBreaker, operationMetrics, "retrieving all Normal statistics of a player");
+	}
+
+	/**
+	 * Gets all of a player's MultipleAchievement statistics with a single query.
+	 *
+	 * @param uuid
+	 * @return map containing, for each category, the statistics found in the database keyed by subcategory
+	 */
+	public Map<MultipleAchievements, Map<String, Long>> getMultipleAchievementAmounts(UUID uuid) {
+		StatisticsDictionary dictionary = statisticsDictionary;
+		if (dictionary != null) {
+			return getConsolidatedMultipleAchievementAmounts(uuid, dictionary);
+		}
+		MultipleAchievements[] categories = MultipleAchievements.values();
+		String sql = Arrays.stream(categories)
+				.map(category -> "SELECT " + category.ordinal() + "," + category.toSubcategoryDBName() + ","
+						+ category.toDBName() + " FROM " + prefix + category.toDBName() + " WHERE playername = ?")
+				.collect(Collectors.joining(" UNION ALL "));
+		return ((SQLReadOperation<Map<MultipleAchievements, Map<String, Long>>>) () -> {
+			Map<MultipleAchievements, Map<String, Long>> amounts = new EnumMap<>(MultipleAchievements.class);
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+				for (int i = 1; i <= categories.length; ++i) {
+					ps.setObject(i, toDatabaseUUID(uuid));
+				}
+				ps.setFetchSize(1000);
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) {
+						amounts.computeIfAbsent(categories[rs.getInt(1)], c -> new HashMap<>()).put(rs.getString(2),
+								rs.getLong(3));
+					}
+				}
+			}
+			return amounts;
+		}).executeOperation(circuitBreaker, operationMetrics, "retrieving all Multiple statistics of a player");
+	}
+
+	private Map<NormalAchievements, Long> getConsolidatedNormalAchievementAmounts(UUID uuid,
+			StatisticsDictionary dictionary) {
+		String sql = "SELECT category_id, amount FROM " + prefix + STATISTICS_TABLE
+				+ " WHERE playername = ? AND subcategory_id = " + StatisticsDictionary.NO_SUBCATEGORY;
+		return ((SQLReadOperation<Map<NormalAchievements, Long>>) () -> {
+			Map<NormalAchievements, Long> amounts = new EnumMap<>(NormalAchievements.class);
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) {
+						Category category = dictionary.getCategory(rs.getInt(1));
+						if (category instanceof NormalAchievements) {
+							amounts.put((NormalAchievements) category, rs.getLong(2));
+						}
+					}
+				}
+			}
+			return amounts;
+		}).executeOperation(circuitBreaker, operationMetrics, "retrieving all Normal statistics of a player");
+	}
+
+	private Map<MultipleAchievements, Map<String, Long>> getConsolidatedMultipleAchievementAmounts(UUID uuid,
+			StatisticsDictionary dictionary) {
+		String sql = "SELECT st.category_id, s.name, st.amount FROM " + prefix + STATISTICS_TABLE + " st JOIN " + prefix
+				+ StatisticsDictionary.SUBCATEGORIES_TABLE + " s ON st.subcategory_id = s.id WHERE st.playername = ?";
+		return ((SQLReadOperation<Map<MultipleAchievements, Map<String, Long>>>) () -> {
+			Map<MultipleAchievements, Map<String, Long>> amounts = new EnumMap<>(MultipleAchievements.class);
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
+				ps.setFetchSize(1000);
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) {
+						Category category = dictionary.getCategory(rs.getInt(1));
+						if (category instanceof MultipleAchievements) {
+							amounts.computeIfAbsent((MultipleAchievements) category, c -> new HashMap<>())
+									.put(rs.getString(2), rs.getLong(3));
+						}
+					}
+				}
+			}
+			return amounts;
+		}).executeOperation(circuitBreaker, operationMetrics, "retrieving all Multiple statistics of a player");
+	}
+
+	/**
+	 * Returns a player's number of connections on separate days (used by GUI).
+	 *
+	 * @param uuid
+	 * @return connections statistic
+	 */
+	public int getConnectionsAmount(UUID uuid) {
+		String dbName = NormalAchievements.CONNECTIONS.toDBName();
+		String sql = "SELECT " + dbName + " FROM " + prefix + dbName + " WHERE playername = ?";
+		return ((SQLReadOperation<Integer>) () -> {
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
+				ResultSet rs = ps.executeQuery();
+				if (rs.next()) {
+					return rs.getInt(dbName);
+				}
+			}
+			return 0;
+		}).executeOperation(circuitBreaker, operationMetrics, "retrieving connection statistics");
+	}
+
+	/**
+	 * Gets a player's last connection date.
+	 *
+	 * @param uuid
+	 * @return String with date
+	 */
+	public String getPlayerConnectionDate(UUID uuid) {
+		String dbName = NormalAchievements.CONNECTIONS.toDBName();
+		String sql = "SELECT date FROM " + prefix + dbName + " WHERE playername = ?";
+		return ((SQLReadOperation<String>) () -> {
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
+				ResultSet rs = ps.executeQuery();
+				if (rs.next()) {
+					return rs.getString("date");
+				}
+			}
+			return null;
+		}).executeOperation(circuitBreaker, operationMetrics, "retrieving a player's last connection date");
+	}
+
+	/**
+	 * Updates a player's number of connections and last connection date and returns number of connections (used by
+	 * Connections listener).
+	 *
+	 * @param uuid
+	 * @param date
+	 * @return connections statistic
+	 */
+	public int updateAndGetConnection(UUID uuid, String date) {
+		String dbName = NormalAchievements.CONNECTIONS.toDBName();
+		String sqlRead = "SELECT " + dbName + " FROM " + prefix + dbName + " WHERE playername = ?";
+		int connections = ((SQLReadOperation<Integer>) () -> {
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sqlRead)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
+				ResultSet rs = ps.executeQuery();
+				return rs.next() ? rs.getInt(dbName) + 1 : 1;
+			}
+		}).executeOperation(circuitBreaker, operationMetrics, "handling connection event");
+		// The read connection is handed back to the pool before writing, file databases only allow a single writer.
+		String sqlWrite = "REPLACE INTO " + prefix + dbName + " VALUES (?,?,?)";
+		((SQLWriteOperation) () -> {
+			try (Connection conn = getSQLWriteConnection(); PreparedStatement ps = conn.prepareStatement(sqlWrite)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
+				ps.setInt(2, connections);
+				ps.setString(3, date);
+				ps.execute();
+			}
+		}).executeOperation(retryScheduler, pool, "updating connection date and count");
+		return connections;
+	}
+
+	/**
+	 * Deletes an achievement from a player.
+	 *
+	 * @param uuid
+	 * @param achName
+	 */
+	public void deletePlayerAchievement(UUID uuid, String achName) {
+		AchievementDictionary dictionary = achievementDictionary;
+		Integer id = dictionary == null ? null : dictionary.getId(achName);
+		// Check for names with single quotes but also two single quotes, due to a bug in versions 3.0 to 3.0.2
+		// where names containing single quotes were inserted with two single quotes in the database.
+		String sql = dictionary != null
+				? "DELETE FROM " + prefix + PLAYER_ACHIEVEMENTS_TABLE + " WHERE playername = ? AND achievement_id = ?"
+				: achName.contains("'")
+						? "DELETE FROM " + prefix
+								+ "achievements WHERE playername = ? AND (achievement = ? OR achievement = ?)"
+						: "DELETE FROM " + prefix + "achievements WHERE playername = ? AND achievement = ?";
+		((SQLWriteOperation) () -> {
+			synchronized (achievementWriteLock) {
+				PendingAchievement unwrittenAchievement = uuid == null ? null
+						: unwrittenAchievements.remove(new AchievementKey(uuid, achName));
+				WriteAheadJournal journal = writeAheadJournal;
+				if (unwrittenAchievement != null && journal != null) {
+					journal.completeAchievement(unwrittenAchievement.getJournalSequence());
+				}
+				if (dictionary != null && id == null) {
+					return;
+				}
+				try (Connection conn = getSQLWriteConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+					boolean totals = playerTotals;
+					if (totals) {
+						conn.setAutoCommit(false);
+					}
+					ps.setObject(1, toDatabaseUUID(uuid));
+					if (id != null) {
+						ps.setInt(2, id);
+					} else {
+						ps.setString(2, achName);
+						if (achName.contains("'")) {
+							ps.setString(3, StringUtils.replace(achName, "'", "''"));
+						}
+					}
+					ps.execute();
+					if (totals) {
+						updatePlayerTotals(conn, Collections.singleton(uuid));
+						conn.commit();
+					}
+				}
+			}
+		}).executeOperation(retryScheduler, pool, "deleting an achievement");
+	}
+
+	/**
+	 * Clears Connection statistics for a given player.
+	 *
+	 * @param uuid
+	 */
+	public void clearConnection(UUID uuid) {
+		String sql = "DELETE FROM " + prefix + "connections WHERE playername = ?";
+		((SQLWriteOperation) () -> {
+			try (Connection conn = getSQLWriteConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
+				ps.execute();
+			}
+		}).executeOperation(retryScheduler, pool, "clearing connection statistics");
+	}
+
+	/**
+	 * Returns the name of the table storing received achievements, including prefix.
+	 *
+	 * @return the table name
+	 */
+	String getAchievementsTable() {
+		return prefix + (achievementDictionary == null ? "achievements" : PLAYER_ACHIEVEMENTS_TABLE);
+	}
+
+	/**
+	 * Builds a statement inserting or replacing a row of the achievements table, when achievements are stored by name.
+	 *
+	 * @param table
+	 * @return the SQL query
+	 */
+	String getAchievementUpsertQuery(String table) {
+		return "REPLACE INTO " + table + " VALUES (?,?,?,?)";
+	}
+
+	/**
+	 * Builds a statement inserting or replacing a row of the player achievements table.
+	 *
+	 * @param table
+	 * @return the SQL query
+	 */
+	String getPlayerAchievementUpsertQuery(String table) {
+		return "REPLACE INTO " + table + " VALUES (?,?,?)";
+	}
+
+	/**
+	 * Returns the fetch size making the driver stream rows from the database rather than loading them all in memory.
+	 *
+	 * @return the fetch size
+	 */
+	int getStreamingFetchSize() {
+		return 1000;
+	}
+
+	/**
+	 * Loads the dictionaries again, after the contents of the database were replaced.
+	 *
+	 * @param conn
+	 * @throws SQLException
+	 */
+	void reloadDictionaries(Connection conn) throws SQLException {
+		StatisticsDictionary statistics = statisticsDictionary;
+		if (statistics != null) {
+			statistics.clear();
+			statistics.loadCategories(conn);
+		}
+		AchievementDictionary achievements = achievementDictionary;
+		if (achievements != null) {
+			achievements.clear();
+			achievements.load(conn);
+		}
+	}
+
+	/**
+	 * Builds a statement creating an index, without preventing writes to the table if the database supports it.
+	 *
+	 * @param index
+	 * @param table
+	 * @param columns
+	 * @return the SQL query
+	 */
+	String getCreateIndexQuery(String index, String table, String columns) {
+		return "CREATE INDEX " + index + " ON " + table + " (" + columns + ")";
+	}
+
+	public boolean isDeltaStatisticWrites() {
+		return configDeltaStatisticWrites;
+	}
+
+	public CircuitBreaker getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	public OperationMetrics getOperationMetrics() {
+		return operationMetrics;
+	}
+
+	public RetryScheduler getRetryScheduler() {
+		return retryScheduler;
+	}
+
+	public WriteExecutor getWriteExecutor() {
+		return pool instanceof WriteExecutor ? (WriteExecutor) pool : null;
+	}
+
+	private boolean isWriteExecutorSaturated() {
+		WriteExecutor writeExecutor = getWriteExecutor();
+		return writeExecutor != null && writeExecutor.isSaturated();
+	}
+
+	/**
+	 * Runs the write operations that were deferred because the write queue was full, in the calling thread.
+	 *
+	 * @return the number of write operations run
+	 */
+	public int runDeferredWrites() {
+		WriteExecutor writeExecutor = getWriteExecutor();
+		return writeExecutor == null ? 0 : writeExecutor.runDeferredTasks();
+	}
+
+	public WriteAheadJournal getWriteAheadJournal() {
+		return writeAheadJournal;
+	}
+
+	public void setWriteAheadJournal(WriteAheadJournal writeAheadJournal) {
+		this.writeAheadJournal = writeAheadJournal;
+	}
+
+	AchievementDictionary getAchievementDictionary() {
+		return achievementDictionary;
+	}
+
+	/**
+	 * Returns the SQL type of the columns storing player UUIDs.
+	 *
+	 * @return the column type
+	 */
+	String getUUIDColumnType() {
+		return binaryUUIDs ? getBinaryUUIDColumnType() : "char(36)";
+	}
+
+	/**
+	 * Returns the SQL type used to store player UUIDs in binary form.
+	 *
+	 * @return the column type
+	 */
+	String getBinaryUUIDColumnType() {
+		return "BINARY(16)";
+	}
+
+	/**
+	 * Converts a UUID to the value bound to statement parameters, depending on the storage mode.
+	 *
+	 * @param uuid
+	 * @return the UUID as a string or as 16 bytes
+	 */
+	Object toDatabaseUUID(UUID uuid) {
+		if (uuid == null) {
+			return null;
+		} else if (!binaryUUIDs) {
+			return uuid.toString();
+		}
+		return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits())
+				.array();
+	}
+
+	/**
+	 * Reads a UUID from a result set, depending on the storage mode.
+	 *
+	 * @param rs
+	 * @param column
+	 * @return the UUID, or null if the column does not contain a valid UUID
+	 * @throws SQLException
+	 */
+	UUID getUUID(ResultSet rs, int column) throws SQLException {
+		if (binaryUUIDs) {
+			byte[] bytes = rs.getBytes(column);
+			if (bytes == null || bytes.length != 16) {
+				return null;
+			}
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			return new UUID(buffer.getLong(), buffer.getLong());
+		}
+		String uuid = rs.getString(column);
+		try {
+			return StringUtils.isEmpty(uuid) ? null : UUID.fromString(uuid);
+		} catch (IllegalArgumentException improperUUIDFormatException) {
+			return null;
+		}
+	}
+
+	String getPrefix() {
+		return prefix;
+	}
+
+	/**
+	 * Writes statistics to the database in a single transaction, using either one table per category or the
+	 * consolidated statistics table. Rows are made of the player's UUID, the subcategory for Multiple categories, and
+	 * the statistic value.
+	 *
+	 * @param conn
+	 * @param multipleRows
+	 * @param normalRows
+	 * @throws SQLException
+	 */
+	void writeStatistics(Connection conn, Map<MultipleAchievements, List<Object[]>> multipleRows,
+			Map<NormalAchievements, List<Object[]>> normalRows) throws SQLException {
+		writeStatistics(conn, multipleRows, normalRows, Collections.emptyMap(), Collections.emptyMap());
+	}
+
+	/**
+	 * Writes statistics to the database in a single transaction, some of them as values and others as deltas added to
+	 * the values already stored in the database.
+	 *
+	 * @param conn
+	 * @param multipleRows
+	 * @param normalRows
+	 * @param multipleDeltas
+	 * @param normalDeltas
+	 * @throws SQLException
+	 */
+	void writeStatistics(Connection conn, Map<MultipleAchievements, List<Object[]>> multipleRows,
+			Map<NormalAchievements, List<Object[]>> normalRows, Map<MultipleAchievements, List<Object[]>> multipleDeltas,
+			Map<NormalAchievements, List<Object[]>> normalDeltas) throws SQLException {
+		writeStatistics(conn, Collections.emptyList(), multipleRows, normalRows, multipleDeltas, normalDeltas);
+	}
+
+	/**
+	 * Writes received achievements and statistics to the database in a single transaction.
+	 *
+	 * @param conn
+	 * @param achievements
+	 * @param multipleRows
+	 * @param normalRows
+	 * @param multipleDeltas
+	 * @param normalDeltas
+	 * @throws SQLException
+	 */
+	void writeStatistics(Connection conn, List<PendingAchievement> achievements,
+			Map<MultipleAchievements, List<Object[]>> multipleRows, Map<NormalAchievements, List<Object[]>> normalRows,
+			Map<MultipleAchievements, List<Object[]>> multipleDeltas, Map<NormalAchievements, List<Object[]>> normalDeltas)
+			throws SQLException {
+		// Achievement identifiers are registered before starting the transaction, see StatisticsDictionary.
+		int[] achievementIds = achievements.isEmpty() ? null : getAchievementIds(conn, achievements);
+		StatisticsDictionary dictionary = statisticsDictionary;
+		if (dictionary == null) {
+			conn.setAutoCommit(false);
+			if (!achievements.isEmpty()) {
+				insertAchievements(conn, achievements, achievementIds);
+			}
+			writePerCategoryStatistics(conn, multipleRows, normalRows, false);
+			writePerCategoryStatistics(conn, multipleDeltas, normalDeltas, true);
+		} else {
+			// Subcategories are registered before starting the transaction, see StatisticsDictionary.
+			List<Object[]> rows = getConsolidatedRows(conn, dictionary, multipleRows, normalRows);
+			List<Object[]> deltas = getConsolidatedRows(conn, dictionary, multipleDeltas, normalDeltas);
+			conn.setAutoCommit(false);
+			if (!achievements.isEmpty()) {
+				insertAchievements(conn, achievements, achievementIds);
+			}
+			if (!rows.isEmpty()) {
+				upsertStatistics(conn, prefix + STATISTICS_TABLE, getConsolidatedStatisticsColumns(), rows);
+			}
+			if (!deltas.isEmpty()) {
+				addToStatistics(conn, prefix + STATISTICS_TABLE, getConsolidatedStatisticsColumns(), deltas);
+			}
+		}
+		conn.commit();
+	}
+
+	private void writePerCategoryStatistics(Connection conn, Map<MultipleAchievements, List<Object[]>> multipleRows,
+			Map<NormalAchievements, List<Object[]>> normalRows, boolean deltas) throws SQLException {
+		for (Entry<MultipleAchievements, List<Object[]>> entry : multipleRows.entrySet()) {
+			MultipleAchievements category = entry.getKey();
+			String[] columns = { "playername", category.toSubcategoryDBName(), category.toDBName() };
+			if (deltas) {
+				addToStatistics(conn, prefix + category.toDBName(), columns, entry.getValue());
+			} else {
+				upsertStatistics(conn, prefix + category.toDBName(), columns, entry.getValue());
+			}
+		}
+		for (Entry<NormalAchievements, List<Object[]>> entry : normalRows.entrySet()) {
+			NormalAchievements category = entry.getKey();
+			String[] columns = { "playername", category.toDBName() };
+			if (deltas) {
+				addToStatistics(conn, prefix + category.toDBName(), columns, entry.getValue());
+			} else {
+				upsertStatistics(conn, prefix + category.toDBName(), columns, entry.getValue());
+			}
+		}
+	}
+
+	private List<Object[]> getConsolidatedRows(Connection conn, StatisticsDictionary dictionary,
+			Map<MultipleAchievements, List<Object[]>> multipleRows, Map<NormalAchievements, List<Object[]>> normalRows)
+			throws SQLException {
+		List<Object[]> rows = new ArrayList<>();
+		for (Entry<MultipleAchievements, List<Object[]>> entry : multipleRows.entrySet()) {
+			int categoryId = dictionary.getCategoryId(entry.getKey());
+			for (Object[] row : entry.getValue()) {
+				int subcategoryId = dictionary.getOrCreateSubcategoryId(conn, entry.getKey(), (String) row[1]);
+				rows.add(new Object[] { row[0], categoryId, subcategoryId, row[2] });
+			}
+		}
+		for (Entry<NormalAchievements, List<Object[]>> entry : normalRows.entrySet()) {
+			int categoryId = dictionary.getCategoryId(entry.getKey());
+			for (Object[] row : entry.getValue()) {
+				rows.add(new Object[] { row[0], categoryId, StatisticsDictionary.NO_SUBCATEGORY, row[1] });
+			}
+		}
+		return rows;
+	}
+
+	static String[] getConsolidatedStatisticsColumns() {
+		return new String[] { "playername", "category_id", "subcategory_id", "amount" };
+	}
+
+	StatisticsDictionary getStatisticsDictionary() {
+		return statisticsDictionary;
+	}
+
+	/**
+	 * Inserts or replaces rows in a statistics table. Rows are sent in chunks using multi-row statements; the same
+	 * prepared statement is reused for all the full chunks.
+	 *
+	 * @param conn
+	 * @param table name of the table, including prefix
+	 * @param columns names of the columns, primary key columns first and statistic column last
+	 * @param rows values of the rows, in the same order as the columns
+	 * @throws SQLException
+	 */
+	void upsertStatistics(Connection conn, String table, String[] columns, List<Object[]> rows) throws SQLException {
+		writeStatisticChunks(conn, columns, rows, rowCount -> getStatisticsUpsertQuery(table, columns, rowCount));
+	}
+
+	/**
+	 * Adds deltas to the values of a statistics table, inserting the rows that do not exist yet. Unlike
+	 * {@link #upsertStatistics(Connection, String, String[], List)}, this does not lose the progress written by other
+	 * servers sharing the same database.
+	 *
+	 * @param conn
+	 * @param table name of the table, including prefix
+	 * @param columns names of the columns, primary key columns first and statistic column last
+	 * @param rows values of the rows, in the same order as the columns
+	 * @throws SQLException
+	 */
+	void addToStatistics(Connection conn, String table, String[] columns, List<Object[]> rows) throws SQLException {
+		if (getStatisticsDeltaQuery(table, columns, 1) != null) {
+			writeStatisticChunks(conn, columns, rows, rowCount -> getStatisticsDeltaQuery(table, columns, rowCount));
+			return;
+		}
+		// Update existing rows one by one, then insert the missing ones.
+		List<Object[]> missingRows = addToExistingRows(conn, table, columns, rows);
+		if (!missingRows.isEmpty()) {
+			upsertStatistics(conn, table, columns, missingRows);
+		}
+	}
+
+	/**
+	 * Adds deltas to the values of existing rows of a table, one by one.
+	 *
+	 * @param conn
+	 * @param table name of the table, including prefix
+	 * @param columns names of the columns, primary key columns first and value column last
+	 * @param rows values of the rows, in the same order as the columns
+	 * @return the rows that do not exist in the table
+	 * @throws SQLException
+	 */
+	private List<Object[]> addToExistingRows(Connection conn, String table, String[] columns, List<Object[]> rows)
+			throws SQLException {
+		if (rows.isEmpty()) {
+			return rows;
+		}
+		String valueColumn = columns[columns.length - 1];
+		String sql = "UPDATE " + table + " SET " + valueColumn + "=" + valueColumn + "+? WHERE "
+				+ StringUtils.join(columns, "=? AND ", 0, columns.length - 1) + "=?";
+		int[] updateCounts;
+		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			for (Object[] row : rows) {
+				ps.setObject(1, row[row.length - 1]);
+				for (int column = 0; column < row.length - 1; ++column) {
+					Object value = row[column];
+					ps.setObject(column + 2, value instanceof UUID ? toDatabaseUUID((UUID) value) : value);
+				}
+				ps.addBatch();
+			}
+			updateCounts = ps.executeBatch();
+		}
+		List<Object[]> missingRows = new ArrayList<>();
+		for (int row = 0; row < rows.size(); ++row) {
+			if (updateCounts[row] == 0) {
+				missingRows.add(rows.get(row));
+			}
+		}
+		return missingRows;
+	}
+
+	/**
+	 * Sends rows in chunks using multi-row statements; the same prepared statement is reused for all the full chunks.
+	 *
+	 * @param conn
+	 * @param columns
+	 * @param rows
+	 * @param queryBuilder builds a statement for a given number of rows
+	 * @throws SQLException
+	 */
+	private void writeStatisticChunks(Connection conn, String[] columns, List<Object[]> rows,
+			IntFunction<String> queryBuilder) throws SQLException {
+		int chunkSize = getStatisticsUpsertChunkSize(columns.length);
+		int fullChunks = rows.size() / chunkSize;
+		if (fullChunks > 0) {
+			try (PreparedStatement ps = conn.prepareStatement(queryBuilder.apply(chunkSize))) {
+				for (int chunk = 0; chunk < fullChunks; ++chunk) {
+					bindStatisticsUpsertRows(conn, ps, rows.subList(chunk * chunkSize, (chunk + 1) * chunkSize));
+					ps.addBatch();
+				}
+				ps.executeBatch();
+			}
+		}
+		int remainingRows = rows.size() - fullChunks * chunkSize;
+		if (remainingRows > 0) {
+			try (PreparedStatement ps = conn.prepareStatement(queryBuilder.apply(remainingRows))) {
+				bindStatisticsUpsertRows(conn, ps, rows.subList(rows.size() - remainingRows, rows.size()));
+				ps.execute();
+			}
+		}
+	}
+
+	/**
+	 * Returns the maximum number of rows written by a single upsert statement.
+	 *
+	 * @param columnCount
+	 * @return the number of rows in a full chunk
+	 */
+	int getStatisticsUpsertChunkSize(int columnCount) {
+		return configStatisticsWriteChunkSize;
+	}
+
+	/**
+	 * Builds a statement inserting or replacing multiple rows at once in a statistics table.
+	 *
+	 * @param table
+	 * @param columns
+	 * @param rowCount
+	 * @return the SQL query
+	 */
+	String getStatisticsUpsertQuery(String table, String[] columns, int rowCount) {
+		return "REPLACE INTO " + table + " VALUES " + getRowPlaceholders(columns.length, rowCount);
+	}
+
+	/**
+	 * Builds a statement adding deltas to the values of multiple rows at once in a statistics table, inserting the rows
+	 * that do not exist yet. Bound in the same way as {@code getStatisticsUpsertQuery}.
+	 *
+	 * @param table
+	 * @param columns
+	 * @param rowCount
+	 * @return the SQL query, or null if the database does not support such a statement
+	 */
+	String getStatisticsDeltaQuery(String table, String[] columns, int rowCount) {
+		return null;
+	}
+
+	/**
+	 * Binds the values of multiple rows to a statement built by {@code getStatisticsUpsertQuery}.
+	 *
+	 * @param conn
+	 * @param ps
+	 * @param rows
+	 * @throws SQLException
+	 */
+	void bindStatisticsUpsertRows(Connection conn, PreparedStatement ps, List<Object[]> rows) throws SQLException {
+		int index = 1;
+		for (Object[] row : rows) {
+			for (Object value : row) {
+				ps.setObject(index++, value instanceof UUID ? toDatabaseUUID((UUID) value) : value);
+			}
+		}
+	}
+
+	/**
+	 * Builds a list of row placeholders, for instance (?,?),(?,?) for two rows of two columns.
+	 *
+	 * @param columnCount
+	 * @param rowCount
+	 * @return comma separated row placeholders
+	 */
+	static String getRowPlaceholders(int columnCount, int rowCount) {
+		String row = "(" + StringUtils.repeat("?", ",", columnCount) + ")";
+		return StringUtils.repeat(row, ",", rowCount);
+	}
+
+	/**
+	 * Returns a list of AwardedDBAchievements get by a player.
+	 *
+	 * @param uuid UUID of a player.
+	 * @return ArrayList containing all information about achievements awarded to a player.
 	 */
 	public List<AwardedDBAchievement> getPlayerAchievementsList(UUID uuid) {
 		// Either oldest date to newest one or newest date to oldest one.
-		String sql = "SELECT * FROM " + prefix + "achievements WHERE playername = ? ORDER BY date "
-				+ (configBookChronologicalOrder ? "ASC" : "DESC");
+		String order = " ORDER BY date " + (configBookChronologicalOrder ? "ASC" : "DESC");
+		String sql = achievementDictionary == null
+				? "SELECT * FROM " + prefix + "achievements WHERE playername = ?" + order
+				: "SELECT pa.playername, n.name, n.description, pa.date FROM " + prefix + PLAYER_ACHIEVEMENTS_TABLE
+						+ " pa JOIN " + prefix + AchievementDictionary.TABLE
+						+ " n ON pa.achievement_id = n.id WHERE pa.playername = ?" + order;
 		return ((SQLReadOperation<List<AwardedDBAchievement>>) () -> {
 			List<AwardedDBAchievement> achievements = new ArrayList<>();
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			Set<String> writtenNames = new HashSet<>();
+			try (Connection conn = getSQLReplicaConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 				ps.setFetchSize(1000);
-				ps.setObject(1, uuid, Types.CHAR);
+				ps.setObject(1, toDatabaseUUID(uuid));
 				try (ResultSet rs = ps.executeQuery()) {
 					while (rs.next()) {
 						// Remove eventual double quotes due to a bug in versions 3.0 to 3.0.2 where names containing
 						// single quotes were inserted with two single quotes in the database.
 						String achName = StringUtils.replace(rs.getString(2), "''", "'");
+						writtenNames.add(achName);
 						String displayName = namesToDisplayNames.get(achName);
 						if (StringUtils.isNotBlank(displayName)) {
 							achName = displayName;
@@ -568,8 +2077,24 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 					}
 				}
 			}
+			// Achievements waiting for the next batch are merged with the written ones.
+			int writtenCount = achievements.size();
+			for (PendingAchievement achievement : unwrittenAchievements.values()) {
+				String achName = achievement.getName();
+				if (achievement.getPlayer().equals(uuid) && !writtenNames.contains(achName)) {
+					String displayName = namesToDisplayNames.get(achName);
+					long dateAwarded = achievement.getReceptionTime();
+					achievements.add(new AwardedDBAchievement(uuid,
+							StringUtils.isNotBlank(displayName) ? displayName : achName, achievement.getMessage(),
+							dateAwarded, dateFormat.format(new Date(dateAwarded))));
+				}
+			}
+			if (achievements.size() > writtenCount) {
+				Comparator<AwardedDBAchievement> byDate = Comparator.comparingLong(AwardedDBAchievement::getDateAwarded);
+				achievements.sort(configBookChronologicalOrder ? byDate : byDate.reversed());
+			}
 			return achievements;
-		}).executeOperation("retrieving the full data of received achievements");
+		}).executeOperation(circuitBreaker, operationMetrics, "retrieving the full data of received achievements");
 	}
 
 	/**
@@ -581,23 +2106,33 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 	 * @return List of AwardedDBAchievement objects, message field is empty to save memory.
 	 */
 	public List<AwardedDBAchievement> getAchievementsRecipientList(String achievementName) {
-		String sql = "SELECT playername, date FROM " + prefix + "achievements WHERE achievement = ?" +
-				" ORDER BY date DESC LIMIT 1000";
+		AchievementDictionary dictionary = achievementDictionary;
+		Integer id = dictionary == null ? null : dictionary.getId(achievementName);
+		if (dictionary != null && id == null) {
+			return new ArrayList<>();
+		}
+		String sql = dictionary == null
+				? "SELECT playername, date FROM " + prefix + "achievements WHERE achievement = ?"
+						+ " ORDER BY date DESC LIMIT 1000"
+				: "SELECT playername, date FROM " + prefix + PLAYER_ACHIEVEMENTS_TABLE + " WHERE achievement_id = ?"
+						+ " ORDER BY date DESC LIMIT 1000";
 		return ((SQLReadOperation<List<AwardedDBAchievement>>) () -> {
 			List<AwardedDBAchievement> achievements = new ArrayList<>();
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			Set<UUID> writtenRecipients = new HashSet<>();
+			try (Connection conn = getSQLReplicaConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 				ps.setFetchSize(1000);
-				ps.setString(1, achievementName);
+				if (id == null) {
+					ps.setString(1, achievementName);
+				} else {
+					ps.setInt(1, id);
+				}
 				try (ResultSet rs = ps.executeQuery()) {
 					while (rs.next()) {
-						UUID uuid;
-						try {
-							String uuidString = rs.getString("playername");
-							uuid = UUID.fromString(uuidString);
-						} catch (IllegalArgumentException improperUUIDFormatException) {
+						UUID uuid = getUUID(rs, 1);
+						if (uuid == null) {
 							continue;
 						}
+						writtenRecipients.add(uuid);
 						Date dateAwarded = new Date(rs.getTimestamp("date").getTime());
 
 						achievements.add(new AwardedDBAchievement(uuid, namesToDisplayNames.get(achievementName), "",
@@ -605,7 +2140,23 @@ public abstract class AbstractDatabaseManager implements Reloadable {
 					}
 				}
 			}
+			// Recipients waiting for the next batch are the most recent ones.
+			int writtenCount = achievements.size();
+			for (PendingAchievement achievement : unwrittenAchievements.values()) {
+				UUID uuid = achievement.getPlayer();
+				if (achievementName.equals(achievement.getName()) && !writtenRecipients.contains(uuid)) {
+					long dateAwarded = achievement.getReceptionTime();
+					achievements.add(new AwardedDBAchievement(uuid, namesToDisplayNames.get(achievementName), "",
+							dateAwarded, dateFormat.format(new Date(dateAwarded))));
+				}
+			}
+			if (achievements.size() > writtenCount) {
+				achievements.sort(Comparator.comparingLong(AwardedDBAchievement::getDateAwarded).reversed());
+				if (achievements.size() > 1000) {
+					achievements.subList(1000, achievements.size()).clear();
+				}
+			}
 			return achievements;
-		}).executeOperation("retrieving the recipients of an achievement");
+		}).executeOperation(circuitBreaker, operationMetrics, "retrieving the recipients of an achievement");
 	}
 }
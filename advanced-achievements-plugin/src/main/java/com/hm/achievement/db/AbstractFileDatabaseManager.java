@@ -65,6 +65,16 @@ public class AbstractFileDatabaseManager extends AbstractDatabaseManager {
 		}
 	}
 
+	@Override
+	void createConnectionPools(int poolSize, long validationIntervalMillis, long timeoutMillis) {
+		// File databases lock the whole file when writing: writes are funnelled through a single dedicated connection
+		// to avoid contention between writers, whereas the remaining connections serve concurrent reads.
+		writeConnectionPool = new ConnectionPool(this::createSQLConnection, logger, 1, validationIntervalMillis,
+				timeoutMillis);
+		connectionPool = new ConnectionPool(this::createSQLConnection, logger, Math.max(1, poolSize - 1),
+				validationIntervalMillis, timeoutMillis);
+	}
+
 	@Override
 	Connection createSQLConnection() throws SQLException {
 		return DriverManager.getConnection(url);
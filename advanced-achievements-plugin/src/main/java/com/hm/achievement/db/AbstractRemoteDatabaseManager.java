@@ -26,6 +26,9 @@ public class AbstractRemoteDatabaseManager extends AbstractDatabaseManager {
 	volatile String databaseUser;
 	volatile String databasePassword;
 	volatile String additionalConnectionOptions;
+	volatile String replicaDatabaseAddress;
+	volatile String replicaDatabaseUser;
+	volatile String replicaDatabasePassword;
 
 	private final String databaseType;
 
@@ -44,16 +47,49 @@ public class AbstractRemoteDatabaseManager extends AbstractDatabaseManager {
 		databaseUser = URLEncoder.encode(getDatabaseConfig("DatabaseUser", "User", "root"), UTF_8.name());
 		databasePassword = URLEncoder.encode(getDatabaseConfig("DatabasePassword", "Password", "root"), UTF_8.name());
 		additionalConnectionOptions = mainConfig.getString("AdditionalConnectionOptions", "");
+
+		String replicaAddress = mainConfig.getString("ReplicaDatabaseAddress", "");
+		replicaDatabaseAddress = replicaAddress.isEmpty() ? null : getDatabaseAddress(replicaAddress);
+		replicaDatabaseUser = URLEncoder.encode(mainConfig.getString("ReplicaDatabaseUser", ""), UTF_8.name());
+		replicaDatabasePassword = URLEncoder.encode(mainConfig.getString("ReplicaDatabasePassword", ""), UTF_8.name());
+		if (replicaDatabaseUser.isEmpty()) {
+			replicaDatabaseUser = databaseUser;
+			replicaDatabasePassword = databasePassword;
+		}
+	}
+
+	@Override
+	void createConnectionPools(int poolSize, long validationIntervalMillis, long timeoutMillis) {
+		super.createConnectionPools(poolSize, validationIntervalMillis, timeoutMillis);
+
+		if (replicaConnectionPool != null) {
+			replicaConnectionPool.shutdown();
+		}
+		if (replicaDatabaseAddress == null) {
+			replicaConnectionPool = null;
+		} else {
+			logger.info("Sending rankings and achievement lists to the replica database.");
+			replicaConnectionPool = new ConnectionPool(() -> createSQLConnection(replicaDatabaseAddress,
+					replicaDatabaseUser, replicaDatabasePassword), logger, poolSize, validationIntervalMillis,
+					timeoutMillis);
+		}
 	}
 
 	@Override
 	Connection createSQLConnection() throws SQLException {
-		return DriverManager.getConnection(databaseAddress + "?autoReconnect=true" + additionalConnectionOptions + "&user="
-				+ databaseUser + "&password=" + databasePassword);
+		return createSQLConnection(databaseAddress, databaseUser, databasePassword);
+	}
+
+	private Connection createSQLConnection(String address, String user, String password) throws SQLException {
+		return DriverManager.getConnection(address + "?autoReconnect=true" + additionalConnectionOptions + "&user=" + user
+				+ "&password=" + password);
 	}
 
 	private String getDatabaseAddress() {
-		String databaseAddress = getDatabaseConfig("DatabaseAddress", "Database", "");
+		return getDatabaseAddress(getDatabaseConfig("DatabaseAddress", "Database", ""));
+	}
+
+	private String getDatabaseAddress(String databaseAddress) {
 		// Attempt to deal with common address mistakes where prefixes such as jdbc: or jdbc:mysql:// are omitted.
 		if (!databaseAddress.startsWith("jdbc:")) {
 			if (databaseAddress.startsWith(databaseType + "://")) {
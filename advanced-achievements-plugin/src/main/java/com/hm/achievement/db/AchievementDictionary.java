@@ -0,0 +1,117 @@
+package com.hm.achievement.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class used to map achievement names to the integer identifiers stored in the player achievements table. The
+ * description of each achievement is stored once, alongside its name. Identifiers are cached in memory once resolved.
+ *
+ * @author Pyves
+ */
+public class AchievementDictionary {
+
+	static final String TABLE = "achievement_names";
+
+	private final String table;
+	private final Map<String, Integer> namesToIds = new ConcurrentHashMap<>();
+	private final Map<String, String> namesToDescriptions = new ConcurrentHashMap<>();
+
+	public AchievementDictionary(String prefix) {
+		table = prefix + TABLE;
+	}
+
+	/**
+	 * Loads all the identifiers and descriptions already stored in the database.
+	 *
+	 * @param conn
+	 * @throws SQLException
+	 */
+	void load(Connection conn) throws SQLException {
+		try (PreparedStatement ps = conn.prepareStatement("SELECT id, name, description FROM " + table)) {
+			ps.setFetchSize(1000);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					namesToIds.put(rs.getString(2), rs.getInt(1));
+					if (rs.getString(3) != null) {
+						namesToDescriptions.put(rs.getString(2), rs.getString(3));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Forgets all the identifiers and descriptions, for instance after the database contents were replaced.
+	 */
+	void clear() {
+		namesToIds.clear();
+		namesToDescriptions.clear();
+	}
+
+	/**
+	 * Assigns identifiers to the achievements that do not have one yet.
+	 *
+	 * @param conn
+	 * @param names
+	 * @throws SQLException
+	 */
+	void registerNames(Connection conn, Collection<String> names) throws SQLException {
+		for (String name : names) {
+			getOrCreateId(conn, name);
+		}
+	}
+
+	/**
+	 * Returns the identifier of an achievement, without registering it.
+	 *
+	 * @param name
+	 * @return the identifier, or null if the achievement was never registered
+	 */
+	Integer getId(String name) {
+		return namesToIds.get(name);
+	}
+
+	/**
+	 * Returns the identifier of an achievement, registering it if it does not exist yet. Must not be called within a
+	 * transaction, see StatisticsDictionary.
+	 *
+	 * @param conn
+	 * @param name
+	 * @return the identifier of the achievement
+	 * @throws SQLException
+	 */
+	int getOrCreateId(Connection conn, String name) throws SQLException {
+		Integer id = namesToIds.get(name);
+		if (id == null) {
+			id = StatisticsDictionary.getOrCreateId(conn, table, new String[] { "name" }, name);
+			namesToIds.put(name, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Stores the description of an achievement if it changed.
+	 *
+	 * @param conn
+	 * @param name
+	 * @param description
+	 * @throws SQLException
+	 */
+	void updateDescription(Connection conn, String name, String description) throws SQLException {
+		if (!Objects.equals(namesToDescriptions.get(name), description)) {
+			try (PreparedStatement ps = conn.prepareStatement("UPDATE " + table + " SET description = ? WHERE name = ?")) {
+				ps.setString(1, description);
+				ps.setString(2, name);
+				ps.execute();
+			}
+			namesToDescriptions.put(name, description);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.hm.achievement.db;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Class used to assign dense integer indexes to achievement names, so that the achievements received by a player can
+ * be represented as a bitset. Configured achievements are indexed when the configuration is parsed; achievements only
+ * found in the database, for instance ones removed from the configuration, are indexed when first encountered. Indexes
+ * are never reused, so that bitsets remain valid across configuration reloads.
+ *
+ * @author Pyves
+ *
+ */
+@Singleton
+public class AchievementIndex {
+
+	private final Map<String, Integer> namesToIndexes = new ConcurrentHashMap<>();
+	// Bits corresponding to the achievements currently in the configuration.
+	private volatile long[] configuredAchievements = new long[0];
+	private volatile int configuredAchievementCount;
+	private int nextIndex;
+
+	@Inject
+	public AchievementIndex() {
+		// Dagger constructor.
+	}
+
+	/**
+	 * Indexes the achievements found in the configuration, and marks them as the ones a player must receive to have
+	 * received all achievements.
+	 *
+	 * @param names
+	 */
+	public synchronized void setConfiguredAchievements(Collection<String> names) {
+		long[] configured = new long[0];
+		for (String name : names) {
+			int index = register(name);
+			if (index >> 6 >= configured.length) {
+				configured = Arrays.copyOf(configured, (index >> 6) + 1);
+			}
+			configured[index >> 6] |= 1L << index;
+		}
+		configuredAchievements = configured;
+		configuredAchievementCount = names.size();
+	}
+
+	/**
+	 * Returns the index of an achievement.
+	 *
+	 * @param name
+	 * @return the index of the achievement, or -1 if it was never indexed
+	 */
+	int getIndex(String name) {
+		Integer index = namesToIndexes.get(name);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Returns the index of an achievement, indexing it if needed.
+	 *
+	 * @param name
+	 * @return the index of the achievement
+	 */
+	int getOrRegisterIndex(String name) {
+		Integer index = namesToIndexes.get(name);
+		return index == null ? register(name) : index;
+	}
+
+	/**
+	 * Returns the bits of the configured achievements. The array must not be modified.
+	 *
+	 * @return the words of the bitset of configured achievements
+	 */
+	long[] getConfiguredAchievements() {
+		return configuredAchievements;
+	}
+
+	int getConfiguredAchievementCount() {
+		return configuredAchievementCount;
+	}
+
+	private synchronized int register(String name) {
+		return namesToIndexes.computeIfAbsent(name, n -> nextIndex++);
+	}
+}
@@ -0,0 +1,42 @@
+package com.hm.achievement.db;
+
+import java.util.UUID;
+
+/**
+ * Class used to identify an achievement received by a player. Keys are made of the two halves of the player's UUID and
+ * of the achievement name, so that they can be compared and hashed without concatenating strings.
+ *
+ * @author Pyves
+ *
+ */
+final class AchievementKey {
+
+	private final long mostSigBits;
+	private final long leastSigBits;
+	private final String name;
+
+	AchievementKey(UUID player, String name) {
+		this.mostSigBits = player.getMostSignificantBits();
+		this.leastSigBits = player.getLeastSignificantBits();
+		this.name = name;
+	}
+
+	@Override
+	public int hashCode() {
+		long hash = mostSigBits ^ leastSigBits;
+		return ((int) (hash >> 32) ^ (int) hash) * 31 + (name == null ? 0 : name.hashCode());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof AchievementKey)) {
+			return false;
+		}
+		AchievementKey other = (AchievementKey) obj;
+		return mostSigBits == other.mostSigBits && leastSigBits == other.leastSigBits
+				&& (name == null ? other.name == null : name.equals(other.name));
+	}
+}
@@ -1,14 +1,14 @@
 package com.hm.achievement.db;
 
-import java.sql.BatchUpdateException;
-import java.sql.Connection;
-import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.UUID;
-import java.util.logging.Logger;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -28,16 +28,19 @@ import com.hm.achievement.category.NormalAchievements;
 @Singleton
 public class AsyncCachedRequestsSender implements Runnable {
 
+	// Time spent cleaning up statistics on the main server thread during a single tick.
+	private static final long CLEANUP_TICK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
 	private final AdvancedAchievements advancedAchievements;
-	private final Logger logger;
 	private final CacheManager cacheManager;
 	private final AbstractDatabaseManager databaseManager;
+	// Indicates whether a batch is being written or waiting to be retried.
+	private final AtomicBoolean batchInProgress = new AtomicBoolean();
 
 	@Inject
-	public AsyncCachedRequestsSender(AdvancedAchievements advancedAchievements, Logger logger, CacheManager cacheManager,
+	public AsyncCachedRequestsSender(AdvancedAchievements advancedAchievements, CacheManager cacheManager,
 			AbstractDatabaseManager databaseManager) {
 		this.advancedAchievements = advancedAchievements;
-		this.logger = logger;
 		this.cacheManager = cacheManager;
 		this.databaseManager = databaseManager;
 	}
@@ -49,138 +52,195 @@ public class AsyncCachedRequestsSender implements Runnable {
 	@Override
 	public void run() {
 		sendBatchedRequests();
+		databaseManager.runDeferredWrites();
 		cleanUpCaches();
 	}
 
 	/**
-	 * Writes cached statistics to the database, with batched writes for efficiency purposes. If a failure occurs, the
-	 * same queries will be attempted again.
+	 * Writes cached statistics and received achievements to the database, with batched writes for efficiency purposes.
+	 * If a failure occurs, the same queries will be attempted again. The journaled changes are discarded once written.
+	 * No new batch is sent whilst the previous one is waiting to be retried, as its values could otherwise overwrite
+	 * more recent ones.
 	 */
 	public void sendBatchedRequests() {
-		List<String> batchedRequests = new ArrayList<>();
-		for (MultipleAchievements category : MultipleAchievements.values()) {
-			addRequestsForMultipleCategory(batchedRequests, category);
-		}
-		for (NormalAchievements category : NormalAchievements.values()) {
-			addRequestsForNormalCategory(batchedRequests, category);
+		if (!batchInProgress.compareAndSet(false, true)) {
+			return;
 		}
+		Map<MultipleAchievements, List<Object[]>> multipleRows = new EnumMap<>(MultipleAchievements.class);
+		Map<NormalAchievements, List<Object[]>> normalRows = new EnumMap<>(NormalAchievements.class);
+		Map<MultipleAchievements, List<Object[]>> multipleIncrements = new EnumMap<>(MultipleAchievements.class);
+		Map<NormalAchievements, List<Object[]>> normalIncrements = new EnumMap<>(NormalAchievements.class);
+		Map<CachedStatistic, Long> collectedStatistics = new HashMap<>();
+		List<CachedStatistic> rejournaledStatistics = new ArrayList<>();
+		WriteAheadJournal journal = databaseManager.getWriteAheadJournal();
+		// Journal records preceding the mark belong to statistics queued beforehand, which are all collected below.
+		int journalMark = journal == null ? 0 : journal.mark();
+		collectStatistics(multipleRows, normalRows, multipleIncrements, normalIncrements, collectedStatistics, journal,
+				journalMark, rejournaledStatistics);
 
-		if (batchedRequests.isEmpty()) {
+		List<PendingAchievement> achievements = databaseManager.getUnwrittenAchievements();
+		if (achievements.isEmpty() && multipleRows.isEmpty() && normalRows.isEmpty() && multipleIncrements.isEmpty()
+				&& normalIncrements.isEmpty()) {
+			completeBatch(journal, journalMark, collectedStatistics, rejournaledStatistics, true);
 			return;
 		}
-
-		((SQLWriteOperation) () -> {
-			Connection conn = databaseManager.getSQLConnection();
-			try (Statement st = conn.createStatement()) {
-				for (String request : batchedRequests) {
-					st.addBatch(request);
-				}
-				st.executeBatch();
-			} catch (BatchUpdateException e) { // Attempt to solve issue #309.
-				conn.close();
-				throw e;
-			}
-		}).attemptWrites(logger, "batching statistic updates");
+		databaseManager.writeAchievementsAndStatistics(Runnable::run, achievements, multipleRows, normalRows,
+				multipleIncrements, normalIncrements, "batching statistic updates",
+				written -> completeBatch(journal, journalMark, collectedStatistics, rejournaledStatistics, written));
 	}
 
 	/**
-	 * Adds the database queries to perform for a given Multiple category.
-	 * 
-	 * PostgreSQL has no REPLACE operator. We have to use the INSERT ... ON CONFLICT construct, which is available for
-	 * PostgreSQL 9.5+.
-	 * 
-	 * @param batchedRequests
-	 * @param category
+	 * Indicates that a batch was written or given up on, in which case its statistics are written again during the next
+	 * run.
+	 *
+	 * @param journal
+	 * @param journalMark
+	 * @param collectedStatistics
+	 * @param rejournaledStatistics
+	 * @param written
 	 */
-	private void addRequestsForMultipleCategory(List<String> batchedRequests, MultipleAchievements category) {
-		Map<String, CachedStatistic> categoryMap = cacheManager.getHashMap(category);
-		for (Entry<String, CachedStatistic> entry : categoryMap.entrySet()) {
-			if (!entry.getValue().isDatabaseConsistent()) {
-				// Set flag before writing to database so that concurrent updates are not wrongly marked as consistent.
-				entry.getValue().prepareDatabaseWrite();
-				if (databaseManager instanceof PostgreSQLDatabaseManager) {
-					batchedRequests.add("INSERT INTO " + databaseManager.getPrefix() + category.toDBName() + " VALUES ('"
-							+ entry.getKey().substring(0, 36) + "', '" + entry.getKey().substring(36) + "', "
-							+ entry.getValue().getValue() + ") ON CONFLICT (playername, " + category.toSubcategoryDBName()
-							+ ") DO UPDATE SET (" + category.toDBName() + ")=(" + entry.getValue().getValue() + ")");
-				} else {
-					batchedRequests.add("REPLACE INTO " + databaseManager.getPrefix() + category.toDBName() + " VALUES ('"
-							+ entry.getKey().substring(0, 36) + "', '" + entry.getKey().substring(36) + "', "
-							+ entry.getValue().getValue() + ")");
-				}
+	private void completeBatch(WriteAheadJournal journal, int journalMark, Map<CachedStatistic, Long> collectedStatistics,
+			List<CachedStatistic> rejournaledStatistics, boolean written) {
+		if (written) {
+			if (journal != null) {
+				// Records following the mark may already be part of the written values, supersede them.
+				rejournaledStatistics.forEach(CachedStatistic::journalCurrentState);
+				journal.discardBefore(journalMark);
 			}
+		} else {
+			collectedStatistics.forEach(CachedStatistic::writeFailed);
 		}
+		batchInProgress.set(false);
 	}
 
 	/**
-	 * Adds the database queries to perform for a given Normal category.
-	 * 
-	 * PostgreSQL has no REPLACE operator. We have to use the INSERT ... ON CONFLICT construct, which is available for
-	 * PostgreSQL 9.5+.
-	 * 
-	 * @param batchedRequests
-	 * @param category
+	 * Collects the statistics modified since the previous write, either as values or as increments depending on the
+	 * write mode.
+	 *
+	 * @param multipleRows
+	 * @param normalRows
+	 * @param multipleIncrements
+	 * @param normalIncrements
+	 * @param collectedStatistics map populated with the collected statistics and their increments
+	 * @param journal can be null
+	 * @param journalMark
+	 * @param rejournaledStatistics list populated with the statistics journaled after the mark
 	 */
-	private void addRequestsForNormalCategory(List<String> batchedRequests, NormalAchievements category) {
-		Map<String, CachedStatistic> categoryMap = cacheManager.getHashMap(category);
-		for (Entry<String, CachedStatistic> entry : categoryMap.entrySet()) {
-			if (!entry.getValue().isDatabaseConsistent()) {
-				// Set flag before writing to database so that concurrent updates are not wrongly marked as consistent.
-				entry.getValue().prepareDatabaseWrite();
-				if (databaseManager instanceof PostgreSQLDatabaseManager) {
-					batchedRequests.add("INSERT INTO " + databaseManager.getPrefix() + category.toDBName() + " VALUES ('"
-							+ entry.getKey() + "', " + entry.getValue().getValue()
-							+ ") ON CONFLICT (playername) DO UPDATE SET (" + category.toDBName() + ")=("
-							+ entry.getValue().getValue() + ")");
-				} else {
-					batchedRequests.add("REPLACE INTO " + databaseManager.getPrefix() + category.toDBName() + " VALUES ('"
-							+ entry.getKey() + "', " + entry.getValue().getValue() + ")");
+	private void collectStatistics(Map<MultipleAchievements, List<Object[]>> multipleRows,
+			Map<NormalAchievements, List<Object[]>> normalRows,
+			Map<MultipleAchievements, List<Object[]>> multipleIncrements,
+			Map<NormalAchievements, List<Object[]>> normalIncrements, Map<CachedStatistic, Long> collectedStatistics,
+			WriteAheadJournal journal, int journalMark, List<CachedStatistic> rejournaledStatistics) {
+		boolean deltaWrites = databaseManager.isDeltaStatisticWrites();
+		// Only statistics modified since the previous write are queued, each of them once.
+		CachedStatistic statistic;
+		while ((statistic = cacheManager.getDirtyStatistics().poll()) != null) {
+			long value;
+			Long increment;
+			if (journal == null) {
+				value = collectValue(statistic);
+				increment = statistic.markWritten(value);
+			} else {
+				// Only the statistic itself is collected atomically with regards to its updates and records, the main
+				// server thread is not held up for the whole batch.
+				synchronized (journal) {
+					value = collectValue(statistic);
+					increment = statistic.markWritten(value);
+					if (statistic.isJournaledAfter(journalMark)) {
+						rejournaledStatistics.add(statistic);
+					}
 				}
 			}
+			collectedStatistics.put(statistic, increment);
+			// The value of a statistic that could not be loaded is unknown, only its increments can be written.
+			boolean asIncrement = (deltaWrites || !statistic.isLoaded()) && increment != null;
+			if (asIncrement && increment == 0L) {
+				continue;
+			}
+			long writtenValue = asIncrement ? increment : value;
+			StatisticKey key = statistic.getKey();
+			if (statistic.getCategory() instanceof MultipleAchievements) {
+				(asIncrement ? multipleIncrements : multipleRows)
+						.computeIfAbsent((MultipleAchievements) statistic.getCategory(), c -> new ArrayList<>())
+						.add(new Object[] { key.getPlayer(), key.getSubcategory(), writtenValue });
+			} else {
+				(asIncrement ? normalIncrements : normalRows)
+						.computeIfAbsent((NormalAchievements) statistic.getCategory(), c -> new ArrayList<>())
+						.add(new Object[] { key.getPlayer(), writtenValue });
+			}
 		}
 	}
 
 	/**
-	 * Removes the cached statistics that have been written to the database and for which the player is no longer
-	 * connected.
+	 * Reads the value of a statistic about to be written to the database.
+	 *
+	 * @param statistic
+	 * @return the value to write
+	 */
+	private long collectValue(CachedStatistic statistic) {
+		// Set flag before writing to database so that concurrent updates are not wrongly marked as consistent.
+		statistic.prepareDatabaseWrite();
+		return statistic.getValue();
+	}
+
+	/**
+	 * Removes the cached statistics of players who are no longer connected and whose statistics have all been written to
+	 * the database.
 	 */
 	private void cleanUpCaches() {
-		for (MultipleAchievements category : MultipleAchievements.values()) {
-			Map<String, CachedStatistic> categoryMap = cacheManager.getHashMap(category);
-			cleanUpCache(categoryMap);
+		Queue<PlayerStatistics> disconnectedPlayers = cacheManager.getDisconnectedPlayers();
+		List<PlayerStatistics> notYetWritten = new ArrayList<>();
+		List<PlayerStatistics> written = new ArrayList<>();
+		PlayerStatistics statistics;
+		while ((statistics = disconnectedPlayers.poll()) != null) {
+			if (statistics.isDatabaseConsistent()) {
+				written.add(statistics);
+			} else {
+				// Will be written during the next run, check again then.
+				notYetWritten.add(statistics);
+			}
 		}
-		for (NormalAchievements category : NormalAchievements.values()) {
-			Map<String, CachedStatistic> categoryMap = cacheManager.getHashMap(category);
-			cleanUpCache(categoryMap);
+		disconnectedPlayers.addAll(notYetWritten);
+		if (!written.isEmpty()) {
+			// Players were disconnected at some point in the recent past. Hand over the cleaning to the main server
+			// thread, in a single task.
+			Iterator<PlayerStatistics> players = written.iterator();
+			Bukkit.getScheduler().runTask(advancedAchievements, () -> cleanUpPlayers(players));
 		}
 	}
 
 	/**
-	 * Performs the aformentioned removals for a given category.
+	 * Performs the aformentioned removal for the given players on the main server thread. If the time budget is
+	 * exhausted, the remaining players are handled during the next tick.
 	 * 
-	 * @param categoryMap
+	 * @param players
 	 */
-	private void cleanUpCache(Map<String, CachedStatistic> categoryMap) {
-		for (Entry<String, CachedStatistic> entry : categoryMap.entrySet()) {
-			if (entry.getValue().didPlayerDisconnect() && entry.getValue().isDatabaseConsistent()) {
-				// Player was disconnected at some point in the recent past. Hand over the cleaning to the main server
-				// thread.
-				Bukkit.getScheduler().callSyncMethod(advancedAchievements, () -> {
-					// Check again whether statistic has been written to the database. This is necessary to cover
-					// cases where the player may have reconnected in the meantime.
-					if (entry.getValue().isDatabaseConsistent()) {
-						categoryMap.remove(entry.getKey());
-					} else {
-						// Get player UUID, which always corresponds to the 36 first characters of the key
-						// regardless of the category type.
-						UUID player = UUID.fromString(entry.getKey().substring(0, 36));
-						if (Bukkit.getPlayer(player) != null) {
-							entry.getValue().resetDisconnection();
-						}
-					}
-					return null;
-				});
+	private void cleanUpPlayers(Iterator<PlayerStatistics> players) {
+		long start = System.nanoTime();
+		while (players.hasNext()) {
+			if (System.nanoTime() - start > CLEANUP_TICK_BUDGET_NANOS) {
+				Bukkit.getScheduler().runTask(advancedAchievements, () -> cleanUpPlayers(players));
+				return;
 			}
+			cleanUpPlayer(players.next());
+		}
+	}
+
+	/**
+	 * Performs the aformentioned removal for a given player.
+	 * 
+	 * @param statistics
+	 */
+	private void cleanUpPlayer(PlayerStatistics statistics) {
+		if (Bukkit.getPlayer(statistics.getPlayer()) != null) {
+			// Player has reconnected in the meantime, statistics are still relevant.
+			statistics.resetDisconnection();
+		} else if (statistics.isDatabaseConsistent()) {
+			// Check again whether statistics have been written to the database, as they may have been modified whilst
+			// the player was offline, for instance by a command.
+			cacheManager.removePlayerStatistics(statistics);
+		} else {
+			cacheManager.getDisconnectedPlayers().offer(statistics);
 		}
 	}
 }
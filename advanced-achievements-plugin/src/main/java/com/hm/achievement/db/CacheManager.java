@@ -1,22 +1,31 @@
 package com.hm.achievement.db;
 
-import java.util.EnumMap;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
-import org.apache.commons.lang3.StringUtils;
+import org.bukkit.Bukkit;
 
+import com.hm.achievement.AdvancedAchievements;
+import com.hm.achievement.category.Category;
 import com.hm.achievement.category.MultipleAchievements;
 import com.hm.achievement.category.NormalAchievements;
+import com.hm.achievement.exception.DatabaseReadError;
 import com.hm.achievement.lifecycle.Cleanable;
+import com.hm.achievement.lifecycle.Reloadable;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
 
 /**
@@ -27,133 +36,362 @@ import com.hm.mcshared.file.CommentedYamlConfiguration;
  *
  */
 @Singleton
-public class CacheManager implements Cleanable {
+public class CacheManager implements Cleanable, Reloadable {
 
+	private final AdvancedAchievements advancedAchievements;
 	private final CommentedYamlConfiguration mainConfig;
+	private final Logger logger;
 	private final AbstractDatabaseManager databaseManager;
-	// Statistics of the different players for normal achievements; keys in the inner maps correspond to UUIDs.
-	private final Map<NormalAchievements, Map<String, CachedStatistic>> normalAchievementsToPlayerStatistics;
-	// Statistics of the different players for multiple achievements; keys in the inner maps correspond to concatenated
-	// UUIDs and block/entity/command identifiers.
-	private final Map<MultipleAchievements, Map<String, CachedStatistic>> multipleAchievementsToPlayerStatistics;
-	// Multimaps corresponding to the different achievements received by the players.
-	private final Map<UUID, Set<String>> receivedAchievementsCache;
-	private final Map<UUID, Set<String>> notReceivedAchievementsCache;
-	// Map corresponding to the total amount of achievements received by each player.
-	private final Map<UUID, Integer> totalPlayerAchievementsCache;
+	private final SubcategoryRegistry subcategoryRegistry;
+	// Statistics of the different players, grouped by player so that a single lookup finds any of them. Concurrent
+	// structure is necessary as players' data can be preloaded asynchronously.
+	private final Map<UUID, PlayerStatistics> playerStatistics = new ConcurrentHashMap<>();
+	private final AchievementIndex achievementIndex;
+	// Full sets of achievements received by the players, as bitsets over achievement indexes.
+	private final Map<UUID, ReceivedAchievements> receivedAchievementsCache;
+	// Statistics modified since they were last written to the database.
+	private final Queue<CachedStatistic> dirtyStatistics = new ConcurrentLinkedQueue<>();
+	// Statistics of players who disconnected, to be removed from the cache once written to the database.
+	private final Queue<PlayerStatistics> disconnectedPlayers = new ConcurrentLinkedQueue<>();
 
 	@Inject
-	public CacheManager(@Named("main") CommentedYamlConfiguration mainConfig, AbstractDatabaseManager databaseManager) {
+	public CacheManager(AdvancedAchievements advancedAchievements, @Named("main") CommentedYamlConfiguration mainConfig,
+			Logger logger, AbstractDatabaseManager databaseManager, SubcategoryRegistry subcategoryRegistry,
+			AchievementIndex achievementIndex) {
+		this.advancedAchievements = advancedAchievements;
 		this.mainConfig = mainConfig;
+		this.logger = logger;
 		this.databaseManager = databaseManager;
-		normalAchievementsToPlayerStatistics = new EnumMap<>(NormalAchievements.class);
-		multipleAchievementsToPlayerStatistics = new EnumMap<>(MultipleAchievements.class);
-		receivedAchievementsCache = new HashMap<>();
-		notReceivedAchievementsCache = new HashMap<>();
-
-		// ConcurrentHashMaps are necessary to guarantee thread safety.
-		for (NormalAchievements normalAchievement : NormalAchievements.values()) {
-			normalAchievementsToPlayerStatistics.put(normalAchievement, new ConcurrentHashMap<String, CachedStatistic>());
-		}
-		for (MultipleAchievements multipleAchievement : MultipleAchievements.values()) {
-			multipleAchievementsToPlayerStatistics.put(multipleAchievement,
-					new ConcurrentHashMap<String, CachedStatistic>());
-		}
-		totalPlayerAchievementsCache = new ConcurrentHashMap<>();
+		this.subcategoryRegistry = subcategoryRegistry;
+		this.achievementIndex = achievementIndex;
+		// Concurrent structure is necessary as players' data can be preloaded asynchronously.
+		receivedAchievementsCache = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public void extractConfigurationParameters() {
+		// Thresholds are parsed again, the ones resolved by cached statistics no longer correspond to the configuration.
+		playerStatistics.values().forEach(statistics -> statistics.forEach(CachedStatistic::resetThresholdProgress));
 	}
 
 	@Override
 	public void cleanPlayerData(UUID uuid) {
-		// Clear achievements caches.
+		// Clear achievements cache.
 		receivedAchievementsCache.remove(uuid);
-		notReceivedAchievementsCache.remove(uuid);
-		totalPlayerAchievementsCache.remove(uuid);
 
-		// Indicate to the relevant cached statistics that the player has disconnected.
-		for (MultipleAchievements category : MultipleAchievements.values()) {
-			Map<String, CachedStatistic> categoryMap = getHashMap(category);
-			for (String subcategory : mainConfig.getShallowKeys(category.toString())) {
-				CachedStatistic statistic = categoryMap.get(getMultipleCategoryCacheKey(uuid, subcategory));
-				if (statistic != null) {
-					statistic.signalPlayerDisconnection();
-				}
-			}
-		}
-		for (NormalAchievements category : NormalAchievements.values()) {
-			CachedStatistic statistic = getHashMap(category).get(uuid.toString());
-			if (statistic != null) {
-				statistic.signalPlayerDisconnection();
-			}
+		// Indicate that the player has disconnected, the cached statistics are removed once written to the database.
+		PlayerStatistics statistics = playerStatistics.get(uuid);
+		if (statistics != null && statistics.signalPlayerDisconnection()) {
+			disconnectedPlayers.offer(statistics);
 		}
 	}
 
 	/**
-	 * Retrieves a HashMap for a NormalAchievement based on the category.
+	 * Increases the statistic for a NormalAchievement by the given value without blocking on the database. If the
+	 * statistic is not cached, it is loaded asynchronously and the callback is run once the value is known. Must be
+	 * called on the main server thread.
 	 *
 	 * @param category
-	 * @return the map of cached statistics for a Normal category
+	 * @param player
+	 * @param value
+	 * @param callback action to perform with the updated statistic
 	 */
-	public Map<String, CachedStatistic> getHashMap(NormalAchievements category) {
-		return normalAchievementsToPlayerStatistics.get(category);
+	public void incrementStatisticAmount(NormalAchievements category, UUID player, int value,
+			Consumer<CachedStatistic> callback) {
+		incrementStatisticAmount(category, StatisticKey.NO_SUBCATEGORY, player, value, callback);
 	}
 
 	/**
-	 * Retrieves a HashMap for a MultipleAchievement based on the category.
+	 * Increases the statistic for a MultipleAchievement by the given value without blocking on the database. If the
+	 * statistic is not cached, it is loaded asynchronously and the callback is run once the value is known. Must be
+	 * called on the main server thread.
 	 *
 	 * @param category
-	 * @return the map of cached statistics for a Multiple category
+	 * @param subcategory
+	 * @param player
+	 * @param value
+	 * @param callback action to perform with the updated statistic
 	 */
-	public Map<String, CachedStatistic> getHashMap(MultipleAchievements category) {
-		return multipleAchievementsToPlayerStatistics.get(category);
+	public void incrementStatisticAmount(MultipleAchievements category, String subcategory, UUID player, int value,
+			Consumer<CachedStatistic> callback) {
+		incrementStatisticAmount(category, subcategoryRegistry.getId(subcategory), player, value, callback);
 	}
 
 	/**
-	 * Increases the statistic for a NormalAchievement by the given value and returns the updated statistic value. Calls
-	 * the database if not found in the cache.
+	 * Returns the statistic for a NormalAchievement without blocking on the database. If the statistic is not cached,
+	 * it is loaded asynchronously and 0 is returned in the meantime. Must be called on the main server thread.
 	 *
 	 * @param category
 	 * @param player
-	 * @param value
-	 * @return the updated statistic value
+	 * @return the statistic value if loaded, 0 otherwise
+	 */
+	public long getLoadedStatisticAmount(NormalAchievements category, UUID player) {
+		CachedStatistic statistic = incrementStatisticAmount(category, StatisticKey.NO_SUBCATEGORY, player, 0, null);
+		return statistic.isLoaded() ? statistic.getValue() : 0L;
+	}
+
+	/**
+	 * Returns the statistic for a MultipleAchievement without blocking on the database. If the statistic is not cached,
+	 * it is loaded asynchronously and 0 is returned in the meantime. Must be called on the main server thread.
+	 *
+	 * @param category
+	 * @param subcategory
+	 * @param player
+	 * @return the statistic value if loaded, 0 otherwise
+	 */
+	public long getLoadedStatisticAmount(MultipleAchievements category, String subcategory, UUID player) {
+		CachedStatistic statistic = incrementStatisticAmount(category, subcategoryRegistry.getId(subcategory), player, 0,
+				null);
+		return statistic.isLoaded() ? statistic.getValue() : 0L;
+	}
+
+	/**
+	 * Returns the statistic for a NormalAchievement if it is cached and loaded, without loading it otherwise.
+	 *
+	 * @param category
+	 * @param player
+	 * @return the statistic value, or null if not loaded
 	 */
-	public long getAndIncrementStatisticAmount(NormalAchievements category, UUID player, int value) {
-		CachedStatistic statistic = getHashMap(category).get(player.toString());
+	public Long getCachedStatisticAmount(NormalAchievements category, UUID player) {
+		return getCachedStatisticAmount(category, StatisticKey.NO_SUBCATEGORY, player);
+	}
+
+	/**
+	 * Returns the statistic for a MultipleAchievement if it is cached and loaded, without loading it otherwise.
+	 *
+	 * @param category
+	 * @param subcategory
+	 * @param player
+	 * @return the statistic value, or null if not loaded
+	 */
+	public Long getCachedStatisticAmount(MultipleAchievements category, String subcategory, UUID player) {
+		return getCachedStatisticAmount(category, subcategoryRegistry.getId(subcategory), player);
+	}
+
+	private Long getCachedStatisticAmount(Category category, int subcategoryId, UUID player) {
+		PlayerStatistics statistics = playerStatistics.get(player);
+		CachedStatistic statistic = statistics == null ? null : statistics.get(category, subcategoryId);
+		return statistic != null && statistic.isLoaded() ? statistic.getValue() : null;
+	}
+
+	private CachedStatistic incrementStatisticAmount(Category category, int subcategoryId, UUID player, int value,
+			Consumer<CachedStatistic> callback) {
+		PlayerStatistics statistics = getOrCreatePlayerStatistics(player);
+		CachedStatistic statistic = statistics.get(category, subcategoryId);
 		if (statistic == null) {
-			statistic = new CachedStatistic(databaseManager.getNormalAchievementAmount(player, category), true);
-			getHashMap(category).put(player.toString(), statistic);
+			statistic = statistics.computeIfAbsent(category, subcategoryId,
+					() -> createUnloadedStatistic(category, createKey(player, subcategoryId)));
 		}
-		if (value > 0) {
-			long newValue = statistic.getValue() + value;
-			statistic.setValue(newValue);
-			return newValue;
+		if (statistic.isLoaded()) {
+			if (value > 0) {
+				statistic.increment(value);
+			}
+			if (callback != null) {
+				callback.accept(statistic);
+			}
+		} else {
+			statistic.addPendingIncrement(value, callback);
+			loadAsynchronously(statistic);
 		}
-		return statistic.getValue();
+		return statistic;
 	}
 
 	/**
-	 * Increases the statistic for a MultipleAchievement by the given value and returns the updated statistic value.
-	 * Calls the database if not found in the cache.
+	 * Retrieves the cached statistics of a player, creating an empty set of statistics if none are cached. Does not
+	 * allocate if the player is already known.
+	 *
+	 * @param player
+	 * @return the statistics of the player
+	 */
+	private PlayerStatistics getOrCreatePlayerStatistics(UUID player) {
+		PlayerStatistics statistics = playerStatistics.get(player);
+		return statistics == null ? playerStatistics.computeIfAbsent(player, PlayerStatistics::new) : statistics;
+	}
+
+	private StatisticKey createKey(UUID player, int subcategoryId) {
+		return subcategoryId == StatisticKey.NO_SUBCATEGORY ? new StatisticKey(player)
+				: new StatisticKey(player, subcategoryId, subcategoryRegistry.getName(subcategoryId));
+	}
+
+	/**
+	 * Reads the value of a statistic from the database.
+	 *
+	 * @param category
+	 * @param key
+	 * @return the database value
+	 */
+	private long loadStatistic(Category category, StatisticKey key) {
+		if (category instanceof MultipleAchievements) {
+			return databaseManager.getMultipleAchievementAmount(key.getPlayer(), (MultipleAchievements) category,
+					key.getSubcategory());
+		}
+		return databaseManager.getNormalAchievementAmount(key.getPlayer(), (NormalAchievements) category);
+	}
+
+	/**
+	 * Loads the value of a statistic from the database in an asynchronous task and hands it back to the main server
+	 * thread. If the value cannot be loaded, the pending increments are written to the database as such, so that they
+	 * are not lost and do not keep the statistic in the cache; the value is loaded again on next access.
+	 *
+	 * @param statistic
+	 */
+	private void loadAsynchronously(CachedStatistic statistic) {
+		if (!statistic.startLoading()) {
+			return;
+		}
+		Bukkit.getScheduler().runTaskAsynchronously(advancedAchievements, () -> {
+			try {
+				long databaseValue = loadStatistic(statistic.getCategory(), statistic.getKey());
+				Bukkit.getScheduler().runTask(advancedAchievements, () -> statistic.resolve(databaseValue));
+			} catch (DatabaseReadError e) {
+				logger.log(Level.SEVERE, "Error while loading a statistic, it will be loaded again on next access:", e);
+				Bukkit.getScheduler().runTask(advancedAchievements, statistic::loadingFailed);
+			}
+		});
+	}
+
+	/**
+	 * Resets the statistic for a NormalAchievement to 0.
+	 *
+	 * @param category
+	 * @param player
+	 */
+	public void resetStatistic(NormalAchievements category, UUID player) {
+		resetStatistic(category, StatisticKey.NO_SUBCATEGORY, player);
+	}
+
+	/**
+	 * Resets the statistic for a MultipleAchievement to 0.
 	 *
 	 * @param category
 	 * @param subcategory
 	 * @param player
-	 * @param value
-	 * @return the updated statistic value
 	 */
-	public long getAndIncrementStatisticAmount(MultipleAchievements category, String subcategory, UUID player, int value) {
-		CachedStatistic statistic = getHashMap(category).get(getMultipleCategoryCacheKey(player, subcategory));
+	public void resetStatistic(MultipleAchievements category, String subcategory, UUID player) {
+		resetStatistic(category, subcategoryRegistry.getId(subcategory), player);
+	}
+
+	private void resetStatistic(Category category, int subcategoryId, UUID player) {
+		PlayerStatistics statistics = getOrCreatePlayerStatistics(player);
+		CachedStatistic statistic = statistics.get(category, subcategoryId);
 		if (statistic == null) {
-			String subcategoryDBName = StringUtils.deleteWhitespace(subcategory);
-			statistic = new CachedStatistic(databaseManager.getMultipleAchievementAmount(player, category,
-					subcategoryDBName), true);
-			getHashMap(category).put(getMultipleCategoryCacheKey(player, subcategory), statistic);
+			statistics.put(category, subcategoryId, createStatistic(category, createKey(player, subcategoryId), 0L, false));
+		} else {
+			statistic.setValue(0L);
 		}
-		if (value > 0) {
-			long newValue = statistic.getValue() + value;
-			statistic.setValue(newValue);
-			return newValue;
+	}
+
+	/**
+	 * Creates a statistic whose value is known, journaled if the journal is in use.
+	 *
+	 * @param category
+	 * @param key
+	 * @param value
+	 * @param databaseConsistent
+	 * @return the new statistic
+	 */
+	private CachedStatistic createStatistic(Category category, StatisticKey key, long value, boolean databaseConsistent) {
+		return new CachedStatistic(category, key, value, databaseConsistent, dirtyStatistics,
+				databaseManager.getWriteAheadJournal());
+	}
+
+	/**
+	 * Creates a statistic whose value is yet to be loaded from the database, journaled if the journal is in use.
+	 *
+	 * @param category
+	 * @param key
+	 * @return the new statistic
+	 */
+	private CachedStatistic createUnloadedStatistic(Category category, StatisticKey key) {
+		return new CachedStatistic(category, key, dirtyStatistics, databaseManager.getWriteAheadJournal());
+	}
+
+	/**
+	 * Retrieves the queue of statistics modified since they were last written to the database.
+	 *
+	 * @return the queue of modified statistics
+	 */
+	Queue<CachedStatistic> getDirtyStatistics() {
+		return dirtyStatistics;
+	}
+
+	/**
+	 * Retrieves the queue of statistics whose player has disconnected.
+	 *
+	 * @return the queue of statistics of disconnected players
+	 */
+	Queue<PlayerStatistics> getDisconnectedPlayers() {
+		return disconnectedPlayers;
+	}
+
+	/**
+	 * Removes the statistics of a player from the cache, unless they were replaced in the meantime.
+	 *
+	 * @param statistics
+	 */
+	void removePlayerStatistics(PlayerStatistics statistics) {
+		playerStatistics.remove(statistics.getPlayer(), statistics);
+	}
+
+	/**
+	 * Discards all cached statistics and received achievements, for instance before the contents of the database are
+	 * replaced. Changes not yet written to the database are lost. Must be called on the main server thread.
+	 */
+	public void clearCaches() {
+		dirtyStatistics.clear();
+		disconnectedPlayers.clear();
+		playerStatistics.clear();
+		receivedAchievementsCache.clear();
+	}
+
+	/**
+	 * Loads all statistics and received achievements of a player into the cache, using a handful of database queries.
+	 * Statistics that are already cached are left untouched, as they may not have been written to the database yet.
+	 * Meant to be called asynchronously before the player joins.
+	 *
+	 * @param player
+	 */
+	public void preloadPlayerData(UUID player) {
+		// Statistics of a previous session are still cached if they have not all been written to the database yet, for
+		// instance if the player reconnects quickly or a batch is in progress. They may be written and removed whilst
+		// preloading, in which case the values read beforehand would be cached as consistent although outdated. Data is
+		// lazily loaded instead.
+		if (playerStatistics.containsKey(player)) {
+			return;
+		}
+		Map<NormalAchievements, Long> normalAmounts = databaseManager.getNormalAchievementAmounts(player);
+		Map<MultipleAchievements, Map<String, Long>> multipleAmounts = databaseManager
+				.getMultipleAchievementAmounts(player);
+		List<String> receivedAchievements = databaseManager.getPlayerAchievementNamesList(player);
+
+		PlayerStatistics statistics = getOrCreatePlayerStatistics(player);
+		for (NormalAchievements category : NormalAchievements.values()) {
+			if (category != NormalAchievements.CONNECTIONS) {
+				// Categories without a database entry have not been increased yet.
+				long amount = normalAmounts.getOrDefault(category, 0L);
+				statistics.computeIfAbsent(category, StatisticKey.NO_SUBCATEGORY,
+						() -> createStatistic(category, new StatisticKey(player), amount, true));
+			}
+		}
+		for (MultipleAchievements category : MultipleAchievements.values()) {
+			Map<String, Long> subcategoryAmounts = multipleAmounts.getOrDefault(category, Collections.emptyMap());
+			Set<String> subcategories = new HashSet<>(subcategoryAmounts.keySet());
+			subcategories.addAll(mainConfig.getShallowKeys(category.toString()));
+			for (String subcategory : subcategories) {
+				int subcategoryId = subcategoryRegistry.getId(subcategory);
+				StatisticKey key = createKey(player, subcategoryId);
+				long amount = subcategoryAmounts.getOrDefault(key.getSubcategory(), 0L);
+				statistics.computeIfAbsent(category, subcategoryId,
+						() -> createStatistic(category, key, amount, true));
+			}
+		}
+
+		ReceivedAchievements loaded = toReceivedAchievements(receivedAchievements);
+		ReceivedAchievements received = receivedAchievementsCache.putIfAbsent(player, loaded);
+		if (received != null) {
+			// Set created in the meantime, whose achievements may still be loading.
+			received.merge(loaded);
 		}
-		return statistic.getValue();
 	}
 
 	/**
@@ -164,76 +402,121 @@ public class CacheManager implements Cleanable {
 	 * @return true if achievement received by player, false otherwise
 	 */
 	public boolean hasPlayerAchievement(UUID player, String name) {
-		Set<String> playerReceived = receivedAchievementsCache.computeIfAbsent(player, s -> new HashSet<>());
-		if (playerReceived.contains(name)) {
-			return true;
-		}
-		Set<String> playerNotReceived = notReceivedAchievementsCache.computeIfAbsent(player, s -> new HashSet<>());
-		if (playerNotReceived.contains(name)) {
-			return false;
-		}
-
-		boolean received = databaseManager.hasPlayerAchievement(player, name);
-		if (received) {
-			playerReceived.add(name);
-		} else {
-			playerNotReceived.add(name);
-		}
-		return received;
+		return getReceivedAchievements(player).contains(achievementIndex.getIndex(name));
 	}
 
 	/**
-	 * Returns the total number of achievements received by a player. Can be called asynchronously by BungeeTabListPlus,
-	 * method must therefore be synchronized to avoid race conditions if a player calls /aach stats at the same time.
+	 * Returns the total number of achievements received by a player. Can be called asynchronously by BungeeTabListPlus.
 	 *
 	 * @param player
 	 * @return the number of achievements received by the player
 	 */
-	public synchronized int getPlayerTotalAchievements(UUID player) {
-		Integer totalAchievements = totalPlayerAchievementsCache.get(player);
-		if (totalAchievements == null) {
-			totalAchievements = databaseManager.getPlayerAchievementsAmount(player);
-			totalPlayerAchievementsCache.put(player, totalAchievements);
-		}
-		return totalAchievements;
+	public int getPlayerTotalAchievements(UUID player) {
+		return getReceivedAchievements(player).size();
 	}
 
 	/**
-	 * Returns a key for the multipleAchievementsToPlayerStatistics structure. Concatenation of player UUID and
-	 * subcategory name, with removed whitespaces.
+	 * Returns whether a player has received all the achievements in the configuration.
 	 *
 	 * @param player
-	 * @param subcategory
-	 * @return the statistics key for a Multiple category
+	 * @return true if no configured achievement is missing, false otherwise
 	 */
-	public String getMultipleCategoryCacheKey(UUID player, String subcategory) {
-		return player.toString() + StringUtils.deleteWhitespace(subcategory);
+	public boolean hasPlayerReceivedAllAchievements(UUID player) {
+		return achievementIndex.getConfiguredAchievementCount() > 0
+				&& getReceivedAchievements(player).containsAll(achievementIndex.getConfiguredAchievements());
 	}
 
 	/**
-	 * Adds an achievement to the achievement received cache and removes it from the not received cache. A call to
-	 * {@link #hasPlayerAchievement(UUID, String)} is expected to have been made made beforehand for the same player.
+	 * Adds an achievement to the achievement received cache.
 	 *
 	 * @param player
 	 * @param achievementName
 	 */
 	public void registerNewlyReceivedAchievement(UUID player, String achievementName) {
-		receivedAchievementsCache.get(player).add(achievementName);
-		notReceivedAchievementsCache.get(player).remove(achievementName);
-		totalPlayerAchievementsCache.put(player, getPlayerTotalAchievements(player) + 1);
+		getReceivedAchievements(player).add(achievementIndex.getOrRegisterIndex(achievementName));
 	}
 
 	/**
-	 * Removes an achievement from the achievement received cache and adds it to the not received cache. A call to
-	 * {@link #hasPlayerAchievement(UUID, String)} is expected to have been made made beforehand for the same player.
+	 * Removes an achievement from the achievement received cache.
 	 *
 	 * @param player
 	 * @param achievementName
 	 */
 	public void removePreviouslyReceivedAchievement(UUID player, String achievementName) {
-		receivedAchievementsCache.get(player).remove(achievementName);
-		notReceivedAchievementsCache.get(player).add(achievementName);
-		totalPlayerAchievementsCache.put(player, getPlayerTotalAchievements(player) - 1);
+		getReceivedAchievements(player).remove(achievementIndex.getIndex(achievementName));
+		// The achievement can be received again once its threshold is next checked.
+		PlayerStatistics statistics = playerStatistics.get(player);
+		if (statistics != null) {
+			statistics.forEach(CachedStatistic::resetThresholdProgress);
+		}
+	}
+
+	/**
+	 * Returns whether the achievements received by a player are known, starting to load them asynchronously otherwise.
+	 *
+	 * @param player
+	 * @return true if the received achievements are loaded, false otherwise
+	 */
+	public boolean hasLoadedReceivedAchievements(UUID player) {
+		return getReceivedAchievements(player).isLoaded();
+	}
+
+	/**
+	 * Retrieves the achievements received by a player, loading all of them with a single database query if they are
+	 * not cached yet. The main server thread never waits for the database: the achievements are loaded asynchronously
+	 * and, in the meantime, the returned set only reflects the changes made since.
+	 *
+	 * @param player
+	 * @return the achievements received by the player
+	 */
+	private ReceivedAchievements getReceivedAchievements(UUID player) {
+		ReceivedAchievements received = receivedAchievementsCache.get(player);
+		if (received == null) {
+			boolean primaryThread = Bukkit.isPrimaryThread();
+			ReceivedAchievements created = primaryThread
+					? ReceivedAchievements.unloaded(getReceivedAchievementsCapacity())
+					: toReceivedAchievements(databaseManager.getPlayerAchievementNamesList(player));
+			received = receivedAchievementsCache.putIfAbsent(player, created);
+			if (received == null) {
+				received = created;
+				if (primaryThread) {
+					loadReceivedAchievementsAsynchronously(player, created);
+				}
+			}
+		}
+		return received;
+	}
+
+	/**
+	 * Loads the achievements received by a player in an asynchronous task and merges them on the main server thread.
+	 * If they cannot be loaded, they are loaded again on next access.
+	 *
+	 * @param player
+	 * @param received
+	 */
+	private void loadReceivedAchievementsAsynchronously(UUID player, ReceivedAchievements received) {
+		Bukkit.getScheduler().runTaskAsynchronously(advancedAchievements, () -> {
+			try {
+				ReceivedAchievements loaded = toReceivedAchievements(databaseManager.getPlayerAchievementNamesList(player));
+				Bukkit.getScheduler().runTask(advancedAchievements, () -> received.merge(loaded));
+			} catch (DatabaseReadError e) {
+				logger.log(Level.SEVERE, "Error while loading received achievements, they will be loaded again on next"
+						+ " access:", e);
+				receivedAchievementsCache.remove(player, received);
+			}
+		});
+	}
+
+	private int getReceivedAchievementsCapacity() {
+		return achievementIndex.getConfiguredAchievements().length * 64;
+	}
+
+	private ReceivedAchievements toReceivedAchievements(List<String> names) {
+		ReceivedAchievements received = new ReceivedAchievements(getReceivedAchievementsCapacity());
+		for (String name : names) {
+			received.add(achievementIndex.getOrRegisterIndex(name));
+		}
+		return received;
 	}
 
 }
@@ -1,6 +1,12 @@
 package com.hm.achievement.db;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import com.hm.achievement.category.Category;
 
 /**
  * Class used to provide a cache wrapper for a database statistic.
@@ -10,47 +16,298 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public class CachedStatistic {
 
-	// Value of the statistic. Can only be modified by the main server thread.
+	// Category and key of this statistic in the CacheManager maps.
+	private final Category category;
+	private final StatisticKey key;
+	// Queue shared by all statistics, used to avoid iterating over the whole cache when writing to the database.
+	private final Queue<CachedStatistic> dirtyStatistics;
+	// Journal recording the values not yet written to the database, can be null.
+	private final WriteAheadJournal journal;
+	// Value of the statistic, or sum of the pending increments if not yet loaded from the database. Can only be
+	// modified by the main server thread.
 	private volatile long value;
+	// Value when last written to or loaded from the database, used to compute increments; if not yet loaded, sum of the
+	// pending increments already written. Can be modified by either the main server thread or the
+	// AsyncCachedRequestsSender thread.
+	private volatile long databaseValue;
+	// Indicates whether the value was set regardless of the database value, for instance when reset, and must
+	// therefore be written as such rather than as an increment.
+	private volatile boolean overwrite;
+	// Indicates whether the value was loaded from the database. Can only be modified by the main server thread.
+	private volatile boolean loaded;
+	// Indicates whether the value is being loaded from the database by an asynchronous task.
+	private final AtomicBoolean loading;
+	// Actions to perform once the value is loaded. Can only be accessed by the main server thread.
+	private final List<Consumer<CachedStatistic>> loadCallbacks;
+	// Thresholds against which nextThreshold was determined, and index of the first of them whose achievement may not
+	// have been received yet. Can only be accessed by the main server thread.
+	private long[] progressThresholds;
+	private int nextThreshold;
 	// Indicates whether this in-memory value was written to or is about to be written to the database. Can be modified
 	// concurrently by either the main server thread or the AsyncCachedRequestsSender thread.
 	private final AtomicBoolean databaseConsistent;
-	// Indicates whether the player linked to this statistic has recently disconnected. Can only be modified by the main
-	// server thread.
-	private volatile boolean disconnection;
+	// Position of the journal following the latest record of this statistic. Can only be accessed whilst holding the
+	// journal's lock.
+	private int journalPosition;
 
-	public CachedStatistic(long value, boolean databaseConsistent) {
+	CachedStatistic(Category category, StatisticKey key, long value, boolean databaseConsistent,
+			Queue<CachedStatistic> dirtyStatistics, WriteAheadJournal journal) {
+		this.category = category;
+		this.key = key;
 		this.value = value;
+		this.databaseValue = value;
+		this.overwrite = !databaseConsistent;
 		this.databaseConsistent = new AtomicBoolean(databaseConsistent);
-		disconnection = false;
+		this.dirtyStatistics = dirtyStatistics;
+		this.journal = journal;
+		loaded = true;
+		loading = new AtomicBoolean();
+		loadCallbacks = new ArrayList<>();
+		if (!databaseConsistent) {
+			if (journal == null) {
+				dirtyStatistics.offer(this);
+			} else {
+				synchronized (journal) {
+					dirtyStatistics.offer(this);
+					journal.appendStatistic(category, key, value, 0L, true);
+					journalPosition = journal.mark();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Constructs a statistic whose value is not yet loaded from the database. Increments are accumulated until the
+	 * database value is known.
+	 */
+	CachedStatistic(Category category, StatisticKey key, Queue<CachedStatistic> dirtyStatistics,
+			WriteAheadJournal journal) {
+		this(category, key, 0L, true, dirtyStatistics, journal);
+		loaded = false;
+	}
+
+	public Category getCategory() {
+		return category;
+	}
+
+	public StatisticKey getKey() {
+		return key;
 	}
 
 	public long getValue() {
 		return value;
 	}
 
+	/**
+	 * Sets the statistic to a value that overrides the database one, regardless of any increments made elsewhere.
+	 *
+	 * @param value
+	 */
 	public void setValue(long value) {
-		this.value = value;
-		databaseConsistent.set(false);
+		update(value, true);
+	}
+
+	/**
+	 * Increases the statistic by the given amount.
+	 *
+	 * @param amount
+	 */
+	public void increment(long amount) {
+		update(value + amount, false);
+	}
+
+	private void update(long newValue, boolean absolute) {
+		if (journal == null) {
+			applyUpdate(newValue, absolute);
+		} else {
+			// Changes and records are made atomically with regards to the collection of the statistic in a batch, see
+			// AsyncCachedRequestsSender.
+			synchronized (journal) {
+				applyUpdate(newValue, absolute);
+				// Journaled once queued, so that the record is always covered by the next database write.
+				journal.appendStatistic(category, key, newValue, newValue - databaseValue, overwrite);
+				journalPosition = journal.mark();
+			}
+		}
+	}
+
+	private void applyUpdate(long newValue, boolean absolute) {
+		value = newValue;
+		if (absolute) {
+			overwrite = true;
+		}
+		// Overrides the value about to be loaded, if any.
+		loaded = true;
+		// Only enqueue the statistic on its first change since it was last written, it is already queued otherwise.
+		if (databaseConsistent.compareAndSet(true, false)) {
+			dirtyStatistics.offer(this);
+		}
 	}
 
 	public boolean isDatabaseConsistent() {
-		return databaseConsistent.get();
+		// Pending increments of a statistic being loaded have not been written either.
+		return databaseConsistent.get() && (loaded || !loading.get() && value == databaseValue);
+	}
+
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * Accumulates an increment whilst the value is being loaded from the database.
+	 *
+	 * @param increment
+	 * @param callback action to perform with the value once loaded, can be null
+	 */
+	void addPendingIncrement(long increment, Consumer<CachedStatistic> callback) {
+		if (increment != 0L) {
+			value += increment;
+		}
+		if (callback != null) {
+			loadCallbacks.add(callback);
+		}
+	}
+
+	/**
+	 * Indicates that a task should start loading the value from the database.
+	 *
+	 * @return true if no other task is already loading the value, false otherwise
+	 */
+	boolean startLoading() {
+		return loading.compareAndSet(false, true);
+	}
+
+	/**
+	 * Indicates that the value could not be loaded; another attempt will be made when the statistic is next accessed.
+	 * In the meantime, the pending increments are written to the database as increments, and the actions waiting for
+	 * the value are dropped. Must be called on the main server thread.
+	 */
+	void loadingFailed() {
+		if (!loaded) {
+			loadCallbacks.clear();
+			if (value != databaseValue && databaseConsistent.compareAndSet(true, false)) {
+				dirtyStatistics.offer(this);
+			}
+		}
+		loading.set(false);
+	}
+
+	/**
+	 * Merges the value loaded from the database with the pending increments and runs the actions that were waiting for
+	 * the value. Must be called on the main server thread.
+	 *
+	 * @param databaseValue
+	 */
+	void resolve(long databaseValue) {
+		if (!loaded) {
+			// Increments written after a failed load are already part of the database value.
+			long pendingIncrements = value - this.databaseValue;
+			this.databaseValue = databaseValue;
+			if (pendingIncrements == 0L) {
+				value = databaseValue;
+				loaded = true;
+			} else {
+				update(databaseValue + pendingIncrements, false);
+			}
+		}
+		loadCallbacks.forEach(callback -> callback.accept(this));
+		loadCallbacks.clear();
+	}
+
+	/**
+	 * Returns the thresholds against which the progress of the player was last determined.
+	 *
+	 * @return the sorted thresholds, or null if they must be resolved again, for instance after a reload
+	 */
+	public long[] getThresholds() {
+		return progressThresholds;
+	}
+
+	/**
+	 * Returns the index of the first threshold whose achievement may not have been received yet by the player.
+	 *
+	 * @param thresholds sorted thresholds of the statistic's category or subcategory
+	 * @return the index of the next threshold, or 0 if the progress is unknown for the given thresholds
+	 */
+	public int getNextThreshold(long[] thresholds) {
+		return thresholds == progressThresholds ? nextThreshold : 0;
+	}
+
+	/**
+	 * Records that the achievements of all thresholds preceding an index have been received by the player.
+	 *
+	 * @param thresholds sorted thresholds of the statistic's category or subcategory
+	 * @param nextThreshold
+	 */
+	public void setNextThreshold(long[] thresholds, int nextThreshold) {
+		this.progressThresholds = thresholds;
+		this.nextThreshold = nextThreshold;
+	}
+
+	/**
+	 * Forgets the threshold progress, for instance when an achievement was removed from the player or when the
+	 * configuration was reloaded.
+	 */
+	void resetThresholdProgress() {
+		progressThresholds = null;
 	}
 
 	public void prepareDatabaseWrite() {
 		databaseConsistent.set(true);
 	}
 
-	public boolean didPlayerDisconnect() {
-		return disconnection;
+	/**
+	 * Indicates that a value is about to be written to the database. Must be called after
+	 * {@link #prepareDatabaseWrite()}.
+	 *
+	 * @param writtenValue
+	 * @return the increment since the previous write, or null if the value must be written as is
+	 */
+	Long markWritten(long writtenValue) {
+		long increment = writtenValue - databaseValue;
+		databaseValue = writtenValue;
+		if (overwrite) {
+			overwrite = false;
+			return null;
+		}
+		return increment;
+	}
+
+	/**
+	 * Indicates whether the statistic was journaled after the given mark. Must be called whilst holding the journal's
+	 * lock.
+	 *
+	 * @param journalMark
+	 * @return true if the latest record of the statistic follows the mark, false otherwise
+	 */
+	boolean isJournaledAfter(int journalMark) {
+		return journalPosition > journalMark;
 	}
 
-	public void signalPlayerDisconnection() {
-		disconnection = true;
+	/**
+	 * Records the current state of the statistic in the journal, so that older records whose changes were written to
+	 * the database in the meantime are no longer replayed.
+	 */
+	void journalCurrentState() {
+		synchronized (journal) {
+			journal.appendStatistic(category, key, value, value - databaseValue, overwrite);
+			journalPosition = journal.mark();
+		}
 	}
 
-	public void resetDisconnection() {
-		disconnection = false;
+	/**
+	 * Indicates that a value could not be written to the database, so that it is written again during the next batch.
+	 *
+	 * @param increment value returned by {@link #markWritten(long)}
+	 */
+	void writeFailed(Long increment) {
+		if (increment == null) {
+			overwrite = true;
+		} else {
+			databaseValue -= increment;
+		}
+		if (databaseConsistent.compareAndSet(true, false)) {
+			dirtyStatistics.offer(this);
+		}
 	}
 }
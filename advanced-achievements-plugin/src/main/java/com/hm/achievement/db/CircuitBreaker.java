@@ -0,0 +1,120 @@
+package com.hm.achievement.db;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Class used to stop sending operations to the database once several consecutive operations have failed, so that
+ * reads fail fast and writes are buffered whilst the database is unreachable. Once opened, the breaker lets a single
+ * probe operation through after a delay; the delay doubles every time the probe fails.
+ *
+ * @author Pyves
+ */
+public class CircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private static final long MAX_OPEN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	private final Logger logger;
+
+	private State state = State.CLOSED;
+	private int consecutiveFailures;
+	private long openedAt;
+	private long openMillis;
+	private long openCount;
+	private int failureThreshold;
+	private long initialOpenMillis;
+
+	public CircuitBreaker(Logger logger, int failureThreshold, long initialOpenMillis) {
+		this.logger = logger;
+		this.failureThreshold = failureThreshold;
+		this.initialOpenMillis = initialOpenMillis;
+		this.openMillis = initialOpenMillis;
+	}
+
+	/**
+	 * Updates the number of consecutive failures opening the breaker and the initial delay before probing the database.
+	 *
+	 * @param failureThreshold
+	 * @param initialOpenMillis
+	 */
+	synchronized void configure(int failureThreshold, long initialOpenMillis) {
+		this.failureThreshold = failureThreshold;
+		this.initialOpenMillis = initialOpenMillis;
+		if (state == State.CLOSED) {
+			openMillis = initialOpenMillis;
+		}
+	}
+
+	/**
+	 * Indicates whether an operation can be sent to the database. When the breaker has been open for long enough, a
+	 * single probe operation is allowed.
+	 *
+	 * @return true if the operation can be performed, false if it must fail fast or be buffered
+	 */
+	public synchronized boolean allowRequest() {
+		if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+			state = State.HALF_OPEN;
+			return true;
+		}
+		return state == State.CLOSED;
+	}
+
+	/**
+	 * Records an operation that succeeded, closing the breaker if it was probing the database.
+	 */
+	public synchronized void recordSuccess() {
+		if (state != State.CLOSED) {
+			logger.info("Database is reachable again, resuming database operations.");
+		}
+		state = State.CLOSED;
+		consecutiveFailures = 0;
+		openMillis = initialOpenMillis;
+	}
+
+	/**
+	 * Records an operation that failed, opening the breaker if too many consecutive operations failed or if the probe
+	 * failed.
+	 */
+	public synchronized void recordFailure() {
+		++consecutiveFailures;
+		if (state == State.HALF_OPEN) {
+			openMillis = Math.min(openMillis * 2, MAX_OPEN_MILLIS);
+			open();
+		} else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+			logger.warning("Database appears to be unreachable after " + consecutiveFailures
+					+ " failed operations, reads will fail and writes will be buffered until it recovers.");
+			open();
+		}
+	}
+
+	/**
+	 * Returns the delay before the next probe operation is allowed.
+	 *
+	 * @return the delay in milliseconds, or 0 if operations are currently allowed
+	 */
+	public synchronized long getRemainingOpenMillis() {
+		return state == State.OPEN ? Math.max(0L, openedAt + openMillis - System.currentTimeMillis()) : 0L;
+	}
+
+	public synchronized State getState() {
+		return state;
+	}
+
+	public synchronized int getConsecutiveFailures() {
+		return consecutiveFailures;
+	}
+
+	public synchronized long getOpenCount() {
+		return openCount;
+	}
+
+	private void open() {
+		state = State.OPEN;
+		openedAt = System.currentTimeMillis();
+		++openCount;
+	}
+}
@@ -0,0 +1,274 @@
+package com.hm.achievement.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Class used to provide a bounded pool of database connections. Connections handed out by the pool are lightweight
+ * proxies: closing them hands the underlying connection back to the pool instead of closing it. Idle connections are
+ * only validated when they have not been checked for a configurable interval, which avoids a round trip to the
+ * database before each operation.
+ *
+ * @author Pyves
+ */
+public class ConnectionPool {
+
+	private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+	private final ConnectionFactory connectionFactory;
+	private final Logger logger;
+	private final int maxSize;
+	private final long validationIntervalMillis;
+	private final long timeoutMillis;
+	// Most recently used connections are reused first, so that surplus connections naturally age out.
+	private final BlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+	private final Semaphore permits;
+	private final AtomicInteger activeConnections = new AtomicInteger();
+	private final LongAdder borrowCount = new LongAdder();
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+
+	private volatile boolean closed;
+
+	/**
+	 * Functional interface used to open new physical connections to the database.
+	 */
+	@FunctionalInterface
+	public interface ConnectionFactory {
+
+		Connection createConnection() throws SQLException;
+	}
+
+	public ConnectionPool(ConnectionFactory connectionFactory, Logger logger, int maxSize, long validationIntervalMillis,
+			long timeoutMillis) {
+		this.connectionFactory = connectionFactory;
+		this.logger = logger;
+		this.maxSize = Math.max(1, maxSize);
+		this.validationIntervalMillis = validationIntervalMillis;
+		this.timeoutMillis = timeoutMillis;
+		permits = new Semaphore(this.maxSize, true);
+	}
+
+	/**
+	 * Borrows a connection from the pool, waiting if all connections are currently in use. The returned connection
+	 * must be closed by the caller, ideally with a try-with-resources statement, to hand it back to the pool.
+	 *
+	 * @return a connection to the database
+	 * @throws SQLException if no connection could be obtained
+	 */
+	public Connection getConnection() throws SQLException {
+		if (closed) {
+			throw new SQLException("The connection pool has been shut down.");
+		}
+		long waitStart = System.nanoTime();
+		try {
+			if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+				throw new SQLException("Timed out after " + timeoutMillis + "ms while waiting for a database connection.");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a database connection.", e);
+		}
+		recordWait(System.nanoTime() - waitStart);
+
+		try {
+			PooledConnection pooledConnection = takeValidConnection();
+			activeConnections.incrementAndGet();
+			return pooledConnection.createProxy();
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Marks a borrowed connection as broken: instead of being reused, it will be closed when handed back to the pool.
+	 *
+	 * @param connection
+	 */
+	public void discard(Connection connection) {
+		if (connection != null && Proxy.isProxyClass(connection.getClass())) {
+			InvocationHandler handler = Proxy.getInvocationHandler(connection);
+			if (handler instanceof PooledConnection.Handle) {
+				((PooledConnection.Handle) handler).discard = true;
+			}
+		}
+	}
+
+	/**
+	 * Closes all idle connections. Connections still in use are closed as soon as they are handed back to the pool.
+	 */
+	public void shutdown() {
+		closed = true;
+		PooledConnection pooledConnection;
+		while ((pooledConnection = idleConnections.pollFirst()) != null) {
+			closeQuietly(pooledConnection.connection);
+		}
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public int getActiveConnections() {
+		return activeConnections.get();
+	}
+
+	public int getIdleConnections() {
+		return idleConnections.size();
+	}
+
+	public long getBorrowCount() {
+		return borrowCount.sum();
+	}
+
+	public double getAverageWaitMillis() {
+		long borrows = borrowCount.sum();
+		return borrows == 0L ? 0.0 : totalWaitNanos.sum() / (borrows * 1_000_000.0);
+	}
+
+	public double getMaxWaitMillis() {
+		return maxWaitNanos.get() / 1_000_000.0;
+	}
+
+	private void recordWait(long waitNanos) {
+		borrowCount.increment();
+		totalWaitNanos.add(waitNanos);
+		maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+	}
+
+	/**
+	 * Retrieves an idle connection, validating it if it was not used recently, or opens a new one.
+	 *
+	 * @return a pooled connection ready to be used
+	 * @throws SQLException
+	 */
+	private PooledConnection takeValidConnection() throws SQLException {
+		PooledConnection pooledConnection;
+		while ((pooledConnection = idleConnections.pollFirst()) != null) {
+			long now = System.currentTimeMillis();
+			if (now - pooledConnection.lastValidated < validationIntervalMillis) {
+				return pooledConnection;
+			}
+			try {
+				if (pooledConnection.connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+					pooledConnection.lastValidated = now;
+					return pooledConnection;
+				}
+			} catch (SQLException e) {
+				logger.log(Level.FINE, "Pooled database connection failed validation:", e);
+			}
+			closeQuietly(pooledConnection.connection);
+		}
+		return new PooledConnection(connectionFactory.createConnection());
+	}
+
+	/**
+	 * Hands a connection back to the pool once the caller has closed its proxy.
+	 *
+	 * @param pooledConnection
+	 * @param discard
+	 */
+	private void release(PooledConnection pooledConnection, boolean discard) {
+		try {
+			if (closed || discard || pooledConnection.connection.isClosed()) {
+				closeQuietly(pooledConnection.connection);
+			} else {
+				if (!pooledConnection.connection.getAutoCommit()) {
+					// Do not leak an unfinished transaction to the next borrower.
+					pooledConnection.connection.rollback();
+					pooledConnection.connection.setAutoCommit(true);
+				}
+				idleConnections.offerFirst(pooledConnection);
+			}
+		} catch (SQLException e) {
+			logger.log(Level.WARNING, "Error while handing a connection back to the pool, closing it:", e);
+			closeQuietly(pooledConnection.connection);
+		} finally {
+			activeConnections.decrementAndGet();
+			permits.release();
+		}
+	}
+
+	private void closeQuietly(Connection connection) {
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			logger.log(Level.FINE, "Error while closing a database connection:", e);
+		}
+	}
+
+	/**
+	 * Physical connection managed by the pool.
+	 */
+	private final class PooledConnection {
+
+		private final Connection connection;
+		private volatile long lastValidated;
+
+		private PooledConnection(Connection connection) {
+			this.connection = connection;
+			lastValidated = System.currentTimeMillis();
+		}
+
+		private Connection createProxy() {
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, new Handle());
+		}
+
+		/**
+		 * Handle given to a single borrower. Once closed, the handle can no longer be used to access the underlying
+		 * connection, even though the latter may have been handed out to someone else in the meantime.
+		 */
+		private final class Handle implements InvocationHandler {
+
+			private volatile boolean released;
+			private volatile boolean discard;
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				switch (method.getName()) {
+					case "close":
+						if (!released) {
+							released = true;
+							release(PooledConnection.this, discard);
+						}
+						return null;
+					case "isClosed":
+						if (released) {
+							return true;
+						}
+						break;
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "toString":
+						return "Pooled" + connection;
+					default:
+						if (released) {
+							throw new SQLException("Connection has already been handed back to the pool.");
+						}
+				}
+				try {
+					return method.invoke(connection, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,428 @@
+package com.hm.achievement.db;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Class used to export the contents of the database to files and to import them again, for instance to move from one
+ * database type to another. Each table is written to its own compressed file, made of a header describing the columns
+ * followed by chunks of rows. Rows are streamed from the database and inserted in batches, one chunk at a time, so
+ * that memory usage does not depend on the size of the tables; tables are copied in parallel, each of them imported in
+ * a single transaction.
+ *
+ * @author Pyves
+ */
+@Singleton
+public class DatabaseTransfer {
+
+	static final String FILE_EXTENSION = ".dat.gz";
+
+	private static final int MAGIC = 0x41414348;
+	private static final int FORMAT_VERSION = 1;
+	private static final int CHUNK_SIZE = 1000;
+	private static final int BUFFER_SIZE = 65536;
+	private static final long PROGRESS_INTERVAL_ROWS = 100000L;
+
+	private enum ColumnType {
+		UUID, LONG, TIMESTAMP, STRING
+	}
+
+	private final AbstractDatabaseManager databaseManager;
+	private final DatabaseUpdater databaseUpdater;
+	private final Logger logger;
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	@Inject
+	public DatabaseTransfer(AbstractDatabaseManager databaseManager, DatabaseUpdater databaseUpdater, Logger logger) {
+		this.databaseManager = databaseManager;
+		this.databaseUpdater = databaseUpdater;
+		this.logger = logger;
+	}
+
+	/**
+	 * Writes every existing table of the database to a file in the given directory, replacing any previous export.
+	 *
+	 * @param directory
+	 * @param progressListener receives progress messages, called from the threads copying the tables
+	 * @return the number of exported rows, or -1 if the export failed or another transfer is running
+	 */
+	public long exportTables(File directory, Consumer<String> progressListener) {
+		if (!running.compareAndSet(false, true)) {
+			progressListener.accept("Another database export or import is already running.");
+			return -1L;
+		}
+		try {
+			if (!directory.isDirectory() && !directory.mkdirs()) {
+				throw new IOException("Could not create directory " + directory + ".");
+			}
+			File[] previousFiles = directory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+			if (previousFiles != null) {
+				for (File previousFile : previousFiles) {
+					if (!previousFile.delete()) {
+						throw new IOException("Could not delete previously exported file " + previousFile + ".");
+					}
+				}
+			}
+			List<String> tables = new ArrayList<>();
+			try (Connection conn = databaseManager.getSQLConnection()) {
+				for (String table : databaseUpdater.getTableNames(databaseManager)) {
+					if (databaseUpdater.tableExists(conn, databaseManager.getPrefix() + table)) {
+						tables.add(table);
+					}
+				}
+			}
+			// A connection is left for the other operations of the plugin.
+			int threads = Math.max(1, databaseManager.connectionPool.getMaxSize() - 1);
+			return transfer(tables, threads, table -> exportTable(table, new File(directory, table + FILE_EXTENSION),
+					progressListener));
+		} catch (Exception e) {
+			logger.log(Level.SEVERE, "Error while exporting the database:", e);
+			return -1L;
+		} finally {
+			running.set(false);
+		}
+	}
+
+	/**
+	 * Replaces the contents of the tables of the database by the ones of the files in the given directory. Tables
+	 * that do not exist in the database are skipped, they must first be created by enabling the corresponding
+	 * settings. Each table is replaced atomically. Cached changes must be written or discarded beforehand; received
+	 * achievements not yet written and the journal are discarded.
+	 *
+	 * @param directory
+	 * @param progressListener receives progress messages, called from the threads copying the tables
+	 * @return the number of imported rows, or -1 if the import failed or another transfer is running
+	 */
+	public long importTables(File directory, Consumer<String> progressListener) {
+		if (!running.compareAndSet(false, true)) {
+			progressListener.accept("Another database export or import is already running.");
+			return -1L;
+		}
+		try {
+			File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+			if (files == null || files.length == 0) {
+				throw new IOException("No exported files found in directory " + directory + ".");
+			}
+			List<String> tables = new ArrayList<>();
+			for (File file : files) {
+				tables.add(StringUtils.removeEnd(file.getName(), FILE_EXTENSION));
+			}
+			if (databaseManager.getRetryScheduler().getPendingRetryCount() > 0) {
+				progressListener.accept("Database writes are being retried, please try again once they have completed.");
+				return -1L;
+			}
+			// Changes that could not be written beforehand would otherwise be written over the imported data.
+			databaseManager.discardPendingWrites();
+			int threads = Math.max(1, databaseManager.writeConnectionPool.getMaxSize() - 1);
+			long rows = transfer(tables, threads,
+					table -> importTable(new File(directory, table + FILE_EXTENSION), progressListener));
+			// Identifiers of the imported dictionaries may differ from the ones previously loaded.
+			try (Connection conn = databaseManager.getSQLWriteConnection()) {
+				databaseManager.reloadDictionaries(conn);
+			}
+			return rows;
+		} catch (Exception e) {
+			logger.log(Level.SEVERE, "Error while importing the database:", e);
+			return -1L;
+		} finally {
+			running.set(false);
+		}
+	}
+
+	/**
+	 * Copies tables in parallel and waits for all of them to be copied.
+	 *
+	 * @param tables
+	 * @param threads
+	 * @param tableTransfer
+	 * @return the total number of copied rows
+	 * @throws Exception
+	 */
+	private long transfer(List<String> tables, int threads, TableTransfer tableTransfer) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, tables.size())),
+				runnable -> {
+					Thread thread = new Thread(runnable, "AdvancedAchievements-DatabaseTransfer");
+					thread.setDaemon(true);
+					return thread;
+				});
+		try {
+			List<Future<Long>> futures = new ArrayList<>();
+			for (String table : tables) {
+				futures.add(executor.submit(() -> tableTransfer.transfer(table)));
+			}
+			long rows = 0L;
+			for (Future<Long> future : futures) {
+				try {
+					rows += future.get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof Exception) {
+						throw (Exception) e.getCause();
+					}
+					throw e;
+				}
+			}
+			return rows;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private long exportTable(String table, File file, Consumer<String> progressListener)
+			throws SQLException, IOException {
+		long rows = 0L;
+		try (Connection conn = databaseManager.getSQLConnection();
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+						new GZIPOutputStream(new FileOutputStream(file), BUFFER_SIZE), BUFFER_SIZE))) {
+			// Some drivers only stream rows within a transaction.
+			conn.setAutoCommit(false);
+			try (PreparedStatement ps = conn.prepareStatement("SELECT * FROM " + databaseManager.getPrefix() + table,
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+				ps.setFetchSize(databaseManager.getStreamingFetchSize());
+				try (ResultSet rs = ps.executeQuery()) {
+					ResultSetMetaData metaData = rs.getMetaData();
+					ColumnType[] types = new ColumnType[metaData.getColumnCount()];
+					out.writeInt(MAGIC);
+					out.writeInt(FORMAT_VERSION);
+					out.writeUTF(table);
+					out.writeInt(types.length);
+					for (int column = 0; column < types.length; ++column) {
+						types[column] = getColumnType(metaData, column + 1);
+						out.writeUTF(metaData.getColumnName(column + 1).toLowerCase(Locale.ROOT));
+						out.writeByte(types[column].ordinal());
+					}
+					// Rows are written to a buffer first, as each chunk starts with its number of rows.
+					ByteArrayOutputStream chunkBytes = new ByteArrayOutputStream();
+					DataOutputStream chunk = new DataOutputStream(chunkBytes);
+					int chunkRows = 0;
+					while (rs.next()) {
+						if (writeRow(rs, types, chunk)) {
+							++chunkRows;
+						}
+						if (chunkRows == CHUNK_SIZE) {
+							writeChunk(out, chunkBytes, chunkRows);
+							rows += chunkRows;
+							chunkRows = 0;
+							reportProgress(progressListener, "Exported", table, rows);
+						}
+					}
+					writeChunk(out, chunkBytes, chunkRows);
+					rows += chunkRows;
+					out.writeInt(0);
+				}
+			}
+		}
+		progressListener.accept("Exported " + rows + " rows from table " + table + ".");
+		return rows;
+	}
+
+	private long importTable(File file, Consumer<String> progressListener) throws SQLException, IOException {
+		long rows = 0L;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE), BUFFER_SIZE))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				throw new IOException("File " + file + " was not exported by this version of the plugin.");
+			}
+			String table = in.readUTF();
+			String[] columns = new String[in.readInt()];
+			ColumnType[] types = new ColumnType[columns.length];
+			for (int column = 0; column < columns.length; ++column) {
+				columns[column] = in.readUTF();
+				types[column] = ColumnType.values()[in.readByte()];
+			}
+			String prefixedTable = databaseManager.getPrefix() + table;
+			try (Connection conn = databaseManager.getSQLWriteConnection()) {
+				if (!databaseUpdater.tableExists(conn, prefixedTable)) {
+					progressListener.accept("Skipped table " + table + ", which does not exist in the database.");
+					return 0L;
+				}
+				// The table is replaced in a single transaction, so that a failed import leaves its contents untouched.
+				conn.setAutoCommit(false);
+				try {
+					try (Statement st = conn.createStatement()) {
+						st.execute("DELETE FROM " + prefixedTable);
+					}
+					String sql = "INSERT INTO " + prefixedTable + " (" + StringUtils.join(columns, ',') + ") VALUES ("
+							+ StringUtils.repeat("?", ",", columns.length) + ")";
+					try (PreparedStatement ps = conn.prepareStatement(sql)) {
+						int chunkRows;
+						while ((chunkRows = in.readInt()) > 0) {
+							for (int row = 0; row < chunkRows; ++row) {
+								bindRow(in, types, ps);
+								ps.addBatch();
+							}
+							ps.executeBatch();
+							rows += chunkRows;
+							reportProgress(progressListener, "Imported", table, rows);
+						}
+					}
+					conn.commit();
+				} catch (SQLException | IOException | RuntimeException e) {
+					conn.rollback();
+					throw e;
+				} finally {
+					conn.setAutoCommit(true);
+				}
+			}
+			progressListener.accept("Imported " + rows + " rows into table " + table + ".");
+		}
+		return rows;
+	}
+
+	/**
+	 * Writes the values of the current row.
+	 *
+	 * @param rs
+	 * @param types
+	 * @param out
+	 * @return false if the row was skipped because of an invalid player UUID, true otherwise
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	private boolean writeRow(ResultSet rs, ColumnType[] types, DataOutputStream out) throws SQLException, IOException {
+		// Player columns are checked first, so that nothing is written for skipped rows.
+		UUID[] uuids = new UUID[types.length];
+		for (int column = 0; column < types.length; ++column) {
+			if (types[column] == ColumnType.UUID) {
+				uuids[column] = databaseManager.getUUID(rs, column + 1);
+				if (uuids[column] == null) {
+					return false;
+				}
+			}
+		}
+		for (int column = 0; column < types.length; ++column) {
+			switch (types[column]) {
+				case UUID:
+					out.writeLong(uuids[column].getMostSignificantBits());
+					out.writeLong(uuids[column].getLeastSignificantBits());
+					break;
+				case LONG:
+					long value = rs.getLong(column + 1);
+					out.writeBoolean(rs.wasNull());
+					if (!rs.wasNull()) {
+						out.writeLong(value);
+					}
+					break;
+				case TIMESTAMP:
+					Timestamp timestamp = rs.getTimestamp(column + 1);
+					out.writeBoolean(timestamp == null);
+					if (timestamp != null) {
+						out.writeLong(timestamp.getTime());
+					}
+					break;
+				default:
+					String string = rs.getString(column + 1);
+					out.writeBoolean(string == null);
+					if (string != null) {
+						out.writeUTF(string);
+					}
+					break;
+			}
+		}
+		return true;
+	}
+
+	private void bindRow(DataInputStream in, ColumnType[] types, PreparedStatement ps)
+			throws SQLException, IOException {
+		for (int column = 0; column < types.length; ++column) {
+			int parameter = column + 1;
+			if (types[column] == ColumnType.UUID) {
+				ps.setObject(parameter, databaseManager.toDatabaseUUID(new UUID(in.readLong(), in.readLong())));
+			} else if (in.readBoolean()) {
+				ps.setNull(parameter, types[column] == ColumnType.LONG ? Types.BIGINT
+						: types[column] == ColumnType.TIMESTAMP ? Types.TIMESTAMP : Types.VARCHAR);
+			} else if (types[column] == ColumnType.LONG) {
+				ps.setLong(parameter, in.readLong());
+			} else if (types[column] == ColumnType.TIMESTAMP) {
+				ps.setTimestamp(parameter, new Timestamp(in.readLong()));
+			} else {
+				ps.setString(parameter, in.readUTF());
+			}
+		}
+	}
+
+	private static void writeChunk(DataOutputStream out, ByteArrayOutputStream chunkBytes, int chunkRows)
+			throws IOException {
+		if (chunkRows > 0) {
+			out.writeInt(chunkRows);
+			chunkBytes.writeTo(out);
+		}
+		chunkBytes.reset();
+	}
+
+	private static void reportProgress(Consumer<String> progressListener, String action, String table, long rows) {
+		if (rows % PROGRESS_INTERVAL_ROWS == 0) {
+			progressListener.accept(action + " " + rows + " rows of table " + table + " so far...");
+		}
+	}
+
+	/**
+	 * Determines how the values of a column are stored in exported files. The declared type is also inspected, as not
+	 * all drivers report the SQL type of the columns.
+	 *
+	 * @param metaData
+	 * @param column
+	 * @return the type of the column
+	 * @throws SQLException
+	 */
+	private static ColumnType getColumnType(ResultSetMetaData metaData, int column) throws SQLException {
+		if ("playername".equalsIgnoreCase(metaData.getColumnName(column))) {
+			return ColumnType.UUID;
+		}
+		switch (metaData.getColumnType(column)) {
+			case Types.TINYINT:
+			case Types.SMALLINT:
+			case Types.INTEGER:
+			case Types.BIGINT:
+				return ColumnType.LONG;
+			case Types.DATE:
+			case Types.TIMESTAMP:
+				return ColumnType.TIMESTAMP;
+			default:
+				String typeName = StringUtils.defaultString(metaData.getColumnTypeName(column)).toUpperCase(Locale.ROOT);
+				if (typeName.startsWith("TIMESTAMP")) {
+					return ColumnType.TIMESTAMP;
+				}
+				return typeName.contains("INT") ? ColumnType.LONG : ColumnType.STRING;
+		}
+	}
+
+	@FunctionalInterface
+	private interface TableTransfer {
+
+		long transfer(String table) throws SQLException, IOException;
+	}
+}
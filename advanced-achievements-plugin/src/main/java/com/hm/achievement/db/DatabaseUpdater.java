@@ -1,16 +1,28 @@
 package com.hm.achievement.db;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -20,6 +32,7 @@ import javax.inject.Singleton;
 import org.apache.commons.lang3.StringUtils;
 import org.bukkit.Material;
 
+import com.hm.achievement.category.Category;
 import com.hm.achievement.category.MultipleAchievements;
 import com.hm.achievement.category.NormalAchievements;
 import com.hm.achievement.exception.PluginLoadError;
@@ -35,6 +48,9 @@ import com.hm.achievement.utils.StringHelper;
 @Singleton
 public class DatabaseUpdater {
 
+	private static final String MIGRATION_TABLE = "statistics_migration";
+	private static final int MIGRATION_CHUNK_SIZE = 5000;
+
 	private final Logger logger;
 	private final int serverVersion;
 	private final MaterialHelper materialHelper;
@@ -69,8 +85,7 @@ public class DatabaseUpdater {
 	void renameExistingTables(AbstractDatabaseManager databaseManager) throws PluginLoadError {
 		// If a prefix is set in the config, check whether the tables with the default names exist. If so do renaming.
 		if (StringUtils.isNotBlank(databaseManager.getPrefix())) {
-			Connection conn = databaseManager.getSQLConnection();
-			try (Statement st = conn.createStatement()) {
+			try (Connection conn = databaseManager.getSQLWriteConnection(); Statement st = conn.createStatement()) {
 				ResultSet rs = conn.getMetaData().getTables(null, null, "achievements", null);
 				// If the achievements table still has its default name (ie. no prefix), but a prefix is set in the
 				// configuration, do a renaming of all tables.
@@ -101,30 +116,690 @@ public class DatabaseUpdater {
 	 * @throws PluginLoadError
 	 */
 	void initialiseTables(AbstractDatabaseManager databaseManager) throws PluginLoadError {
-		Connection conn = databaseManager.getSQLConnection();
-		try (Statement st = conn.createStatement()) {
-			st.addBatch("CREATE TABLE IF NOT EXISTS " + databaseManager.getPrefix()
-					+ "achievements (playername char(36),achievement varchar(64),description varchar(128),date TIMESTAMP,PRIMARY KEY (playername, achievement))");
+		try (Connection conn = databaseManager.getSQLWriteConnection(); Statement st = conn.createStatement()) {
+			for (Entry<String, String> table : getPlayerTableDefinitions(databaseManager).entrySet()) {
+				if (!AbstractDatabaseManager.STATISTICS_TABLE.equals(table.getKey())
+						&& !AbstractDatabaseManager.PLAYER_ACHIEVEMENTS_TABLE.equals(table.getKey())) {
+					st.addBatch("CREATE TABLE IF NOT EXISTS " + databaseManager.getPrefix() + table.getKey() + " "
+							+ table.getValue());
+				}
+			}
+			st.executeBatch();
+		} catch (SQLException e) {
+			throw new PluginLoadError("Error while initialising database tables.", e);
+		}
+	}
 
-			for (MultipleAchievements category : MultipleAchievements.values()) {
-				st.addBatch("CREATE TABLE IF NOT EXISTS " + databaseManager.getPrefix() + category.toDBName()
-						+ " (playername char(36)," + category.toSubcategoryDBName() + " varchar(191)," + category.toDBName()
-						+ " INT,PRIMARY KEY(playername, " + category.toSubcategoryDBName() + "))");
+	/**
+	 * Returns the column definitions of all the tables keyed by player UUID, including the consolidated statistics
+	 * and player achievements ones.
+	 * 
+	 * @param databaseManager
+	 * @return map of table names without prefix to column definitions
+	 */
+	private Map<String, String> getPlayerTableDefinitions(AbstractDatabaseManager databaseManager) {
+		String uuidType = databaseManager.getUUIDColumnType();
+		Map<String, String> definitions = new LinkedHashMap<>();
+		definitions.put("achievements", "(playername " + uuidType
+				+ ",achievement varchar(64),description varchar(128),date TIMESTAMP,PRIMARY KEY (playername, achievement))");
+		for (MultipleAchievements category : MultipleAchievements.values()) {
+			definitions.put(category.toDBName(), "(playername " + uuidType + "," + category.toSubcategoryDBName()
+					+ " varchar(191)," + category.toDBName() + " INT,PRIMARY KEY(playername, "
+					+ category.toSubcategoryDBName() + "))");
+		}
+		for (NormalAchievements category : NormalAchievements.values()) {
+			if (category == NormalAchievements.CONNECTIONS) {
+				definitions.put(category.toDBName(), "(playername " + uuidType + "," + category.toDBName()
+						+ " INT,date varchar(10),PRIMARY KEY (playername))");
+			} else {
+				definitions.put(category.toDBName(), "(playername " + uuidType + "," + category.toDBName()
+						+ " BIGINT,PRIMARY KEY (playername))");
 			}
+		}
+		definitions.put(AbstractDatabaseManager.STATISTICS_TABLE, "(playername " + uuidType + ",category_id INT,"
+				+ "subcategory_id INT,amount BIGINT,PRIMARY KEY (playername, category_id, subcategory_id))");
+		definitions.put(AbstractDatabaseManager.PLAYER_ACHIEVEMENTS_TABLE, "(playername " + uuidType
+				+ ",achievement_id INT,date TIMESTAMP,PRIMARY KEY (playername, achievement_id))");
+		return definitions;
+	}
+
+	/**
+	 * Returns the names of all the tables that may be used by the plugin, whether they exist or not.
+	 * 
+	 * @param databaseManager
+	 * @return table names without prefix
+	 */
+	Set<String> getTableNames(AbstractDatabaseManager databaseManager) {
+		Set<String> tables = new LinkedHashSet<>(getPlayerTableDefinitions(databaseManager).keySet());
+		tables.add(StatisticsDictionary.CATEGORIES_TABLE);
+		tables.add(StatisticsDictionary.SUBCATEGORIES_TABLE);
+		tables.add(AchievementDictionary.TABLE);
+		tables.add(AbstractDatabaseManager.PLAYER_TOTALS_TABLE);
+		tables.add(AbstractDatabaseManager.PLAYER_DAILY_TOTALS_TABLE);
+		tables.add(MIGRATION_TABLE);
+		return tables;
+	}
+
+	/**
+	 * Initialises the table tracking the progress of the chunked migrations.
+	 * 
+	 * @param databaseManager
+	 * @throws PluginLoadError
+	 */
+	private void initialiseMigrationTable(AbstractDatabaseManager databaseManager) throws PluginLoadError {
+		try (Connection conn = databaseManager.getSQLWriteConnection(); Statement st = conn.createStatement()) {
+			st.execute("CREATE TABLE IF NOT EXISTS " + databaseManager.getPrefix() + MIGRATION_TABLE
+					+ " (source varchar(32),last_player char(36),last_subcategory varchar(191),completed INT,"
+					+ "PRIMARY KEY (source))");
+		} catch (SQLException e) {
+			throw new PluginLoadError("Error while initialising database migration table.", e);
+		}
+	}
+
+	/**
+	 * Initialises the consolidated statistics table and its dictionary tables, then loads the category identifiers.
+	 * 
+	 * @param databaseManager
+	 * @throws PluginLoadError
+	 */
+	void initialiseConsolidatedTables(AbstractDatabaseManager databaseManager) throws PluginLoadError {
+		initialiseMigrationTable(databaseManager);
+		String prefix = databaseManager.getPrefix();
+		try (Connection conn = databaseManager.getSQLWriteConnection(); Statement st = conn.createStatement()) {
+			st.addBatch("CREATE TABLE IF NOT EXISTS " + prefix + AbstractDatabaseManager.STATISTICS_TABLE + " "
+					+ getPlayerTableDefinitions(databaseManager).get(AbstractDatabaseManager.STATISTICS_TABLE));
+			st.addBatch("CREATE TABLE IF NOT EXISTS " + prefix + StatisticsDictionary.CATEGORIES_TABLE
+					+ " (id INT,name varchar(32),PRIMARY KEY (id),UNIQUE (name))");
+			st.addBatch("CREATE TABLE IF NOT EXISTS " + prefix + StatisticsDictionary.SUBCATEGORIES_TABLE
+					+ " (id INT,category_id INT,name varchar(191),PRIMARY KEY (id),UNIQUE (category_id, name))");
+			st.executeBatch();
+			databaseManager.getStatisticsDictionary().loadCategories(conn);
+		} catch (SQLException e) {
+			throw new PluginLoadError("Error while initialising consolidated statistics tables.", e);
+		}
+	}
 
+	/**
+	 * Copies the statistics stored in the per-category tables to the consolidated statistics table. Tables are
+	 * streamed in chunks ordered by primary key; the last copied key is committed alongside each chunk, so that an
+	 * interrupted migration resumes where it stopped during the next start-up.
+	 * 
+	 * @param databaseManager
+	 * @throws PluginLoadError
+	 */
+	void migrateToConsolidatedStatistics(AbstractDatabaseManager databaseManager) throws PluginLoadError {
+		String prefix = databaseManager.getPrefix();
+		try (Connection conn = databaseManager.getSQLWriteConnection()) {
 			for (NormalAchievements category : NormalAchievements.values()) {
-				if (category == NormalAchievements.CONNECTIONS) {
-					st.addBatch("CREATE TABLE IF NOT EXISTS " + databaseManager.getPrefix() + category.toDBName()
-							+ " (playername char(36)," + category.toDBName()
-							+ " INT,date varchar(10),PRIMARY KEY (playername))");
-				} else {
-					st.addBatch("CREATE TABLE IF NOT EXISTS " + databaseManager.getPrefix() + category.toDBName()
-							+ " (playername char(36)," + category.toDBName() + " BIGINT,PRIMARY KEY (playername))");
+				if (category != NormalAchievements.CONNECTIONS) {
+					String dbName = category.toDBName();
+					// Normal tables have no subcategory, the last condition keeps the same parameters as Multiple ones.
+					migrateToConsolidatedStatistics(databaseManager, conn, category,
+							"SELECT playername,''," + dbName + " FROM " + prefix + dbName + " WHERE 1=1",
+							" AND (playername > ? OR (playername = ? AND '' > ?))", " ORDER BY playername");
+				}
+			}
+			for (MultipleAchievements category : MultipleAchievements.values()) {
+				String dbName = category.toDBName();
+				String subcategory = category.toSubcategoryDBName();
+				migrateToConsolidatedStatistics(databaseManager, conn, category,
+						"SELECT playername," + subcategory + "," + dbName + " FROM " + prefix + dbName + " WHERE "
+								+ subcategory + " IS NOT NULL",
+						" AND (playername > ? OR (playername = ? AND " + subcategory + " > ?))",
+						" ORDER BY playername," + subcategory);
+			}
+		} catch (SQLException e) {
+			throw new PluginLoadError("Error while migrating statistics to the consolidated table.", e);
+		}
+	}
+
+	/**
+	 * Migrates a single category, unless it was already fully migrated.
+	 * 
+	 * @param databaseManager
+	 * @param conn
+	 * @param category
+	 * @param chunkQuery query returning player, subcategory and value
+	 * @param keyCondition condition restricting the query to rows after a given key
+	 * @param keyOrder ordering of the query by key
+	 * @throws SQLException
+	 */
+	private void migrateToConsolidatedStatistics(AbstractDatabaseManager databaseManager, Connection conn,
+			Category category, String chunkQuery, String keyCondition, String keyOrder) throws SQLException {
+		String migrationTable = databaseManager.getPrefix() + MIGRATION_TABLE;
+		String[] progress = getMigrationProgress(conn, migrationTable, category.toDBName());
+		if (progress == null) {
+			return;
+		}
+		UUID lastPlayer = progress[0].isEmpty() ? null : UUID.fromString(progress[0]);
+		String lastSubcategory = progress[1];
+
+		logger.info("Migrating " + category.toDBName() + " statistics to the consolidated table, please wait...");
+		StatisticsDictionary dictionary = databaseManager.getStatisticsDictionary();
+		int categoryId = dictionary.getCategoryId(category);
+		String statisticsTable = databaseManager.getPrefix() + AbstractDatabaseManager.STATISTICS_TABLE;
+		int migratedRows = 0;
+		boolean completed = false;
+		while (!completed) {
+			List<Object[]> rows = new ArrayList<>(MIGRATION_CHUNK_SIZE);
+			int fetchedRows = 0;
+			// The first chunk has no lower bound, UUIDs stored in binary form cannot be compared to an empty string.
+			String sql = chunkQuery + (lastPlayer == null ? "" : keyCondition) + keyOrder + " LIMIT "
+					+ MIGRATION_CHUNK_SIZE;
+			try (PreparedStatement ps = conn.prepareStatement(sql)) {
+				if (lastPlayer != null) {
+					ps.setObject(1, databaseManager.toDatabaseUUID(lastPlayer));
+					ps.setObject(2, databaseManager.toDatabaseUUID(lastPlayer));
+					ps.setString(3, lastSubcategory);
+				}
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) {
+						++fetchedRows;
+						UUID player = databaseManager.getUUID(rs, 1);
+						if (player == null) {
+							continue;
+						}
+						lastPlayer = player;
+						lastSubcategory = rs.getString(2);
+						int subcategoryId = category instanceof MultipleAchievements ? dictionary
+								.getOrCreateSubcategoryId(conn, (MultipleAchievements) category, lastSubcategory)
+								: StatisticsDictionary.NO_SUBCATEGORY;
+						rows.add(new Object[] { lastPlayer, categoryId, subcategoryId, rs.getLong(3) });
+					}
 				}
 			}
+			completed = fetchedRows < MIGRATION_CHUNK_SIZE;
+			// Write the chunk and the migration progress atomically.
+			conn.setAutoCommit(false);
+			if (!rows.isEmpty()) {
+				databaseManager.upsertStatistics(conn, statisticsTable,
+						AbstractDatabaseManager.getConsolidatedStatisticsColumns(), rows);
+			}
+			updateMigrationProgress(conn, migrationTable, category.toDBName(),
+					lastPlayer == null ? "" : lastPlayer.toString(), lastSubcategory, completed ? 1 : 0);
+			conn.commit();
+			conn.setAutoCommit(true);
+			migratedRows += rows.size();
+		}
+		logger.info("Migrated " + migratedRows + " " + category.toDBName() + " statistics.");
+	}
+
+	/**
+	 * Initialises the player achievements table and its dictionary table, then loads the achievement identifiers.
+	 * 
+	 * @param databaseManager
+	 * @throws PluginLoadError
+	 */
+	void initialiseAchievementDictionaryTables(AbstractDatabaseManager databaseManager) throws PluginLoadError {
+		initialiseMigrationTable(databaseManager);
+		String prefix = databaseManager.getPrefix();
+		try (Connection conn = databaseManager.getSQLWriteConnection(); Statement st = conn.createStatement()) {
+			st.addBatch("CREATE TABLE IF NOT EXISTS " + prefix + AbstractDatabaseManager.PLAYER_ACHIEVEMENTS_TABLE + " "
+					+ getPlayerTableDefinitions(databaseManager).get(AbstractDatabaseManager.PLAYER_ACHIEVEMENTS_TABLE));
+			st.addBatch("CREATE TABLE IF NOT EXISTS " + prefix + AchievementDictionary.TABLE
+					+ " (id INT,name varchar(64),description varchar(128),PRIMARY KEY (id),UNIQUE (name))");
 			st.executeBatch();
+			databaseManager.getAchievementDictionary().load(conn);
 		} catch (SQLException e) {
-			throw new PluginLoadError("Error while initialising database tables.", e);
+			throw new PluginLoadError("Error while initialising achievement dictionary tables.", e);
+		}
+	}
+
+	/**
+	 * Copies the achievements table to the player achievements table, replacing names by identifiers and storing each
+	 * description only once. Rows are streamed in chunks ordered by primary key; the last copied key is committed
+	 * alongside each chunk, so that an interrupted migration resumes where it stopped during the next start-up.
+	 * 
+	 * @param databaseManager
+	 * @throws PluginLoadError
+	 */
+	void migrateToAchievementDictionary(AbstractDatabaseManager databaseManager) throws PluginLoadError {
+		String prefix = databaseManager.getPrefix();
+		String migrationTable = prefix + MIGRATION_TABLE;
+		try (Connection conn = databaseManager.getSQLWriteConnection()) {
+			String[] progress = getMigrationProgress(conn, migrationTable, "achievements");
+			if (progress == null) {
+				return;
+			}
+			UUID lastPlayer = progress[0].isEmpty() ? null : UUID.fromString(progress[0]);
+			String lastAchievement = progress[1];
+
+			logger.info("Migrating received achievements to the achievement dictionary, please wait...");
+			AchievementDictionary dictionary = databaseManager.getAchievementDictionary();
+			Set<String> describedAchievements = new HashSet<>();
+			String upsert = databaseManager
+					.getPlayerAchievementUpsertQuery(prefix + AbstractDatabaseManager.PLAYER_ACHIEVEMENTS_TABLE);
+			int migratedRows = 0;
+			boolean completed = false;
+			while (!completed) {
+				List<Object[]> rows = new ArrayList<>(MIGRATION_CHUNK_SIZE);
+				int fetchedRows = 0;
+				// The first chunk has no lower bound, UUIDs stored in binary form cannot be compared to an empty string.
+				String sql = "SELECT playername,achievement,description,date FROM " + prefix + "achievements"
+						+ (lastPlayer == null ? "" : " WHERE playername > ? OR (playername = ? AND achievement > ?)")
+						+ " ORDER BY playername,achievement LIMIT " + MIGRATION_CHUNK_SIZE;
+				try (PreparedStatement ps = conn.prepareStatement(sql)) {
+					if (lastPlayer != null) {
+						ps.setObject(1, databaseManager.toDatabaseUUID(lastPlayer));
+						ps.setObject(2, databaseManager.toDatabaseUUID(lastPlayer));
+						ps.setString(3, lastAchievement);
+					}
+					try (ResultSet rs = ps.executeQuery()) {
+						while (rs.next()) {
+							++fetchedRows;
+							UUID player = databaseManager.getUUID(rs, 1);
+							if (player == null) {
+								continue;
+							}
+							lastPlayer = player;
+							lastAchievement = rs.getString(2);
+							// Names of old achievements may contain doubled quotes, see AbstractDatabaseManager.
+							String name = StringUtils.replace(lastAchievement, "''", "'");
+							int id = dictionary.getOrCreateId(conn, name);
+							if (describedAchievements.add(name)) {
+								String description = rs.getString(3);
+								dictionary.updateDescription(conn, name, description == null ? "" : description);
+							}
+							rows.add(new Object[] { player, id, rs.getTimestamp(4) });
+						}
+					}
+				}
+				completed = fetchedRows < MIGRATION_CHUNK_SIZE;
+				// Write the chunk and the migration progress atomically.
+				conn.setAutoCommit(false);
+				try (PreparedStatement ps = conn.prepareStatement(upsert)) {
+					for (Object[] row : rows) {
+						ps.setObject(1, databaseManager.toDatabaseUUID((UUID) row[0]));
+						ps.setInt(2, (Integer) row[1]);
+						ps.setTimestamp(3, (Timestamp) row[2]);
+						ps.addBatch();
+					}
+					ps.executeBatch();
+				}
+				updateMigrationProgress(conn, migrationTable, "achievements",
+						lastPlayer == null ? "" : lastPlayer.toString(), lastAchievement, completed ? 1 : 0);
+				conn.commit();
+				conn.setAutoCommit(true);
+				migratedRows += rows.size();
+			}
+			logger.info("Migrated " + migratedRows + " received achievements.");
+		} catch (SQLException e) {
+			throw new PluginLoadError("Error while migrating received achievements to the achievement dictionary.", e);
+		}
+	}
+
+	/**
+	 * Initialises the tables maintaining the number of achievements received by each player, overall and per day.
+	 * These only hold derived data: they are recreated if their player column does not use the configured UUID type,
+	 * and are built again from the received achievements whenever they are created.
+	 * 
+	 * @param databaseManager
+	 * @throws PluginLoadError
+	 */
+	void initialisePlayerTotalsTables(AbstractDatabaseManager databaseManager) throws PluginLoadError {
+		initialiseMigrationTable(databaseManager);
+		String prefix = databaseManager.getPrefix();
+		String totalsTable = prefix + AbstractDatabaseManager.PLAYER_TOTALS_TABLE;
+		String dailyTotalsTable = prefix + AbstractDatabaseManager.PLAYER_DAILY_TOTALS_TABLE;
+		String uuidType = databaseManager.getUUIDColumnType();
+		try (Connection conn = databaseManager.getSQLWriteConnection(); Statement st = conn.createStatement()) {
+			if (databaseManager.binaryUUIDs && hasTextPlayerColumn(conn, totalsTable)) {
+				st.execute("DROP TABLE " + totalsTable);
+				st.execute("DROP TABLE " + dailyTotalsTable);
+			}
+			boolean created = false;
+			if (!tableExists(conn, totalsTable)) {
+				st.execute("CREATE TABLE " + totalsTable + " (playername " + uuidType
+						+ ",total INT,PRIMARY KEY (playername))");
+				st.execute("CREATE INDEX " + totalsTable + "_total ON " + totalsTable + " (total)");
+				created = true;
+			}
+			if (!tableExists(conn, dailyTotalsTable)) {
+				st.execute("CREATE TABLE " + dailyTotalsTable + " (playername " + uuidType
+						+ ",day INT,total INT,PRIMARY KEY (playername, day))");
+				st.execute("CREATE INDEX " + dailyTotalsTable + "_day ON " + dailyTotalsTable + " (day)");
+				created = true;
+			}
+			if (created) {
+				resetMigrationProgress(conn, prefix + MIGRATION_TABLE, AbstractDatabaseManager.PLAYER_TOTALS_TABLE);
+			}
+		} catch (SQLException e) {
+			throw new PluginLoadError("Error while initialising player totals tables.", e);
+		}
+	}
+
+	/**
+	 * Builds the player totals tables from the received achievements, unless they are already up to date.
+	 * 
+	 * @param databaseManager
+	 * @throws PluginLoadError
+	 */
+	void buildPlayerTotals(AbstractDatabaseManager databaseManager) throws PluginLoadError {
+		String migrationTable = databaseManager.getPrefix() + MIGRATION_TABLE;
+		try (Connection conn = databaseManager.getSQLWriteConnection()) {
+			if (getMigrationProgress(conn, migrationTable, AbstractDatabaseManager.PLAYER_TOTALS_TABLE) == null) {
+				return;
+			}
+			logger.info("Counting the achievements received by each player, please wait...");
+			int players = databaseManager.rebuildPlayerTotals(conn);
+			updateMigrationProgress(conn, migrationTable, AbstractDatabaseManager.PLAYER_TOTALS_TABLE, "", "", 1);
+			conn.commit();
+			logger.info("Counted the achievements of " + players + " players.");
+		} catch (SQLException e) {
+			throw new PluginLoadError("Error while building player totals tables.", e);
+		}
+	}
+
+	/**
+	 * Marks the player totals tables as out of date, as they are no longer maintained. They will be built again if
+	 * the feature is enabled later on.
+	 * 
+	 * @param databaseManager
+	 */
+	void invalidatePlayerTotals(AbstractDatabaseManager databaseManager) {
+		try (Connection conn = databaseManager.getSQLWriteConnection()) {
+			resetMigrationProgress(conn, databaseManager.getPrefix() + MIGRATION_TABLE,
+					AbstractDatabaseManager.PLAYER_TOTALS_TABLE);
+		} catch (SQLException e) {
+			// Migration table does not exist, the totals were never built.
+		}
+	}
+
+	/**
+	 * Creates the missing indexes used by the date and recipient lookups of the received achievements, then reports
+	 * the indexes of the table. Indexes are compared against the database metadata during every start-up, as some of
+	 * the migrations recreate tables without their indexes.
+	 * 
+	 * @param databaseManager
+	 */
+	void updateIndexes(AbstractDatabaseManager databaseManager) {
+		try (Connection conn = databaseManager.getSQLWriteConnection()) {
+			for (Entry<String, Map<String, String>> tableIndexes : getIndexDefinitions(databaseManager).entrySet()) {
+				String table = databaseManager.getPrefix() + tableIndexes.getKey();
+				Set<String> existingIndexes = getIndexNames(conn, table);
+				for (Entry<String, String> index : tableIndexes.getValue().entrySet()) {
+					String indexName = table + "_" + index.getKey();
+					if (!existingIndexes.contains(indexName.toLowerCase())) {
+						logger.info("Creating index " + indexName + ", please wait...");
+						try (Statement st = conn.createStatement()) {
+							st.execute(databaseManager.getCreateIndexQuery(indexName, table, index.getValue()));
+						}
+						existingIndexes.add(indexName.toLowerCase());
+					}
+				}
+				logger.info("Indexes of table " + table + ": " + StringUtils.join(existingIndexes, ", "));
+			}
+		} catch (SQLException e) {
+			// Lookups are slower without the indexes, but remain functional.
+			logger.log(Level.SEVERE, "Database error while creating indexes:", e);
+		}
+	}
+
+	/**
+	 * Returns the indexes of the table storing received achievements, keyed by table name without prefix, then by
+	 * index name suffix.
+	 * 
+	 * @param databaseManager
+	 * @return map of index name suffixes to indexed columns
+	 */
+	private Map<String, Map<String, String>> getIndexDefinitions(AbstractDatabaseManager databaseManager) {
+		Map<String, String> indexes = new LinkedHashMap<>();
+		Map<String, Map<String, String>> definitions = new LinkedHashMap<>();
+		if (databaseManager.getAchievementDictionary() == null) {
+			// Used by periodic rankings and recipient lookups.
+			indexes.put("date", "date");
+			indexes.put("achievement_date", "achievement, date");
+			definitions.put("achievements", indexes);
+		} else {
+			indexes.put("date", "date");
+			indexes.put("achievement_date", "achievement_id, date");
+			definitions.put(AbstractDatabaseManager.PLAYER_ACHIEVEMENTS_TABLE, indexes);
+		}
+		return definitions;
+	}
+
+	/**
+	 * Retrieves the names of the indexes of a table, in lower case. Table names may be stored in a different case
+	 * depending on the database.
+	 * 
+	 * @param conn
+	 * @param table
+	 * @return the index names
+	 * @throws SQLException
+	 */
+	private Set<String> getIndexNames(Connection conn, String table) throws SQLException {
+		Set<String> indexNames = new TreeSet<>();
+		DatabaseMetaData metaData = conn.getMetaData();
+		for (String tableName : new HashSet<>(Arrays.asList(table, table.toLowerCase(), table.toUpperCase()))) {
+			try (ResultSet rs = metaData.getIndexInfo(conn.getCatalog(), null, tableName, false, true)) {
+				while (rs.next()) {
+					String indexName = rs.getString("INDEX_NAME");
+					if (indexName != null) {
+						indexNames.add(indexName.toLowerCase());
+					}
+				}
+			}
+		}
+		return indexNames;
+	}
+
+	/**
+	 * Converts the player columns of all existing tables from strings to binary UUIDs. Each table is copied to a new
+	 * table in chunks of players, the last copied player being committed alongside each chunk, so that an interrupted
+	 * migration resumes where it stopped during the next start-up. The original table is only replaced once fully
+	 * copied.
+	 * 
+	 * @param databaseManager
+	 * @throws PluginLoadError
+	 */
+	void migrateToBinaryUUIDs(AbstractDatabaseManager databaseManager) throws PluginLoadError {
+		initialiseMigrationTable(databaseManager);
+		try (Connection conn = databaseManager.getSQLWriteConnection()) {
+			for (Entry<String, String> table : getPlayerTableDefinitions(databaseManager).entrySet()) {
+				migrateToBinaryUUIDs(databaseManager, conn, table.getKey(), table.getValue());
+			}
+		} catch (SQLException e) {
+			throw new PluginLoadError("Error while migrating database tables to binary UUIDs.", e);
+		}
+	}
+
+	/**
+	 * Migrates a single table, unless it does not exist or already stores binary UUIDs.
+	 * 
+	 * @param databaseManager
+	 * @param conn
+	 * @param table name of the table without prefix
+	 * @param definition column definitions of the table, with binary UUIDs
+	 * @throws SQLException
+	 */
+	private void migrateToBinaryUUIDs(AbstractDatabaseManager databaseManager, Connection conn, String table,
+			String definition) throws SQLException {
+		String prefix = databaseManager.getPrefix();
+		String migrationTable = prefix + MIGRATION_TABLE;
+		String source = "binary_" + table;
+		String oldTable = prefix + table;
+		String newTable = prefix + table + "_binary";
+		if (!hasMigrationProgress(conn, migrationTable, source)) {
+			if (!hasTextPlayerColumn(conn, oldTable)) {
+				return;
+			}
+			try (Statement st = conn.createStatement()) {
+				st.execute("CREATE TABLE IF NOT EXISTS " + newTable + " " + definition);
+			}
+		}
+		String[] progress = getMigrationProgress(conn, migrationTable, source);
+		if (progress == null) {
+			return;
+		}
+
+		if (!"copied".equals(progress[1])) {
+			logger.info("Migrating " + oldTable + " database table to binary UUIDs, please wait...");
+			String lastPlayer = progress[0];
+			int migratedRows = 0;
+			boolean completed = false;
+			while (!completed) {
+				String boundaryPlayer = null;
+				int players = 0;
+				try (PreparedStatement ps = conn.prepareStatement("SELECT DISTINCT playername FROM " + oldTable
+						+ " WHERE playername > ? ORDER BY playername LIMIT " + MIGRATION_CHUNK_SIZE)) {
+					ps.setString(1, lastPlayer);
+					try (ResultSet rs = ps.executeQuery()) {
+						while (rs.next()) {
+							boundaryPlayer = rs.getString(1);
+							++players;
+						}
+					}
+				}
+				completed = players < MIGRATION_CHUNK_SIZE;
+				// Write the chunk and the migration progress atomically.
+				conn.setAutoCommit(false);
+				if (boundaryPlayer != null) {
+					migratedRows += copyWithBinaryUUIDs(databaseManager, conn, oldTable, newTable, lastPlayer,
+							boundaryPlayer);
+					lastPlayer = boundaryPlayer;
+				}
+				// The subcategory column marks the copy as finished, the table then only needs to be swapped.
+				updateMigrationProgress(conn, migrationTable, source, lastPlayer, completed ? "copied" : "", 0);
+				conn.commit();
+				conn.setAutoCommit(true);
+			}
+			logger.info("Migrated " + migratedRows + " rows of " + oldTable + " database table.");
+		}
+
+		// If interrupted after dropping the original table, it may have been recreated empty in the meantime.
+		try (Statement st = conn.createStatement()) {
+			st.execute("DROP TABLE IF EXISTS " + oldTable);
+			st.execute("ALTER TABLE " + newTable + " RENAME TO " + oldTable);
+		}
+		updateMigrationProgress(conn, migrationTable, source, progress[0], "copied", 1);
+	}
+
+	/**
+	 * Copies the rows of the players between two bounds to the table storing binary UUIDs.
+	 * 
+	 * @param databaseManager
+	 * @param conn
+	 * @param oldTable
+	 * @param newTable
+	 * @param lowerPlayer exclusive lower bound
+	 * @param upperPlayer inclusive upper bound
+	 * @return the number of copied rows
+	 * @throws SQLException
+	 */
+	private int copyWithBinaryUUIDs(AbstractDatabaseManager databaseManager, Connection conn, String oldTable,
+			String newTable, String lowerPlayer, String upperPlayer) throws SQLException {
+		int copiedRows = 0;
+		try (PreparedStatement select = conn.prepareStatement(
+				"SELECT * FROM " + oldTable + " WHERE playername > ? AND playername <= ? ORDER BY playername")) {
+			select.setString(1, lowerPlayer);
+			select.setString(2, upperPlayer);
+			try (ResultSet rs = select.executeQuery()) {
+				int columnCount = rs.getMetaData().getColumnCount();
+				String insert = "INSERT INTO " + newTable + " VALUES " + AbstractDatabaseManager.getRowPlaceholders(
+						columnCount, 1);
+				try (PreparedStatement ps = conn.prepareStatement(insert)) {
+					while (rs.next()) {
+						String player = rs.getString(1);
+						UUID uuid;
+						try {
+							uuid = UUID.fromString(player.trim());
+						} catch (IllegalArgumentException improperUUIDFormatException) {
+							logger.warning("Skipping invalid player UUID " + player + " in " + oldTable + ".");
+							continue;
+						}
+						ps.setObject(1, databaseManager.toDatabaseUUID(uuid));
+						for (int column = 2; column <= columnCount; ++column) {
+							ps.setObject(column, rs.getObject(column));
+						}
+						ps.addBatch();
+						++copiedRows;
+					}
+					ps.executeBatch();
+				}
+			}
+		}
+		return copiedRows;
+	}
+
+	/**
+	 * Checks whether the player column of a table stores UUIDs as strings.
+	 * 
+	 * @param conn
+	 * @param table
+	 * @return true if the table exists and stores UUIDs as strings, false otherwise
+	 * @throws SQLException
+	 */
+	private boolean hasTextPlayerColumn(Connection conn, String table) throws SQLException {
+		try (Statement st = conn.createStatement();
+				ResultSet rs = st.executeQuery("SELECT playername FROM " + table + " LIMIT 1")) {
+			int type = rs.getMetaData().getColumnType(1);
+			return type == Types.CHAR || type == Types.VARCHAR;
+		} catch (SQLException e) {
+			// Table does not exist.
+			return false;
+		}
+	}
+
+	boolean tableExists(Connection conn, String table) {
+		try (Statement st = conn.createStatement();
+				ResultSet rs = st.executeQuery("SELECT 1 FROM " + table + " LIMIT 1")) {
+			return true;
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private void resetMigrationProgress(Connection conn, String migrationTable, String source) throws SQLException {
+		try (PreparedStatement ps = conn.prepareStatement("DELETE FROM " + migrationTable + " WHERE source = ?")) {
+			ps.setString(1, source);
+			ps.execute();
+		}
+	}
+
+	private boolean hasMigrationProgress(Connection conn, String migrationTable, String source) throws SQLException {
+		try (PreparedStatement ps = conn.prepareStatement("SELECT 1 FROM " + migrationTable + " WHERE source = ?")) {
+			ps.setString(1, source);
+			try (ResultSet rs = ps.executeQuery()) {
+				return rs.next();
+			}
+		}
+	}
+
+	/**
+	 * Retrieves the progress of a migration, registering it if it has not started yet.
+	 * 
+	 * @param conn
+	 * @param migrationTable
+	 * @param source
+	 * @return the last migrated player and subcategory, or null if the migration has already completed
+	 * @throws SQLException
+	 */
+	private String[] getMigrationProgress(Connection conn, String migrationTable, String source) throws SQLException {
+		try (PreparedStatement ps = conn.prepareStatement(
+				"SELECT last_player, last_subcategory, completed FROM " + migrationTable + " WHERE source = ?")) {
+			ps.setString(1, source);
+			try (ResultSet rs = ps.executeQuery()) {
+				if (rs.next()) {
+					return rs.getInt(3) == 1 ? null : new String[] { rs.getString(1), rs.getString(2) };
+				}
+			}
+		}
+		try (PreparedStatement ps = conn.prepareStatement("INSERT INTO " + migrationTable + " VALUES (?,'','',0)")) {
+			ps.setString(1, source);
+			ps.execute();
+		}
+		return new String[] { "", "" };
+	}
+
+	private void updateMigrationProgress(Connection conn, String migrationTable, String source, String lastPlayer,
+			String lastSubcategory, int completed) throws SQLException {
+		try (PreparedStatement ps = conn.prepareStatement("UPDATE " + migrationTable
+				+ " SET last_player = ?, last_subcategory = ?, completed = ? WHERE source = ?")) {
+			ps.setString(1, lastPlayer);
+			ps.setString(2, lastSubcategory);
+			ps.setInt(3, completed);
+			ps.setString(4, source);
+			ps.execute();
 		}
 	}
 
@@ -137,9 +812,8 @@ public class DatabaseUpdater {
 	 * @throws PluginLoadError
 	 */
 	void updateOldDBToMaterial(AbstractDatabaseManager databaseManager) throws PluginLoadError {
-		Connection conn = databaseManager.getSQLConnection();
 		String type = "";
-		try (Statement st = conn.createStatement()) {
+		try (Connection conn = databaseManager.getSQLWriteConnection(); Statement st = conn.createStatement()) {
 			ResultSet rs = st.executeQuery("SELECT blockid FROM " + databaseManager.getPrefix()
 					+ MultipleAchievements.BREAKS.toDBName() + " LIMIT 1");
 			type = rs.getMetaData().getColumnTypeName(1);
@@ -170,8 +844,7 @@ public class DatabaseUpdater {
 	 */
 	private void updateOldDBToMaterial(AbstractDatabaseManager databaseManager, MultipleAchievements category) {
 		String tableName = databaseManager.getPrefix() + category.toDBName();
-		Connection conn = databaseManager.getSQLConnection();
-		try (Statement st = conn.createStatement()) {
+		try (Connection conn = databaseManager.getSQLWriteConnection(); Statement st = conn.createStatement()) {
 			// Create new temporary table.
 			st.execute("CREATE TABLE tempTable (playername char(36)," + category.toSubcategoryDBName() + " varchar(191),"
 					+ tableName + " INT UNSIGNED,PRIMARY KEY(playername, " + category.toSubcategoryDBName() + "))");
@@ -228,8 +901,7 @@ public class DatabaseUpdater {
 	 * @param databaseManager
 	 */
 	void updateOldDBToDates(AbstractDatabaseManager databaseManager) {
-		Connection conn = databaseManager.getSQLConnection();
-		try (Statement st = conn.createStatement()) {
+		try (Connection conn = databaseManager.getSQLWriteConnection(); Statement st = conn.createStatement()) {
 			ResultSet rs = st.executeQuery("SELECT date FROM " + databaseManager.getPrefix() + "achievements LIMIT 1");
 			String type = rs.getMetaData().getColumnTypeName(1);
 			// Old column type for versions prior to 3.0 was text for SQLite, char for MySQL and varchar for PostgreSQL
@@ -309,8 +981,7 @@ public class DatabaseUpdater {
 	void updateOldDBToTimestamps(AbstractDatabaseManager databaseManager) {
 		// SQLite unaffected by this change, H2 support added with timestamp from the start.
 		if (databaseManager instanceof AbstractRemoteDatabaseManager) {
-			Connection conn = databaseManager.getSQLConnection();
-			try (Statement st = conn.createStatement()) {
+			try (Connection conn = databaseManager.getSQLWriteConnection(); Statement st = conn.createStatement()) {
 				ResultSet rs = st.executeQuery("SELECT date FROM " + databaseManager.getPrefix() + "achievements LIMIT 1");
 				String type = rs.getMetaData().getColumnTypeName(1);
 				// Old column type for versions prior to 5.11.0 was date.
@@ -337,8 +1008,7 @@ public class DatabaseUpdater {
 	void updateOldDBColumnSize(AbstractDatabaseManager databaseManager, MultipleAchievements category) {
 		// SQLite ignores size for varchar datatype. H2 support was added after this was an issue.
 		if (!(databaseManager instanceof AbstractFileDatabaseManager)) {
-			Connection conn = databaseManager.getSQLConnection();
-			try (Statement st = conn.createStatement()) {
+			try (Connection conn = databaseManager.getSQLWriteConnection(); Statement st = conn.createStatement()) {
 				ResultSet rs = st.executeQuery("SELECT " + category.toSubcategoryDBName() + " FROM "
 						+ databaseManager.getPrefix() + category.toDBName() + " LIMIT 1");
 				if (rs.getMetaData().getPrecision(1) < 191) {
@@ -364,8 +1034,7 @@ public class DatabaseUpdater {
 	 */
 	private void updateOldMaterialsToNewOnes(AbstractDatabaseManager databaseManager, MultipleAchievements category) {
 		String tableName = databaseManager.getPrefix() + category.toDBName();
-		Connection conn = databaseManager.getSQLConnection();
-		try (Statement st = conn.createStatement()) {
+		try (Connection conn = databaseManager.getSQLWriteConnection(); Statement st = conn.createStatement()) {
 			// Create new temporary table.
 			st.execute("CREATE TABLE tempTable (playername char(36)," + category.toSubcategoryDBName() + " varchar(191),"
 					+ tableName + " INT UNSIGNED,PRIMARY KEY(playername, " + category.toSubcategoryDBName() + "))");
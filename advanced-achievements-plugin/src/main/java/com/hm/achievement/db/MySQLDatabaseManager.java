@@ -27,4 +27,31 @@ public class MySQLDatabaseManager extends AbstractRemoteDatabaseManager {
 
 		additionalConnectionOptions = "&useSSL=false" + additionalConnectionOptions;
 	}
+
+	@Override
+	int getStreamingFetchSize() {
+		// Connector/J only streams rows one by one, and otherwise reads the whole result set.
+		return Integer.MIN_VALUE;
+	}
+
+	@Override
+	String getCreateIndexQuery(String index, String table, String columns) {
+		// The table can still be read and written whilst the index is being built.
+		return "ALTER TABLE " + table + " ADD INDEX " + index + " (" + columns + "), ALGORITHM=INPLACE, LOCK=NONE";
+	}
+
+	@Override
+	String getStatisticsUpsertQuery(String table, String[] columns, int rowCount) {
+		// Unlike REPLACE, ON DUPLICATE KEY UPDATE does not delete and reinsert existing rows.
+		String valueColumn = columns[columns.length - 1];
+		return "INSERT INTO " + table + " VALUES " + getRowPlaceholders(columns.length, rowCount)
+				+ " ON DUPLICATE KEY UPDATE " + valueColumn + "=VALUES(" + valueColumn + ")";
+	}
+
+	@Override
+	String getStatisticsDeltaQuery(String table, String[] columns, int rowCount) {
+		String valueColumn = columns[columns.length - 1];
+		return "INSERT INTO " + table + " VALUES " + getRowPlaceholders(columns.length, rowCount)
+				+ " ON DUPLICATE KEY UPDATE " + valueColumn + "=" + valueColumn + "+VALUES(" + valueColumn + ")";
+	}
 }
@@ -0,0 +1,100 @@
+package com.hm.achievement.db;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.bukkit.Bukkit;
+
+/**
+ * Class used to record the latencies, retries and failures of the database operations, keyed by the message
+ * describing each operation. The statistics of every operation are also exposed through JMX, under the
+ * com.hm.achievement domain.
+ *
+ * @author Pyves
+ */
+public class OperationMetrics {
+
+	private final Logger logger;
+	// Determines whether an operation is called from the main server thread.
+	private final BooleanSupplier primaryThread;
+	private final Map<String, OperationStatistics> statistics = new ConcurrentHashMap<>();
+	private final Map<String, ObjectName> objectNames = new ConcurrentHashMap<>();
+
+	private volatile boolean mbeansRegistered = true;
+
+	public OperationMetrics(Logger logger) {
+		// No server is available outside of a running Minecraft instance, for instance in unit tests.
+		this(logger, () -> Bukkit.getServer() != null && Bukkit.isPrimaryThread());
+	}
+
+	OperationMetrics(Logger logger, BooleanSupplier primaryThread) {
+		this.logger = logger;
+		this.primaryThread = primaryThread;
+	}
+
+	/**
+	 * Records a call of an operation.
+	 *
+	 * @param operation
+	 * @param nanos time spent waiting for the database, excluding delays between attempts
+	 * @param retries number of attempts after the first one
+	 * @param failed whether the operation was given up on
+	 */
+	public void record(String operation, long nanos, int retries, boolean failed) {
+		OperationStatistics operationStatistics = statistics.get(operation);
+		if (operationStatistics == null) {
+			operationStatistics = statistics.computeIfAbsent(operation, this::createStatistics);
+		}
+		operationStatistics.record(nanos, retries, failed, primaryThread.getAsBoolean());
+	}
+
+	public Map<String, OperationStatistics> getStatistics() {
+		return Collections.unmodifiableMap(statistics);
+	}
+
+	/**
+	 * Removes the statistics from JMX, for instance when the plugin is disabled. Operations recorded afterwards are no
+	 * longer exposed.
+	 */
+	void unregisterMBeans() {
+		mbeansRegistered = false;
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (ObjectName objectName : objectNames.values()) {
+			try {
+				server.unregisterMBean(objectName);
+			} catch (JMException e) {
+				// Already unregistered.
+			}
+		}
+		objectNames.clear();
+	}
+
+	private OperationStatistics createStatistics(String operation) {
+		OperationStatistics operationStatistics = new OperationStatistics();
+		if (mbeansRegistered) {
+			try {
+				ObjectName objectName = new ObjectName(
+						"com.hm.achievement:type=DatabaseOperation,name=" + ObjectName.quote(operation));
+				MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+				// A previous instance of the plugin may not have been disabled cleanly.
+				if (server.isRegistered(objectName)) {
+					server.unregisterMBean(objectName);
+				}
+				server.registerMBean(operationStatistics, objectName);
+				objectNames.put(operation, objectName);
+			} catch (JMException e) {
+				logger.log(Level.WARNING, "Could not expose statistics of database operation through JMX:", e);
+			}
+		}
+		return operationStatistics;
+	}
+}
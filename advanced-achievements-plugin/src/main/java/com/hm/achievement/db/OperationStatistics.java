@@ -0,0 +1,130 @@
+package com.hm.achievement.db;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class used to record the latencies and outcomes of a database operation. Latencies are counted in buckets whose
+ * bounds double every time, starting at one microsecond, so that recording a call never allocates nor locks;
+ * percentiles are therefore approximated by the upper bound of their bucket.
+ *
+ * @author Pyves
+ */
+public class OperationStatistics implements OperationStatisticsMXBean {
+
+	// The last bucket contains all latencies above 2^25 microseconds, about 33 seconds.
+	private static final int BUCKETS = 26;
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder primaryThreadCalls = new LongAdder();
+	private final LongAdder retries = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+	/**
+	 * Records a call of the operation.
+	 *
+	 * @param nanos time spent waiting for the database, excluding delays between attempts
+	 * @param retries number of attempts after the first one
+	 * @param failed whether the operation was given up on
+	 * @param primaryThread whether the operation ran on the main server thread
+	 */
+	void record(long nanos, int retries, boolean failed, boolean primaryThread) {
+		long micros = nanos / 1000L;
+		histogram.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+		calls.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulate(nanos);
+		if (retries > 0) {
+			this.retries.add(retries);
+		}
+		if (failed) {
+			failures.increment();
+		}
+		if (primaryThread) {
+			primaryThreadCalls.increment();
+		}
+	}
+
+	@Override
+	public long getCalls() {
+		return calls.sum();
+	}
+
+	@Override
+	public long getPrimaryThreadCalls() {
+		return primaryThreadCalls.sum();
+	}
+
+	@Override
+	public long getRetries() {
+		return retries.sum();
+	}
+
+	@Override
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	public double getTotalMillis() {
+		return totalNanos.sum() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMeanMillis() {
+		long count = calls.sum();
+		return count == 0 ? 0.0 : totalNanos.sum() / NANOS_PER_MILLI / count;
+	}
+
+	@Override
+	public double getP50Millis() {
+		return getPercentileMillis(0.50);
+	}
+
+	@Override
+	public double getP95Millis() {
+		return getPercentileMillis(0.95);
+	}
+
+	@Override
+	public double getP99Millis() {
+		return getPercentileMillis(0.99);
+	}
+
+	@Override
+	public double getMaxMillis() {
+		return maxNanos.get() / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Approximates a percentile of the latencies by the upper bound of the bucket containing it, capped by the maximum
+	 * latency.
+	 *
+	 * @param percentile between 0 and 1
+	 * @return the latency in milliseconds
+	 */
+	double getPercentileMillis(double percentile) {
+		long[] counts = new long[BUCKETS];
+		long total = 0L;
+		for (int bucket = 0; bucket < BUCKETS; ++bucket) {
+			counts[bucket] = histogram.get(bucket);
+			total += counts[bucket];
+		}
+		if (total == 0L) {
+			return 0.0;
+		}
+		long rank = (long) Math.ceil(percentile * total);
+		long cumulated = 0L;
+		for (int bucket = 0; bucket < BUCKETS - 1; ++bucket) {
+			cumulated += counts[bucket];
+			if (cumulated >= rank) {
+				return Math.min((1L << bucket) / 1000.0, getMaxMillis());
+			}
+		}
+		return getMaxMillis();
+	}
+}
@@ -0,0 +1,27 @@
+package com.hm.achievement.db;
+
+/**
+ * Management interface exposing the statistics of a database operation through JMX.
+ *
+ * @author Pyves
+ */
+public interface OperationStatisticsMXBean {
+
+	long getCalls();
+
+	long getPrimaryThreadCalls();
+
+	long getRetries();
+
+	long getFailures();
+
+	double getMeanMillis();
+
+	double getP50Millis();
+
+	double getP95Millis();
+
+	double getP99Millis();
+
+	double getMaxMillis();
+}
@@ -0,0 +1,81 @@
+package com.hm.achievement.db;
+
+import java.util.UUID;
+
+/**
+ * Class used to represent a received achievement that has not been written to the database yet.
+ *
+ * @author Pyves
+ *
+ */
+final class PendingAchievement {
+
+	private final AchievementKey key;
+	private final UUID player;
+	private final String name;
+	private final String message;
+	private final long receptionTime;
+	// Sequence number of the journal record of the achievement, 0 if not journaled.
+	private final long journalSequence;
+	// Indicates whether the player had already received the achievement, in which case it is not counted again.
+	private final boolean receivedAgain;
+	// Indicates whether the achievement is being written, in which case it may already be part of the database.
+	private volatile boolean writing;
+
+	PendingAchievement(UUID player, String name, String message, long receptionTime, long journalSequence,
+			boolean receivedAgain) {
+		this.key = new AchievementKey(player, name);
+		this.player = player;
+		this.name = name;
+		this.message = message;
+		this.receptionTime = receptionTime;
+		this.journalSequence = journalSequence;
+		this.receivedAgain = receivedAgain;
+	}
+
+	AchievementKey getKey() {
+		return key;
+	}
+
+	UUID getPlayer() {
+		return player;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	String getMessage() {
+		return message;
+	}
+
+	long getReceptionTime() {
+		return receptionTime;
+	}
+
+	long getJournalSequence() {
+		return journalSequence;
+	}
+
+	boolean isReceivedAgain() {
+		return receivedAgain;
+	}
+
+	boolean isWriting() {
+		return writing;
+	}
+
+	void setWriting(boolean writing) {
+		this.writing = writing;
+	}
+
+	/**
+	 * Returns whether the achievement is known to be missing from the database counts, i.e. it was not received before
+	 * and is not being written.
+	 *
+	 * @return true if the achievement must be added to the counts read from the database, false otherwise
+	 */
+	boolean isUncounted() {
+		return !receivedAgain && !writing;
+	}
+}
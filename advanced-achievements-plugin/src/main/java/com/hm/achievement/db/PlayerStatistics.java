@@ -0,0 +1,228 @@
+package com.hm.achievement.db;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.hm.achievement.category.Category;
+import com.hm.achievement.category.MultipleAchievements;
+import com.hm.achievement.category.NormalAchievements;
+
+/**
+ * Class used to group all the cached statistics of a player, so that a single lookup finds any of them and so that they
+ * can be handled one player at a time. Normal statistics are indexed by category ordinal; Multiple statistics are
+ * stored in open-addressing tables, one per category, keyed by interned subcategory identifier. Tables are never
+ * modified once published: adding a statistic publishes a new copy, so that lookups, which happen on every event, do
+ * not take any lock.
+ *
+ * @author Pyves
+ *
+ */
+class PlayerStatistics {
+
+	private static final int INITIAL_TABLE_SIZE = 8;
+
+	private final UUID player;
+	private final AtomicReferenceArray<CachedStatistic> normalStatistics = new AtomicReferenceArray<>(
+			NormalAchievements.values().length);
+	// Tables indexed by MultipleAchievements ordinal, null until the first statistic of the category is cached.
+	private final AtomicReferenceArray<SubcategoryTable> multipleStatistics = new AtomicReferenceArray<>(
+			MultipleAchievements.values().length);
+	// Indicates whether the player has recently disconnected. Can only be modified by the main server thread.
+	private volatile boolean disconnection;
+
+	PlayerStatistics(UUID player) {
+		this.player = player;
+	}
+
+	UUID getPlayer() {
+		return player;
+	}
+
+	/**
+	 * Retrieves a cached statistic.
+	 *
+	 * @param category
+	 * @param subcategoryId interned subcategory identifier, ignored for Normal categories
+	 * @return the statistic, or null if not cached
+	 */
+	CachedStatistic get(Category category, int subcategoryId) {
+		if (category instanceof NormalAchievements) {
+			return normalStatistics.get(((NormalAchievements) category).ordinal());
+		}
+		SubcategoryTable table = multipleStatistics.get(((MultipleAchievements) category).ordinal());
+		return table == null ? null : table.get(subcategoryId);
+	}
+
+	/**
+	 * Retrieves a cached statistic, creating it if not cached.
+	 *
+	 * @param category
+	 * @param subcategoryId interned subcategory identifier, ignored for Normal categories
+	 * @param statisticSupplier creates the statistic if not cached
+	 * @return the cached or created statistic
+	 */
+	CachedStatistic computeIfAbsent(Category category, int subcategoryId, Supplier<CachedStatistic> statisticSupplier) {
+		CachedStatistic statistic = get(category, subcategoryId);
+		if (statistic != null) {
+			return statistic;
+		}
+		synchronized (this) {
+			statistic = get(category, subcategoryId);
+			if (statistic == null) {
+				statistic = statisticSupplier.get();
+				put(category, subcategoryId, statistic);
+			}
+			return statistic;
+		}
+	}
+
+	/**
+	 * Caches a statistic, replacing any previous one.
+	 *
+	 * @param category
+	 * @param subcategoryId interned subcategory identifier, ignored for Normal categories
+	 * @param statistic
+	 */
+	synchronized void put(Category category, int subcategoryId, CachedStatistic statistic) {
+		if (category instanceof NormalAchievements) {
+			normalStatistics.set(((NormalAchievements) category).ordinal(), statistic);
+			return;
+		}
+		int ordinal = ((MultipleAchievements) category).ordinal();
+		SubcategoryTable table = multipleStatistics.get(ordinal);
+		if (table == null) {
+			table = new SubcategoryTable(INITIAL_TABLE_SIZE);
+		}
+		multipleStatistics.set(ordinal, table.with(subcategoryId, statistic));
+	}
+
+	/**
+	 * Performs an action for each cached statistic of the player.
+	 *
+	 * @param action
+	 */
+	void forEach(Consumer<CachedStatistic> action) {
+		for (int ordinal = 0; ordinal < normalStatistics.length(); ++ordinal) {
+			CachedStatistic statistic = normalStatistics.get(ordinal);
+			if (statistic != null) {
+				action.accept(statistic);
+			}
+		}
+		for (int ordinal = 0; ordinal < multipleStatistics.length(); ++ordinal) {
+			SubcategoryTable table = multipleStatistics.get(ordinal);
+			if (table != null) {
+				for (CachedStatistic statistic : table.statistics) {
+					if (statistic != null) {
+						action.accept(statistic);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns whether all the cached statistics of the player have been written to the database.
+	 *
+	 * @return true if no statistic has pending changes, false otherwise
+	 */
+	boolean isDatabaseConsistent() {
+		boolean[] consistent = { true };
+		forEach(statistic -> consistent[0] &= statistic.isDatabaseConsistent());
+		return consistent[0];
+	}
+
+	/**
+	 * Indicates that the player has disconnected.
+	 *
+	 * @return true if the player was not already flagged as disconnected, false otherwise
+	 */
+	boolean signalPlayerDisconnection() {
+		if (disconnection) {
+			return false;
+		}
+		disconnection = true;
+		return true;
+	}
+
+	void resetDisconnection() {
+		disconnection = false;
+	}
+
+	/**
+	 * Immutable open-addressing table mapping the subcategory identifiers of a category to statistics.
+	 */
+	private static final class SubcategoryTable {
+
+		// Subcategory identifiers (-1 for free slots) and the statistics at the same positions.
+		private final int[] ids;
+		private final CachedStatistic[] statistics;
+		private final int size;
+
+		SubcategoryTable(int capacity) {
+			this(newIds(capacity), new CachedStatistic[capacity], 0);
+		}
+
+		private SubcategoryTable(int[] ids, CachedStatistic[] statistics, int size) {
+			this.ids = ids;
+			this.statistics = statistics;
+			this.size = size;
+		}
+
+		CachedStatistic get(int subcategoryId) {
+			int slot = findSlot(ids, subcategoryId);
+			return ids[slot] == subcategoryId ? statistics[slot] : null;
+		}
+
+		/**
+		 * Creates a copy of the table containing an additional statistic.
+		 *
+		 * @param subcategoryId
+		 * @param statistic
+		 * @return the new table
+		 */
+		SubcategoryTable with(int subcategoryId, CachedStatistic statistic) {
+			// Keep the load factor under one half so that probe sequences remain short.
+			int capacity = 2 * (size + 1) > ids.length ? ids.length * 2 : ids.length;
+			int[] newIds = newIds(capacity);
+			CachedStatistic[] newStatistics = new CachedStatistic[capacity];
+			for (int oldSlot = 0; oldSlot < ids.length; ++oldSlot) {
+				if (ids[oldSlot] >= 0) {
+					int slot = findSlot(newIds, ids[oldSlot]);
+					newIds[slot] = ids[oldSlot];
+					newStatistics[slot] = statistics[oldSlot];
+				}
+			}
+			int slot = findSlot(newIds, subcategoryId);
+			int newSize = newIds[slot] == subcategoryId ? size : size + 1;
+			newIds[slot] = subcategoryId;
+			newStatistics[slot] = statistic;
+			return new SubcategoryTable(newIds, newStatistics, newSize);
+		}
+
+		/**
+		 * Finds the slot of a subcategory identifier using linear probing. Tables are never full.
+		 *
+		 * @param ids
+		 * @param subcategoryId
+		 * @return the slot containing the identifier, or the free slot where it should be inserted
+		 */
+		private static int findSlot(int[] ids, int subcategoryId) {
+			int mask = ids.length - 1;
+			// Identifiers are small sequential integers, they are therefore already evenly spread.
+			int slot = subcategoryId & mask;
+			while (ids[slot] != subcategoryId && ids[slot] >= 0) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		private static int[] newIds(int size) {
+			int[] ids = new int[size];
+			Arrays.fill(ids, -1);
+			return ids;
+		}
+	}
+}
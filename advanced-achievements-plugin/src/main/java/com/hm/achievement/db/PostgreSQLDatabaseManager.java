@@ -3,14 +3,16 @@ package com.hm.achievement.db;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.Timestamp;
-import java.sql.Types;
+import java.sql.SQLException;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.logging.Logger;
 
 import javax.inject.Named;
 
+import org.apache.commons.lang3.StringUtils;
+
 import com.hm.achievement.category.NormalAchievements;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
 
@@ -29,52 +31,126 @@ public class PostgreSQLDatabaseManager extends AbstractRemoteDatabaseManager {
 	}
 
 	@Override
-	public void registerAchievement(UUID uuid, String achName, String achMessage) {
+	String getAchievementUpsertQuery(String table) {
 		// PostgreSQL has no REPLACE operator. We have to use the INSERT ... ON CONFLICT construct, which is available
 		// for PostgreSQL 9.5+.
-		String sql = "INSERT INTO " + prefix + "achievements VALUES (?,?,?,?)"
-				+ " ON CONFLICT (playername,achievement) DO UPDATE SET (description,date)=(?,?)";
-		((SQLWriteOperation) () -> {
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
-				ps.setObject(1, uuid, Types.CHAR);
-				ps.setString(2, achName);
-				ps.setString(3, achMessage);
-				ps.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
-				ps.setString(5, achMessage);
-				ps.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
-				ps.execute();
+		return "INSERT INTO " + table + " VALUES (?,?,?,?) ON CONFLICT (playername,achievement) DO UPDATE SET "
+				+ "(description,date)=(EXCLUDED.description,EXCLUDED.date)";
+	}
+
+	@Override
+	String getPlayerAchievementUpsertQuery(String table) {
+		return "INSERT INTO " + table + " VALUES (?,?,?) ON CONFLICT (playername,achievement_id) DO UPDATE SET date="
+				+ "EXCLUDED.date";
+	}
+
+	@Override
+	String getCreateIndexQuery(String index, String table, String columns) {
+		// The table can still be written whilst the index is being built. Must not be run within a transaction.
+		return "CREATE INDEX CONCURRENTLY " + index + " ON " + table + " (" + columns + ")";
+	}
+
+	@Override
+	String getStatisticsUpsertQuery(String table, String[] columns, int rowCount) {
+		String valueColumn = columns[columns.length - 1];
+		return getUnnestInsertQuery(table, columns) + valueColumn + "=EXCLUDED." + valueColumn;
+	}
+
+	@Override
+	String getStatisticsDeltaQuery(String table, String[] columns, int rowCount) {
+		String valueColumn = columns[columns.length - 1];
+		return getUnnestInsertQuery(table, columns) + valueColumn + "=" + table + "." + valueColumn + "+EXCLUDED."
+				+ valueColumn;
+	}
+
+	/**
+	 * Builds the beginning of a statement inserting rows bound as arrays, up to the update of conflicting rows.
+	 *
+	 * @param table
+	 * @param columns
+	 * @return the beginning of the SQL query
+	 */
+	private String getUnnestInsertQuery(String table, String[] columns) {
+		// Each column is bound as a single array, the statement therefore remains identical regardless of the number of
+		// rows. The statistic column is last, identifier columns of the consolidated table are integers, player columns
+		// are either native UUIDs or strings, and all others are strings.
+		String[] arrayParameters = new String[columns.length];
+		for (int column = 0; column < columns.length - 1; ++column) {
+			if (columns[column].endsWith("_id")) {
+				arrayParameters[column] = "?::integer[]";
+			} else if (binaryUUIDs && "playername".equals(columns[column])) {
+				arrayParameters[column] = "?::uuid[]";
+			} else {
+				arrayParameters[column] = "?::varchar[]";
+			}
+		}
+		arrayParameters[columns.length - 1] = "?::bigint[]";
+		return "INSERT INTO " + table + " SELECT * FROM unnest(" + StringUtils.join(arrayParameters, ',')
+				+ ") ON CONFLICT (" + StringUtils.join(columns, ',', 0, columns.length - 1) + ") DO UPDATE SET ";
+	}
+
+	@Override
+	void bindStatisticsUpsertRows(Connection conn, PreparedStatement ps, List<Object[]> rows) throws SQLException {
+		int columnCount = rows.get(0).length;
+		for (int column = 0; column < columnCount; ++column) {
+			Object[] values = new Object[rows.size()];
+			for (int row = 0; row < rows.size(); ++row) {
+				Object value = rows.get(row)[column];
+				values[row] = value instanceof UUID ? toDatabaseUUID((UUID) value) : value;
 			}
-		}).executeOperation(pool, logger, "registering an achievement");
+			String type;
+			if (column == columnCount - 1) {
+				type = "bigint";
+			} else if (values[0] instanceof Integer) {
+				type = "integer";
+			} else {
+				type = values[0] instanceof UUID ? "uuid" : "varchar";
+			}
+			ps.setArray(column + 1, conn.createArrayOf(type, values));
+		}
+	}
+
+	@Override
+	String getBinaryUUIDColumnType() {
+		return "uuid";
+	}
+
+	@Override
+	Object toDatabaseUUID(UUID uuid) {
+		// PostgreSQL has a native UUID type, supported by the JDBC driver.
+		return binaryUUIDs || uuid == null ? uuid : uuid.toString();
+	}
+
+	@Override
+	UUID getUUID(ResultSet rs, int column) throws SQLException {
+		return binaryUUIDs ? (UUID) rs.getObject(column) : super.getUUID(rs, column);
 	}
 
 	@Override
 	public int updateAndGetConnection(UUID uuid, String date) {
 		String dbName = NormalAchievements.CONNECTIONS.toDBName();
 		String sqlRead = "SELECT " + dbName + " FROM " + prefix + dbName + " WHERE playername = ?";
-		return ((SQLReadOperation<Integer>) () -> {
-			Connection conn = getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sqlRead)) {
-				ps.setString(1, uuid.toString());
+		int connections = ((SQLReadOperation<Integer>) () -> {
+			try (Connection conn = getSQLConnection(); PreparedStatement ps = conn.prepareStatement(sqlRead)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
 				ResultSet rs = ps.executeQuery();
-				int connections = rs.next() ? rs.getInt(dbName) + 1 : 1;
-				// PostgreSQL has no REPLACE operator. We have to use the INSERT ... ON CONFLICT construct, which is
-				// available for PostgreSQL 9.5+.
-				String sqlWrite = "INSERT INTO " + prefix + dbName + " VALUES (?,?,?)"
-						+ " ON CONFLICT (playername) DO UPDATE SET (" + dbName + ",date)=(?,?)";
-				((SQLWriteOperation) () -> {
-					Connection writeConn = getSQLConnection();
-					try (PreparedStatement writePrep = writeConn.prepareStatement(sqlWrite)) {
-						writePrep.setObject(1, uuid, Types.CHAR);
-						writePrep.setInt(2, connections);
-						writePrep.setString(3, date);
-						writePrep.setInt(4, connections);
-						writePrep.setString(5, date);
-						writePrep.execute();
-					}
-				}).executeOperation(pool, logger, "updating connection date and count");
-				return connections;
+				return rs.next() ? rs.getInt(dbName) + 1 : 1;
+			}
+		}).executeOperation(circuitBreaker, operationMetrics, "handling connection event");
+		// PostgreSQL has no REPLACE operator. We have to use the INSERT ... ON CONFLICT construct, which is available
+		// for PostgreSQL 9.5+.
+		String sqlWrite = "INSERT INTO " + prefix + dbName + " VALUES (?,?,?)"
+				+ " ON CONFLICT (playername) DO UPDATE SET (" + dbName + ",date)=(?,?)";
+		((SQLWriteOperation) () -> {
+			try (Connection conn = getSQLWriteConnection(); PreparedStatement ps = conn.prepareStatement(sqlWrite)) {
+				ps.setObject(1, toDatabaseUUID(uuid));
+				ps.setInt(2, connections);
+				ps.setString(3, date);
+				ps.setInt(4, connections);
+				ps.setString(5, date);
+				ps.execute();
 			}
-		}).executeOperation("handling connection event");
+		}).executeOperation(retryScheduler, pool, "updating connection date and count");
+		return connections;
 	}
 }
@@ -0,0 +1,130 @@
+package com.hm.achievement.db;
+
+import java.util.Arrays;
+
+/**
+ * Class used to cache the full set of achievements received by a player, as a bitset over the indexes assigned by
+ * {@link AchievementIndex}. Membership and count are answered without any database query. A set can be used whilst
+ * its achievements are being loaded, in which case it only reflects the changes made in the meantime until the loaded
+ * achievements are merged.
+ *
+ * @author Pyves
+ *
+ */
+class ReceivedAchievements {
+
+	private long[] words;
+	private int count;
+	// Achievements removed whilst the set was being loaded, null once loaded.
+	private long[] removedWords;
+
+	ReceivedAchievements(int capacity) {
+		words = new long[(capacity + 63) >> 6];
+	}
+
+	/**
+	 * Creates a set whose achievements are yet to be loaded.
+	 *
+	 * @param capacity
+	 * @return an empty set, not loaded
+	 */
+	static ReceivedAchievements unloaded(int capacity) {
+		ReceivedAchievements received = new ReceivedAchievements(capacity);
+		received.removedWords = new long[received.words.length];
+		return received;
+	}
+
+	synchronized boolean isLoaded() {
+		return removedWords == null;
+	}
+
+	/**
+	 * Merges the loaded achievements into the set, apart from those removed in the meantime.
+	 *
+	 * @param loaded
+	 */
+	synchronized void merge(ReceivedAchievements loaded) {
+		if (removedWords == null) {
+			return;
+		}
+		if (loaded.words.length > words.length) {
+			words = Arrays.copyOf(words, loaded.words.length);
+		}
+		count = 0;
+		for (int word = 0; word < words.length; ++word) {
+			long removed = word < removedWords.length ? removedWords[word] : 0L;
+			long received = word < loaded.words.length ? loaded.words[word] : 0L;
+			words[word] |= received & ~removed;
+			count += Long.bitCount(words[word]);
+		}
+		removedWords = null;
+	}
+
+	synchronized boolean contains(int index) {
+		return index >= 0 && index >> 6 < words.length && (words[index >> 6] & 1L << index) != 0L;
+	}
+
+	/**
+	 * Adds an achievement to the set.
+	 *
+	 * @param index
+	 * @return true if the achievement was not already in the set, false otherwise
+	 */
+	synchronized boolean add(int index) {
+		int word = index >> 6;
+		if (word >= words.length) {
+			words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+		}
+		if (removedWords != null && word < removedWords.length) {
+			removedWords[word] &= ~(1L << index);
+		}
+		if ((words[word] & 1L << index) != 0L) {
+			return false;
+		}
+		words[word] |= 1L << index;
+		++count;
+		return true;
+	}
+
+	/**
+	 * Removes an achievement from the set.
+	 *
+	 * @param index
+	 * @return true if the achievement was in the set, false otherwise
+	 */
+	synchronized boolean remove(int index) {
+		if (removedWords != null && index >= 0) {
+			int word = index >> 6;
+			if (word >= removedWords.length) {
+				removedWords = Arrays.copyOf(removedWords, Math.max(word + 1, removedWords.length * 2));
+			}
+			removedWords[word] |= 1L << index;
+		}
+		if (!contains(index)) {
+			return false;
+		}
+		words[index >> 6] &= ~(1L << index);
+		--count;
+		return true;
+	}
+
+	synchronized int size() {
+		return count;
+	}
+
+	/**
+	 * Returns whether all the achievements of another bitset are in the set.
+	 *
+	 * @param otherWords
+	 * @return true if the set contains all the achievements of the other bitset, false otherwise
+	 */
+	synchronized boolean containsAll(long[] otherWords) {
+		for (int word = 0; word < otherWords.length; ++word) {
+			long received = word < words.length ? words[word] : 0L;
+			if ((otherWords[word] & ~received) != 0L) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,272 @@
+package com.hm.achievement.db;
+
+import java.sql.SQLException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Class used to perform write operations and retry them after an exponentially increasing delay if they fail, without
+ * holding on to a thread in the meantime. Whilst the circuit breaker is open, write operations are buffered; a single
+ * one is sent to probe the database once the breaker allows it, and the remaining ones are resumed by the scheduler
+ * thread if it succeeds. When the plugin is disabled, pending retries and buffered write operations are attempted a
+ * last time on the calling thread.
+ *
+ * @author Pyves
+ */
+public class RetryScheduler {
+
+	static final int MAX_ATTEMPTS = 5;
+
+	private static final long BASE_DELAY_MILLIS = 500L;
+	private static final long MAX_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+	private static final long MIN_PROBE_DELAY_MILLIS = 1000L;
+	private static final int MAX_BUFFERED_WRITES = 10000;
+
+	private final Logger logger;
+	private final CircuitBreaker circuitBreaker;
+	private final OperationMetrics operationMetrics;
+	private final ScheduledExecutorService scheduler;
+	// Write operations waiting for the database to become reachable again, each of them resubmitting itself.
+	private final Queue<Runnable> bufferedWrites = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger bufferedWriteCount = new AtomicInteger();
+	// Retries waiting for their delay to elapse, kept here so that they can be attempted during the plugin shutdown.
+	private final Set<Runnable> pendingRetries = ConcurrentHashMap.newKeySet();
+	private final AtomicBoolean probeScheduled = new AtomicBoolean();
+	// Write operations given up on during the plugin shutdown because the database was unreachable.
+	private final AtomicInteger droppedWriteCount = new AtomicInteger();
+	private volatile boolean shuttingDown;
+
+	public RetryScheduler(Logger logger, CircuitBreaker circuitBreaker, OperationMetrics operationMetrics) {
+		this.logger = logger;
+		this.circuitBreaker = circuitBreaker;
+		this.operationMetrics = operationMetrics;
+		ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "AdvancedAchievements-RetryScheduler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduledExecutor.setRemoveOnCancelPolicy(true);
+		scheduler = scheduledExecutor;
+	}
+
+	/**
+	 * Performs a write operation with an Executor, retrying it if needed. The operation is given up on if the Executor
+	 * discards it because too many write operations are deferred.
+	 *
+	 * @param executor
+	 * @param operation
+	 * @param operationMessage
+	 * @param callback called with the outcome of the operation once it succeeded or was given up on, may be null
+	 */
+	public void execute(Executor executor, SQLWriteOperation operation, String operationMessage,
+			Consumer<Boolean> callback) {
+		try {
+			executor.execute(() -> attempt(executor, operation, operationMessage, callback, 1, 0L));
+		} catch (WriteExecutor.SaturationException e) {
+			complete(callback, false);
+		}
+	}
+
+	/**
+	 * Stops scheduling retries. Pending retries and buffered write operations are attempted a last time on the calling
+	 * thread, unless the circuit breaker indicates that the database is unreachable. Write operations performed
+	 * afterwards are attempted once. Can be called several times, for instance before and after the last writes.
+	 */
+	public void shutdown() {
+		shuttingDown = true;
+		scheduler.shutdownNow();
+		// Each pending retry attempts its write operation straight away, giving up rather than scheduling a new one.
+		for (Runnable retry : pendingRetries) {
+			if (pendingRetries.remove(retry)) {
+				retry.run();
+			}
+		}
+		probeScheduled.set(false);
+		runBufferedWrites();
+		int dropped = droppedWriteCount.getAndSet(0);
+		if (dropped > 0) {
+			logger.warning(dropped + " write operations could not be sent to the database during plugin shutdown.");
+		}
+	}
+
+	public int getBufferedWriteCount() {
+		return bufferedWriteCount.get();
+	}
+
+	public int getPendingRetryCount() {
+		return pendingRetries.size();
+	}
+
+	/**
+	 * Performs an attempt of a write operation.
+	 *
+	 * @param executor
+	 * @param operation
+	 * @param operationMessage
+	 * @param callback
+	 * @param attempt
+	 * @param elapsedNanos time spent waiting for the database during the previous attempts
+	 */
+	private void attempt(Executor executor, SQLWriteOperation operation, String operationMessage,
+			Consumer<Boolean> callback, int attempt, long elapsedNanos) {
+		if (!circuitBreaker.allowRequest()) {
+			if (shuttingDown) {
+				droppedWriteCount.incrementAndGet();
+				complete(callback, false);
+			} else {
+				buffer(() -> submit(executor, () -> attempt(executor, operation, operationMessage, callback, attempt,
+						elapsedNanos), callback), callback);
+			}
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			operation.performWrite();
+		} catch (SQLException e) {
+			long totalNanos = elapsedNanos + System.nanoTime() - start;
+			circuitBreaker.recordFailure();
+			if (attempt >= MAX_ATTEMPTS || shuttingDown) {
+				logger.log(Level.SEVERE, "Database write error while " + operationMessage + ":", e);
+				operationMetrics.record(operationMessage, totalNanos, attempt - 1, true);
+				complete(callback, false);
+			} else {
+				schedule(() -> submit(executor, () -> attempt(executor, operation, operationMessage, callback,
+						attempt + 1, totalNanos), callback), getBackoffMillis(attempt), callback);
+			}
+			return;
+		} catch (RuntimeException e) {
+			// Not retried, but recorded as a failure so that a half-open circuit breaker does not remain so forever.
+			circuitBreaker.recordFailure();
+			logger.log(Level.SEVERE, "Unexpected error while " + operationMessage + ":", e);
+			operationMetrics.record(operationMessage, elapsedNanos + System.nanoTime() - start, attempt - 1, true);
+			complete(callback, false);
+			return;
+		} catch (Error e) {
+			circuitBreaker.recordFailure();
+			throw e;
+		}
+		operationMetrics.record(operationMessage, elapsedNanos + System.nanoTime() - start, attempt - 1, false);
+		circuitBreaker.recordSuccess();
+		complete(callback, true);
+		resumeBufferedWrites();
+	}
+
+	/**
+	 * Hands a retry over to an Executor, or performs it on the calling thread if the Executor rejects it because it was
+	 * shut down during the plugin shutdown. The retry is given up on if the Executor discards it because too many write
+	 * operations are deferred.
+	 *
+	 * @param executor
+	 * @param retry
+	 * @param callback
+	 */
+	private void submit(Executor executor, Runnable retry, Consumer<Boolean> callback) {
+		try {
+			executor.execute(retry);
+		} catch (WriteExecutor.SaturationException e) {
+			complete(callback, false);
+		} catch (RejectedExecutionException e) {
+			retry.run();
+		}
+	}
+
+	/**
+	 * Computes the delay before the next attempt: it doubles after every attempt, half of it being random so that
+	 * operations that failed together are not all attempted again at the same time.
+	 *
+	 * @param attempt
+	 * @return the delay in milliseconds
+	 */
+	private long getBackoffMillis(int attempt) {
+		long delay = Math.min(MAX_DELAY_MILLIS, BASE_DELAY_MILLIS << (attempt - 1));
+		return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+	}
+
+	private void schedule(Runnable retry, long delayMillis, Consumer<Boolean> callback) {
+		pendingRetries.add(retry);
+		try {
+			scheduler.schedule(() -> {
+				// The retry may already have been performed during the plugin shutdown.
+				if (pendingRetries.remove(retry)) {
+					retry.run();
+				}
+			}, delayMillis, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// The plugin is being disabled.
+			if (pendingRetries.remove(retry)) {
+				droppedWriteCount.incrementAndGet();
+				complete(callback, false);
+			}
+		}
+	}
+
+	private void buffer(Runnable write, Consumer<Boolean> callback) {
+		if (bufferedWriteCount.incrementAndGet() > MAX_BUFFERED_WRITES) {
+			bufferedWriteCount.decrementAndGet();
+			logger.warning("Too many write operations are waiting for the database, discarding one of them.");
+			complete(callback, false);
+			return;
+		}
+		bufferedWrites.offer(write);
+		scheduleProbe();
+	}
+
+	/**
+	 * Schedules the sending of a single buffered write operation once the circuit breaker allows it.
+	 */
+	private void scheduleProbe() {
+		if (probeScheduled.compareAndSet(false, true)) {
+			long delayMillis = Math.max(MIN_PROBE_DELAY_MILLIS, circuitBreaker.getRemainingOpenMillis());
+			schedule(() -> {
+				probeScheduled.set(false);
+				Runnable write = bufferedWrites.poll();
+				if (write != null) {
+					bufferedWriteCount.decrementAndGet();
+					write.run();
+				}
+			}, delayMillis, null);
+		}
+	}
+
+	/**
+	 * Hands the buffered write operations over to the scheduler thread, which resubmits each of them to its Executor,
+	 * so that the thread that completed a successful write does not perform them.
+	 */
+	private void resumeBufferedWrites() {
+		if (bufferedWriteCount.get() == 0) {
+			return;
+		}
+		try {
+			scheduler.execute(this::runBufferedWrites);
+		} catch (RejectedExecutionException e) {
+			// The plugin is being disabled, buffered write operations are performed by shutdown.
+		}
+	}
+
+	private void runBufferedWrites() {
+		Runnable write;
+		while ((write = bufferedWrites.poll()) != null) {
+			bufferedWriteCount.decrementAndGet();
+			write.run();
+		}
+	}
+
+	private static void complete(Consumer<Boolean> callback, boolean written) {
+		if (callback != null) {
+			callback.accept(written);
+		}
+	}
+}
@@ -5,7 +5,8 @@ import com.hm.achievement.exception.DatabaseReadError;
 import java.sql.SQLException;
 
 /**
- * Class used to perform read operations to the database and automatically retry if a SQLException is thrown.
+ * Class used to perform read operations to the database. Reads are performed once: they are usually made on behalf of
+ * a waiting caller, which handles failures, and repeated failures open the circuit breaker.
  *
  * @param <T>
  * @author Pyves
@@ -13,8 +14,6 @@ import java.sql.SQLException;
 @FunctionalInterface
 public interface SQLReadOperation<T> {
 
-	int MAX_ATTEMPTS = 3;
-
 	/**
 	 * Performs a single read operation on the database.
 	 *
@@ -24,21 +23,35 @@ public interface SQLReadOperation<T> {
 	T performRead() throws SQLException;
 
 	/**
-	 * Calls {@code performRead} repeatedly until the read succeeds or {@code MAX_ATTEMPTS} is reached, in which case a
-	 * runtime exception is thrown.
+	 * Calls {@code performRead}, a runtime exception being thrown if the read fails. If the circuit breaker indicates
+	 * that the database is unreachable, the exception is thrown straight away. The latency and outcome of performed
+	 * operations are recorded.
 	 *
+	 * @param circuitBreaker
+	 * @param operationMetrics
 	 * @param operationMessage
 	 * @return the result of a successful read operation
 	 */
-	default T executeOperation(String operationMessage) {
-		SQLException cause = null;
-		for (int attempt = 1; attempt <= MAX_ATTEMPTS; ++attempt) {
-			try {
-				return performRead();
-			} catch (SQLException e) {
-				cause = e;
-			}
+	default T executeOperation(CircuitBreaker circuitBreaker, OperationMetrics operationMetrics,
+			String operationMessage) {
+		if (!circuitBreaker.allowRequest()) {
+			throw new DatabaseReadError("Database unreachable, skipped " + operationMessage + ".", null);
+		}
+		long start = System.nanoTime();
+		try {
+			T result = performRead();
+			circuitBreaker.recordSuccess();
+			operationMetrics.record(operationMessage, System.nanoTime() - start, 0, false);
+			return result;
+		} catch (SQLException e) {
+			circuitBreaker.recordFailure();
+			operationMetrics.record(operationMessage, System.nanoTime() - start, 0, true);
+			throw new DatabaseReadError("Database read error while " + operationMessage + ".", e);
+		} catch (RuntimeException | Error e) {
+			// Recorded as a failure so that a half-open circuit breaker does not remain so forever.
+			circuitBreaker.recordFailure();
+			operationMetrics.record(operationMessage, System.nanoTime() - start, 0, true);
+			throw e;
 		}
-		throw new DatabaseReadError("Database read error while " + operationMessage + ".", cause);
 	}
 }
@@ -1,12 +1,16 @@
 package com.hm.achievement.db;
 
 import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Map;
 import java.util.logging.Logger;
 
 import javax.inject.Named;
 
 import com.hm.achievement.AdvancedAchievements;
+import com.hm.achievement.exception.PluginLoadError;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
 
 /**
@@ -17,10 +21,68 @@ import com.hm.mcshared.file.CommentedYamlConfiguration;
  */
 public class SQLiteDatabaseManager extends AbstractFileDatabaseManager {
 
+	private static final int MAX_VARIABLE_NUMBER = 999;
+
+	private volatile boolean configPerformanceProfile;
+	private volatile int configCacheSize;
+	private volatile long configMmapSize;
+
 	public SQLiteDatabaseManager(@Named("main") CommentedYamlConfiguration mainConfig, Logger logger,
 			@Named("ntd") Map<String, String> namesToDisplayNames, DatabaseUpdater databaseUpdater,
 			AdvancedAchievements advancedAchievements) {
 		super(mainConfig, logger, namesToDisplayNames, databaseUpdater, advancedAchievements, "org.sqlite.JDBC",
 				"jdbc:sqlite:" + new File(advancedAchievements.getDataFolder(), "achievements.db"), "achievements.db");
 	}
+
+	@Override
+	void performPreliminaryTasks() throws ClassNotFoundException, PluginLoadError {
+		super.performPreliminaryTasks();
+
+		configPerformanceProfile = mainConfig.getBoolean("SQLitePerformanceProfile", false);
+		configCacheSize = Math.max(0, mainConfig.getInt("SQLiteCacheSize", 8192));
+		configMmapSize = Math.max(0L, mainConfig.getLong("SQLiteMmapSize", 64L)) * 1024L * 1024L;
+	}
+
+	@Override
+	Connection createSQLConnection() throws SQLException {
+		Connection conn = super.createSQLConnection();
+		if (configPerformanceProfile) {
+			// WAL journaling lets reads proceed whilst the single writer commits; with synchronous=NORMAL, commits no
+			// longer wait for the disk, a power loss may only roll back the most recent ones.
+			try (Statement st = conn.createStatement()) {
+				st.execute("PRAGMA journal_mode=WAL");
+				st.execute("PRAGMA synchronous=NORMAL");
+				// A negative cache size is expressed in kibibytes rather than in pages.
+				st.execute("PRAGMA cache_size=-" + configCacheSize);
+				st.execute("PRAGMA mmap_size=" + configMmapSize);
+			} catch (SQLException e) {
+				conn.close();
+				throw e;
+			}
+		}
+		return conn;
+	}
+
+	@Override
+	int getWriteThreads(int configuredThreads) {
+		// Writes are funnelled through a single connection, additional threads would only wait for it.
+		return configPerformanceProfile ? 1 : configuredThreads;
+	}
+
+	@Override
+	int getStatisticsUpsertChunkSize(int columnCount) {
+		// SQLite limits the number of host parameters in a single statement.
+		return Math.min(super.getStatisticsUpsertChunkSize(columnCount), MAX_VARIABLE_NUMBER / columnCount);
+	}
+
+	@Override
+	String getStatisticsUpsertQuery(String table, String[] columns, int rowCount) {
+		return "INSERT OR REPLACE INTO " + table + " VALUES " + getRowPlaceholders(columns.length, rowCount);
+	}
+
+	@Override
+	String getBinaryUUIDColumnType() {
+		// SQLite has no fixed size binary type.
+		return "BLOB";
+	}
 }
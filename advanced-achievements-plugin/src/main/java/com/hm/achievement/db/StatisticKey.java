@@ -0,0 +1,76 @@
+package com.hm.achievement.db;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Class used to identify a statistic in the CacheManager maps. Keys are made of the two halves of the player's UUID and
+ * of an interned subcategory identifier, so that they can be compared and hashed without involving any string.
+ *
+ * @author Pyves
+ *
+ */
+public final class StatisticKey {
+
+	// Identifier of Normal categories, which have no subcategories.
+	static final int NO_SUBCATEGORY = -1;
+
+	private final long mostSigBits;
+	private final long leastSigBits;
+	private final int subcategoryId;
+	// Subcategory name, with removed whitespaces, corresponding to the identifier. Null for Normal categories.
+	private final String subcategory;
+
+	StatisticKey(UUID player) {
+		this(player, NO_SUBCATEGORY, null);
+	}
+
+	StatisticKey(UUID player, int subcategoryId, String subcategory) {
+		this.mostSigBits = player.getMostSignificantBits();
+		this.leastSigBits = player.getLeastSignificantBits();
+		this.subcategoryId = subcategoryId;
+		this.subcategory = subcategory;
+	}
+
+	public UUID getPlayer() {
+		return new UUID(mostSigBits, leastSigBits);
+	}
+
+	public String getSubcategory() {
+		return subcategory;
+	}
+
+	/**
+	 * Writes the two halves of the player's UUID without creating a UUID instance.
+	 *
+	 * @param buffer
+	 */
+	void putPlayer(ByteBuffer buffer) {
+		buffer.putLong(mostSigBits);
+		buffer.putLong(leastSigBits);
+	}
+
+	@Override
+	public int hashCode() {
+		long hash = mostSigBits ^ leastSigBits;
+		return ((int) (hash >> 32) ^ (int) hash) * 31 + subcategoryId;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof StatisticKey)) {
+			return false;
+		}
+		StatisticKey other = (StatisticKey) obj;
+		return mostSigBits == other.mostSigBits && leastSigBits == other.leastSigBits
+				&& subcategoryId == other.subcategoryId;
+	}
+
+	@Override
+	public String toString() {
+		return subcategory == null ? getPlayer().toString() : getPlayer() + subcategory;
+	}
+}
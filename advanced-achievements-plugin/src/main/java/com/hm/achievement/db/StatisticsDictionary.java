@@ -0,0 +1,162 @@
+package com.hm.achievement.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.hm.achievement.category.Category;
+import com.hm.achievement.category.MultipleAchievements;
+import com.hm.achievement.category.NormalAchievements;
+
+/**
+ * Class used to map categories and subcategories to the integer identifiers stored in the consolidated statistics
+ * table. Identifiers are persisted in two dictionary tables and cached in memory once resolved; they are allocated
+ * without relying on database specific auto-increment syntax.
+ *
+ * @author Pyves
+ */
+public class StatisticsDictionary {
+
+	// Identifier used for the subcategory of Normal statistics.
+	static final int NO_SUBCATEGORY = 0;
+	static final String CATEGORIES_TABLE = "statistic_categories";
+	static final String SUBCATEGORIES_TABLE = "statistic_subcategories";
+
+	private final String categoriesTable;
+	private final String subcategoriesTable;
+	private final Map<Category, Integer> categoriesToIds = new HashMap<>();
+	private final Map<Integer, Category> idsToCategories = new HashMap<>();
+	private final Map<MultipleAchievements, Map<String, Integer>> subcategoriesToIds = new EnumMap<>(
+			MultipleAchievements.class);
+
+	public StatisticsDictionary(String prefix) {
+		categoriesTable = prefix + CATEGORIES_TABLE;
+		subcategoriesTable = prefix + SUBCATEGORIES_TABLE;
+		for (MultipleAchievements category : MultipleAchievements.values()) {
+			subcategoriesToIds.put(category, new ConcurrentHashMap<>());
+		}
+	}
+
+	/**
+	 * Resolves the identifiers of all categories, registering the missing ones. Must be called before any other method.
+	 *
+	 * @param conn
+	 * @throws SQLException
+	 */
+	void loadCategories(Connection conn) throws SQLException {
+		for (NormalAchievements category : NormalAchievements.values()) {
+			if (category != NormalAchievements.CONNECTIONS) {
+				registerCategory(conn, category);
+			}
+		}
+		for (MultipleAchievements category : MultipleAchievements.values()) {
+			registerCategory(conn, category);
+		}
+	}
+
+	/**
+	 * Forgets all the identifiers, for instance after the database contents were replaced. Categories must be loaded
+	 * again before any other method is called.
+	 */
+	void clear() {
+		categoriesToIds.clear();
+		idsToCategories.clear();
+		subcategoriesToIds.values().forEach(Map::clear);
+	}
+
+	int getCategoryId(Category category) {
+		return categoriesToIds.get(category);
+	}
+
+	/**
+	 * Returns the category corresponding to an identifier.
+	 *
+	 * @param id
+	 * @return the category, or null if the identifier was registered by another version of the plugin
+	 */
+	Category getCategory(int id) {
+		return idsToCategories.get(id);
+	}
+
+	/**
+	 * Resolves the identifier of a subcategory, registering it if it does not exist yet. Must not be called within a
+	 * transaction: registration may fail if another server concurrently registers the same subcategory.
+	 *
+	 * @param conn
+	 * @param category
+	 * @param subcategory
+	 * @return the identifier of the subcategory
+	 * @throws SQLException
+	 */
+	int getOrCreateSubcategoryId(Connection conn, MultipleAchievements category, String subcategory)
+			throws SQLException {
+		Map<String, Integer> categoryIds = subcategoriesToIds.get(category);
+		Integer id = categoryIds.get(subcategory);
+		if (id == null) {
+			id = getOrCreateId(conn, subcategoriesTable, new String[] { "category_id", "name" }, getCategoryId(category),
+					subcategory);
+			categoryIds.put(subcategory, id);
+		}
+		return id;
+	}
+
+	private void registerCategory(Connection conn, Category category) throws SQLException {
+		int id = getOrCreateId(conn, categoriesTable, new String[] { "name" }, category.toDBName());
+		categoriesToIds.put(category, id);
+		idsToCategories.put(id, category);
+	}
+
+	/**
+	 * Retrieves the identifier of a dictionary entry, or inserts the entry with the next available identifier. Other
+	 * columns of the dictionary table are left empty.
+	 *
+	 * @param conn
+	 * @param table
+	 * @param columns columns uniquely identifying the entry
+	 * @param values values of the columns
+	 * @return the identifier of the entry
+	 * @throws SQLException
+	 */
+	static int getOrCreateId(Connection conn, String table, String[] columns, Object... values) throws SQLException {
+		Integer id = getId(conn, table, columns, values);
+		if (id != null) {
+			return id;
+		}
+		String sql = "INSERT INTO " + table + " (id," + StringUtils.join(columns, ',') + ") SELECT COALESCE(MAX(id),0)+1,"
+				+ StringUtils.repeat("?", ",", values.length) + " FROM " + table;
+		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			for (int i = 0; i < values.length; ++i) {
+				ps.setObject(i + 1, values[i]);
+			}
+			ps.execute();
+		} catch (SQLException e) {
+			// Another server may have registered the same entry or used the same identifier in the meantime.
+			id = getId(conn, table, columns, values);
+			if (id == null) {
+				throw e;
+			}
+			return id;
+		}
+		return getId(conn, table, columns, values);
+	}
+
+	private static Integer getId(Connection conn, String table, String[] columns, Object... values)
+			throws SQLException {
+		String sql = "SELECT id FROM " + table + " WHERE " + StringUtils.join(columns, " = ? AND ") + " = ?";
+		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			for (int i = 0; i < values.length; ++i) {
+				ps.setObject(i + 1, values[i]);
+			}
+			try (ResultSet rs = ps.executeQuery()) {
+				return rs.next() ? rs.getInt(1) : null;
+			}
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.hm.achievement.db;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Class used to intern the subcategories of Multiple categories as integer identifiers, which make up the keys of the
+ * CacheManager maps. Subcategories found in the configuration are registered when it is parsed; others, for instance
+ * ones only found in the database, are registered when first encountered. Identifiers are never reused, so that keys
+ * remain valid across configuration reloads.
+ *
+ * @author Pyves
+ *
+ */
+@Singleton
+public class SubcategoryRegistry {
+
+	// Identifiers, keyed by subcategory names both as written in the configuration and with removed whitespaces.
+	private final Map<String, Integer> subcategoriesToIds = new ConcurrentHashMap<>();
+	// Subcategory names with removed whitespaces, indexed by identifier.
+	private volatile String[] idsToSubcategories = new String[64];
+	private int nextId;
+
+	@Inject
+	public SubcategoryRegistry() {
+		// Dagger constructor.
+	}
+
+	/**
+	 * Registers a subcategory if not already known.
+	 *
+	 * @param subcategory
+	 */
+	public void register(String subcategory) {
+		getId(subcategory);
+	}
+
+	/**
+	 * Returns the identifier of a subcategory, registering it if needed. Does not allocate once the subcategory is
+	 * registered.
+	 *
+	 * @param subcategory
+	 * @return the identifier of the subcategory
+	 */
+	int getId(String subcategory) {
+		Integer id = subcategoriesToIds.get(subcategory);
+		return id == null ? registerId(subcategory) : id;
+	}
+
+	/**
+	 * Returns the name of a subcategory, with removed whitespaces.
+	 *
+	 * @param id
+	 * @return the subcategory name
+	 */
+	String getName(int id) {
+		return idsToSubcategories[id];
+	}
+
+	private synchronized int registerId(String subcategory) {
+		String subcategoryDBName = StringUtils.deleteWhitespace(subcategory);
+		Integer id = subcategoriesToIds.get(subcategoryDBName);
+		if (id == null) {
+			id = nextId++;
+			if (id == idsToSubcategories.length) {
+				idsToSubcategories = Arrays.copyOf(idsToSubcategories, id * 2);
+			}
+			// Name is set before the identifier is published.
+			idsToSubcategories[id] = subcategoryDBName;
+			subcategoriesToIds.put(subcategoryDBName, id);
+		}
+		subcategoriesToIds.put(subcategory, id);
+		return id;
+	}
+}
@@ -0,0 +1,376 @@
+package com.hm.achievement.db;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.hm.achievement.AdvancedAchievements;
+import com.hm.achievement.category.Category;
+import com.hm.achievement.category.MultipleAchievements;
+import com.hm.achievement.category.NormalAchievements;
+
+/**
+ * Class used to record the statistic changes and achievement receptions that have not been written to the database yet
+ * in an append-only journal, so that they can be replayed if the server stops unexpectedly. The journal file is memory
+ * mapped: appended records are handed to the operating system without any system call and survive a crash of the JVM.
+ * Each record is prefixed by its length and followed by a checksum, so that a partially written record is ignored.
+ * Statistic records hold both the latest value and the increment since the previous database write, so that they can
+ * be replayed in either write mode.
+ *
+ * @author Pyves
+ *
+ */
+@Singleton
+public class WriteAheadJournal {
+
+	private static final byte ACHIEVEMENT_RECORD = 2;
+	private static final byte STATISTIC_RECORD = 3;
+	private static final int INITIAL_SIZE = 1 << 20;
+	private static final int MAX_SIZE = 1 << 30;
+	private static final Map<String, Category> DB_NAMES_TO_CATEGORIES = new HashMap<>();
+	private static final Map<Category, byte[]> CATEGORIES_TO_DB_NAME_BYTES = new HashMap<>();
+
+	static {
+		for (NormalAchievements category : NormalAchievements.values()) {
+			DB_NAMES_TO_CATEGORIES.put(category.toDBName(), category);
+			CATEGORIES_TO_DB_NAME_BYTES.put(category, category.toDBName().getBytes(StandardCharsets.UTF_8));
+		}
+		for (MultipleAchievements category : MultipleAchievements.values()) {
+			DB_NAMES_TO_CATEGORIES.put(category.toDBName(), category);
+			CATEGORIES_TO_DB_NAME_BYTES.put(category, category.toDBName().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	private final File file;
+	private final Logger logger;
+	// Achievement records whose database write has not completed yet, keyed by a sequence number.
+	private final Map<Long, byte[]> pendingAchievements = new LinkedHashMap<>();
+	// Encoded subcategory names, as well as the record body and checksum reused by every statistic record, so that
+	// journaling a statistic change does not allocate.
+	private final Map<String, byte[]> subcategoryBytes = new HashMap<>();
+	private final CRC32 crc = new CRC32();
+	private ByteBuffer recordBody = ByteBuffer.allocate(256);
+
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+	private long achievementSequence;
+	private boolean warnedFull;
+
+	@Inject
+	public WriteAheadJournal(AdvancedAchievements advancedAchievements, Logger logger) {
+		this(new File(advancedAchievements.getDataFolder(), "journal.dat"), logger);
+	}
+
+	WriteAheadJournal(File file, Logger logger) {
+		this.file = file;
+		this.logger = logger;
+	}
+
+	/**
+	 * Maps the journal file into memory, creating it if needed. Records already present are kept until discarded.
+	 *
+	 * @throws IOException
+	 */
+	synchronized void open() throws IOException {
+		close();
+		channel = new RandomAccessFile(file, "rw").getChannel();
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_SIZE, channel.size()));
+		buffer.position(findEnd());
+		warnedFull = false;
+	}
+
+	/**
+	 * Returns whether a journal file was left by a previous run.
+	 *
+	 * @return true if the file exists, false otherwise
+	 */
+	boolean exists() {
+		return file.exists();
+	}
+
+	/**
+	 * Unmaps and deletes the journal file, once its records have been replayed and journaling is disabled.
+	 */
+	synchronized void delete() {
+		close();
+		if (file.exists() && !file.delete()) {
+			logger.warning("Error while deleting the journal file " + file.getName() + ".");
+		}
+	}
+
+	/**
+	 * Unmaps the journal; further records are ignored until it is opened again.
+	 */
+	synchronized void close() {
+		if (channel != null) {
+			buffer.force();
+			try {
+				channel.close();
+			} catch (IOException e) {
+				logger.warning("Error while closing the journal file: " + e.getMessage());
+			}
+			channel = null;
+			buffer = null;
+		}
+		pendingAchievements.clear();
+	}
+
+	/**
+	 * Reads all the valid records of the journal. Only the last value of each statistic is retained.
+	 *
+	 * @param statistics map populated with the latest value, increment and overwrite flag (1 if the value must be
+	 *            written as is, 0 otherwise) of each journaled statistic, keyed by cache key; subcategory identifiers
+	 *            are only meaningful within the map
+	 * @param achievements map populated with the journaled achievements, as UUID, name, message and reception time
+	 */
+	synchronized void read(Map<Category, Map<StatisticKey, long[]>> statistics, Map<String, Object[]> achievements) {
+		if (buffer == null) {
+			return;
+		}
+		Map<String, Integer> subcategoryIds = new HashMap<>();
+		ByteBuffer records = buffer.duplicate();
+		records.position(0);
+		ByteBuffer record;
+		while ((record = nextRecord(records)) != null) {
+			byte type = record.get();
+			if (type == STATISTIC_RECORD) {
+				Category category = DB_NAMES_TO_CATEGORIES.get(getString(record));
+				UUID player = new UUID(record.getLong(), record.getLong());
+				String subcategory = category instanceof MultipleAchievements ? getString(record) : null;
+				long[] values = { record.getLong(), record.getLong(), record.get() };
+				if (category != null) {
+					StatisticKey key = subcategory == null ? new StatisticKey(player)
+							: new StatisticKey(player,
+									subcategoryIds.computeIfAbsent(subcategory, s -> subcategoryIds.size()), subcategory);
+					statistics.computeIfAbsent(category, c -> new HashMap<>()).put(key, values);
+				}
+			} else {
+				UUID player = new UUID(record.getLong(), record.getLong());
+				String name = getString(record);
+				String message = getString(record);
+				long epochMs = record.getLong();
+				achievements.put(player + name, new Object[] { player, name, message, epochMs });
+			}
+		}
+	}
+
+	/**
+	 * Records the latest value of a statistic.
+	 *
+	 * @param category
+	 * @param key
+	 * @param value
+	 * @param increment increment since the previous database write
+	 * @param overwrite whether the value must be written regardless of increments made elsewhere
+	 */
+	synchronized void appendStatistic(Category category, StatisticKey key, long value, long increment,
+			boolean overwrite) {
+		if (buffer != null) {
+			byte[] categoryBytes = CATEGORIES_TO_DB_NAME_BYTES.get(category);
+			byte[] subcategoryName = key.getSubcategory() == null ? null
+					: subcategoryBytes.computeIfAbsent(key.getSubcategory(), s -> s.getBytes(StandardCharsets.UTF_8));
+			int subcategoryLength = subcategoryName == null ? 0 : 4 + subcategoryName.length;
+			int length = 1 + 4 + categoryBytes.length + 16 + subcategoryLength + 8 + 8 + 1;
+			if (recordBody.capacity() < length) {
+				recordBody = ByteBuffer.allocate(Math.max(length, 2 * recordBody.capacity()));
+			}
+			recordBody.clear();
+			recordBody.put(STATISTIC_RECORD);
+			putBytes(recordBody, categoryBytes);
+			key.putPlayer(recordBody);
+			if (subcategoryName != null) {
+				putBytes(recordBody, subcategoryName);
+			}
+			recordBody.putLong(value);
+			recordBody.putLong(increment);
+			recordBody.put((byte) (overwrite ? 1 : 0));
+			append(recordBody.array(), length);
+		}
+	}
+
+	/**
+	 * Records an achievement reception, which is retained until {@link #completeAchievement(long)} is called.
+	 *
+	 * @param player
+	 * @param name
+	 * @param message
+	 * @param epochMs
+	 * @return the sequence number of the record
+	 */
+	synchronized long appendAchievement(UUID player, String name, String message, long epochMs) {
+		long sequence = achievementSequence++;
+		if (buffer != null && player != null && name != null) {
+			byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+			byte[] messageBytes = (message == null ? "" : message).getBytes(StandardCharsets.UTF_8);
+			ByteBuffer record = ByteBuffer.allocate(1 + 16 + 4 + nameBytes.length + 4 + messageBytes.length + 8);
+			record.put(ACHIEVEMENT_RECORD);
+			record.putLong(player.getMostSignificantBits());
+			record.putLong(player.getLeastSignificantBits());
+			putBytes(record, nameBytes);
+			putBytes(record, messageBytes);
+			record.putLong(epochMs);
+			pendingAchievements.put(sequence, record.array());
+			append(record.array(), record.capacity());
+		}
+		return sequence;
+	}
+
+	/**
+	 * Indicates that an achievement reception was written to the database.
+	 *
+	 * @param sequence
+	 */
+	synchronized void completeAchievement(long sequence) {
+		pendingAchievements.remove(sequence);
+	}
+
+	/**
+	 * Returns the current end of the journal, to be passed to {@link #discardBefore(int)} once all the statistics
+	 * modified so far have been written to the database.
+	 *
+	 * @return the position of the next record
+	 */
+	synchronized int mark() {
+		return buffer == null ? 0 : buffer.position();
+	}
+
+	/**
+	 * Discards the records preceding a mark, keeping the ones appended since then as well as the achievements that have
+	 * not been written yet.
+	 *
+	 * @param mark
+	 */
+	synchronized void discardBefore(int mark) {
+		if (buffer == null) {
+			return;
+		}
+		int end = buffer.position();
+		ByteBuffer tail = buffer.duplicate();
+		tail.position(Math.min(mark, end)).limit(end);
+		byte[] kept = new byte[tail.remaining()];
+		tail.get(kept);
+		buffer.position(0);
+		buffer.put(kept);
+		terminate();
+		// Pending achievements may have been recorded before the mark; replaying them twice is harmless.
+		for (byte[] record : pendingAchievements.values()) {
+			append(record, record.length);
+		}
+	}
+
+	/**
+	 * Discards all records, for instance once they have been replayed.
+	 */
+	synchronized void clear() {
+		if (buffer != null) {
+			buffer.position(0);
+			terminate();
+			pendingAchievements.clear();
+		}
+	}
+
+	private void append(byte[] body, int length) {
+		int required = 4 + length + 8 + 4;
+		if (buffer.remaining() < required && !grow(buffer.position() + required)) {
+			return;
+		}
+		crc.reset();
+		crc.update(body, 0, length);
+		buffer.putInt(length);
+		buffer.put(body, 0, length);
+		buffer.putLong(crc.getValue());
+		terminate();
+	}
+
+	/**
+	 * Writes an empty length after the last record, so that older records further in the file are never read.
+	 */
+	private void terminate() {
+		if (buffer.remaining() >= 4) {
+			buffer.putInt(buffer.position(), 0);
+		}
+	}
+
+	private boolean grow(int required) {
+		long size = buffer.capacity();
+		while (size < required) {
+			size *= 2;
+		}
+		if (size > MAX_SIZE) {
+			if (!warnedFull) {
+				logger.warning("Journal file is full, some changes will not be journaled until the next database write.");
+				warnedFull = true;
+			}
+			return false;
+		}
+		try {
+			int position = buffer.position();
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buffer.position(position);
+			return true;
+		} catch (IOException e) {
+			logger.warning("Error while extending the journal file: " + e.getMessage());
+			return false;
+		}
+	}
+
+	private int findEnd() {
+		ByteBuffer records = buffer.duplicate();
+		records.position(0);
+		while (nextRecord(records) != null) {
+			// Skip valid records.
+		}
+		return records.position();
+	}
+
+	/**
+	 * Reads the next record of the journal.
+	 *
+	 * @param records buffer positioned at the start of a record, advanced to the next record if valid
+	 * @return the body of the record, or null if the end of the journal or a partially written record was reached
+	 */
+	private ByteBuffer nextRecord(ByteBuffer records) {
+		int start = records.position();
+		if (records.remaining() < 4) {
+			return null;
+		}
+		int length = records.getInt();
+		if (length <= 0 || length > records.remaining() - 8) {
+			records.position(start);
+			return null;
+		}
+		byte[] body = new byte[length];
+		records.get(body);
+		crc.reset();
+		crc.update(body);
+		if (crc.getValue() != records.getLong()) {
+			records.position(start);
+			return null;
+		}
+		return ByteBuffer.wrap(body);
+	}
+
+	private static void putBytes(ByteBuffer record, byte[] bytes) {
+		record.putInt(bytes.length);
+		record.put(bytes);
+	}
+
+	private static String getString(ByteBuffer record) {
+		byte[] bytes = new byte[record.getInt()];
+		record.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,198 @@
+package com.hm.achievement.db;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Executor used to perform the database write operations asynchronously, with a bounded number of threads and a
+ * bounded queue. If the database stalls, tasks that do not fit in the queue are deferred and run in sequence with the
+ * next statistics batch, rather than piling up threads or blocking the main server thread. The number of deferred tasks
+ * is bounded as well: once it is reached, further tasks are discarded until the deferred ones are run, rather than being
+ * performed by the submitting threads or accumulated without limit.
+ *
+ * @author Pyves
+ */
+public class WriteExecutor extends ThreadPoolExecutor {
+
+	private static final int MAX_DEFERRED_TASKS = 10000;
+
+	private final Logger logger;
+	private final int queueCapacity;
+	private final int deferredCapacity;
+	private final Queue<Runnable> deferredTasks = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger deferredQueueDepth = new AtomicInteger();
+	private final AtomicLong deferredTaskCount = new AtomicLong();
+	private final AtomicLong discardedTaskCount = new AtomicLong();
+	// Tasks discarded since the deferred ones were last run.
+	private final AtomicInteger recentlyDiscardedTasks = new AtomicInteger();
+
+	public WriteExecutor(Logger logger, int threads, int queueCapacity) {
+		this(logger, threads, queueCapacity, MAX_DEFERRED_TASKS);
+	}
+
+	WriteExecutor(Logger logger, int threads, int queueCapacity, int deferredCapacity) {
+		super(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+				new WriteThreadFactory(), new DeferPolicy());
+		this.logger = logger;
+		this.queueCapacity = queueCapacity;
+		this.deferredCapacity = deferredCapacity;
+		// Threads are only kept whilst there are writes to perform.
+		allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Updates the number of threads. The capacity of the queue cannot be changed, see
+	 * {@link #handOverDeferredTasks(Executor)}.
+	 *
+	 * @param threads
+	 */
+	void configure(int threads) {
+		// The maximum size can never be lower than the core size.
+		if (threads > getMaximumPoolSize()) {
+			setMaximumPoolSize(threads);
+			setCorePoolSize(threads);
+		} else {
+			setCorePoolSize(threads);
+			setMaximumPoolSize(threads);
+		}
+	}
+
+	/**
+	 * Runs the deferred tasks in the calling thread.
+	 *
+	 * @return the number of tasks run
+	 */
+	int runDeferredTasks() {
+		int tasks = 0;
+		Runnable task;
+		while ((task = pollDeferredTask()) != null) {
+			task.run();
+			++tasks;
+		}
+		int discarded = recentlyDiscardedTasks.getAndSet(0);
+		if (discarded > 0) {
+			logger.warning(discarded + " database writes were discarded because too many were deferred.");
+		}
+		return tasks;
+	}
+
+	/**
+	 * Hands the deferred tasks over to another Executor, for instance one replacing this Executor because the
+	 * configured queue capacity changed.
+	 *
+	 * @param executor
+	 */
+	void handOverDeferredTasks(Executor executor) {
+		Runnable task;
+		while ((task = pollDeferredTask()) != null) {
+			executor.execute(task);
+		}
+	}
+
+	int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public int getQueueDepth() {
+		return getQueue().size();
+	}
+
+	public int getDeferredQueueDepth() {
+		return deferredQueueDepth.get();
+	}
+
+	public long getDeferredTaskCount() {
+		return deferredTaskCount.get();
+	}
+
+	public long getDiscardedTaskCount() {
+		return discardedTaskCount.get();
+	}
+
+	/**
+	 * Indicates whether further tasks that do not fit in the queue would be discarded.
+	 *
+	 * @return true if the maximum number of deferred tasks is reached, false otherwise
+	 */
+	boolean isSaturated() {
+		return deferredQueueDepth.get() >= deferredCapacity;
+	}
+
+	private Runnable pollDeferredTask() {
+		Runnable task = deferredTasks.poll();
+		if (task != null) {
+			deferredQueueDepth.decrementAndGet();
+		}
+		return task;
+	}
+
+	/**
+	 * Defers a task that did not fit in the queue, or discards it if too many tasks are already deferred.
+	 *
+	 * @param task
+	 * @throws SaturationException if the task was discarded
+	 */
+	private void defer(Runnable task) {
+		int depth = deferredQueueDepth.incrementAndGet();
+		if (depth > deferredCapacity) {
+			deferredQueueDepth.decrementAndGet();
+			discardedTaskCount.incrementAndGet();
+			if (recentlyDiscardedTasks.getAndIncrement() == 0) {
+				logger.warning("Too many database writes are deferred, further writes are discarded until the next"
+						+ " statistics batch.");
+			}
+			throw new SaturationException();
+		}
+		if (depth == 1) {
+			logger.warning("Database write queue is full, further writes are deferred to the next statistics batch.");
+		}
+		deferredTaskCount.incrementAndGet();
+		deferredTasks.offer(task);
+	}
+
+	/**
+	 * Exception thrown when a task is discarded because too many tasks are deferred. Submitters are expected to give up
+	 * on the task, or to perform it with the next statistics batch.
+	 */
+	static final class SaturationException extends RejectedExecutionException {
+
+		private static final long serialVersionUID = -3625319427916170514L;
+
+		SaturationException() {
+			super("Too many database writes are deferred.");
+		}
+	}
+
+	private static final class DeferPolicy implements RejectedExecutionHandler {
+
+		@Override
+		public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+			if (executor.isShutdown()) {
+				throw new RejectedExecutionException("Database write executor was shut down.");
+			}
+			((WriteExecutor) executor).defer(task);
+		}
+	}
+
+	private static final class WriteThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "AdvancedAchievements-DatabaseWriter-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package com.hm.achievement.gui;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -55,7 +56,7 @@ public class CategoryGUI implements Reloadable {
 	private final CommentedYamlConfiguration langConfig;
 	private final CacheManager cacheManager;
 	private final AbstractDatabaseManager databaseManager;
-	private final Map<String, List<Long>> sortedThresholds;
+	private final Map<String, long[]> sortedThresholds;
 	private final RewardParser rewardParser;
 	private final GUIItems guiItems;
 
@@ -78,7 +79,7 @@ public class CategoryGUI implements Reloadable {
 	@Inject
 	public CategoryGUI(@Named("main") CommentedYamlConfiguration mainConfig,
 			@Named("lang") CommentedYamlConfiguration langConfig, CacheManager cacheManager,
-			AbstractDatabaseManager databaseManager, Map<String, List<Long>> sortedThresholds, RewardParser rewardParser,
+			AbstractDatabaseManager databaseManager, Map<String, long[]> sortedThresholds, RewardParser rewardParser,
 			GUIItems guiItems) {
 		this.mainConfig = mainConfig;
 		this.langConfig = langConfig;
@@ -290,7 +291,7 @@ public class CategoryGUI implements Reloadable {
 	 * @return the list of paths for the Normal category
 	 */
 	public List<String> getSortedNormalAchievementThresholds(String categoryName) {
-		return sortedThresholds.get(categoryName).stream().map(String::valueOf).collect(Collectors.toList());
+		return Arrays.stream(sortedThresholds.get(categoryName)).mapToObj(String::valueOf).collect(Collectors.toList());
 	}
 
 	/**
@@ -303,7 +304,7 @@ public class CategoryGUI implements Reloadable {
 	public Map<String, Long> getMultipleStatisticsMapping(MultipleAchievements category, Player player) {
 		Map<String, Long> subcategoriesToStatistics = new HashMap<>();
 		for (String subcategory : mainConfig.getShallowKeys(category.toString())) {
-			long statistic = cacheManager.getAndIncrementStatisticAmount(category, subcategory, player.getUniqueId(), 0);
+			long statistic = cacheManager.getLoadedStatisticAmount(category, subcategory, player.getUniqueId());
 			subcategoriesToStatistics.put(subcategory, statistic);
 		}
 		return subcategoriesToStatistics;
@@ -320,7 +321,7 @@ public class CategoryGUI implements Reloadable {
 		if (category == NormalAchievements.CONNECTIONS) {
 			return databaseManager.getConnectionsAmount(player.getUniqueId());
 		}
-		return cacheManager.getAndIncrementStatisticAmount(category, player.getUniqueId(), 0);
+		return cacheManager.getLoadedStatisticAmount(category, player.getUniqueId());
 	}
 
 	/**
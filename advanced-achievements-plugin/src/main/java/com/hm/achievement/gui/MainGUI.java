@@ -7,6 +7,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.apache.commons.lang3.StringUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
@@ -22,6 +23,7 @@ import com.hm.achievement.category.NormalAchievements;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.lang.GuiLang;
 import com.hm.achievement.lang.LangHelper;
+import com.hm.achievement.lang.command.CmdLang;
 import com.hm.achievement.lifecycle.Reloadable;
 import com.hm.achievement.utils.NumberHelper;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
@@ -36,6 +38,7 @@ public class MainGUI implements Reloadable {
 
 	private final CommentedYamlConfiguration mainConfig;
 	private final CommentedYamlConfiguration langConfig;
+	private final StringBuilder pluginHeader;
 	private final CacheManager cacheManager;
 	private final Set<Category> disabledCategories;
 	private final ItemStack lockedItem;
@@ -45,13 +48,15 @@ public class MainGUI implements Reloadable {
 	private boolean configHideNoPermissionCategories;
 
 	private String langListGUITitle;
+	private String langAchievementsLoading;
 
 	@Inject
 	public MainGUI(@Named("main") CommentedYamlConfiguration mainConfig,
-			@Named("lang") CommentedYamlConfiguration langConfig, CacheManager cacheManager, int serverVersion,
-			Set<Category> disabledCategories, GUIItems guiItems) {
+			@Named("lang") CommentedYamlConfiguration langConfig, StringBuilder pluginHeader, CacheManager cacheManager,
+			int serverVersion, Set<Category> disabledCategories, GUIItems guiItems) {
 		this.mainConfig = mainConfig;
 		this.langConfig = langConfig;
+		this.pluginHeader = pluginHeader;
 		this.cacheManager = cacheManager;
 		this.disabledCategories = disabledCategories;
 		this.guiItems = guiItems;
@@ -64,6 +69,7 @@ public class MainGUI implements Reloadable {
 		configHideNoPermissionCategories = mainConfig.getBoolean("HideNoPermissionCategories", false);
 
 		langListGUITitle = ChatColor.translateAlternateColorCodes('&', LangHelper.get(GuiLang.GUI_TITLE, langConfig));
+		langAchievementsLoading = LangHelper.get(CmdLang.ACHIEVEMENTS_LOADING, langConfig);
 
 		ItemMeta itemMeta = lockedItem.getItemMeta();
 		String displayName = "&6" + LangHelper.get(GuiLang.CATEGORY_NOT_UNLOCKED, langConfig);
@@ -77,6 +83,12 @@ public class MainGUI implements Reloadable {
 	 * @param player
 	 */
 	public void displayMainGUI(Player player) {
+		// Categories cannot be locked whilst the received achievements are loading, for instance just after joining.
+		if (configHideNotReceivedCategories && !cacheManager.hasLoadedReceivedAchievements(player.getUniqueId())) {
+			player.sendMessage(
+					pluginHeader + StringUtils.replaceOnce(langAchievementsLoading, "PLAYER", player.getName()));
+			return;
+		}
 		int totalEnabledCategories = MultipleAchievements.values().length + NormalAchievements.values().length + 1
 				- disabledCategories.size();
 		AchievementInventoryHolder inventoryHolder = new AchievementInventoryHolder();
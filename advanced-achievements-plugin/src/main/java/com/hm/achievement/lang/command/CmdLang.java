@@ -12,6 +12,7 @@ public enum CmdLang implements Lang {
 	NO_PERMISSIONS("You do not have the permission to do this."),
 	INVALID_COMMAND("Invalid command. Please type /aach to display the command help."),
 	PLAYER_OFFLINE("The player PLAYER is offline!"),
+	ACHIEVEMENTS_LOADING("The achievements of PLAYER are still loading, please try again in a few seconds."),
 	PLAYER_RANK("Current rank:"),
 	NOT_RANKED("You are currently not ranked for this period."),
 	// AddCommand
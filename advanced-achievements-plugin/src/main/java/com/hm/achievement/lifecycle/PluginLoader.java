@@ -35,6 +35,7 @@ import com.hm.achievement.exception.PluginLoadError;
 import com.hm.achievement.listener.FireworkListener;
 import com.hm.achievement.listener.ListGUIListener;
 import com.hm.achievement.listener.PlayerAdvancedAchievementListener;
+import com.hm.achievement.listener.PreLoginListener;
 import com.hm.achievement.listener.QuitListener;
 import com.hm.achievement.placeholder.AchievementCountBungeeTabListPlusVariable;
 import com.hm.achievement.placeholder.AchievementPlaceholderHook;
@@ -91,6 +92,7 @@ public class PluginLoader {
 	private final PetMasterGiveReceiveListener petMasterGiveReceiveListener;
 	private final FireworkListener fireworkListener;
 	private final QuitListener quitListener;
+	private final PreLoginListener preLoginListener;
 	private final ListGUIListener listGUIListener;
 	private final PlayerAdvancedAchievementListener playerAdvancedAchievementListener;
 	private final JobsRebornListener jobsRebornListener;
@@ -135,7 +137,7 @@ public class PluginLoader {
 			KillsListener killsListener, CraftsListener craftsListener, PlayerCommandsListener playerCommandsListener,
 			TargetsShotListener targetsShotListener, EnderPearlsDistancesListener enderPearlsDistancesListener,
 			PetMasterGiveReceiveListener petMasterGiveReceiveListener, FireworkListener fireworkListener,
-			QuitListener quitListener, ListGUIListener listGUIListener,
+			QuitListener quitListener, PreLoginListener preLoginListener, ListGUIListener listGUIListener,
 			PlayerAdvancedAchievementListener playerAdvancedAchievementListener, JobsRebornListener jobsRebornListener,
 			VoteListener voteListener,
 			Lazy<AchievementPlaceholderHook> achievementPlaceholderHook,
@@ -178,6 +180,7 @@ public class PluginLoader {
 		this.petMasterGiveReceiveListener = petMasterGiveReceiveListener;
 		this.fireworkListener = fireworkListener;
 		this.quitListener = quitListener;
+		this.preLoginListener = preLoginListener;
 		this.listGUIListener = listGUIListener;
 		this.playerAdvancedAchievementListener = playerAdvancedAchievementListener;
 		this.jobsRebornListener = jobsRebornListener;
@@ -235,7 +238,9 @@ public class PluginLoader {
 			distanceTask.cancel();
 		}
 
-		// Send remaining statistics to the database and close DatabaseManager.
+		// Send remaining statistics to the database once the writes waiting to be retried were attempted a last time, and
+		// close DatabaseManager.
+		databaseManager.getRetryScheduler().shutdown();
 		asyncCachedRequestsSender.sendBatchedRequests();
 		databaseManager.shutdown();
 
@@ -287,6 +292,7 @@ public class PluginLoader {
 				NormalAchievements.PETMASTERRECEIVE);
 		registerListener(connectionsListener);
 		registerListener(quitListener);
+		registerListener(preLoginListener);
 		registerListener(listGUIListener);
 		registerListener(fireworkListener);
 		registerListener(playerAdvancedAchievementListener);
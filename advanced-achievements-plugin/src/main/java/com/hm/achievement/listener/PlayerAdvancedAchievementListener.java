@@ -3,7 +3,6 @@ package com.hm.achievement.listener;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -60,6 +59,8 @@ import net.milkbowl.vault.economy.Economy;
 public class PlayerAdvancedAchievementListener implements Listener, Reloadable {
 
 	private static final Random RANDOM = new Random();
+	// Delay before handling again a reception that happened whilst the received achievements were loading.
+	private static final long LOADING_RETRY_TICKS = 20L;
 
 	private final CommentedYamlConfiguration mainConfig;
 	private final CommentedYamlConfiguration langConfig;
@@ -69,7 +70,6 @@ public class PlayerAdvancedAchievementListener implements Listener, Reloadable {
 	private final CacheManager cacheManager;
 	private final AdvancedAchievements advancedAchievements;
 	private final RewardParser rewardParser;
-	private final Map<String, String> namesToDisplayNames;
 	private final AbstractDatabaseManager databaseManager;
 	private final ToggleCommand toggleCommand;
 	private final FireworkListener fireworkListener;
@@ -99,9 +99,8 @@ public class PlayerAdvancedAchievementListener implements Listener, Reloadable {
 	public PlayerAdvancedAchievementListener(@Named("main") CommentedYamlConfiguration mainConfig,
 			@Named("lang") CommentedYamlConfiguration langConfig, int serverVersion, Logger logger,
 			StringBuilder pluginHeader, CacheManager cacheManager, AdvancedAchievements advancedAchievements,
-			RewardParser rewardParser, @Named("ntd") Map<String, String> namesToDisplayNames,
-			AbstractDatabaseManager databaseManager, ToggleCommand toggleCommand, FireworkListener fireworkListener,
-			SoundPlayer soundPlayer) {
+			RewardParser rewardParser, AbstractDatabaseManager databaseManager, ToggleCommand toggleCommand,
+			FireworkListener fireworkListener, SoundPlayer soundPlayer) {
 		this.mainConfig = mainConfig;
 		this.langConfig = langConfig;
 		this.serverVersion = serverVersion;
@@ -110,7 +109,6 @@ public class PlayerAdvancedAchievementListener implements Listener, Reloadable {
 		this.cacheManager = cacheManager;
 		this.advancedAchievements = advancedAchievements;
 		this.rewardParser = rewardParser;
-		this.namesToDisplayNames = namesToDisplayNames;
 		this.databaseManager = databaseManager;
 		this.toggleCommand = toggleCommand;
 		this.fireworkListener = fireworkListener;
@@ -162,8 +160,17 @@ public class PlayerAdvancedAchievementListener implements Listener, Reloadable {
 	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
 	public void onPlayerAdvancedAchievementReception(PlayerAdvancedAchievementEvent event) {
 		Player player = event.getPlayer();
+		// Whether the achievement was already received is unknown until the received achievements are loaded.
+		if (!cacheManager.hasLoadedReceivedAchievements(player.getUniqueId())) {
+			if (player.isOnline()) {
+				Bukkit.getScheduler().runTaskLater(advancedAchievements,
+						() -> onPlayerAdvancedAchievementReception(event), LOADING_RETRY_TICKS);
+			}
+			return;
+		}
 		// Achievement could have already been received if MultiCommand is set to true in the configuration.
-		if (!cacheManager.hasPlayerAchievement(player.getUniqueId(), event.getName())) {
+		boolean receivedAgain = cacheManager.hasPlayerAchievement(player.getUniqueId(), event.getName());
+		if (!receivedAgain) {
 			cacheManager.registerNewlyReceivedAchievement(player.getUniqueId(), event.getName());
 
 			if (serverVersion >= 12) {
@@ -175,14 +182,14 @@ public class PlayerAdvancedAchievementListener implements Listener, Reloadable {
 				}
 			}
 		}
-		databaseManager.registerAchievement(player.getUniqueId(), event.getName(), event.getMessage());
+		databaseManager.registerAchievement(player.getUniqueId(), event.getName(), event.getMessage(), receivedAgain);
 
 		List<String> rewardTexts = giveRewardsAndPrepareTexts(player, event.getCommandRewards(), event.getCommandMessages(),
 				event.getItemReward(), event.getMoneyReward(), event.getExperienceReward(), event.getMaxHealthReward(),
 				event.getMaxOxygenReward());
 		displayAchievement(player, event.getName(), event.getDisplayName(), event.getMessage(), rewardTexts);
 
-		if (cacheManager.getPlayerTotalAchievements(player.getUniqueId()) == namesToDisplayNames.size()) {
+		if (cacheManager.hasPlayerReceivedAllAchievements(player.getUniqueId())) {
 			handleAllAchievementsReceived(player);
 		}
 	}
@@ -0,0 +1,75 @@
+package com.hm.achievement.listener;
+
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent.Result;
+import org.bukkit.event.player.PlayerLoginEvent;
+
+import com.hm.achievement.AdvancedAchievements;
+import com.hm.achievement.db.CacheManager;
+import com.hm.achievement.exception.DatabaseReadError;
+
+/**
+ * Listener class to preload the statistics and achievements of players before they join the server. Preloaded data is
+ * evicted if the player does not end up joining.
+ * 
+ * @author Pyves
+ *
+ */
+@Singleton
+public class PreLoginListener implements Listener {
+
+	// Delay after which preloaded data is evicted if the player has not joined, for instance if the connection dropped.
+	private static final long PRELOAD_EXPIRY_TICKS = 600L;
+
+	private final AdvancedAchievements advancedAchievements;
+	private final CacheManager cacheManager;
+	private final Logger logger;
+
+	@Inject
+	public PreLoginListener(AdvancedAchievements advancedAchievements, CacheManager cacheManager, Logger logger) {
+		this.advancedAchievements = advancedAchievements;
+		this.cacheManager = cacheManager;
+		this.logger = logger;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+		if (event.getLoginResult() != Result.ALLOWED) {
+			return;
+		}
+		UUID uuid = event.getUniqueId();
+		try {
+			cacheManager.preloadPlayerData(uuid);
+		} catch (DatabaseReadError e) {
+			// Player data will be lazily loaded instead.
+			logger.log(Level.WARNING, "Failed to preload data of player " + event.getName() + ":", e);
+		}
+		Bukkit.getScheduler().scheduleSyncDelayedTask(advancedAchievements, () -> evictIfOffline(uuid),
+				PRELOAD_EXPIRY_TICKS);
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerLogin(PlayerLoginEvent event) {
+		if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+			// Login denied after the data was preloaded, for instance because the server is full.
+			evictIfOffline(event.getPlayer().getUniqueId());
+		}
+	}
+
+	private void evictIfOffline(UUID uuid) {
+		if (Bukkit.getPlayer(uuid) == null) {
+			cacheManager.cleanPlayerData(uuid);
+		}
+	}
+}
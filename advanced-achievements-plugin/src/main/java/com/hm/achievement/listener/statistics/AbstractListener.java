@@ -1,7 +1,6 @@
 package com.hm.achievement.listener.statistics;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -16,6 +15,7 @@ import org.bukkit.potion.PotionType;
 
 import com.hm.achievement.category.MultipleAchievements;
 import com.hm.achievement.category.NormalAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.utils.RewardParser;
 import com.hm.achievement.utils.StatisticIncreaseHandler;
@@ -28,9 +28,10 @@ import com.hm.mcshared.file.CommentedYamlConfiguration;
  */
 public abstract class AbstractListener extends StatisticIncreaseHandler implements Listener {
 
-	AbstractListener(CommentedYamlConfiguration mainConfig, int serverVersion, Map<String, List<Long>> sortedThresholds,
-			CacheManager cacheManager, RewardParser rewardParser) {
-		super(mainConfig, serverVersion, sortedThresholds, cacheManager, rewardParser);
+	AbstractListener(CommentedYamlConfiguration mainConfig, int serverVersion, Map<String, long[]> sortedThresholds,
+			Map<String, AchievementDefinition> achievementDefinitions, CacheManager cacheManager,
+			RewardParser rewardParser) {
+		super(mainConfig, serverVersion, sortedThresholds, achievementDefinitions, cacheManager, rewardParser);
 	}
 
 	/**
@@ -43,8 +44,9 @@ public abstract class AbstractListener extends StatisticIncreaseHandler implemen
 	 */
 	void updateStatisticAndAwardAchievementsIfAvailable(Player player, NormalAchievements category, int incrementValue) {
 		if (shouldIncreaseBeTakenIntoAccount(player, category)) {
-			long amount = cacheManager.getAndIncrementStatisticAmount(category, player.getUniqueId(), incrementValue);
-			checkThresholdsAndAchievements(player, category.toString(), amount);
+			cacheManager.incrementStatisticAmount(category, player.getUniqueId(), incrementValue,
+					statistic -> checkThresholdsAndAchievements(player, category, null, statistic.getValue(),
+							statistic));
 		}
 	}
 
@@ -60,11 +62,10 @@ public abstract class AbstractListener extends StatisticIncreaseHandler implemen
 	void updateStatisticAndAwardAchievementsIfAvailable(Player player, MultipleAchievements category,
 			Set<String> subcategories, int incrementValue) {
 		if (shouldIncreaseBeTakenIntoAccount(player, category)) {
-			subcategories.forEach(subcategory -> {
-				long amount = cacheManager.getAndIncrementStatisticAmount(category, subcategory, player.getUniqueId(),
-						incrementValue);
-				checkThresholdsAndAchievements(player, category + "." + subcategory, amount);
-			});
+			subcategories.forEach(subcategory -> cacheManager.incrementStatisticAmount(category, subcategory,
+					player.getUniqueId(), incrementValue,
+					statistic -> checkThresholdsAndAchievements(player, category, subcategory, statistic.getValue(),
+							statistic)));
 		}
 	}
 
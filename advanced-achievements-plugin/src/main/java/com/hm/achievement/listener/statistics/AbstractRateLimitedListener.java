@@ -2,7 +2,6 @@ package com.hm.achievement.listener.statistics;
 
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.logging.Logger;
@@ -13,6 +12,7 @@ import org.bukkit.entity.Player;
 
 import com.hm.achievement.AdvancedAchievements;
 import com.hm.achievement.category.NormalAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.lang.LangHelper;
 import com.hm.achievement.lang.ListenerLang;
@@ -40,9 +40,10 @@ public class AbstractRateLimitedListener extends AbstractListener implements Cle
 	private String langStatisticCooldown;
 
 	AbstractRateLimitedListener(CommentedYamlConfiguration mainConfig, int serverVersion,
-			Map<String, List<Long>> sortedThresholds, CacheManager cacheManager, RewardParser rewardParser,
-			AdvancedAchievements advancedAchievements, CommentedYamlConfiguration langConfig, Logger logger) {
-		super(mainConfig, serverVersion, sortedThresholds, cacheManager, rewardParser);
+			Map<String, long[]> sortedThresholds, Map<String, AchievementDefinition> achievementDefinitions,
+			CacheManager cacheManager, RewardParser rewardParser, AdvancedAchievements advancedAchievements,
+			CommentedYamlConfiguration langConfig, Logger logger) {
+		super(mainConfig, serverVersion, sortedThresholds, achievementDefinitions, cacheManager, rewardParser);
 		this.advancedAchievements = advancedAchievements;
 		this.langConfig = langConfig;
 		this.logger = logger;
@@ -101,9 +102,9 @@ public class AbstractRateLimitedListener extends AbstractListener implements Cle
 	 * @return true if the player is still in cooldown, false otherwise
 	 */
 	boolean isInCooldownPeriod(Player player, String prefixInMap, boolean delay, NormalAchievements category) {
-		List<Long> categoryThresholds = sortedThresholds.get(category.toString());
-		long hardestAchievementThreshold = categoryThresholds.get(categoryThresholds.size() - 1);
-		long currentPlayerStatistic = cacheManager.getAndIncrementStatisticAmount(category, player.getUniqueId(), 0);
+		long[] categoryThresholds = sortedThresholds.get(category.toString());
+		long hardestAchievementThreshold = categoryThresholds[categoryThresholds.length - 1];
+		long currentPlayerStatistic = cacheManager.getLoadedStatisticAmount(category, player.getUniqueId());
 		// Ignore cooldown if player has received all achievements in the category.
 		if (currentPlayerStatistic >= hardestAchievementThreshold) {
 			return false;
@@ -1,6 +1,5 @@
 package com.hm.achievement.listener.statistics;
 
-import java.util.List;
 import java.util.Map;
 
 import javax.inject.Inject;
@@ -13,6 +12,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.entity.EntityShootBowEvent;
 
 import com.hm.achievement.category.NormalAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.utils.RewardParser;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
@@ -28,8 +28,9 @@ public class ArrowsListener extends AbstractListener {
 
 	@Inject
 	public ArrowsListener(@Named("main") CommentedYamlConfiguration mainConfig, int serverVersion,
-			Map<String, List<Long>> sortedThresholds, CacheManager cacheManager, RewardParser rewardParser) {
-		super(mainConfig, serverVersion, sortedThresholds, cacheManager, rewardParser);
+			Map<String, long[]> sortedThresholds, Map<String, AchievementDefinition> achievementDefinitions,
+			CacheManager cacheManager, RewardParser rewardParser) {
+		super(mainConfig, serverVersion, sortedThresholds, achievementDefinitions, cacheManager, rewardParser);
 	}
 
 	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -1,6 +1,5 @@
 package com.hm.achievement.listener.statistics;
 
-import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -15,6 +14,7 @@ import org.bukkit.event.player.PlayerBedEnterEvent;
 
 import com.hm.achievement.AdvancedAchievements;
 import com.hm.achievement.category.NormalAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.utils.RewardParser;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
@@ -30,10 +30,11 @@ public class BedsListener extends AbstractRateLimitedListener {
 
 	@Inject
 	public BedsListener(@Named("main") CommentedYamlConfiguration mainConfig, int serverVersion,
-			Map<String, List<Long>> sortedThresholds, CacheManager cacheManager, RewardParser rewardParser,
-			AdvancedAchievements advancedAchievements, @Named("lang") CommentedYamlConfiguration langConfig, Logger logger) {
-		super(mainConfig, serverVersion, sortedThresholds, cacheManager, rewardParser, advancedAchievements, langConfig,
-				logger);
+			Map<String, long[]> sortedThresholds, Map<String, AchievementDefinition> achievementDefinitions,
+			CacheManager cacheManager, RewardParser rewardParser, AdvancedAchievements advancedAchievements,
+			@Named("lang") CommentedYamlConfiguration langConfig, Logger logger) {
+		super(mainConfig, serverVersion, sortedThresholds, achievementDefinitions, cacheManager, rewardParser,
+				advancedAchievements, langConfig, logger);
 	}
 
 	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -1,6 +1,5 @@
 package com.hm.achievement.listener.statistics;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -16,6 +15,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.block.BlockBreakEvent;
 
 import com.hm.achievement.category.MultipleAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.utils.RewardParser;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
@@ -34,8 +34,9 @@ public class BreaksListener extends AbstractListener {
 
 	@Inject
 	public BreaksListener(@Named("main") CommentedYamlConfiguration mainConfig, int serverVersion,
-			Map<String, List<Long>> sortedThresholds, CacheManager cacheManager, RewardParser rewardParser) {
-		super(mainConfig, serverVersion, sortedThresholds, cacheManager, rewardParser);
+			Map<String, long[]> sortedThresholds, Map<String, AchievementDefinition> achievementDefinitions,
+			CacheManager cacheManager, RewardParser rewardParser) {
+		super(mainConfig, serverVersion, sortedThresholds, achievementDefinitions, cacheManager, rewardParser);
 	}
 
 	@Override
@@ -1,6 +1,5 @@
 package com.hm.achievement.listener.statistics;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -17,6 +16,7 @@ import org.bukkit.event.player.PlayerFishEvent;
 
 import com.hm.achievement.category.Category;
 import com.hm.achievement.category.NormalAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.utils.RewardParser;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
@@ -34,9 +34,9 @@ public class CaughtFishTreasuresListener extends AbstractListener {
 
 	@Inject
 	public CaughtFishTreasuresListener(@Named("main") CommentedYamlConfiguration mainConfig, int serverVersion,
-			Map<String, List<Long>> sortedThresholds, CacheManager cacheManager, RewardParser rewardParser,
-			Set<Category> disabledCategories) {
-		super(mainConfig, serverVersion, sortedThresholds, cacheManager, rewardParser);
+			Map<String, long[]> sortedThresholds, Map<String, AchievementDefinition> achievementDefinitions,
+			CacheManager cacheManager, RewardParser rewardParser, Set<Category> disabledCategories) {
+		super(mainConfig, serverVersion, sortedThresholds, achievementDefinitions, cacheManager, rewardParser);
 		this.disabledCategories = disabledCategories;
 	}
 
@@ -3,7 +3,6 @@ package com.hm.achievement.listener.statistics;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -28,10 +27,10 @@ import com.hm.achievement.advancement.AchievementAdvancement;
 import com.hm.achievement.advancement.AdvancementManager;
 import com.hm.achievement.category.Category;
 import com.hm.achievement.category.NormalAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.achievement.db.AbstractDatabaseManager;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.lifecycle.Cleanable;
-import com.hm.achievement.utils.PlayerAdvancedAchievementEvent.PlayerAdvancedAchievementEventBuilder;
 import com.hm.achievement.utils.RewardParser;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
 
@@ -54,10 +53,10 @@ public class ConnectionsListener extends AbstractListener implements Cleanable {
 
 	@Inject
 	public ConnectionsListener(@Named("main") CommentedYamlConfiguration mainConfig, int serverVersion,
-			Map<String, List<Long>> sortedThresholds, CacheManager cacheManager, RewardParser rewardParser,
-			AdvancedAchievements advancedAchievements, Set<Category> disabledCategories,
-			AbstractDatabaseManager databaseManager) {
-		super(mainConfig, serverVersion, sortedThresholds, cacheManager, rewardParser);
+			Map<String, long[]> sortedThresholds, Map<String, AchievementDefinition> achievementDefinitions,
+			CacheManager cacheManager, RewardParser rewardParser, AdvancedAchievements advancedAchievements,
+			Set<Category> disabledCategories, AbstractDatabaseManager databaseManager) {
+		super(mainConfig, serverVersion, sortedThresholds, achievementDefinitions, cacheManager, rewardParser);
 		this.advancedAchievements = advancedAchievements;
 		this.disabledCategories = disabledCategories;
 		this.databaseManager = databaseManager;
@@ -118,22 +117,9 @@ public class ConnectionsListener extends AbstractListener implements Cleanable {
 		if (!dateString.equals(databaseManager.getPlayerConnectionDate(player.getUniqueId()))) {
 			int connections = databaseManager.updateAndGetConnection(player.getUniqueId(), dateString);
 			String achievementPath = NormalAchievements.CONNECTIONS + "." + connections;
-			if (mainConfig.contains(achievementPath)) {
-				String rewardPath = achievementPath + ".Reward";
-				// Fire achievement event.
-				PlayerAdvancedAchievementEventBuilder playerAdvancedAchievementEventBuilder = new PlayerAdvancedAchievementEventBuilder()
-						.player(player).name(mainConfig.getString(achievementPath + ".Name"))
-						.displayName(mainConfig.getString(achievementPath + ".DisplayName"))
-						.message(mainConfig.getString(achievementPath + ".Message"))
-						.commandRewards(rewardParser.getCommandRewards(rewardPath, player))
-						.commandMessage(rewardParser.getCustomCommandMessages(rewardPath))
-						.itemReward(rewardParser.getItemReward(rewardPath))
-						.moneyReward(rewardParser.getRewardAmount(rewardPath, "Money"))
-						.experienceReward(rewardParser.getRewardAmount(rewardPath, "Experience"))
-						.maxHealthReward(rewardParser.getRewardAmount(rewardPath, "IncreaseMaxHealth"))
-						.maxOxygenReward(rewardParser.getRewardAmount(rewardPath, "IncreaseMaxOxygen"));
-
-				Bukkit.getPluginManager().callEvent(playerAdvancedAchievementEventBuilder.build());
+			AchievementDefinition achievement = achievementDefinitions.get(achievementPath);
+			if (achievement != null) {
+				fireAchievementEvent(player, achievement);
 			}
 		}
 	}
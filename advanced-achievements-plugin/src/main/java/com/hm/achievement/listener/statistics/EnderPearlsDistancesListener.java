@@ -1,6 +1,5 @@
 package com.hm.achievement.listener.statistics;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -16,6 +15,7 @@ import org.bukkit.event.player.PlayerTeleportEvent;
 
 import com.hm.achievement.category.Category;
 import com.hm.achievement.category.NormalAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.runnable.AchieveDistanceRunnable;
 import com.hm.achievement.utils.RewardParser;
@@ -35,9 +35,10 @@ public class EnderPearlsDistancesListener extends AbstractListener {
 
 	@Inject
 	public EnderPearlsDistancesListener(@Named("main") CommentedYamlConfiguration mainConfig, int serverVersion,
-			Map<String, List<Long>> sortedThresholds, CacheManager cacheManager, RewardParser rewardParser,
-			Set<Category> disabledCategories, AchieveDistanceRunnable distanceRunnable) {
-		super(mainConfig, serverVersion, sortedThresholds, cacheManager, rewardParser);
+			Map<String, long[]> sortedThresholds, Map<String, AchievementDefinition> achievementDefinitions,
+			CacheManager cacheManager, RewardParser rewardParser, Set<Category> disabledCategories,
+			AchieveDistanceRunnable distanceRunnable) {
+		super(mainConfig, serverVersion, sortedThresholds, achievementDefinitions, cacheManager, rewardParser);
 		this.disabledCategories = disabledCategories;
 		this.distanceRunnable = distanceRunnable;
 	}
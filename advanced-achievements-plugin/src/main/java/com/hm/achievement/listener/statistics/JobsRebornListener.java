@@ -8,11 +8,11 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 
 import com.hm.achievement.category.MultipleAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -24,8 +24,9 @@ public class JobsRebornListener extends AbstractListener {
 
     @Inject
     public JobsRebornListener(@Named("main") CommentedYamlConfiguration mainConfig, int serverVersion,
-                         Map<String, List<Long>> sortedThresholds, CacheManager cacheManager, RewardParser rewardParser) {
-        super(mainConfig, serverVersion, sortedThresholds, cacheManager, rewardParser);
+                         Map<String, long[]> sortedThresholds, Map<String, AchievementDefinition> achievementDefinitions,
+                              CacheManager cacheManager, RewardParser rewardParser) {
+        super(mainConfig, serverVersion, sortedThresholds, achievementDefinitions, cacheManager, rewardParser);
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
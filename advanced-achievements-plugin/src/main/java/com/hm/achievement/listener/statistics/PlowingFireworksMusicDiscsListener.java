@@ -1,6 +1,5 @@
 package com.hm.achievement.listener.statistics;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -23,6 +22,7 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import com.hm.achievement.AdvancedAchievements;
 import com.hm.achievement.category.Category;
 import com.hm.achievement.category.NormalAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.utils.RewardParser;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
@@ -39,12 +39,12 @@ public class PlowingFireworksMusicDiscsListener extends AbstractRateLimitedListe
 	private final Set<Category> disabledCategories;
 
 	@Inject
-	public PlowingFireworksMusicDiscsListener(@Named("main") CommentedYamlConfiguration mainConfig,
-			int serverVersion, Map<String, List<Long>> sortedThresholds, CacheManager cacheManager,
-			RewardParser rewardParser, AdvancedAchievements advancedAchievements,
+	public PlowingFireworksMusicDiscsListener(@Named("main") CommentedYamlConfiguration mainConfig, int serverVersion,
+			Map<String, long[]> sortedThresholds, Map<String, AchievementDefinition> achievementDefinitions,
+			CacheManager cacheManager, RewardParser rewardParser, AdvancedAchievements advancedAchievements,
 			@Named("lang") CommentedYamlConfiguration langConfig, Logger logger, Set<Category> disabledCategories) {
-		super(mainConfig, serverVersion, sortedThresholds, cacheManager, rewardParser, advancedAchievements, langConfig,
-				logger);
+		super(mainConfig, serverVersion, sortedThresholds, achievementDefinitions, cacheManager, rewardParser,
+				advancedAchievements, langConfig, logger);
 		this.disabledCategories = disabledCategories;
 	}
 
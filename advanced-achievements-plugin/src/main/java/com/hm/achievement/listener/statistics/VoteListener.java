@@ -1,6 +1,7 @@
 package com.hm.achievement.listener.statistics;
 
 import com.hm.achievement.category.NormalAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.utils.RewardParser;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
@@ -13,7 +14,6 @@ import org.bukkit.event.EventPriority;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -24,8 +24,9 @@ public class VoteListener extends AbstractListener {
 
     @Inject
     public VoteListener(@Named("main") CommentedYamlConfiguration mainConfig, int serverVersion,
-                        Map<String, List<Long>> sortedThresholds, CacheManager cacheManager, RewardParser rewardParser) {
-        super(mainConfig, serverVersion, sortedThresholds, cacheManager, rewardParser);
+                        Map<String, long[]> sortedThresholds, Map<String, AchievementDefinition> achievementDefinitions,
+                        CacheManager cacheManager, RewardParser rewardParser) {
+        super(mainConfig, serverVersion, sortedThresholds, achievementDefinitions, cacheManager, rewardParser);
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
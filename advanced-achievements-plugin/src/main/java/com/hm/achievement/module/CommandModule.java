@@ -5,12 +5,16 @@ import com.hm.achievement.command.executable.AddCommand;
 import com.hm.achievement.command.executable.BookCommand;
 import com.hm.achievement.command.executable.CheckCommand;
 import com.hm.achievement.command.executable.DeleteCommand;
+import com.hm.achievement.command.executable.ExportCommand;
 import com.hm.achievement.command.executable.GenerateCommand;
 import com.hm.achievement.command.executable.GiveCommand;
 import com.hm.achievement.command.executable.HelpCommand;
+import com.hm.achievement.command.executable.ImportCommand;
 import com.hm.achievement.command.executable.InspectCommand;
 import com.hm.achievement.command.executable.ListCommand;
+import com.hm.achievement.command.executable.MetricsCommand;
 import com.hm.achievement.command.executable.MonthCommand;
+import com.hm.achievement.command.executable.RebuildTotalsCommand;
 import com.hm.achievement.command.executable.ReloadCommand;
 import com.hm.achievement.command.executable.ResetCommand;
 import com.hm.achievement.command.executable.StatsCommand;
@@ -90,6 +94,22 @@ public interface CommandModule {
 	@IntoSet
 	abstract AbstractCommand bindUpdate13Command(Upgrade13Command upgrade13Command);
 
+	@Binds
+	@IntoSet
+	abstract AbstractCommand bindRebuildTotalsCommand(RebuildTotalsCommand rebuildTotalsCommand);
+
+	@Binds
+	@IntoSet
+	abstract AbstractCommand bindExportCommand(ExportCommand exportCommand);
+
+	@Binds
+	@IntoSet
+	abstract AbstractCommand bindImportCommand(ImportCommand importCommand);
+
+	@Binds
+	@IntoSet
+	abstract AbstractCommand bindMetricsCommand(MetricsCommand metricsCommand);
+
 	@Binds
 	@IntoSet
 	abstract AbstractCommand bindInspectCommand(InspectCommand inspectCommand);
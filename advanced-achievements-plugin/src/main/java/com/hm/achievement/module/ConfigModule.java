@@ -2,7 +2,6 @@ package com.hm.achievement.module;
 
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -11,6 +10,7 @@ import javax.inject.Singleton;
 
 import com.hm.achievement.AdvancedAchievements;
 import com.hm.achievement.category.Category;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
 
 import dagger.Module;
@@ -21,7 +21,13 @@ public class ConfigModule {
 
 	@Provides
 	@Singleton
-	Map<String, List<Long>> provideSortedThresholds() {
+	Map<String, long[]> provideSortedThresholds() {
+		return new HashMap<>();
+	}
+
+	@Provides
+	@Singleton
+	Map<String, AchievementDefinition> provideAchievementDefinitions() {
 		return new HashMap<>();
 	}
 
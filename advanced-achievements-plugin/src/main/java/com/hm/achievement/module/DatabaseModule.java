@@ -13,6 +13,7 @@ import com.hm.achievement.db.H2DatabaseManager;
 import com.hm.achievement.db.MySQLDatabaseManager;
 import com.hm.achievement.db.PostgreSQLDatabaseManager;
 import com.hm.achievement.db.SQLiteDatabaseManager;
+import com.hm.achievement.db.WriteAheadJournal;
 import com.hm.mcshared.file.CommentedYamlConfiguration;
 
 import dagger.Module;
@@ -25,18 +26,23 @@ public class DatabaseModule {
 	@Singleton
 	AbstractDatabaseManager provideSQLDatabaseManager(@Named("main") CommentedYamlConfiguration mainConfig, Logger logger,
 			@Named("ntd") Map<String, String> namesToDisplayNames, DatabaseUpdater databaseUpdater,
-			AdvancedAchievements advancedAchievements) {
+			AdvancedAchievements advancedAchievements, WriteAheadJournal writeAheadJournal) {
 		String databaseType = advancedAchievements.getConfig().getString("DatabaseType", "sqlite");
+		AbstractDatabaseManager databaseManager;
 		if ("mysql".equalsIgnoreCase(databaseType)) {
-			return new MySQLDatabaseManager(mainConfig, logger, namesToDisplayNames, databaseUpdater);
+			databaseManager = new MySQLDatabaseManager(mainConfig, logger, namesToDisplayNames, databaseUpdater);
 		} else if ("postgresql".equalsIgnoreCase(databaseType)) {
-			return new PostgreSQLDatabaseManager(mainConfig, logger, namesToDisplayNames, databaseUpdater);
+			databaseManager = new PostgreSQLDatabaseManager(mainConfig, logger, namesToDisplayNames, databaseUpdater);
 		} else if ("h2".equalsIgnoreCase(databaseType)) {
-			return new H2DatabaseManager(mainConfig, logger, namesToDisplayNames, databaseUpdater, advancedAchievements);
+			databaseManager = new H2DatabaseManager(mainConfig, logger, namesToDisplayNames, databaseUpdater,
+					advancedAchievements);
 		} else {
 			// User has specified "sqlite" or an invalid type.
-			return new SQLiteDatabaseManager(mainConfig, logger, namesToDisplayNames, databaseUpdater, advancedAchievements);
+			databaseManager = new SQLiteDatabaseManager(mainConfig, logger, namesToDisplayNames, databaseUpdater,
+					advancedAchievements);
 		}
+		databaseManager.setWriteAheadJournal(writeAheadJournal);
+		return databaseManager;
 	}
 
 }
@@ -6,6 +6,7 @@ import com.hm.achievement.advancement.AdvancementManager;
 import com.hm.achievement.command.executable.AbstractCommand;
 import com.hm.achievement.command.executor.PluginCommandExecutor;
 import com.hm.achievement.db.AbstractDatabaseManager;
+import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.gui.CategoryGUI;
 import com.hm.achievement.gui.GUIItems;
 import com.hm.achievement.gui.MainGUI;
@@ -60,6 +61,10 @@ public interface ReloadableModule {
 	@IntoSet
 	abstract Reloadable bindAbstractDatabaseManager(AbstractDatabaseManager abstractDatabaseManager);
 
+	@Binds
+	@IntoSet
+	abstract Reloadable bindCacheManager(CacheManager cacheManager);
+
 	@Binds
 	@IntoSet
 	abstract Reloadable bindCategoryGUI(CategoryGUI categoryGUI);
@@ -68,7 +68,7 @@ public class AchievementPlaceholderHook extends PlaceholderExpansion {
 			String categoryName = category.toString();
 
 			if (identifier.equalsIgnoreCase(categoryName)) {
-				return String.valueOf(cacheManager.getAndIncrementStatisticAmount(category, p.getUniqueId(), 0));
+				return String.valueOf(cacheManager.getLoadedStatisticAmount(category, p.getUniqueId()));
 			}
 		}
 
@@ -81,8 +81,7 @@ public class AchievementPlaceholderHook extends PlaceholderExpansion {
 				String categoryPath = category + "_" + subcategory;
 
 				if (identifier.equalsIgnoreCase(categoryPath)) {
-					return String
-							.valueOf(cacheManager.getAndIncrementStatisticAmount(category, subcategory, p.getUniqueId(), 0));
+					return String.valueOf(cacheManager.getLoadedStatisticAmount(category, subcategory, p.getUniqueId()));
 				}
 			}
 		}
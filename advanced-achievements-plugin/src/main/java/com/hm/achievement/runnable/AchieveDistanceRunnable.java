@@ -1,7 +1,6 @@
 package com.hm.achievement.runnable;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -22,6 +21,7 @@ import org.bukkit.util.NumberConversions;
 
 import com.hm.achievement.category.Category;
 import com.hm.achievement.category.NormalAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.lifecycle.Cleanable;
 import com.hm.achievement.utils.RewardParser;
@@ -44,9 +44,9 @@ public class AchieveDistanceRunnable extends StatisticIncreaseHandler implements
 
 	@Inject
 	public AchieveDistanceRunnable(@Named("main") CommentedYamlConfiguration mainConfig, int serverVersion,
-			Map<String, List<Long>> sortedThresholds, CacheManager cacheManager, RewardParser rewardParser,
-			Set<Category> disabledCategories) {
-		super(mainConfig, serverVersion, sortedThresholds, cacheManager, rewardParser);
+			Map<String, long[]> sortedThresholds, Map<String, AchievementDefinition> achievementDefinitions,
+			CacheManager cacheManager, RewardParser rewardParser, Set<Category> disabledCategories) {
+		super(mainConfig, serverVersion, sortedThresholds, achievementDefinitions, cacheManager, rewardParser);
 		this.disabledCategories = disabledCategories;
 	}
 
@@ -139,7 +139,7 @@ public class AchieveDistanceRunnable extends StatisticIncreaseHandler implements
 			return;
 		}
 
-		long distance = cacheManager.getAndIncrementStatisticAmount(category, player.getUniqueId(), difference);
-		checkThresholdsAndAchievements(player, category.toString(), distance);
+		cacheManager.incrementStatisticAmount(category, player.getUniqueId(), difference,
+				statistic -> checkThresholdsAndAchievements(player, category, null, statistic.getValue(), statistic));
 	}
 }
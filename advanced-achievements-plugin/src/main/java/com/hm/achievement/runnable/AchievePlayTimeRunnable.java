@@ -1,6 +1,5 @@
 package com.hm.achievement.runnable;
 
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -13,6 +12,7 @@ import org.bukkit.entity.Player;
 
 import com.earth2me.essentials.Essentials;
 import com.hm.achievement.category.NormalAchievements;
+import com.hm.achievement.config.AchievementDefinition;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.utils.RewardParser;
 import com.hm.achievement.utils.StatisticIncreaseHandler;
@@ -36,8 +36,9 @@ public class AchievePlayTimeRunnable extends StatisticIncreaseHandler implements
 
 	@Inject
 	public AchievePlayTimeRunnable(@Named("main") CommentedYamlConfiguration mainConfig, int serverVersion,
-			Map<String, List<Long>> sortedThresholds, CacheManager cacheManager, RewardParser rewardParser) {
-		super(mainConfig, serverVersion, sortedThresholds, cacheManager, rewardParser);
+			Map<String, long[]> sortedThresholds, Map<String, AchievementDefinition> achievementDefinitions,
+			CacheManager cacheManager, RewardParser rewardParser) {
+		super(mainConfig, serverVersion, sortedThresholds, achievementDefinitions, cacheManager, rewardParser);
 
 		if (Bukkit.getPluginManager().isPluginEnabled("Essentials")) {
 			essentials = (Essentials) Bukkit.getPluginManager().getPlugin("Essentials");
@@ -79,9 +80,9 @@ public class AchievePlayTimeRunnable extends StatisticIncreaseHandler implements
 		}
 
 		int millisSinceLastRun = (int) (currentTime - previousRunMillis);
-		long totalMillis = cacheManager.getAndIncrementStatisticAmount(NormalAchievements.PLAYEDTIME, player.getUniqueId(),
-				millisSinceLastRun);
 		// Thresholds in the configuration are in hours.
-		checkThresholdsAndAchievements(player, NormalAchievements.PLAYEDTIME.toString(), totalMillis / MILLIS_PER_HOUR);
+		cacheManager.incrementStatisticAmount(NormalAchievements.PLAYEDTIME, player.getUniqueId(), millisSinceLastRun,
+				statistic -> checkThresholdsAndAchievements(player, NormalAchievements.PLAYEDTIME, null,
+						statistic.getValue() / MILLIS_PER_HOUR, statistic));
 	}
 }
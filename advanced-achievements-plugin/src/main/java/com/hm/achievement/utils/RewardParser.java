@@ -176,7 +176,7 @@ public class RewardParser implements Reloadable {
 		}
 
 		String typePath = path + ".Item.Type";
-		if (mainConfig.getKeys(true).contains(typePath)) {
+		if (mainConfig.contains(typePath)) {
 			// Old config syntax (type of item separated in a additional subcategory).
 			Optional<Material> rewardMaterial = materialHelper.matchMaterial(mainConfig.getString(typePath),
 					"config.yml (" + typePath + ")");
@@ -214,6 +214,16 @@ public class RewardParser implements Reloadable {
 	 * @return the array containing the commands to be performed as a reward
 	 */
 	public String[] getCommandRewards(String path, Player player) {
+		return formatCommandRewards(getCommandRewards(path), player);
+	}
+
+	/**
+	 * Extracts the list of commands to be executed as rewards, without replacing the player placeholders.
+	 *
+	 * @param path achievement configuration path
+	 * @return the array containing the commands to be performed as a reward
+	 */
+	public String[] getCommandRewards(String path) {
 		String searchFrom = path + ".Command";
 		if (mainConfig.isConfigurationSection(path + ".Command")) {
 			searchFrom += ".Execute";
@@ -223,15 +233,32 @@ public class RewardParser implements Reloadable {
 		if (commandReward == null) {
 			return new String[0];
 		}
-		commandReward = StringUtils.replaceEach(commandReward,
-				new String[] { "PLAYER_WORLD", "PLAYER_X", "PLAYER_Y", "PLAYER_Z", "PLAYER" },
-				new String[] { player.getWorld().getName(), Integer.toString(player.getLocation().getBlockX()),
-						Integer.toString(player.getLocation().getBlockY()),
-						Integer.toString(player.getLocation().getBlockZ()), player.getName() });
 		// Multiple reward commands can be set, separated by a semicolon and space. Extra parsing needed.
 		return MULTIPLE_REWARD_COMMANDS_SPLITTER.split(commandReward);
 	}
 
+	/**
+	 * Replaces the player placeholders in command rewards.
+	 *
+	 * @param commands the commands to be performed as a reward
+	 * @param player the player to parse commands for
+	 * @return a new array containing the commands specific to the player
+	 */
+	public String[] formatCommandRewards(String[] commands, Player player) {
+		if (commands.length == 0) {
+			return commands;
+		}
+		String[] placeholders = { "PLAYER_WORLD", "PLAYER_X", "PLAYER_Y", "PLAYER_Z", "PLAYER" };
+		String[] values = { player.getWorld().getName(), Integer.toString(player.getLocation().getBlockX()),
+				Integer.toString(player.getLocation().getBlockY()), Integer.toString(player.getLocation().getBlockZ()),
+				player.getName() };
+		String[] playerCommands = new String[commands.length];
+		for (int i = 0; i < commands.length; ++i) {
+			playerCommands[i] = StringUtils.replaceEach(commands[i], placeholders, values);
+		}
+		return playerCommands;
+	}
+
 	/**
 	 * Extracts custom command message from config. Might be null.
 	 *
@@ -259,10 +286,10 @@ public class RewardParser implements Reloadable {
 	 */
 	private int getItemAmount(String path) {
 		int itemAmount = 0;
-		if (mainConfig.getKeys(true).contains(path + ".Item.Amount")) {
+		if (mainConfig.contains(path + ".Item.Amount")) {
 			// Old config syntax.
 			itemAmount = mainConfig.getInt(path + ".Item.Amount", 0);
-		} else if (mainConfig.getKeys(true).contains(path + ".Item")) {
+		} else if (mainConfig.contains(path + ".Item")) {
 			// New config syntax. Name of item and quantity are on the same line, separated by a space.
 			String materialAndQty = StringUtils.normalizeSpace(mainConfig.getString(path + ".Item", ""));
 			String intString = StringUtils.substringBefore(StringUtils.substringAfter(materialAndQty, " "), " ");
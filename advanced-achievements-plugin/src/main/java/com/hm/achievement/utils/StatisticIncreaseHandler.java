@@ -1,7 +1,6 @@
 package com.hm.achievement.utils;
 
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -14,6 +13,8 @@ import org.bukkit.GameMode;
 import org.bukkit.entity.Player;
 
 import com.hm.achievement.category.Category;
+import com.hm.achievement.config.AchievementDefinition;
+import com.hm.achievement.db.CachedStatistic;
 import com.hm.achievement.db.CacheManager;
 import com.hm.achievement.lifecycle.Reloadable;
 import com.hm.achievement.utils.PlayerAdvancedAchievementEvent.PlayerAdvancedAchievementEventBuilder;
@@ -30,7 +31,8 @@ public class StatisticIncreaseHandler implements Reloadable {
 
 	protected final CommentedYamlConfiguration mainConfig;
 	protected final int serverVersion;
-	protected final Map<String, List<Long>> sortedThresholds;
+	protected final Map<String, long[]> sortedThresholds;
+	protected final Map<String, AchievementDefinition> achievementDefinitions;
 	protected final CacheManager cacheManager;
 	protected final RewardParser rewardParser;
 
@@ -41,10 +43,12 @@ public class StatisticIncreaseHandler implements Reloadable {
 
 	@Inject
 	public StatisticIncreaseHandler(@Named("main") CommentedYamlConfiguration mainConfig, int serverVersion,
-			Map<String, List<Long>> sortedThresholds, CacheManager cacheManager, RewardParser rewardParser) {
+			Map<String, long[]> sortedThresholds, Map<String, AchievementDefinition> achievementDefinitions,
+			CacheManager cacheManager, RewardParser rewardParser) {
 		this.mainConfig = mainConfig;
 		this.serverVersion = serverVersion;
 		this.sortedThresholds = sortedThresholds;
+		this.achievementDefinitions = achievementDefinitions;
 		this.cacheManager = cacheManager;
 		this.rewardParser = rewardParser;
 	}
@@ -70,35 +74,107 @@ public class StatisticIncreaseHandler implements Reloadable {
 	 * @param currentValue
 	 */
 	public void checkThresholdsAndAchievements(Player player, String categorySubcategory, long currentValue) {
-		// Iterate through all the different thresholds.
-		for (long threshold : sortedThresholds.get(categorySubcategory)) {
-			// Check whether player has met the threshold.
-			if (currentValue >= threshold) {
-				String achievementPath = categorySubcategory + "." + threshold;
-				String achievementName = mainConfig.getString(achievementPath + ".Name");
-				// Check whether player has received the achievement.
-				if (!cacheManager.hasPlayerAchievement(player.getUniqueId(), achievementName)) {
-					String rewardPath = achievementPath + ".Reward";
-					// Fire achievement event.
-					PlayerAdvancedAchievementEventBuilder playerAdvancedAchievementEventBuilder = new PlayerAdvancedAchievementEventBuilder()
-							.player(player).name(achievementName)
-							.displayName(mainConfig.getString(achievementPath + ".DisplayName"))
-							.message(mainConfig.getString(achievementPath + ".Message"))
-							.commandRewards(rewardParser.getCommandRewards(rewardPath, player))
-							.commandMessage(rewardParser.getCustomCommandMessages(rewardPath))
-							.itemReward(rewardParser.getItemReward(rewardPath))
-							.moneyReward(rewardParser.getRewardAmount(rewardPath, "Money"))
-							.experienceReward(rewardParser.getRewardAmount(rewardPath, "Experience"))
-							.maxHealthReward(rewardParser.getRewardAmount(rewardPath, "IncreaseMaxHealth"))
-							.maxOxygenReward(rewardParser.getRewardAmount(rewardPath, "IncreaseMaxOxygen"));
-
-					Bukkit.getPluginManager().callEvent(playerAdvancedAchievementEventBuilder.build());
+		checkThresholdsAndAchievements(player, categorySubcategory, currentValue, null);
+	}
+
+	/**
+	 * Compares the current value of a cached statistic to the achievement thresholds. Once the thresholds of the
+	 * statistic have been resolved, the common case where the next threshold is not reached involves neither building
+	 * the category path nor looking up the thresholds.
+	 * 
+	 * @param player
+	 * @param category
+	 * @param subcategory null for Normal categories
+	 * @param currentValue
+	 * @param statistic cached statistic tracking the player's progress through the thresholds
+	 */
+	public void checkThresholdsAndAchievements(Player player, Category category, String subcategory, long currentValue,
+			CachedStatistic statistic) {
+		long[] thresholds = statistic.getThresholds();
+		if (thresholds != null) {
+			int nextThreshold = statistic.getNextThreshold(thresholds);
+			if (nextThreshold == thresholds.length || currentValue < thresholds[nextThreshold]) {
+				return;
+			}
+		}
+		checkThresholdsAndAchievements(player, subcategory == null ? category.toString() : category + "." + subcategory,
+				currentValue, statistic);
+	}
+
+	/**
+	 * Compares the current value to the achievement thresholds, starting from the first threshold whose achievement
+	 * the player may not have received yet. In the common case where this threshold is not reached, a single comparison
+	 * is performed. If a threshold is reached, awards the achievement if it wasn't previously received.
+	 * 
+	 * @param player
+	 * @param categorySubcategory
+	 * @param currentValue
+	 * @param statistic cached statistic tracking the player's progress through the thresholds, can be null
+	 */
+	public void checkThresholdsAndAchievements(Player player, String categorySubcategory, long currentValue,
+			CachedStatistic statistic) {
+		if (!player.isOnline()) {
+			// Statistics that were not cached are loaded asynchronously, the player may have left in the meantime.
+			return;
+		}
+		long[] thresholds = sortedThresholds.get(categorySubcategory);
+		int nextThreshold = 0;
+		if (statistic != null) {
+			if (statistic.getThresholds() == thresholds) {
+				nextThreshold = statistic.getNextThreshold(thresholds);
+			} else {
+				// Resolved once, subsequent checks of the statistic compare against the thresholds directly.
+				statistic.setNextThreshold(thresholds, 0);
+			}
+		}
+		// Thresholds sorted in increasing order, all subsequent thresholds fail the condition if the next one does.
+		if (nextThreshold == thresholds.length || currentValue < thresholds[nextThreshold]) {
+			return;
+		}
+		if (!cacheManager.hasLoadedReceivedAchievements(player.getUniqueId())) {
+			// Thresholds are checked again during the next increase, once the received achievements are known.
+			return;
+		}
+		boolean allReceived = true;
+		for (int i = nextThreshold; i < thresholds.length && currentValue >= thresholds[i]; ++i) {
+			AchievementDefinition achievement = achievementDefinitions.get(categorySubcategory + "." + thresholds[i]);
+			// Check whether player has received the achievement.
+			if (cacheManager.hasPlayerAchievement(player.getUniqueId(), achievement.getName())) {
+				if (allReceived) {
+					nextThreshold = i + 1;
 				}
 			} else {
-				// Entries in List sorted in increasing order, all subsequent thresholds will fail the condition.
-				return;
+				// The event may be cancelled, the threshold is therefore checked again next time.
+				allReceived = false;
+				fireAchievementEvent(player, achievement);
 			}
 		}
+		if (statistic != null) {
+			statistic.setNextThreshold(thresholds, nextThreshold);
+		}
+	}
+
+	/**
+	 * Fires the event corresponding to the reception of an achievement.
+	 * 
+	 * @param player
+	 * @param achievement
+	 */
+	protected void fireAchievementEvent(Player player, AchievementDefinition achievement) {
+		PlayerAdvancedAchievementEventBuilder playerAdvancedAchievementEventBuilder = new PlayerAdvancedAchievementEventBuilder()
+				.player(player)
+				.name(achievement.getName())
+				.displayName(achievement.getDisplayName())
+				.message(achievement.getMessage())
+				.commandRewards(rewardParser.formatCommandRewards(achievement.getCommandRewards(), player))
+				.commandMessage(achievement.getCommandMessages())
+				.itemReward(achievement.getItemReward())
+				.moneyReward(achievement.getMoneyReward())
+				.experienceReward(achievement.getExperienceReward())
+				.maxHealthReward(achievement.getMaxHealthReward())
+				.maxOxygenReward(achievement.getMaxOxygenReward());
+
+		Bukkit.getPluginManager().callEvent(playerAdvancedAchievementEventBuilder.build());
 	}
 
 	/**
@@ -0,0 +1,103 @@
+package com.hm.achievement.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConnectionPoolTest {
+
+	private final List<Connection> physicalConnections = new ArrayList<>();
+
+	private ConnectionPool connectionPool;
+
+	@Before
+	public void setUp() {
+		connectionPool = new ConnectionPool(() -> {
+			Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+			physicalConnections.add(connection);
+			return connection;
+		}, Logger.getLogger("PoolTestLogger"), 2, 30000L, 100L);
+	}
+
+	@After
+	public void tearDown() {
+		connectionPool.shutdown();
+	}
+
+	@Test
+	public void shouldReuseConnectionsHandedBack() throws SQLException {
+		try (Connection connection = connectionPool.getConnection()) {
+			assertEquals(1, connectionPool.getActiveConnections());
+		}
+		try (Connection connection = connectionPool.getConnection()) {
+			connection.createStatement().close();
+		}
+
+		assertEquals(1, physicalConnections.size());
+		assertEquals(0, connectionPool.getActiveConnections());
+		assertEquals(1, connectionPool.getIdleConnections());
+		assertEquals(2L, connectionPool.getBorrowCount());
+	}
+
+	@Test
+	public void shouldTimeOutWhenPoolIsExhausted() throws SQLException {
+		try (Connection first = connectionPool.getConnection(); Connection second = connectionPool.getConnection()) {
+			assertNotSame(first, second);
+			connectionPool.getConnection();
+			fail("Pool should not hand out more connections than its maximum size.");
+		} catch (SQLException e) {
+			assertTrue(e.getMessage().contains("Timed out"));
+		}
+		assertEquals(0, connectionPool.getActiveConnections());
+	}
+
+	@Test
+	public void shouldRollBackUnfinishedTransactions() throws SQLException {
+		try (Connection connection = connectionPool.getConnection()) {
+			connection.setAutoCommit(false);
+		}
+		try (Connection connection = connectionPool.getConnection()) {
+			assertTrue(connection.getAutoCommit());
+		}
+	}
+
+	@Test
+	public void shouldCloseDiscardedConnections() throws SQLException {
+		Connection connection = connectionPool.getConnection();
+		connectionPool.discard(connection);
+		connection.close();
+
+		assertTrue(connection.isClosed());
+		assertTrue(physicalConnections.get(0).isClosed());
+		assertEquals(0, connectionPool.getIdleConnections());
+	}
+
+	@Test
+	public void shouldNotExposeConnectionAfterClose() throws SQLException {
+		Connection connection = connectionPool.getConnection();
+		connection.close();
+		// Closing twice must not hand the connection back twice.
+		connection.close();
+
+		assertEquals(1, connectionPool.getIdleConnections());
+		try {
+			connection.createStatement();
+			fail("Closed pooled connections should no longer be usable.");
+		} catch (SQLException e) {
+			assertFalse(physicalConnections.get(0).isClosed());
+		}
+	}
+}
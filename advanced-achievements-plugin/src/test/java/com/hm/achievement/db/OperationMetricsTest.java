@@ -0,0 +1,66 @@
+package com.hm.achievement.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class OperationMetricsTest {
+
+	// The test thread plays the role of the main server thread.
+	private final Thread primaryThread = Thread.currentThread();
+	private final OperationMetrics operationMetrics = new OperationMetrics(Logger.getLogger("MetricsTestLogger"),
+			() -> Thread.currentThread() == primaryThread);
+
+	@After
+	public void tearDown() {
+		operationMetrics.unregisterMBeans();
+	}
+
+	@Test
+	public void shouldApproximatePercentilesAndCountOutcomes() {
+		for (int call = 0; call < 98; ++call) {
+			operationMetrics.record("reading", TimeUnit.MICROSECONDS.toNanos(300), 0, false);
+		}
+		operationMetrics.record("reading", TimeUnit.MILLISECONDS.toNanos(20), 2, false);
+		operationMetrics.record("reading", TimeUnit.MILLISECONDS.toNanos(40), 2, true);
+
+		OperationStatistics statistics = operationMetrics.getStatistics().get("reading");
+		assertEquals(100L, statistics.getCalls());
+		assertEquals(100L, statistics.getPrimaryThreadCalls());
+		assertEquals(4L, statistics.getRetries());
+		assertEquals(1L, statistics.getFailures());
+		// 300 microseconds fall in the bucket up to 512 microseconds.
+		assertEquals(0.512, statistics.getP50Millis(), 0.0001);
+		assertEquals(0.512, statistics.getP95Millis(), 0.0001);
+		assertEquals(32.768, statistics.getP99Millis(), 0.0001);
+		assertEquals(40.0, statistics.getMaxMillis(), 0.0001);
+	}
+
+	@Test
+	public void shouldTagCallsOutsidePrimaryThread() throws InterruptedException {
+		Thread thread = new Thread(() -> operationMetrics.record("writing", 1000L, 0, false));
+		thread.start();
+		thread.join();
+
+		assertEquals(1L, operationMetrics.getStatistics().get("writing").getCalls());
+		assertEquals(0L, operationMetrics.getStatistics().get("writing").getPrimaryThreadCalls());
+	}
+
+	@Test
+	public void shouldExposeStatisticsThroughJmx() throws Exception {
+		operationMetrics.record("checking for an achievement", 1000L, 0, false);
+
+		ObjectName objectName = new ObjectName(
+				"com.hm.achievement:type=DatabaseOperation,name=" + ObjectName.quote("checking for an achievement"));
+		assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+		assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "Calls"));
+	}
+}
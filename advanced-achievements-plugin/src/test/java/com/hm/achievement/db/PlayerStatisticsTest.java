@@ -0,0 +1,117 @@
+package com.hm.achievement.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Test;
+
+import com.hm.achievement.category.Category;
+import com.hm.achievement.category.MultipleAchievements;
+import com.hm.achievement.category.NormalAchievements;
+
+public class PlayerStatisticsTest {
+
+	private static final UUID PLAYER_UUID = UUID.randomUUID();
+
+	private final Queue<CachedStatistic> dirtyStatistics = new ConcurrentLinkedQueue<>();
+	private final PlayerStatistics underTest = new PlayerStatistics(PLAYER_UUID);
+
+	@Test
+	public void shouldRetrieveStatisticsAcrossTableResizes() {
+		CachedStatistic[] breaks = new CachedStatistic[100];
+		for (int subcategoryId = 0; subcategoryId < breaks.length; ++subcategoryId) {
+			breaks[subcategoryId] = newStatistic(MultipleAchievements.BREAKS, subcategoryId, subcategoryId);
+			underTest.put(MultipleAchievements.BREAKS, subcategoryId, breaks[subcategoryId]);
+		}
+		CachedStatistic deaths = newStatistic(NormalAchievements.DEATHS, StatisticKey.NO_SUBCATEGORY, 5L);
+		underTest.put(NormalAchievements.DEATHS, StatisticKey.NO_SUBCATEGORY, deaths);
+
+		for (int subcategoryId = 0; subcategoryId < breaks.length; ++subcategoryId) {
+			assertSame(breaks[subcategoryId], underTest.get(MultipleAchievements.BREAKS, subcategoryId));
+		}
+		assertSame(deaths, underTest.get(NormalAchievements.DEATHS, StatisticKey.NO_SUBCATEGORY));
+		assertNull(underTest.get(MultipleAchievements.BREAKS, breaks.length));
+		assertNull(underTest.get(MultipleAchievements.PLACES, 0));
+		assertNull(underTest.get(NormalAchievements.ARROWS, StatisticKey.NO_SUBCATEGORY));
+		int[] count = { 0 };
+		underTest.forEach(statistic -> ++count[0]);
+		assertEquals(breaks.length + 1, count[0]);
+	}
+
+	@Test
+	public void shouldOnlyBeConsistentOnceAllStatisticsAreWritten() {
+		CachedStatistic deaths = newStatistic(NormalAchievements.DEATHS, StatisticKey.NO_SUBCATEGORY, 1L);
+		underTest.put(NormalAchievements.DEATHS, StatisticKey.NO_SUBCATEGORY, deaths);
+		CachedStatistic breaks = underTest.computeIfAbsent(MultipleAchievements.BREAKS, 3,
+				() -> newStatistic(MultipleAchievements.BREAKS, 3, 2L));
+		assertSame(breaks, underTest.computeIfAbsent(MultipleAchievements.BREAKS, 3, () -> null));
+		assertTrue(underTest.isDatabaseConsistent());
+
+		breaks.increment(1L);
+		assertFalse(underTest.isDatabaseConsistent());
+
+		breaks.prepareDatabaseWrite();
+		assertTrue(underTest.isDatabaseConsistent());
+	}
+
+	@Test
+	public void shouldWriteIncrementsOfStatisticThatFailedToLoad() {
+		CachedStatistic deaths = new CachedStatistic(NormalAchievements.DEATHS, new StatisticKey(PLAYER_UUID),
+				dirtyStatistics, null);
+		underTest.put(NormalAchievements.DEATHS, StatisticKey.NO_SUBCATEGORY, deaths);
+		assertTrue(deaths.startLoading());
+		deaths.addPendingIncrement(3L, statistic -> {
+			throw new AssertionError("Value was never loaded.");
+		});
+		assertFalse(underTest.isDatabaseConsistent());
+
+		deaths.loadingFailed();
+		assertSame(deaths, dirtyStatistics.poll());
+		assertFalse(underTest.isDatabaseConsistent());
+
+		// Pending increments are written as such, the statistic can then be released.
+		deaths.prepareDatabaseWrite();
+		assertEquals(Long.valueOf(3L), deaths.markWritten(deaths.getValue()));
+		assertTrue(underTest.isDatabaseConsistent());
+
+		// The written increments are part of the value loaded later on.
+		deaths.addPendingIncrement(2L, null);
+		deaths.resolve(10L);
+		assertEquals(12L, deaths.getValue());
+		assertEquals(Long.valueOf(2L), deaths.markWritten(deaths.getValue()));
+	}
+
+	@Test
+	public void shouldMergeLoadedAchievementsWithChangesMadeWhilstLoading() {
+		ReceivedAchievements received = ReceivedAchievements.unloaded(64);
+		received.add(1);
+		received.remove(2);
+		assertFalse(received.isLoaded());
+
+		ReceivedAchievements loaded = new ReceivedAchievements(128);
+		loaded.add(2);
+		loaded.add(3);
+		loaded.add(100);
+		received.merge(loaded);
+
+		assertTrue(received.isLoaded());
+		assertTrue(received.contains(1));
+		assertFalse(received.contains(2));
+		assertTrue(received.contains(3));
+		assertTrue(received.contains(100));
+		assertEquals(3, received.size());
+	}
+
+	private CachedStatistic newStatistic(Category category, int subcategoryId, long value) {
+		StatisticKey key = subcategoryId == StatisticKey.NO_SUBCATEGORY ? new StatisticKey(PLAYER_UUID)
+				: new StatisticKey(PLAYER_UUID, subcategoryId, "subcategory" + subcategoryId);
+		return new CachedStatistic(category, key, value, true, dirtyStatistics, null);
+	}
+}
@@ -0,0 +1,125 @@
+package com.hm.achievement.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+public class RetrySchedulerTest {
+
+	private final Logger logger = Logger.getLogger("RetrySchedulerTestLogger");
+	private final CircuitBreaker circuitBreaker = new CircuitBreaker(logger, 2, 60000L);
+	private final RetryScheduler retryScheduler = new RetryScheduler(logger, circuitBreaker,
+			new OperationMetrics(logger));
+
+	@After
+	public void tearDown() {
+		retryScheduler.shutdown();
+	}
+
+	@Test
+	public void shouldOpenAfterConsecutiveFailures() {
+		circuitBreaker.recordFailure();
+		assertTrue(circuitBreaker.allowRequest());
+		circuitBreaker.recordSuccess();
+		circuitBreaker.recordFailure();
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+		circuitBreaker.recordFailure();
+
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		assertFalse(circuitBreaker.allowRequest());
+		assertEquals(1L, circuitBreaker.getOpenCount());
+	}
+
+	@Test
+	public void shouldBufferWritesWhilstOpen() throws InterruptedException {
+		AtomicBoolean reachable = new AtomicBoolean();
+		AtomicInteger writes = new AtomicInteger();
+		List<Boolean> outcomes = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch written = new CountDownLatch(2);
+		List<Thread> writingThreads = Collections.synchronizedList(new ArrayList<>());
+		SQLWriteOperation operation = () -> {
+			if (!reachable.get()) {
+				throw new SQLException("Database unreachable.");
+			}
+			writes.incrementAndGet();
+			writingThreads.add(Thread.currentThread());
+			written.countDown();
+		};
+
+		// First attempts fail and open the breaker, retries are then buffered.
+		retryScheduler.execute(MoreExecutors.directExecutor(), operation, "testing", outcomes::add);
+		retryScheduler.execute(MoreExecutors.directExecutor(), operation, "testing", outcomes::add);
+		circuitBreaker.recordFailure();
+		retryScheduler.execute(MoreExecutors.directExecutor(), operation, "testing", outcomes::add);
+
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		assertEquals(1, retryScheduler.getBufferedWriteCount());
+		assertTrue(outcomes.isEmpty());
+
+		// A successful write closes the breaker and resumes the buffered one, but not on the calling thread.
+		reachable.set(true);
+		circuitBreaker.recordSuccess();
+		retryScheduler.execute(MoreExecutors.directExecutor(), operation, "testing", outcomes::add);
+
+		assertTrue(written.await(5, TimeUnit.SECONDS));
+		assertEquals(0, retryScheduler.getBufferedWriteCount());
+		assertEquals(Thread.currentThread(), writingThreads.get(0));
+		assertNotEquals(Thread.currentThread(), writingThreads.get(1));
+	}
+
+	@Test
+	public void shouldRecordUnexpectedProbeErrorAsFailure() throws InterruptedException {
+		CircuitBreaker probedBreaker = new CircuitBreaker(logger, 1, 1L);
+		RetryScheduler probedScheduler = new RetryScheduler(logger, probedBreaker, new OperationMetrics(logger));
+		probedBreaker.recordFailure();
+		Thread.sleep(5L);
+		List<Boolean> outcomes = new ArrayList<>();
+
+		probedScheduler.execute(MoreExecutors.directExecutor(), () -> {
+			throw new IllegalStateException("Unexpected error.");
+		}, "testing", outcomes::add);
+		probedScheduler.shutdown();
+
+		// The probe failed, the breaker must not remain half-open.
+		assertEquals(CircuitBreaker.State.OPEN, probedBreaker.getState());
+		assertEquals(1, outcomes.size());
+		assertFalse(outcomes.get(0));
+	}
+
+	@Test
+	public void shouldAttemptPendingRetriesOnShutdown() {
+		AtomicBoolean reachable = new AtomicBoolean();
+		List<Boolean> outcomes = new ArrayList<>();
+		SQLWriteOperation operation = () -> {
+			if (!reachable.get()) {
+				throw new SQLException("Database unreachable.");
+			}
+		};
+
+		retryScheduler.execute(MoreExecutors.directExecutor(), operation, "testing", outcomes::add);
+		assertEquals(1, retryScheduler.getPendingRetryCount());
+
+		reachable.set(true);
+		retryScheduler.shutdown();
+
+		assertEquals(0, retryScheduler.getPendingRetryCount());
+		assertEquals(1, outcomes.size());
+		assertTrue(outcomes.get(0));
+	}
+}
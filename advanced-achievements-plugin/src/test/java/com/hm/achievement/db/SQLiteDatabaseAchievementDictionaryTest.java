@@ -0,0 +1,92 @@
+package com.hm.achievement.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.hm.achievement.db.data.AwardedDBAchievement;
+
+import utilities.MockUtility;
+
+/**
+ * Class for testing the achievement dictionary of the SQLite database.
+ *
+ * @author Pyves
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SQLiteDatabaseAchievementDictionaryTest extends SQLiteDatabaseTest {
+
+	@ClassRule
+	public static final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static final UUID migratedUUID = UUID.randomUUID();
+	private static final UUID otherUUID = UUID.randomUUID();
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		MockUtility mockUtility = MockUtility.setUp()
+				.withPluginDescription()
+				.withLogger()
+				.withDataFolder(temporaryFolder.getRoot())
+				.withPluginFile("config.yml");
+		initDB(mockUtility);
+
+		// Populate the achievements table, then restart with the achievement dictionary.
+		db.registerAchievement(migratedUUID, "MigratedAchievement", "MigratedMessage");
+		db.registerAchievement(otherUUID, "MigratedAchievement", "MigratedMessage");
+		db.mainConfig.set("AchievementDictionary", true);
+		restartDB();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		if (db != null) {
+			db.shutdown();
+		}
+	}
+
+	@Test
+	public void testMigratedAchievements() {
+		assertEquals(Collections.singletonList("MigratedAchievement"), db.getPlayerAchievementNamesList(migratedUUID));
+		assertTrue(db.hasPlayerAchievement(migratedUUID, "MigratedAchievement"));
+		assertNotNull(db.getPlayerAchievementDate(migratedUUID, "MigratedAchievement"));
+		assertEquals(2, db.getAchievementsRecipientList("MigratedAchievement").size());
+
+		List<AwardedDBAchievement> achievements = db.getPlayerAchievementsList(migratedUUID);
+		assertEquals(1, achievements.size());
+		assertEquals("MigratedMessage", achievements.get(0).getMessage());
+	}
+
+	@Test
+	public void testRegisterAndDeleteAchievement() {
+		UUID uuid = UUID.randomUUID();
+		assertFalse(db.hasPlayerAchievement(uuid, "UnknownAchievement"));
+		assertNull(db.getPlayerAchievementDate(uuid, "UnknownAchievement"));
+		assertTrue(db.getAchievementsRecipientList("UnknownAchievement").isEmpty());
+
+		db.registerAchievement(uuid, "NewAchievement", "NewMessage");
+		db.registerAchievement(uuid, "NewAchievement", "NewMessage");
+		db.writeUnwrittenAchievements();
+		assertTrue(db.hasPlayerAchievement(uuid, "NewAchievement"));
+		assertEquals(Integer.valueOf(1), db.getPlayersAchievementsAmount().get(uuid));
+		assertEquals(1, db.getPlayerAchievementsAmount(uuid));
+
+		db.deletePlayerAchievement(uuid, "NewAchievement");
+		assertFalse(db.hasPlayerAchievement(uuid, "NewAchievement"));
+		assertTrue(db.getPlayerAchievementNamesList(uuid).isEmpty());
+	}
+}
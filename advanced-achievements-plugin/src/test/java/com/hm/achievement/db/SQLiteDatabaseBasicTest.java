@@ -6,7 +6,10 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.sql.Connection;
 import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -22,6 +25,8 @@ import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import com.hm.achievement.category.MultipleAchievements;
+import com.hm.achievement.category.NormalAchievements;
 import com.hm.achievement.db.data.AwardedDBAchievement;
 
 import utilities.MockUtility;
@@ -123,6 +128,55 @@ public class SQLiteDatabaseBasicTest extends SQLiteDatabaseTest {
 		assertEquals(0, db.getPlayerAchievementsAmount(testUUID));
 	}
 
+	@Test
+	public void testUnwrittenAchievements() {
+		db.registerAchievement(testUUID, testAchievement, testAchievementMsg);
+
+		assertTrue(db.hasPlayerAchievement(testUUID, testAchievement));
+		assertNotNull(db.getPlayerAchievementDate(testUUID, testAchievement));
+		assertEquals(Collections.singletonList(testAchievement), db.getPlayerAchievementNamesList(testUUID));
+		assertEquals(1, db.getPlayerAchievementsList(testUUID).size());
+		assertEquals(1, db.getAchievementsRecipientList(testAchievement).size());
+
+		assertEquals(1, db.getPlayerAchievementsAmount(testUUID));
+		assertEquals(Integer.valueOf(1), db.getPlayersAchievementsAmount().get(testUUID));
+		assertEquals(Integer.valueOf(1), db.getTopList(0L).get(testUUID.toString()));
+		// Counting queries do not write the pending achievements.
+		assertEquals(1, db.getUnwrittenAchievements().size());
+
+		db.writeUnwrittenAchievements();
+
+		assertTrue(db.getUnwrittenAchievements().isEmpty());
+		assertEquals(1, db.getPlayerAchievementsAmount(testUUID));
+		assertEquals(1, db.getPlayerAchievementsList(testUUID).size());
+	}
+
+	@Test
+	public void testUnwrittenAchievementReceivedAgain() {
+		registerAchievement(testUUID, testAchievement, testAchievementMsg);
+		db.registerAchievement(testUUID, testAchievement, testAchievementMsg, true);
+		db.registerAchievement(testUUID, "Other", testAchievementMsg, false);
+		// Replaces the pending achievement, which was not written yet and therefore remains counted.
+		db.registerAchievement(testUUID, "Other", testAchievementMsg, true);
+
+		assertEquals(2, db.getPlayerAchievementsAmount(testUUID));
+		assertEquals(Integer.valueOf(2), db.getTopList(0L).get(testUUID.toString()));
+
+		db.writeUnwrittenAchievements();
+
+		assertEquals(2, db.getPlayerAchievementsAmount(testUUID));
+	}
+
+	@Test
+	public void testDeleteUnwrittenAchievement() {
+		db.registerAchievement(testUUID, testAchievement, testAchievementMsg);
+		db.deletePlayerAchievement(testUUID, testAchievement);
+		db.writeUnwrittenAchievements();
+
+		assertFalse(db.hasPlayerAchievement(testUUID, testAchievement));
+		assertEquals(0, db.getPlayerAchievementsAmount(testUUID));
+	}
+
 	@Test
 	public void testConnectionUpdate() {
 		assertEquals(0, db.getConnectionsAmount(testUUID));
@@ -206,6 +260,64 @@ public class SQLiteDatabaseBasicTest extends SQLiteDatabaseTest {
 		assertNull(db.getPlayerConnectionDate(testUUID));
 	}
 
+	@Test
+	public void testUpsertStatisticsInChunks() throws Exception {
+		String table = db.getPrefix() + MultipleAchievements.BREAKS.toDBName();
+		String[] columns = { "playername", MultipleAchievements.BREAKS.toSubcategoryDBName(),
+				MultipleAchievements.BREAKS.toDBName() };
+		// More rows than fit in a single SQLite statement, with a partial last chunk.
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < 700; ++i) {
+			rows.add(new Object[] { testUUID.toString(), "stone" + i, (long) i });
+		}
+		try (Connection conn = db.getSQLWriteConnection()) {
+			db.upsertStatistics(conn, table, columns, rows);
+			db.upsertStatistics(conn, table, columns,
+					Collections.singletonList(new Object[] { testUUID.toString(), "stone42", 1000L }));
+		}
+
+		assertEquals(699L, db.getMultipleAchievementAmount(testUUID, MultipleAchievements.BREAKS, "stone699"));
+		assertEquals(1000L, db.getMultipleAchievementAmount(testUUID, MultipleAchievements.BREAKS, "stone42"));
+	}
+
+	@Test
+	public void testGetAchievementAmountsInBulk() throws Exception {
+		UUID uuid = UUID.randomUUID();
+		try (Connection conn = db.getSQLWriteConnection()) {
+			db.upsertStatistics(conn, db.getPrefix() + NormalAchievements.DEATHS.toDBName(),
+					new String[] { "playername", NormalAchievements.DEATHS.toDBName() },
+					Collections.singletonList(new Object[] { uuid.toString(), 7L }));
+			db.upsertStatistics(conn, db.getPrefix() + MultipleAchievements.BREAKS.toDBName(),
+					new String[] { "playername", MultipleAchievements.BREAKS.toSubcategoryDBName(),
+							MultipleAchievements.BREAKS.toDBName() },
+					Arrays.asList(new Object[] { uuid.toString(), "stone", 3L },
+							new Object[] { uuid.toString(), "dirt", 5L }));
+		}
+
+		Map<NormalAchievements, Long> normalAmounts = db.getNormalAchievementAmounts(uuid);
+		assertEquals(Collections.singletonMap(NormalAchievements.DEATHS, 7L), normalAmounts);
+		Map<String, Long> breaks = db.getMultipleAchievementAmounts(uuid).get(MultipleAchievements.BREAKS);
+		assertEquals(2, breaks.size());
+		assertEquals(Long.valueOf(3L), breaks.get("stone"));
+		assertEquals(Long.valueOf(5L), breaks.get("dirt"));
+	}
+
+	@Test
+	public void testAddToStatistics() throws Exception {
+		UUID uuid = UUID.randomUUID();
+		String table = db.getPrefix() + MultipleAchievements.BREAKS.toDBName();
+		String[] columns = { "playername", MultipleAchievements.BREAKS.toSubcategoryDBName(),
+				MultipleAchievements.BREAKS.toDBName() };
+		try (Connection conn = db.getSQLWriteConnection()) {
+			db.addToStatistics(conn, table, columns, Collections.singletonList(new Object[] { uuid, "stone", 3L }));
+			db.addToStatistics(conn, table, columns,
+					Arrays.asList(new Object[] { uuid, "stone", 4L }, new Object[] { uuid, "dirt", 5L }));
+		}
+
+		assertEquals(7L, db.getMultipleAchievementAmount(uuid, MultipleAchievements.BREAKS, "stone"));
+		assertEquals(5L, db.getMultipleAchievementAmount(uuid, MultipleAchievements.BREAKS, "dirt"));
+	}
+
 	private String createDateString() {
 		return new Date(System.currentTimeMillis()).toString();
 	}
@@ -0,0 +1,90 @@
+package com.hm.achievement.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.hm.achievement.category.MultipleAchievements;
+import com.hm.achievement.category.NormalAchievements;
+
+import utilities.MockUtility;
+
+/**
+ * Class for testing the binary UUID storage of the SQLite database.
+ *
+ * @author Pyves
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SQLiteDatabaseBinaryUUIDTest extends SQLiteDatabaseTest {
+
+	@ClassRule
+	public static final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static final UUID migratedUUID = UUID.randomUUID();
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		MockUtility mockUtility = MockUtility.setUp()
+				.withPluginDescription()
+				.withLogger()
+				.withDataFolder(temporaryFolder.getRoot())
+				.withPluginFile("config.yml");
+		initDB(mockUtility);
+
+		// Populate tables storing UUIDs as strings, then restart with binary UUIDs.
+		db.registerAchievement(migratedUUID, "MigratedAchievement", "MigratedMessage");
+		try (Connection conn = db.getSQLWriteConnection()) {
+			db.upsertStatistics(conn, db.getPrefix() + NormalAchievements.DEATHS.toDBName(),
+					new String[] { "playername", NormalAchievements.DEATHS.toDBName() },
+					Collections.singletonList(new Object[] { migratedUUID.toString(), 7L }));
+		}
+		db.mainConfig.set("BinaryUUIDStorage", true);
+		restartDB();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		if (db != null) {
+			db.shutdown();
+		}
+	}
+
+	@Test
+	public void testMigratedData() {
+		assertEquals(Collections.singletonList("MigratedAchievement"), db.getPlayerAchievementNamesList(migratedUUID));
+		assertTrue(db.hasPlayerAchievement(migratedUUID, "MigratedAchievement"));
+		assertEquals(Integer.valueOf(1), db.getPlayersAchievementsAmount().get(migratedUUID));
+		assertEquals(7L, db.getNormalAchievementAmount(migratedUUID, NormalAchievements.DEATHS));
+	}
+
+	@Test
+	public void testWriteStatistics() throws Exception {
+		Map<MultipleAchievements, List<Object[]>> multipleRows = new EnumMap<>(MultipleAchievements.class);
+		multipleRows.put(MultipleAchievements.CRAFTS,
+				Collections.singletonList(new Object[] { testUUID, "diamond_pickaxe", 2L }));
+		Map<NormalAchievements, List<Object[]>> normalRows = new EnumMap<>(NormalAchievements.class);
+		normalRows.put(NormalAchievements.ARROWS, Collections.singletonList(new Object[] { testUUID, 11L }));
+		try (Connection conn = db.getSQLWriteConnection()) {
+			db.writeStatistics(conn, multipleRows, normalRows);
+		}
+
+		assertEquals(11L, db.getNormalAchievementAmount(testUUID, NormalAchievements.ARROWS));
+		assertEquals(2L, db.getMultipleAchievementAmount(testUUID, MultipleAchievements.CRAFTS, "diamond_pickaxe"));
+		assertEquals(2L, (long) db.getMultipleAchievementAmounts(testUUID).get(MultipleAchievements.CRAFTS)
+				.get("diamond_pickaxe"));
+	}
+}
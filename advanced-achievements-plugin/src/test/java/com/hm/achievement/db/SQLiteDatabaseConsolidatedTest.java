@@ -0,0 +1,96 @@
+package com.hm.achievement.db;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.hm.achievement.category.MultipleAchievements;
+import com.hm.achievement.category.NormalAchievements;
+
+import utilities.MockUtility;
+
+/**
+ * Class for testing the consolidated statistics table of the SQLite database.
+ *
+ * @author Pyves
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SQLiteDatabaseConsolidatedTest extends SQLiteDatabaseTest {
+
+	@ClassRule
+	public static final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static final UUID migratedUUID = UUID.randomUUID();
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		MockUtility mockUtility = MockUtility.setUp()
+				.withPluginDescription()
+				.withLogger()
+				.withDataFolder(temporaryFolder.getRoot())
+				.withPluginFile("config.yml");
+		initDB(mockUtility);
+
+		// Populate per-category tables, then restart with the consolidated table.
+		try (Connection conn = db.getSQLWriteConnection()) {
+			db.upsertStatistics(conn, db.getPrefix() + NormalAchievements.DEATHS.toDBName(),
+					new String[] { "playername", NormalAchievements.DEATHS.toDBName() },
+					Collections.singletonList(new Object[] { migratedUUID.toString(), 7L }));
+			db.upsertStatistics(conn, db.getPrefix() + MultipleAchievements.BREAKS.toDBName(),
+					new String[] { "playername", MultipleAchievements.BREAKS.toSubcategoryDBName(),
+							MultipleAchievements.BREAKS.toDBName() },
+					Arrays.asList(new Object[] { migratedUUID.toString(), "stone", 3L },
+							new Object[] { migratedUUID.toString(), "dirt", 5L }));
+		}
+		db.mainConfig.set("ConsolidatedStatistics", true);
+		restartDB();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		if (db != null) {
+			db.shutdown();
+		}
+	}
+
+	@Test
+	public void testMigratedStatistics() {
+		assertEquals(7L, db.getNormalAchievementAmount(migratedUUID, NormalAchievements.DEATHS));
+		assertEquals(5L, db.getMultipleAchievementAmount(migratedUUID, MultipleAchievements.BREAKS, "dirt"));
+
+		Map<String, Long> breaks = db.getMultipleAchievementAmounts(migratedUUID).get(MultipleAchievements.BREAKS);
+		assertEquals(2, breaks.size());
+		assertEquals(Long.valueOf(3L), breaks.get("stone"));
+	}
+
+	@Test
+	public void testWriteStatistics() throws Exception {
+		Map<MultipleAchievements, List<Object[]>> multipleRows = new EnumMap<>(MultipleAchievements.class);
+		multipleRows.put(MultipleAchievements.CRAFTS,
+				Collections.singletonList(new Object[] { testUUID.toString(), "diamond_pickaxe", 2L }));
+		Map<NormalAchievements, List<Object[]>> normalRows = new EnumMap<>(NormalAchievements.class);
+		normalRows.put(NormalAchievements.ARROWS, Collections.singletonList(new Object[] { testUUID.toString(), 11L }));
+		try (Connection conn = db.getSQLWriteConnection()) {
+			db.writeStatistics(conn, multipleRows, normalRows);
+		}
+
+		assertEquals(11L, db.getNormalAchievementAmount(testUUID, NormalAchievements.ARROWS));
+		assertEquals(2L, db.getMultipleAchievementAmount(testUUID, MultipleAchievements.CRAFTS, "diamond_pickaxe"));
+		assertEquals(0L, db.getMultipleAchievementAmount(testUUID, MultipleAchievements.CRAFTS, "stick"));
+		assertEquals(Collections.singletonMap(NormalAchievements.ARROWS, 11L), db.getNormalAchievementAmounts(testUUID));
+	}
+}
@@ -0,0 +1,84 @@
+package com.hm.achievement.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.hm.achievement.category.NormalAchievements;
+
+import utilities.MockUtility;
+
+/**
+ * Class for testing the replay of a journal left by a previous run when the SQLite database is initialised.
+ *
+ * @author Pyves
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SQLiteDatabaseJournalReplayTest extends SQLiteDatabaseTest {
+
+	@ClassRule
+	public static final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static final UUID journaledUUID = UUID.randomUUID();
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		MockUtility mockUtility = MockUtility.setUp()
+				.withPluginDescription()
+				.withLogger()
+				.withDataFolder(temporaryFolder.getRoot())
+				.withPluginFile("config.yml");
+		initDB(mockUtility);
+		// Value written by another server sharing the database.
+		try (Connection conn = db.getSQLWriteConnection()) {
+			db.upsertStatistics(conn, db.getPrefix() + NormalAchievements.DEATHS.toDBName(),
+					new String[] { "playername", NormalAchievements.DEATHS.toDBName() },
+					Collections.singletonList(new Object[] { journaledUUID.toString(), 10L }));
+		}
+		db.shutdown();
+
+		WriteAheadJournal journal = new WriteAheadJournal(new File(temporaryFolder.getRoot(), "journal.dat"),
+				Logger.getLogger("DBTestLogger"));
+		journal.open();
+		journal.appendStatistic(NormalAchievements.DEATHS, new StatisticKey(journaledUUID), 3L, 2L, false);
+		journal.appendStatistic(NormalAchievements.ARROWS, new StatisticKey(journaledUUID), 7L, 0L, true);
+		journal.appendAchievement(journaledUUID, "JournaledAchievement", "Message", 1000L);
+		journal.close();
+
+		// A new instance whose parameters have never been extracted, as when the plugin is loaded.
+		createDB(mockUtility);
+		db.mainConfig.set("WriteAheadJournal", true);
+		db.mainConfig.set("DeltaStatisticWrites", true);
+		db.setWriteAheadJournal(journal);
+		startDB();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		if (db != null) {
+			db.shutdown();
+		}
+	}
+
+	@Test
+	public void testJournalReplayedOnInitialisation() {
+		// Increments are added to the values written by other servers, overwritten values replace them.
+		assertEquals(12L, db.getNormalAchievementAmount(journaledUUID, NormalAchievements.DEATHS));
+		assertEquals(7L, db.getNormalAchievementAmount(journaledUUID, NormalAchievements.ARROWS));
+		assertEquals(Collections.singletonList("JournaledAchievement"), db.getPlayerAchievementNamesList(journaledUUID));
+		assertFalse(db.getUnwrittenAchievements().stream().anyMatch(a -> journaledUUID.equals(a.getPlayer())));
+	}
+}
@@ -87,15 +87,14 @@ public class SQLiteDatabaseNullSafetyTest extends SQLiteDatabaseTest {
 		String sql = "REPLACE INTO achievements VALUES (?,?,?,?)";
 
 		((SQLWriteOperation) () -> {
-			Connection conn = db.getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			try (Connection conn = db.getSQLWriteConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 				ps.setObject(1, null);
 				ps.setString(2, testAchievement);
 				ps.setString(3, testAchievementMsg);
 				ps.setDate(4, new Date(System.currentTimeMillis()));
 				ps.execute();
 			}
-		}).executeOperation(db.pool, null, "registering an achievement with null UUID");
+		}).executeOperation(db.retryScheduler, db.pool, "registering an achievement with null UUID");
 	}
 
 	@Test
@@ -0,0 +1,74 @@
+package com.hm.achievement.db;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import utilities.MockUtility;
+
+/**
+ * Class for testing the performance profile of the SQLite database.
+ *
+ * @author Pyves
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SQLiteDatabasePerformanceProfileTest extends SQLiteDatabaseTest {
+
+	@ClassRule
+	public static final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		MockUtility mockUtility = MockUtility.setUp()
+				.withPluginDescription()
+				.withLogger()
+				.withDataFolder(temporaryFolder.getRoot())
+				.withPluginFile("config.yml");
+		initDB(mockUtility);
+
+		db.mainConfig.set("SQLitePerformanceProfile", true);
+		restartDB();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		if (db != null) {
+			db.shutdown();
+		}
+	}
+
+	@Test
+	public void testPragmas() throws SQLException {
+		try (Connection conn = db.getSQLConnection(); Statement st = conn.createStatement()) {
+			assertEquals("wal", getPragma(st, "journal_mode"));
+			assertEquals("1", getPragma(st, "synchronous"));
+			assertEquals("-8192", getPragma(st, "cache_size"));
+		}
+		assertEquals(1, db.getWriteThreads(4));
+	}
+
+	@Test
+	public void testWriteAndRead() {
+		registerAchievement();
+
+		assertEquals(1, db.getPlayerAchievementsAmount(testUUID));
+	}
+
+	private static String getPragma(Statement st, String pragma) throws SQLException {
+		try (ResultSet rs = st.executeQuery("PRAGMA " + pragma)) {
+			rs.next();
+			return rs.getString(1);
+		}
+	}
+}
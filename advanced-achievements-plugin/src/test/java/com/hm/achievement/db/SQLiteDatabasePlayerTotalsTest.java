@@ -0,0 +1,113 @@
+package com.hm.achievement.db;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import utilities.MockUtility;
+
+/**
+ * Class for testing the player totals tables of the SQLite database.
+ *
+ * @author Pyves
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SQLiteDatabasePlayerTotalsTest extends SQLiteDatabaseTest {
+
+	private static final UUID OLD_UUID = UUID.randomUUID();
+	private static final long OLD_DATE = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(30);
+
+	@ClassRule
+	public static final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		MockUtility mockUtility = MockUtility.setUp()
+				.withPluginDescription()
+				.withLogger()
+				.withDataFolder(temporaryFolder.getRoot())
+				.withPluginFile("config.yml");
+		initDB(mockUtility);
+
+		// Achievements received before the totals are enabled must be counted when the tables are built.
+		db.registerAchievement(OLD_UUID, "Old1", "Message", OLD_DATE);
+		db.registerAchievement(OLD_UUID, "Old2", "Message", OLD_DATE);
+		db.writeUnwrittenAchievements();
+		db.mainConfig.set("PlayerTotals", true);
+		restartDB();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		if (db != null) {
+			db.shutdown();
+		}
+	}
+
+	@Test
+	public void testTotalsMaintainedOnWritesAndDeletions() {
+		assertEquals(2, db.getPlayerAchievementsAmount(OLD_UUID));
+
+		UUID uuid = UUID.randomUUID();
+		registerAchievement(uuid, "New1", "Message");
+		registerAchievement(uuid, "New2", "Message");
+		registerAchievement(uuid, "New3", "Message");
+		// Receiving an achievement again replaces it rather than counting it twice.
+		registerAchievement(uuid, "New3", "Message");
+		assertEquals(3, db.getPlayerAchievementsAmount(uuid));
+		assertEquals(Integer.valueOf(3), db.getPlayersAchievementsAmount().get(uuid));
+
+		Map<String, Integer> topList = db.getTopList(0L);
+		assertEquals(Integer.valueOf(3), topList.get(uuid.toString()));
+		assertEquals(Integer.valueOf(2), topList.get(OLD_UUID.toString()));
+
+		Map<String, Integer> weekList = db.getTopList(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(7));
+		assertEquals(Integer.valueOf(3), weekList.get(uuid.toString()));
+		assertEquals(null, weekList.get(OLD_UUID.toString()));
+
+		db.deletePlayerAchievement(uuid, "New1");
+		assertEquals(2, db.getPlayerAchievementsAmount(uuid));
+		db.deletePlayerAchievement(uuid, "New2");
+		db.deletePlayerAchievement(uuid, "New3");
+		assertEquals(0, db.getPlayerAchievementsAmount(uuid));
+		assertEquals(null, db.getTopList(0L).get(uuid.toString()));
+	}
+
+	@Test
+	public void testTotalsMovedWhenReceivedAgain() {
+		UUID uuid = UUID.randomUUID();
+		registerAchievement(uuid, "Moved", "Message", OLD_DATE);
+		registerAchievement(uuid, "Kept", "Message", OLD_DATE);
+		long weekStart = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(7);
+		assertEquals(null, db.getTopList(weekStart).get(uuid.toString()));
+
+		registerAchievement(uuid, "Moved", "Message");
+		assertEquals(2, db.getPlayerAchievementsAmount(uuid));
+		assertEquals(Integer.valueOf(1), db.getTopList(weekStart).get(uuid.toString()));
+		assertEquals(Integer.valueOf(2), db.getTopList(0L).get(uuid.toString()));
+	}
+
+	@Test
+	public void testRebuild() {
+		UUID uuid = UUID.randomUUID();
+		registerAchievement(uuid, "Rebuilt", "Message");
+		int players = db.getPlayersAchievementsAmount().size();
+
+		AtomicInteger rebuiltPlayers = new AtomicInteger(-1);
+		db.rebuildPlayerTotals(rebuiltPlayers::set);
+		assertEquals(players, rebuiltPlayers.get());
+		assertEquals(1, db.getPlayerAchievementsAmount(uuid));
+		assertEquals(2, db.getPlayerAchievementsAmount(OLD_UUID));
+	}
+}
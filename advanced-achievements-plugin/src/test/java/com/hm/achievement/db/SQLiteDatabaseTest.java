@@ -8,6 +8,8 @@ import java.util.logging.Logger;
 
 import com.google.common.util.concurrent.MoreExecutors;
 
+import com.hm.achievement.exception.PluginLoadError;
+
 import utilities.MockUtility;
 
 public class SQLiteDatabaseTest {
@@ -19,6 +21,11 @@ public class SQLiteDatabaseTest {
 	final String testAchievementMsg = "TestMessage";
 
 	static void initDB(MockUtility mockUtility) throws Exception {
+		createDB(mockUtility);
+		startDB();
+	}
+
+	static void createDB(MockUtility mockUtility) throws Exception {
 		Logger logger = Logger.getLogger("DBTestLogger");
 		db = new SQLiteDatabaseManager(mockUtility.getLoadedConfig("config.yml"), logger, Collections.emptyMap(),
 				new DatabaseUpdater(logger, 11, null), mockUtility.getPluginMock()) {
@@ -29,10 +36,25 @@ public class SQLiteDatabaseTest {
 				pool = MoreExecutors.newDirectExecutorService();
 			}
 		};
+	}
+
+	/**
+	 * Starts the database in the same order as PluginLoader: parameters are only extracted once initialised.
+	 *
+	 * @throws PluginLoadError
+	 */
+	static void startDB() throws PluginLoadError {
 		db.initialise();
 		db.extractConfigurationParameters();
 	}
 
+	static void restartDB() throws PluginLoadError {
+		db.shutdown();
+		// The plugin is never restarted in place, the executor it shut down is replaced as if it were a new instance.
+		db.pool = MoreExecutors.newDirectExecutorService();
+		startDB();
+	}
+
 	void registerAchievement() {
 		registerAchievement(testUUID, testAchievement, testAchievementMsg);
 	}
@@ -40,21 +62,22 @@ public class SQLiteDatabaseTest {
 	void registerAchievement(UUID uuid, String ach, String msg) {
 		System.out.println("Saving test achievement: " + uuid + " | " + ach + " | " + msg);
 		db.registerAchievement(uuid, ach, msg);
+		db.writeUnwrittenAchievements();
 	}
 
 	void registerAchievement(UUID uuid, String ach, String msg, long date) {
 		System.out.println("Saving test achievement: " + uuid + " | " + ach + " | " + msg);
 		db.registerAchievement(uuid, ach, msg, date);
+		db.writeUnwrittenAchievements();
 	}
 
 	void clearDatabase() {
 		String sql = "DELETE FROM achievements";
 
 		((SQLWriteOperation) () -> {
-			Connection conn = db.getSQLConnection();
-			try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			try (Connection conn = db.getSQLWriteConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 				ps.execute();
 			}
-		}).executeOperation(db.pool, null, "Clearing achievements table");
+		}).executeOperation(db.retryScheduler, db.pool, "Clearing achievements table");
 	}
 }
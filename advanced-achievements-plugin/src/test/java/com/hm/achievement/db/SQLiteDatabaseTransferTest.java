@@ -0,0 +1,73 @@
+package com.hm.achievement.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import utilities.MockUtility;
+
+/**
+ * Class for testing the export and import of the SQLite database.
+ *
+ * @author Pyves
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SQLiteDatabaseTransferTest extends SQLiteDatabaseTest {
+
+	@ClassRule
+	public static final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		MockUtility mockUtility = MockUtility.setUp()
+				.withPluginDescription()
+				.withLogger()
+				.withDataFolder(temporaryFolder.getRoot())
+				.withPluginFile("config.yml");
+		initDB(mockUtility);
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		if (db != null) {
+			db.shutdown();
+		}
+	}
+
+	@Test
+	public void testExportAndImport() throws Exception {
+		Logger logger = Logger.getLogger("DBTestLogger");
+		DatabaseTransfer databaseTransfer = new DatabaseTransfer(db, new DatabaseUpdater(logger, 11, null), logger);
+		File directory = temporaryFolder.newFolder("export");
+		UUID uuid = UUID.randomUUID();
+		registerAchievement(uuid, "Exported1", "Message", 1000L);
+		registerAchievement(uuid, "Exported2", "Message", 2000L);
+		db.updateAndGetConnection(uuid, "2019-01-01");
+
+		List<String> messages = new ArrayList<>();
+		assertEquals(3L, databaseTransfer.exportTables(directory, messages::add));
+		assertTrue(new File(directory, "achievements" + DatabaseTransfer.FILE_EXTENSION).isFile());
+		assertTrue(messages.contains("Exported 2 rows from table achievements."));
+
+		clearDatabase();
+		registerAchievement(uuid, "NotExported", "Message", 3000L);
+		assertEquals(3L, databaseTransfer.importTables(directory, messages::add));
+
+		assertEquals(2, db.getPlayerAchievementsAmount(uuid));
+		assertEquals(1000L, db.getPlayerAchievementsList(uuid).get(0).getDateAwarded());
+		assertEquals(2, db.updateAndGetConnection(uuid, "2019-01-02"));
+	}
+}
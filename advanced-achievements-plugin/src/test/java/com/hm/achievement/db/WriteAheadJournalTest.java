@@ -0,0 +1,147 @@
+package com.hm.achievement.db;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.hm.achievement.category.Category;
+import com.hm.achievement.category.MultipleAchievements;
+import com.hm.achievement.category.NormalAchievements;
+
+public class WriteAheadJournalTest {
+
+	private static final UUID PLAYER_UUID = UUID.randomUUID();
+	private static final StatisticKey PLAYER_KEY = new StatisticKey(PLAYER_UUID);
+	private static final StatisticKey PLAYER_STONE_KEY = new StatisticKey(PLAYER_UUID, 0, "stone");
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File file;
+	private WriteAheadJournal journal;
+
+	@Before
+	public void setUp() throws IOException {
+		file = new File(temporaryFolder.getRoot(), "journal.dat");
+		journal = new WriteAheadJournal(file, Logger.getLogger("JournalTestLogger"));
+		journal.open();
+	}
+
+	@After
+	public void tearDown() {
+		journal.close();
+	}
+
+	@Test
+	public void shouldReadRecordsAfterReopening() throws IOException {
+		journal.appendStatistic(NormalAchievements.DEATHS, PLAYER_KEY, 1L, 1L, false);
+		journal.appendStatistic(NormalAchievements.DEATHS, PLAYER_KEY, 2L, 2L, false);
+		journal.appendStatistic(MultipleAchievements.BREAKS, PLAYER_STONE_KEY, 5L, 0L, true);
+		journal.appendAchievement(PLAYER_UUID, "Achievement", "Message", 100L);
+		journal.close();
+		journal.open();
+
+		Map<Category, Map<StatisticKey, long[]>> statistics = new HashMap<>();
+		Map<String, Object[]> achievements = new LinkedHashMap<>();
+		journal.read(statistics, achievements);
+
+		assertArrayEquals(new long[] { 2L, 2L, 0L }, statistics.get(NormalAchievements.DEATHS).get(PLAYER_KEY));
+		assertArrayEquals(new long[] { 5L, 0L, 1L }, statistics.get(MultipleAchievements.BREAKS).get(PLAYER_STONE_KEY));
+		assertEquals("stone", statistics.get(MultipleAchievements.BREAKS).keySet().iterator().next().getSubcategory());
+		assertEquals(1, achievements.size());
+		Object[] achievement = achievements.values().iterator().next();
+		assertEquals(PLAYER_UUID, achievement[0]);
+		assertEquals("Achievement", achievement[1]);
+		assertEquals(100L, achievement[3]);
+	}
+
+	@Test
+	public void shouldKeepRecordsAfterMarkAndPendingAchievements() {
+		long written = journal.appendAchievement(PLAYER_UUID, "Written", "Message", 100L);
+		journal.appendAchievement(PLAYER_UUID, "Pending", "Message", 100L);
+		journal.appendStatistic(NormalAchievements.DEATHS, PLAYER_KEY, 1L, 1L, false);
+		int mark = journal.mark();
+		journal.appendStatistic(NormalAchievements.ARROWS, PLAYER_KEY, 3L, 3L, false);
+		journal.completeAchievement(written);
+		journal.discardBefore(mark);
+
+		Map<Category, Map<StatisticKey, long[]>> statistics = new HashMap<>();
+		Map<String, Object[]> achievements = new LinkedHashMap<>();
+		journal.read(statistics, achievements);
+
+		assertEquals(1, statistics.size());
+		assertEquals(3L, statistics.get(NormalAchievements.ARROWS).get(PLAYER_KEY)[0]);
+		assertEquals(1, achievements.size());
+		assertEquals("Pending", achievements.values().iterator().next()[1]);
+	}
+
+	@Test
+	public void shouldIgnorePartiallyWrittenRecords() throws IOException {
+		journal.appendStatistic(NormalAchievements.DEATHS, PLAYER_KEY, 1L, 1L, false);
+		int end = journal.mark();
+		journal.appendStatistic(NormalAchievements.ARROWS, PLAYER_KEY, 3L, 3L, false);
+		journal.close();
+		// Corrupt the last byte of the checksum of the second record.
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			// Length, record type, category, player, value, increment, overwrite flag, then checksum.
+			long last = end + 4 + 1 + 4 + "arrows".length() + 16 + 8 + 8 + 1 + 7;
+			randomAccessFile.seek(last);
+			int checksumByte = randomAccessFile.read();
+			randomAccessFile.seek(last);
+			randomAccessFile.write(checksumByte ^ 0xFF);
+		}
+		journal.open();
+
+		Map<Category, Map<StatisticKey, long[]>> statistics = new HashMap<>();
+		journal.read(statistics, new HashMap<>());
+
+		assertEquals(1, statistics.size());
+		assertTrue(statistics.containsKey(NormalAchievements.DEATHS));
+		assertEquals(end, journal.mark());
+	}
+
+	@Test
+	public void shouldReadRecordsLargerThanReusedBuffer() throws IOException {
+		String subcategory = new String(new char[300]).replace('\0', 'x');
+		StatisticKey key = new StatisticKey(PLAYER_UUID, 1, subcategory);
+		journal.appendStatistic(NormalAchievements.DEATHS, PLAYER_KEY, 1L, 1L, false);
+		journal.appendStatistic(MultipleAchievements.BREAKS, key, 7L, 7L, false);
+		journal.appendStatistic(NormalAchievements.ARROWS, PLAYER_KEY, 3L, 3L, false);
+		journal.close();
+		journal.open();
+
+		Map<Category, Map<StatisticKey, long[]>> statistics = new HashMap<>();
+		journal.read(statistics, new HashMap<>());
+
+		assertEquals(3, statistics.size());
+		assertEquals(subcategory, statistics.get(MultipleAchievements.BREAKS).keySet().iterator().next().getSubcategory());
+		assertEquals(3L, statistics.get(NormalAchievements.ARROWS).get(PLAYER_KEY)[0]);
+	}
+
+	@Test
+	public void shouldDeleteJournalFile() {
+		journal.appendStatistic(NormalAchievements.DEATHS, PLAYER_KEY, 1L, 1L, false);
+		assertTrue(journal.exists());
+
+		journal.delete();
+
+		assertFalse(journal.exists());
+		assertFalse(file.exists());
+	}
+}
@@ -0,0 +1,127 @@
+package com.hm.achievement.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+
+public class WriteExecutorTest {
+
+	@Test
+	public void shouldDeferTasksWhenQueueIsFull() throws InterruptedException {
+		WriteExecutor writeExecutor = new WriteExecutor(Logger.getLogger("WriteExecutorTestLogger"), 1, 1);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger completedTasks = new AtomicInteger();
+		writeExecutor.execute(() -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			completedTasks.incrementAndGet();
+		});
+		started.await();
+		writeExecutor.execute(completedTasks::incrementAndGet);
+		writeExecutor.execute(completedTasks::incrementAndGet);
+		writeExecutor.execute(completedTasks::incrementAndGet);
+
+		assertEquals(1, writeExecutor.getQueueDepth());
+		assertEquals(2, writeExecutor.getDeferredQueueDepth());
+		assertEquals(2, writeExecutor.getDeferredTaskCount());
+		assertEquals(2, writeExecutor.runDeferredTasks());
+		assertEquals(0, writeExecutor.getDeferredQueueDepth());
+
+		release.countDown();
+		writeExecutor.shutdown();
+		assertTrue(writeExecutor.awaitTermination(5, TimeUnit.SECONDS));
+		assertEquals(4, completedTasks.get());
+	}
+
+	@Test
+	public void shouldDiscardTasksWhenTooManyAreDeferred() throws InterruptedException {
+		WriteExecutor writeExecutor = new WriteExecutor(Logger.getLogger("WriteExecutorTestLogger"), 1, 1, 1);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger completedTasks = new AtomicInteger();
+		writeExecutor.execute(() -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		started.await();
+		writeExecutor.execute(completedTasks::incrementAndGet);
+		writeExecutor.execute(completedTasks::incrementAndGet);
+		assertTrue(writeExecutor.isSaturated());
+		try {
+			writeExecutor.execute(completedTasks::incrementAndGet);
+			fail("Task should have been discarded.");
+		} catch (WriteExecutor.SaturationException e) {
+			// Expected, the task must not be run by the calling thread.
+		}
+
+		assertEquals(0, completedTasks.get());
+		assertEquals(1, writeExecutor.getQueueDepth());
+		assertEquals(1, writeExecutor.getDeferredQueueDepth());
+		assertEquals(1, writeExecutor.getDiscardedTaskCount());
+
+		// Running the deferred tasks makes room for further ones.
+		assertEquals(1, writeExecutor.runDeferredTasks());
+		assertFalse(writeExecutor.isSaturated());
+		writeExecutor.execute(completedTasks::incrementAndGet);
+		assertEquals(1, writeExecutor.getDeferredQueueDepth());
+
+		release.countDown();
+		writeExecutor.shutdown();
+		assertTrue(writeExecutor.awaitTermination(5, TimeUnit.SECONDS));
+		assertEquals(2, completedTasks.get());
+		assertEquals(1, writeExecutor.getDiscardedTaskCount());
+	}
+
+	@Test
+	public void shouldGiveUpOnWriteOperationsDiscardedBySaturatedExecutor() throws InterruptedException {
+		Logger logger = Logger.getLogger("WriteExecutorTestLogger");
+		RetryScheduler retryScheduler = new RetryScheduler(logger, new CircuitBreaker(logger, 2, 60000L),
+				new OperationMetrics(logger));
+		WriteExecutor writeExecutor = new WriteExecutor(logger, 1, 1, 0);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		writeExecutor.execute(() -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		started.await();
+		writeExecutor.execute(() -> {});
+		AtomicInteger writes = new AtomicInteger();
+		List<Boolean> outcomes = new ArrayList<>();
+		retryScheduler.execute(writeExecutor, writes::incrementAndGet, "testing", outcomes::add);
+
+		assertEquals(Collections.singletonList(false), outcomes);
+		assertEquals(0, writes.get());
+		assertEquals(1, writeExecutor.getDiscardedTaskCount());
+
+		release.countDown();
+		writeExecutor.shutdown();
+		retryScheduler.shutdown();
+		assertTrue(writeExecutor.awaitTermination(5, TimeUnit.SECONDS));
+		assertEquals(0, writes.get());
+	}
+}
@@ -6,9 +6,8 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 import java.util.logging.Logger;
 
@@ -23,7 +22,9 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import com.hm.achievement.AdvancedAchievements;
 import com.hm.achievement.db.AbstractDatabaseManager;
+import com.hm.achievement.db.AchievementIndex;
 import com.hm.achievement.db.CacheManager;
+import com.hm.achievement.db.SubcategoryRegistry;
 import com.hm.achievement.lang.ListenerLang;
 import com.hm.achievement.utils.PlayerAdvancedAchievementEvent;
 import com.hm.achievement.utils.PlayerAdvancedAchievementEvent.PlayerAdvancedAchievementEventBuilder;
@@ -59,9 +60,8 @@ public class PlayerAdvancedAchievementListenerTest {
 
 	@Before
 	public void setUp() throws Exception {
-		Map<String, String> namesToDisplayNames = new HashMap<>();
-		namesToDisplayNames.put("connect_1", "Good Choice");
-		namesToDisplayNames.put("place_500_smooth_brick", "Stone Brick Layer");
+		AchievementIndex achievementIndex = new AchievementIndex();
+		achievementIndex.setConfiguredAchievements(Arrays.asList("connect_1", "place_500_smooth_brick"));
 		MockUtility mockUtility = MockUtility.setUp()
 				.mockServer()
 				.withLogger()
@@ -74,8 +74,10 @@ public class PlayerAdvancedAchievementListenerTest {
 
 		CommentedYamlConfiguration mainConfig = mockUtility.getLoadedConfig("config-reward-reception.yml");
 		underTest = new PlayerAdvancedAchievementListener(mainConfig, mockUtility.getLoadedConfig("lang.yml"), 11,
-				mock(Logger.class), new StringBuilder(PLUGIN_HEADER), new CacheManager(mainConfig, abstractDatabaseManager),
-				plugin, rewardParser, namesToDisplayNames, abstractDatabaseManager, null, null, null);
+				mock(Logger.class), new StringBuilder(PLUGIN_HEADER),
+				new CacheManager(plugin, mainConfig, mock(Logger.class), abstractDatabaseManager, new SubcategoryRegistry(),
+						achievementIndex),
+				plugin, rewardParser, abstractDatabaseManager, null, null, null);
 		underTest.extractConfigurationParameters();
 		when(player.getUniqueId()).thenReturn(PLAYER_UUID);
 		when(player.getName()).thenReturn("DarkPyves");
@@ -83,7 +85,8 @@ public class PlayerAdvancedAchievementListenerTest {
 
 	@Test
 	public void itShouldGiveSpecialRewardWhenPlayerHasReceivedAllAchievements() {
-		when(abstractDatabaseManager.getPlayerAchievementsAmount(PLAYER_UUID)).thenReturn(1);
+		when(abstractDatabaseManager.getPlayerAchievementNamesList(PLAYER_UUID))
+				.thenReturn(Collections.singletonList("place_500_smooth_brick"));
 		when(rewardParser.getRewardAmount("AllAchievementsReceivedRewards", "IncreaseMaxOxygen")).thenReturn(30);
 		when(player.getMaximumAir()).thenReturn(100);
 
@@ -102,7 +105,7 @@ public class PlayerAdvancedAchievementListenerTest {
 
 	@Test
 	public void itShouldNotGiveSpecialRewardWhenPlayerIsMissingSomeAchievements() {
-		when(abstractDatabaseManager.getPlayerAchievementsAmount(PLAYER_UUID)).thenReturn(0);
+		when(abstractDatabaseManager.getPlayerAchievementNamesList(PLAYER_UUID)).thenReturn(Collections.emptyList());
 
 		PlayerAdvancedAchievementEvent event = new PlayerAdvancedAchievementEventBuilder().player(player)
 				.name("connect_1").displayName("Good Choice").message("Connected for the first time!")